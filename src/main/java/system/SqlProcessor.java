@@ -16,6 +16,7 @@ import system.parser.DefaultParser;
 import system.parser.Parser;
 import system.parser.nodes.ColumnDef;
 import system.parser.nodes.CreateStmt;
+import system.parser.nodes.DeleteStmt;
 import system.parser.nodes.RangeVar;
 import system.parser.nodes.ResTarget;
 import system.parser.nodes.SelectStmt;
@@ -49,7 +50,7 @@ public class SqlProcessor {
         String first = tokens.get(0).getType();
 
         return switch (first) {
-            case "CREATE", "SELECT", "UPDATE" -> translateParsedAst(parser.parse(tokens));
+            case "CREATE", "SELECT", "UPDATE", "DELETE" -> translateParsedAst(parser.parse(tokens));
             case "INSERT" -> parseInsertToQueryTree(tokens);
             default -> throw new IllegalArgumentException("Unsupported statement: " + first);
         };
@@ -62,6 +63,9 @@ public class SqlProcessor {
         if (ast instanceof SelectStmt ss) {
             return translateSelect(ss);
         }
+        if (ast instanceof DeleteStmt ds) {
+            return translateDelete(ds);
+        }
         if (ast instanceof UpdateStmt) {
             throw new IllegalArgumentException("UPDATE is not supported in HW5 planner/executor");
         }
@@ -86,11 +90,12 @@ public class SqlProcessor {
         q.commandType = QueryType.SELECT;
 
         if (ss.getFromClause() != null && !ss.getFromClause().isEmpty()) {
-            RangeVar rv = ss.getFromClause().get(0);
-            RangeTblEntry rte = new RangeTblEntry(rv.getRelName());
-            rte.alias = rv.getAlias();
-            rte.index = 0;
-            q.rangeTable.add(rte);
+            for (RangeVar rv : ss.getFromClause()) {
+                RangeTblEntry rte = new RangeTblEntry(rv.getRelName());
+                rte.alias = rv.getAlias();
+                rte.index = q.rangeTable.size();
+                q.rangeTable.add(rte);
+            }
         } else {
             throw new IllegalArgumentException("SELECT without FROM is not supported");
         }
@@ -111,6 +116,17 @@ public class SqlProcessor {
         return q;
     }
 
+    private QueryTree translateDelete(DeleteStmt ds) {
+        QueryTree q = new QueryTree();
+        q.commandType = QueryType.DELETE;
+        q.rangeTable.add(new RangeTblEntry(ds.getTableName()));
+
+        if (ds.getWhereClause() != null) {
+            q.whereClause = translateExpr(ds.getWhereClause());
+        }
+        return q;
+    }
+
     private Expr translateExpr(system.parser.nodes.AstNode node) {
         if (node instanceof system.parser.nodes.ColumnRef c) {
             String[] qc = splitQualifiedColumn(c.getName());
@@ -3,5 +3,6 @@ package system.ast;
 public enum QueryType {
     CREATE,
     INSERT,
-    SELECT
+    SELECT,
+    DELETE
 }
@@ -2,6 +2,7 @@ package system.catalog.manager;
 
 import system.catalog.model.TableDefinition;
 import system.catalog.model.ColumnDefinition;
+import system.catalog.model.IndexDefinition;
 import system.catalog.model.TypeDefinition;
 
 import java.util.List;
@@ -19,4 +20,17 @@ public interface CatalogManager {
     TypeDefinition getType(String resultType);
 
     TypeDefinition getType(int resultType);
+
+    List<ColumnDefinition> getTableColumns(TableDefinition table);
+
+    /**
+     * Зарегистрировать индекс; oid выдаётся из того же счётчика, что и таблицам,
+     * поэтому файлы <oid>.dat не пересекаются.
+     */
+    IndexDefinition createIndex(String name, TableDefinition table, String method,
+                                List<String> keyColumns, List<String> includeColumns);
+
+    IndexDefinition getIndex(String indexName);
+
+    List<IndexDefinition> getIndexes(TableDefinition table);
 }
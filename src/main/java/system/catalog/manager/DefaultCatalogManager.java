@@ -2,6 +2,7 @@ package system.catalog.manager;
 
 import system.catalog.model.TableDefinition;
 import system.catalog.model.ColumnDefinition;
+import system.catalog.model.IndexDefinition;
 import system.catalog.model.TypeDefinition;
 
 import java.io.*;
@@ -17,6 +18,7 @@ public class DefaultCatalogManager implements CatalogManager {
     private static final String TABLE_FILE = "table_definitions.dat";
     private static final String COLUMN_FILE = "column_definitions.dat";
     private static final String TYPE_FILE = "types_definitions.dat";
+    private static final String INDEX_FILE = "index_definitions.dat";
 
     private final AtomicInteger nextTableOid = new AtomicInteger(1);
     private final AtomicInteger nextColumnOid = new AtomicInteger(1);
@@ -26,6 +28,7 @@ public class DefaultCatalogManager implements CatalogManager {
     private final Map<Integer, List<ColumnDefinition>> tableColumns = new ConcurrentHashMap<>();
     private final Map<Integer, TypeDefinition> types = new ConcurrentHashMap<>();
     private final Map<String, Integer> tableNameToOid = new ConcurrentHashMap<>();
+    private final Map<String, IndexDefinition> indexesByName = new ConcurrentHashMap<>();
 
     public DefaultCatalogManager() {
         loadCatalog();
@@ -90,6 +93,49 @@ public class DefaultCatalogManager implements CatalogManager {
                 .orElse(null);
     }
 
+    @Override
+    public synchronized IndexDefinition createIndex(String name, TableDefinition table, String method,
+                                                    List<String> keyColumns, List<String> includeColumns) {
+        if (indexesByName.containsKey(name.toLowerCase()) || tableNameToOid.containsKey(name.toLowerCase())) {
+            throw new IllegalArgumentException("Relation already exists: " + name);
+        }
+        for (String column : concat(keyColumns, includeColumns)) {
+            if (getColumn(table, column) == null) {
+                throw new IllegalArgumentException("Column " + column + " does not exist in table " + table.getName());
+            }
+        }
+
+        int indexOid = nextTableOid.getAndIncrement();
+        IndexDefinition index = new IndexDefinition(
+                indexOid, table.getOid(), name, method, indexOid + ".dat", keyColumns, includeColumns
+        );
+
+        indexesByName.put(name.toLowerCase(), index);
+        saveRecord(INDEX_FILE, index.toBytes());
+        return index;
+    }
+
+    private static List<String> concat(List<String> first, List<String> second) {
+        List<String> all = new ArrayList<>(first);
+        all.addAll(second);
+        return all;
+    }
+
+    @Override
+    public IndexDefinition getIndex(String indexName) {
+        return indexesByName.get(indexName.toLowerCase());
+    }
+
+    @Override
+    public List<IndexDefinition> getIndexes(TableDefinition table) {
+        if (table == null) return Collections.emptyList();
+
+        return indexesByName.values().stream()
+                .filter(index -> index.getTableOid() == table.getOid())
+                .sorted(Comparator.comparingInt(IndexDefinition::getOid))
+                .collect(Collectors.toList());
+    }
+
     @Override
     public List<TableDefinition> listTables() {
         return tables.values().stream()
@@ -101,9 +147,11 @@ public class DefaultCatalogManager implements CatalogManager {
         loadFromFile(TABLE_FILE, this::loadTable);
         loadFromFile(COLUMN_FILE, this::loadColumn);
         loadFromFile(TYPE_FILE, this::loadType);
+        loadFromFile(INDEX_FILE, this::loadIndex);
 
-        // Обновляем счетчики OID
-        nextTableOid.set(tables.keySet().stream().max(Integer::compareTo).orElse(0) + 1);
+        // Обновляем счетчики OID (индексы делят счётчик с таблицами)
+        int maxIndexOid = indexesByName.values().stream().mapToInt(IndexDefinition::getOid).max().orElse(0);
+        nextTableOid.set(Math.max(tables.keySet().stream().max(Integer::compareTo).orElse(0), maxIndexOid) + 1);
         nextColumnOid.set(tableColumns.values().stream()
                 .flatMap(List::stream)
                 .mapToInt(ColumnDefinition::getOid)
@@ -249,6 +297,11 @@ public class DefaultCatalogManager implements CatalogManager {
                 .add(column);
     }
 
+    private void loadIndex(byte[] data) {
+        IndexDefinition index = IndexDefinition.fromBytes(data);
+        indexesByName.put(index.getName().toLowerCase(), index);
+    }
+
     private void loadType(byte[] data) {
         TypeDefinition type = TypeDefinition.fromBytes(data);
         types.put(type.getOid(), type);
@@ -278,6 +331,7 @@ public class DefaultCatalogManager implements CatalogManager {
                 .orElse(null);
     }
     // Вспомогательный метод для получения колонок таблицы
+    @Override
     public List<ColumnDefinition> getTableColumns(TableDefinition table) {
         return table != null ? tableColumns.get(table.getOid()) : Collections.emptyList();
     }
@@ -0,0 +1,160 @@
+package system.catalog.model;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Описание индекса в каталоге (аналог pg_index + pg_class для индекса).
+ */
+public class IndexDefinition {
+    private final int oid;
+    private final int tableOid;
+    private final String name;
+    private final String method;
+    private final String fileNode;
+    private final List<String> keyColumns;
+    private final List<String> includeColumns;
+
+    public IndexDefinition(int oid, int tableOid, String name, String method, String fileNode, List<String> keyColumns) {
+        this(oid, tableOid, name, method, fileNode, keyColumns, List.of());
+    }
+
+    /**
+     * @param includeColumns неключевые колонки (INCLUDE): хранятся в листьях для index-only scan,
+     *                       но не участвуют в упорядочивании.
+     */
+    public IndexDefinition(int oid, int tableOid, String name, String method, String fileNode,
+                           List<String> keyColumns, List<String> includeColumns) {
+        this.oid = oid;
+        this.tableOid = tableOid;
+        this.name = Objects.requireNonNull(name, "name");
+        this.method = Objects.requireNonNull(method, "method");
+        this.fileNode = Objects.requireNonNull(fileNode, "fileNode");
+        this.keyColumns = List.copyOf(keyColumns);
+        this.includeColumns = List.copyOf(includeColumns);
+        if (this.keyColumns.isEmpty()) {
+            throw new IllegalArgumentException("index must have at least one key column");
+        }
+    }
+
+    public static IndexDefinition fromBytes(byte[] data) {
+        ByteBuffer buffer = ByteBuffer.wrap(data).order(ByteOrder.LITTLE_ENDIAN);
+        if (buffer.remaining() < 4 + 4 + 2 + 2 + 2 + 2) {
+            throw new IllegalArgumentException("payload is too small for IndexDefinition");
+        }
+
+        int oid = buffer.getInt();
+        int tableOid = buffer.getInt();
+        String name = readString(buffer);
+        String method = readString(buffer);
+        String fileNode = readString(buffer);
+
+        int keyCount = buffer.getShort() & 0xFFFF;
+        List<String> keyColumns = new ArrayList<>(keyCount);
+        for (int i = 0; i < keyCount; i++) {
+            keyColumns.add(readString(buffer));
+        }
+
+        // записи, сохранённые до появления INCLUDE, заканчиваются на ключевых колонках
+        List<String> includeColumns = new ArrayList<>();
+        if (buffer.remaining() >= 2) {
+            int includeCount = buffer.getShort() & 0xFFFF;
+            for (int i = 0; i < includeCount; i++) {
+                includeColumns.add(readString(buffer));
+            }
+        }
+
+        return new IndexDefinition(oid, tableOid, name, method, fileNode, keyColumns, includeColumns);
+    }
+
+    public int getOid() {
+        return oid;
+    }
+
+    public int getTableOid() {
+        return tableOid;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    public String getFileNode() {
+        return fileNode;
+    }
+
+    public List<String> getKeyColumns() {
+        return Collections.unmodifiableList(keyColumns);
+    }
+
+    public List<String> getIncludeColumns() {
+        return includeColumns;
+    }
+
+    public byte[] toBytes() {
+        List<byte[]> strings = new ArrayList<>();
+        strings.add(name.getBytes(StandardCharsets.UTF_8));
+        strings.add(method.getBytes(StandardCharsets.UTF_8));
+        strings.add(fileNode.getBytes(StandardCharsets.UTF_8));
+        for (String column : keyColumns) {
+            strings.add(column.getBytes(StandardCharsets.UTF_8));
+        }
+        for (String column : includeColumns) {
+            strings.add(column.getBytes(StandardCharsets.UTF_8));
+        }
+
+        int size = 4 + 4 + 2 + 2;
+        for (byte[] s : strings) {
+            if (s.length > Short.MAX_VALUE) {
+                throw new IllegalStateException("index attribute is too long");
+            }
+            size += 2 + s.length;
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(size).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(oid);
+        buffer.putInt(tableOid);
+        for (int i = 0; i < 3; i++) {
+            writeString(buffer, strings.get(i));
+        }
+        buffer.putShort((short) keyColumns.size());
+        for (int i = 3; i < 3 + keyColumns.size(); i++) {
+            writeString(buffer, strings.get(i));
+        }
+        buffer.putShort((short) includeColumns.size());
+        for (int i = 3 + keyColumns.size(); i < strings.size(); i++) {
+            writeString(buffer, strings.get(i));
+        }
+        return buffer.array();
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        int len = buffer.getShort() & 0xFFFF;
+        if (buffer.remaining() < len) {
+            throw new IllegalArgumentException("invalid string length in IndexDefinition");
+        }
+        byte[] bytes = new byte[len];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeString(ByteBuffer buffer, byte[] bytes) {
+        buffer.putShort((short) bytes.length);
+        buffer.put(bytes);
+    }
+
+    @Override
+    public String toString() {
+        return "Index(" + name + " ON " + tableOid + " USING " + method + " " + keyColumns
+                + (includeColumns.isEmpty() ? "" : " INCLUDE " + includeColumns) + ")";
+    }
+}
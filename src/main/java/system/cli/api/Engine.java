@@ -22,4 +22,27 @@ public interface Engine {
      *         Можно использовать символы перевода строки, если ответ многострочный.
      */
     String executeSql(String line);
+
+    /**
+     * Открыть сессию для нового клиентского соединения.
+     * Движки без поддержки транзакций возвращают сессию без состояния.
+     */
+    default Session openSession() {
+        return new Session() {
+            @Override
+            public boolean inTransaction() {
+                return false;
+            }
+
+            @Override
+            public void close() { }
+        };
+    }
+
+    /**
+     * Выполнить команду в контексте сессии (BEGIN / COMMIT / ROLLBACK меняют её состояние).
+     */
+    default String executeSql(Session session, String line) {
+        return executeSql(line);
+    }
 }
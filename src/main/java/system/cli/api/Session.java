@@ -0,0 +1,18 @@
+package system.cli.api;
+
+/**
+ * Сессия одного клиентского соединения.
+ *
+ * Хранит состояние между командами: открыта ли явная транзакция (BEGIN ... COMMIT)
+ * и не упала ли она. Закрытие сессии откатывает незавершённую транзакцию.
+ */
+public interface Session extends AutoCloseable {
+
+    /**
+     * Открыт ли транзакционный блок (после BEGIN и до COMMIT / ROLLBACK).
+     */
+    boolean inTransaction();
+
+    @Override
+    void close();
+}
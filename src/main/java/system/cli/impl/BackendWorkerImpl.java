@@ -2,6 +2,7 @@ package system.cli.impl;
 
 import system.cli.api.BackendWorker;
 import system.cli.api.Engine;
+import system.cli.api.Session;
 
 import java.io.BufferedReader;
 import java.io.IOException;
@@ -20,7 +21,9 @@ public class BackendWorkerImpl implements BackendWorker {
 
     @Override
     public void run() {
-        try (BufferedReader in = new BufferedReader(new InputStreamReader(clientSocket.getInputStream()));
+        // одна сессия на соединение: транзакционный блок живёт между строками клиента
+        try (Session session = engine.openSession();
+             BufferedReader in = new BufferedReader(new InputStreamReader(clientSocket.getInputStream()));
              PrintWriter out = new PrintWriter(clientSocket.getOutputStream(), true)) {
 
             out.println("Welcome to T-Bank Database CLI!");
@@ -42,7 +45,7 @@ public class BackendWorkerImpl implements BackendWorker {
                     continue;
                 }
 
-                String result = engine.executeSql(inputLine);
+                String result = engine.executeSql(session, inputLine);
 
                 String[] lines = result.split("\n");
                 for (String line : lines) {
@@ -8,28 +8,48 @@ import system.catalog.model.TableDefinition;
 import system.catalog.operation.DefaultOperationManager;
 import system.catalog.operation.OperationManager;
 import system.cli.api.Engine;
+import system.cli.api.Session;
+import system.execution.ExecutionContext;
 import system.execution.ExecutorFactory;
 import system.execution.ExecutorFactoryImpl;
 import system.execution.QueryExecutionEngine;
 import system.execution.QueryExecutionEngineImpl;
 import system.execution.executors.Executor;
+import system.index.DefaultIndexManager;
+import system.index.Index;
+import system.index.IndexManager;
 import system.lexer.DefaultLexer;
 import system.lexer.Lexer;
 import system.lexer.Token;
 import system.memory.buffer.BufferPoolManager;
-import system.memory.buffer.DefaultBufferPoolManager;
+import system.memory.buffer.BufferPoolRegistry;
+import system.memory.heap.HeapFile;
 import system.memory.manager.HeapPageFileManager;
 import system.memory.manager.PageFileManager;
-import system.memory.replacer.ClockReplacer;
 import system.optimizer.Optimizer;
 import system.optimizer.OptimizerImpl;
 import system.optimizer.node.PhysicalPlanNode;
 import system.parser.DefaultParser;
 import system.parser.Parser;
 import system.parser.nodes.AstNode;
+import system.parser.nodes.CreateIndexStmt;
+import system.parser.nodes.TransactionStmt;
+import system.parser.nodes.VacuumStmt;
 import system.planner.Planner;
 import system.planner.PlannerImpl;
 import system.planner.node.LogicalPlanNode;
+import system.transaction.clog.DefaultCommitLog;
+import system.transaction.lock.DeadlockDetector;
+import system.transaction.lock.DefaultLockManager;
+import system.transaction.lock.LockMode;
+import system.transaction.lock.LockTag;
+import system.transaction.manager.DefaultTransactionManager;
+import system.transaction.manager.TransactionManager;
+import system.transaction.model.Transaction;
+import system.vacuum.AutovacuumDaemon;
+import system.vacuum.DefaultVacuumManager;
+import system.vacuum.TableStats;
+import system.vacuum.VacuumManager;
 
 import java.nio.file.Path;
 import java.util.List;
@@ -37,6 +57,9 @@ import java.util.stream.Collectors;
 
 public class EngineImpl implements Engine {
 
+    // строк на странице, когда точного счётчика нет (страница 8 КБ, строка около 80 байт)
+    private static final long ESTIMATED_ROWS_PER_PAGE = 100;
+
     // shared global state
     private final CatalogManager catalog = new DefaultCatalogManager();
     private final Lexer lexer = new DefaultLexer();
@@ -44,14 +67,50 @@ public class EngineImpl implements Engine {
     private final SqlProcessor sqlProcessor = new SqlProcessor(lexer, parser, catalog);
 
     private final Planner planner = new PlannerImpl(catalog);
-    private final Optimizer optimizer = new OptimizerImpl();
+    private final Optimizer optimizer =
+            new OptimizerImpl(catalog, OptimizerImpl.DEFAULT_MAX_PARALLEL_WORKERS, this::estimateRows);
 
     private final PageFileManager pfm = new HeapPageFileManager();
     private final OperationManager opManager = new DefaultOperationManager(catalog);
     private final QueryExecutionEngine execEngine = new QueryExecutionEngineImpl();
 
+    private final TransactionManager txManager =
+            new DefaultTransactionManager(new DefaultCommitLog(Path.of("commit_log.dat").toAbsolutePath()));
+
+    // страницы таблиц и блокировки строк общие для всех сессий сервера
+    private final BufferPoolRegistry bufferPools = new BufferPoolRegistry(64, pfm);
+    private final DefaultLockManager lockManager = new DefaultLockManager();
+    private final IndexManager indexManager = new DefaultIndexManager(catalog, bufferPools);
+
+    private final TableStats tableStats = new TableStats();
+    private final VacuumManager vacuumManager =
+            new DefaultVacuumManager(txManager, lockManager, bufferPools, tableStats, indexManager);
+
+    public EngineImpl() {
+        new DeadlockDetector(lockManager).start(1000);
+        new AutovacuumDaemon(catalog, tableStats, vacuumManager).start(10_000);
+    }
+
+    private final EngineSession defaultSession = new EngineSession(this);
+
+    /**
+     * Команды без явной сессии (локальный запуск, тесты) исполняются в одной общей сессии движка.
+     */
     @Override
     public String executeSql(String sql) {
+        synchronized (defaultSession) {
+            return executeSql(defaultSession, sql);
+        }
+    }
+
+    @Override
+    public Session openSession() {
+        return new EngineSession(this);
+    }
+
+    @Override
+    public String executeSql(Session session, String sql) {
+        EngineSession s = (EngineSession) session;
         try {
             List<Token> tokens = lexer.tokenize(sql);
             log("TOKENS", tokens);
@@ -59,45 +118,196 @@ public class EngineImpl implements Engine {
             AstNode ast = parser.parse(tokens);
             log("AST", ast);
 
-            QueryTree queryTree = sqlProcessor.process(sql);
-            log("QUERY_TREE", queryTree);
+            if (ast instanceof TransactionStmt ts) {
+                return executeTransactionStmt(s, ts);
+            }
+            if (ast instanceof VacuumStmt vs) {
+                return executeVacuum(s, vs);
+            }
+            if (s.isFailed()) {
+                return "ERROR: current transaction is aborted, commands ignored until end of transaction block";
+            }
 
-            // 4) Planner
-            LogicalPlanNode logical = planner.plan(queryTree);
-            log("LOGICAL_PLAN", logical);
+            // вне BEGIN ... COMMIT каждый запрос исполняется в своей транзакции (autocommit)
+            boolean autocommit = !s.inTransaction();
+            if (autocommit) {
+                s.start(txManager.begin(), false);
+            }
 
-            PhysicalPlanNode physical = optimizer.optimize(logical);
-            log("PHYSICAL_PLAN", physical);
+            String result = ast instanceof CreateIndexStmt cis
+                    ? executeCreateIndex(s, cis)
+                    : executeStatement(s, sql);
 
-            // ✅ ВАЖНО: выбрать правильный файл данных для этой операции
-            Path tableFile = resolveTableFile(queryTree);
+            if (autocommit) {
+                commit(s);
+            }
+            return result;
 
-            // ✅ создаём BufferPool под конкретный файл таблицы
-            BufferPoolManager bufferPool = new DefaultBufferPoolManager(
-                    16,
-                    pfm,
-                    new ClockReplacer(),
-                    new ClockReplacer(),
-                    tableFile
-            );
+        } catch (Exception e) {
+            if (s.inTransaction()) {
+                fail(s);
+            } else if (s.getTransaction() != null) {
+                abort(s);
+            }
+            return "ERROR: " + e.getMessage();
+        }
+    }
 
-            ExecutorFactory executorFactory = new ExecutorFactoryImpl(catalog, opManager, bufferPool,pfm);
+    private String executeTransactionStmt(EngineSession s, TransactionStmt stmt) {
+        return switch (stmt.getKind()) {
+            case BEGIN -> {
+                if (s.inTransaction()) yield "WARNING: there is already a transaction in progress";
+                s.start(txManager.begin(), true);
+                yield "BEGIN";
+            }
+            case COMMIT -> {
+                if (!s.inTransaction()) yield "WARNING: there is no transaction in progress";
+                // COMMIT упавшего блока равносилен ROLLBACK, как в PostgreSQL
+                if (s.isFailed()) {
+                    abort(s);
+                    yield "ROLLBACK";
+                }
+                commit(s);
+                yield "COMMIT";
+            }
+            case ROLLBACK -> {
+                if (!s.inTransaction()) yield "WARNING: there is no transaction in progress";
+                abort(s);
+                yield "ROLLBACK";
+            }
+        };
+    }
 
-            // 6) ExecutorFactory -> executor
-            Executor executor = executorFactory.createExecutor(physical);
-            log("EXECUTOR", executor.getClass().getSimpleName());
+    private String executeVacuum(EngineSession s, VacuumStmt stmt) {
+        if (s.inTransaction()) {
+            throw new IllegalStateException("VACUUM cannot run inside a transaction block");
+        }
 
-            // 7) execute
-            List<Object> rows = execEngine.execute(executor);
+        List<TableDefinition> tables;
+        if (stmt.getTableName() != null) {
+            TableDefinition table = catalog.getTable(stmt.getTableName());
+            if (table == null) {
+                throw new IllegalArgumentException("relation \"" + stmt.getTableName() + "\" does not exist");
+            }
+            tables = List.of(table);
+        } else {
+            tables = catalog.listTables();
+        }
 
-            // flush, чтобы персистилось
-            bufferPool.flushAllPages();
+        for (TableDefinition table : tables) {
+            log("VACUUM", vacuumManager.vacuum(table, stmt.isFreeze()));
+        }
+        return "VACUUM";
+    }
 
-            if (rows.isEmpty()) return "OK";
-            return rows.stream().map(String::valueOf).collect(Collectors.joining("\n"));
+    /**
+     * Индекс строится в транзакции сессии под исключительной блокировкой таблицы,
+     * поэтому ни одна вставка не проскочит мимо построения.
+     */
+    private String executeCreateIndex(EngineSession s, CreateIndexStmt stmt) {
+        TableDefinition table = catalog.getTable(stmt.getTableName());
+        if (table == null) {
+            throw new IllegalArgumentException("relation \"" + stmt.getTableName() + "\" does not exist");
+        }
+        lockManager.lock(s.getTransaction().getXid(), LockTag.relation(table.getOid()), LockMode.EXCLUSIVE);
 
-        } catch (Exception e) {
-            return "ERROR: " + e.getMessage();
+        Index index = indexManager.createIndex(stmt.getIndexName(), table, stmt.getMethod(), stmt.getColumns(),
+                stmt.getIncludeColumns(), stmt.getOptions(), HeapFile.open(bufferPools, table.getFileNode()));
+        s.touch(index.getBufferPool());
+        return "CREATE INDEX";
+    }
+
+    private String executeStatement(EngineSession s, String sql) {
+        QueryTree queryTree = sqlProcessor.process(sql);
+        log("QUERY_TREE", queryTree);
+
+        // 4) Planner
+        LogicalPlanNode logical = planner.plan(queryTree);
+        log("LOGICAL_PLAN", logical);
+
+        PhysicalPlanNode physical = optimizer.optimize(logical);
+        log("PHYSICAL_PLAN", physical.prettyPrint(""));
+
+        // ✅ ВАЖНО: выбрать правильный файл данных для этой операции
+        Path tableFile = resolveTableFile(queryTree);
+
+        // ✅ BufferPool конкретного файла таблицы, общий для всех сессий
+        BufferPoolManager bufferPool = bufferPools.get(tableFile);
+        s.touch(bufferPool);
+        // соединение читает несколько таблиц — на COMMIT сбрасываются страницы каждой, вместе с FSM и VM
+        for (int i = 0; queryTree.rangeTable != null && i < queryTree.rangeTable.size(); i++) {
+            TableDefinition table = catalog.getTable(queryTree.rangeTable.get(i).tableName);
+            if (table != null) {
+                for (BufferPoolManager pool : HeapFile.open(bufferPools, table.getFileNode()).getPools()) {
+                    s.touch(pool);
+                }
+            }
+            for (Index index : indexManager.getIndexes(table)) {
+                s.touch(index.getBufferPool());
+            }
+        }
+
+        ExecutorFactory executorFactory = new ExecutorFactoryImpl(catalog, opManager, bufferPool, pfm,
+                new ExecutionContext(txManager, s.getTransaction(), lockManager, bufferPools, s.getTupleCounts(),
+                        indexManager));
+
+        // 6) ExecutorFactory -> executor
+        Executor executor = executorFactory.createExecutor(physical);
+        log("EXECUTOR", executor.getClass().getSimpleName());
+
+        // 7) execute
+        List<Object> rows = execEngine.execute(executor);
+
+        if (rows.isEmpty()) return "OK";
+        return rows.stream().map(String::valueOf).collect(Collectors.joining("\n"));
+    }
+
+    /**
+     * Изменённые страницы копятся в общем пуле и сбрасываются один раз на COMMIT;
+     * статус COMMITTED пишется только после того, как они на диске.
+     */
+    private void commit(EngineSession s) {
+        Transaction tx = s.getTransaction();
+        // страницы таблиц, их FSM и VM и индексов — на диск раньше записи о фиксации в журнал
+        for (BufferPoolManager pool : s.getTouchedPools()) {
+            pool.flushAllPages();
+        }
+        txManager.commit(tx);
+        lockManager.releaseAll(tx.getXid());
+        tableStats.onCommit(s.getTupleCounts());
+        s.reset();
+    }
+
+    /**
+     * Откат не трогает страницы: версии с xmin откатанной транзакции просто никому не видны.
+     */
+    private void abort(EngineSession s) {
+        Transaction tx = s.getTransaction();
+        if (tx != null) {
+            txManager.abort(tx);
+            lockManager.releaseAll(tx.getXid());
+            tableStats.onAbort(s.getTupleCounts());
+        }
+        s.reset();
+    }
+
+    /**
+     * Ошибка внутри BEGIN ... COMMIT: транзакция откатывается сразу (блокировки отпускаются,
+     * иначе жертва дедлока продолжала бы держать строки), а блок остаётся в состоянии ошибки до COMMIT / ROLLBACK.
+     */
+    private void fail(EngineSession s) {
+        Transaction tx = s.getTransaction();
+        if (tx != null) {
+            txManager.abort(tx);
+            lockManager.releaseAll(tx.getXid());
+            tableStats.onAbort(s.getTupleCounts());
+        }
+        s.markFailed();
+    }
+
+    void closeSession(EngineSession s) {
+        if (s.getTransaction() != null || s.inTransaction()) {
+            abort(s);
         }
     }
 
@@ -135,6 +345,16 @@ public class EngineImpl implements Engine {
         return Path.of(table.getFileNode()).toAbsolutePath();
     }
 
+    /**
+     * Размер таблицы для оптимизатора: счётчик живых строк, который ведут INSERT, DELETE и VACUUM;
+     * после перезапуска он пуст, и размер оценивается по числу страниц файла.
+     */
+    private long estimateRows(TableDefinition table) {
+        long live = tableStats.getLiveTuples(table.getOid());
+        if (live > 0) return live;
+        return bufferPools.get(Path.of(table.getFileNode())).getPageCount() * ESTIMATED_ROWS_PER_PAGE;
+    }
+
     private void log(String stage, Object obj) {
         System.out.println("=== " + stage + " ===");
         System.out.println(obj);
@@ -0,0 +1,75 @@
+package system.cli.impl;
+
+import system.cli.api.Session;
+import system.memory.buffer.BufferPoolManager;
+import system.transaction.model.Transaction;
+import system.vacuum.PendingTupleCounts;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Состояние сессии EngineImpl: текущая транзакция и буферные пулы, которые она меняла.
+ */
+class EngineSession implements Session {
+
+    private final EngineImpl engine;
+
+    private Transaction transaction;
+    private boolean explicit;
+    private boolean failed;
+    private final Set<BufferPoolManager> touchedPools = new LinkedHashSet<>();
+    private final PendingTupleCounts tupleCounts = new PendingTupleCounts();
+
+    EngineSession(EngineImpl engine) {
+        this.engine = engine;
+    }
+
+    void start(Transaction transaction, boolean explicit) {
+        this.transaction = transaction;
+        this.explicit = explicit;
+        this.failed = false;
+    }
+
+    void reset() {
+        transaction = null;
+        explicit = false;
+        failed = false;
+        touchedPools.clear();
+    }
+
+    void markFailed() {
+        transaction = null;
+        failed = true;
+    }
+
+    boolean isFailed() {
+        return failed;
+    }
+
+    Transaction getTransaction() {
+        return transaction;
+    }
+
+    void touch(BufferPoolManager pool) {
+        touchedPools.add(pool);
+    }
+
+    Set<BufferPoolManager> getTouchedPools() {
+        return touchedPools;
+    }
+
+    PendingTupleCounts getTupleCounts() {
+        return tupleCounts;
+    }
+
+    @Override
+    public boolean inTransaction() {
+        return explicit;
+    }
+
+    @Override
+    public void close() {
+        engine.closeSession(this);
+    }
+}
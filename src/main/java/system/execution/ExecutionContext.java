@@ -0,0 +1,88 @@
+package system.execution;
+
+import system.index.IndexManager;
+import system.memory.buffer.BufferPoolRegistry;
+import system.transaction.lock.LockManager;
+import system.transaction.manager.TransactionManager;
+import system.transaction.model.Transaction;
+import system.transaction.visibility.VisibilityChecker;
+import system.vacuum.PendingTupleCounts;
+
+/**
+ * Транзакционный контекст, в котором исполняется план запроса.
+ */
+public class ExecutionContext {
+    private final TransactionManager transactionManager;
+    private final Transaction transaction;
+    private final LockManager lockManager;
+    private final BufferPoolRegistry bufferPools;
+    private final PendingTupleCounts tupleCounts;
+    private final IndexManager indexManager;
+
+    public ExecutionContext(TransactionManager transactionManager, Transaction transaction) {
+        this(transactionManager, transaction, null, null, new PendingTupleCounts());
+    }
+
+    /**
+     * @param bufferPools общие для всех сессий буферные пулы; null — использовать пул, переданный фабрике.
+     */
+    public ExecutionContext(TransactionManager transactionManager, Transaction transaction,
+                            LockManager lockManager, BufferPoolRegistry bufferPools) {
+        this(transactionManager, transaction, lockManager, bufferPools, new PendingTupleCounts());
+    }
+
+    /**
+     * @param tupleCounts счётчики вставок/удалений транзакции для статистики автовакуума.
+     */
+    public ExecutionContext(TransactionManager transactionManager, Transaction transaction,
+                            LockManager lockManager, BufferPoolRegistry bufferPools,
+                            PendingTupleCounts tupleCounts) {
+        this(transactionManager, transaction, lockManager, bufferPools, tupleCounts, null);
+    }
+
+    /**
+     * @param indexManager индексы таблиц; null — индексы не сопровождаются и не используются.
+     */
+    public ExecutionContext(TransactionManager transactionManager, Transaction transaction,
+                            LockManager lockManager, BufferPoolRegistry bufferPools,
+                            PendingTupleCounts tupleCounts, IndexManager indexManager) {
+        this.transactionManager = transactionManager;
+        this.transaction = transaction;
+        this.lockManager = lockManager;
+        this.bufferPools = bufferPools;
+        this.tupleCounts = tupleCounts;
+        this.indexManager = indexManager;
+    }
+
+    public TransactionManager getTransactionManager() {
+        return transactionManager;
+    }
+
+    public Transaction getTransaction() {
+        return transaction;
+    }
+
+    public LockManager getLockManager() {
+        return lockManager;
+    }
+
+    public BufferPoolRegistry getBufferPools() {
+        return bufferPools;
+    }
+
+    public PendingTupleCounts getTupleCounts() {
+        return tupleCounts;
+    }
+
+    public IndexManager getIndexManager() {
+        return indexManager;
+    }
+
+    public int getXid() {
+        return transaction.getXid();
+    }
+
+    public VisibilityChecker newVisibilityChecker() {
+        return new VisibilityChecker(transactionManager, transaction);
+    }
+}
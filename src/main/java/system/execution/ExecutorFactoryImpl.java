@@ -1,12 +1,22 @@
 package system.execution;
 
+import system.ast.ColumnRef;
+import system.ast.TargetEntry;
 import system.catalog.manager.CatalogManager;
+import system.catalog.model.ColumnDefinition;
 import system.catalog.model.TableDefinition;
 import system.catalog.operation.OperationManager;
 import system.execution.executors.*;
 import system.memory.buffer.BufferPoolManager;
+import system.memory.heap.HeapFile;
 import system.memory.manager.PageFileManager;
 import system.optimizer.node.*;
+import system.transaction.lock.LockMode;
+import system.transaction.lock.LockTag;
+import system.transaction.model.TransactionId;
+
+import java.util.ArrayList;
+import java.util.List;
 
 public class ExecutorFactoryImpl implements ExecutorFactory {
 
@@ -14,17 +24,30 @@ public class ExecutorFactoryImpl implements ExecutorFactory {
     private final OperationManager operationManager;
     private final BufferPoolManager bufferPool;
     private final PageFileManager pgManager;
-
+    private final ExecutionContext context;
 
 
     public ExecutorFactoryImpl(CatalogManager catalogManager,
                                OperationManager operationManager,
                                BufferPoolManager bufferPool,
                                PageFileManager pgManager) {
+        this(catalogManager, operationManager, bufferPool, pgManager, null);
+    }
+
+    /**
+     * @param context транзакция, от имени которой исполняется план;
+     *                null — без MVCC (строки пишутся замороженными, сканы видят все версии).
+     */
+    public ExecutorFactoryImpl(CatalogManager catalogManager,
+                               OperationManager operationManager,
+                               BufferPoolManager bufferPool,
+                               PageFileManager pgManager,
+                               ExecutionContext context) {
         this.catalogManager = catalogManager;
         this.operationManager = operationManager;
         this.bufferPool = bufferPool;
         this.pgManager = pgManager;
+        this.context = context;
     }
 
 
@@ -34,22 +57,81 @@ public class ExecutorFactoryImpl implements ExecutorFactory {
             return new CreateTableExecutor(catalogManager, create.getTableDefinition());
 
         } else if (plan instanceof PhysicalInsertNode insert) {
+            lockRelation(insert.getTableDefinition());
             return new InsertExecutor(
-                    pgManager,
-                    bufferPool,
+                    heapFileFor(insert.getTableDefinition()),
                     insert.getTableDefinition(),
-                    insert.getValues()
+                    insert.getValues(),
+                    context != null ? context.getXid() : TransactionId.FROZEN,
+                    context != null ? context.getTupleCounts() : null,
+                    context != null ? context.getIndexManager() : null
             );
 
 
         } else if (plan instanceof PhysicalSeqScanNode scan) {
-            return new SeqScanExecutor(bufferPool, scan.getTableDefinition());
+            return createScanPipeline(scan).root();
+
+        } else if (plan instanceof PhysicalGatherNode gather) {
+            return createGather(gather);
+
+        } else if (plan instanceof PhysicalBitmapHeapScanNode scan) {
+            if (context == null || context.getIndexManager() == null) {
+                throw new IllegalStateException("Bitmap heap scan requires an execution context with an index manager");
+            }
+            lockRelation(scan.getTableDefinition());
+            HeapFile heap = heapFileFor(scan.getTableDefinition());
+            return new BitmapHeapScanExecutor(createBitmapExecutor(scan.getBitmap(), heap), heap.getBufferPool(),
+                    scan.getTableDefinition(), context.newVisibilityChecker(), heap.getVisibilityMap());
+
+        } else if (plan instanceof PhysicalIndexOnlyScanNode scan) {
+            if (context == null || context.getIndexManager() == null) {
+                throw new IllegalStateException("Index-only scan requires an execution context with an index manager");
+            }
+            lockRelation(scan.getTableDefinition());
+            return new IndexOnlyScanExecutor(context.getIndexManager().getIndex(scan.getIndexDefinition()), scan,
+                    heapFileFor(scan.getTableDefinition()), context.newVisibilityChecker(), catalogManager);
+
+        } else if (plan instanceof PhysicalIndexScanNode scan) {
+            if (context == null || context.getIndexManager() == null) {
+                throw new IllegalStateException("Index scan requires an execution context with an index manager");
+            }
+            lockRelation(scan.getTableDefinition());
+            return new IndexScanExecutor(context.getIndexManager().getIndex(scan.getIndexDefinition()), scan,
+                    heapFileFor(scan.getTableDefinition()), context.newVisibilityChecker());
+
+        } else if (plan instanceof PhysicalDeleteNode delete) {
+            if (context == null || context.getLockManager() == null) {
+                throw new IllegalStateException("DELETE requires a transaction with a lock manager");
+            }
+            lockRelation(delete.getTableDefinition());
+            Executor child = createExecutor(delete.getChild());
+            return new DeleteExecutor(child, heapFileFor(delete.getTableDefinition()),
+                    delete.getTableDefinition(), context);
 
         } else if (plan instanceof PhysicalFilterNode filter) {
             Executor child = createExecutor(filter.getChild());
             TableDefinition table = findTable(filter.getChild());
             return new FilterExecutor(child, filter.getCondition(), catalogManager, table);
         }
+        else if (plan instanceof PhysicalHashJoinNode join) {
+            return new HashJoinExecutor(createExecutor(join.getLeft()), createExecutor(join.getRight()),
+                    join.getLeftKeys(), join.getRightKeys());
+        }
+        else if (plan instanceof PhysicalMergeJoinNode join) {
+            return new MergeJoinExecutor(createExecutor(join.getLeft()), createExecutor(join.getRight()),
+                    join.getLeftKeys(), join.getRightKeys());
+        }
+        else if (plan instanceof PhysicalIndexNestedLoopJoinNode join) {
+            if (context == null || context.getIndexManager() == null) {
+                throw new IllegalStateException("Index nested loop join requires an execution context with an index manager");
+            }
+            TableDefinition inner = join.getInnerTable();
+            lockRelation(inner);
+            return new IndexNestedLoopJoinExecutor(createExecutor(join.getOuter()),
+                    context.getIndexManager().getIndex(join.getIndexDefinition()), heapFileFor(inner),
+                    context.newVisibilityChecker(), join.getInnerCondition(), catalogManager.getTableColumns(inner),
+                    join.getOuterKeys(), join.getInnerKeys());
+        }
         else if (plan instanceof PhysicalProjectNode project) {
             Executor child = createExecutor(project.getChild());
             TableDefinition table = findTable(project.getChild());
@@ -61,10 +143,114 @@ public class ExecutorFactoryImpl implements ExecutorFactory {
                 "Unsupported physical plan node: " + plan.getClass().getSimpleName()
         );
     }
+    /**
+     * Конвейер Scan → Filter → Project вместе со сканом в его основании (для воркеров Gather).
+     * Условие и колонки результата, перенесённые в скан, разрешаются по каталогу здесь.
+     * Если какой-то колонки выборки в таблице нет, над сканом строится обычная проекция —
+     * она и сообщит об ошибке.
+     */
+    private GatherExecutor.Pipeline createScanPipeline(PhysicalPlanNode plan) {
+        if (plan instanceof PhysicalFilterNode filter) {
+            GatherExecutor.Pipeline child = createScanPipeline(filter.getChild());
+            return new GatherExecutor.Pipeline(new FilterExecutor(child.root(), filter.getCondition(),
+                    catalogManager, findTable(filter.getChild())), child.scan());
+        }
+        if (plan instanceof PhysicalProjectNode project) {
+            GatherExecutor.Pipeline child = createScanPipeline(project.getChild());
+            return new GatherExecutor.Pipeline(new ProjectExecutor(child.root(), project.getTargetList(),
+                    catalogManager, findTable(project.getChild())), child.scan());
+        }
+        if (!(plan instanceof PhysicalSeqScanNode scan)) {
+            throw new UnsupportedOperationException("Not a scan pipeline: " + plan.getClass().getSimpleName());
+        }
+
+        TableDefinition table = scan.getTableDefinition();
+        lockRelation(table);
+        HeapFile heap = heapFileFor(table);
+        List<ColumnDefinition> columns = scan.getCondition() != null || scan.getTargetList() != null
+                ? catalogManager.getTableColumns(table) : null;
+        int[] outputColumns = scan.getTargetList() != null ? ordinals(scan.getTargetList(), columns) : null;
+
+        SeqScanExecutor executor = new SeqScanExecutor(heap.getBufferPool(), table,
+                context != null ? context.newVisibilityChecker() : null,
+                heap.getVisibilityMap(), scan.getCondition(), columns, outputColumns);
+        if (scan.getTargetList() != null && outputColumns == null) {
+            return new GatherExecutor.Pipeline(
+                    new ProjectExecutor(executor, scan.getTargetList(), catalogManager, table), executor);
+        }
+        return new GatherExecutor.Pipeline(executor, executor);
+    }
+
+    /**
+     * Число воркеров выбирается по текущему размеру таблицы; для маленькой таблицы
+     * Gather не нужен и поддерево исполняется как обычно.
+     */
+    private Executor createGather(PhysicalGatherNode gather) {
+        TableDefinition table = findTable(gather.getChild());
+        BufferPoolManager pool = heapFileFor(table).getBufferPool();
+        int workers = GatherExecutor.plannedWorkers(pool.getPageCount(), gather.getMaxWorkers());
+        if (workers == 0) {
+            return createExecutor(gather.getChild());
+        }
+        List<GatherExecutor.Pipeline> pipelines = new ArrayList<>();
+        for (int i = 0; i < workers; i++) {
+            pipelines.add(createScanPipeline(gather.getChild()));
+        }
+        return new GatherExecutor(pipelines, pool::getPageCount);
+    }
+
+    private static int[] ordinals(List<TargetEntry> targets, List<ColumnDefinition> columns) {
+        int[] ordinals = new int[targets.size()];
+        for (int i = 0; i < ordinals.length; i++) {
+            String name = ((ColumnRef) targets.get(i).expr).column;
+            ordinals[i] = -1;
+            for (int c = 0; c < columns.size(); c++) {
+                if (columns.get(c).getName().equalsIgnoreCase(name)) {
+                    ordinals[i] = c;
+                    break;
+                }
+            }
+            if (ordinals[i] < 0) return null;
+        }
+        return ordinals;
+    }
+
+    private HeapFile heapFileFor(TableDefinition table) {
+        if (context == null || context.getBufferPools() == null) {
+            return new HeapFile(bufferPool);
+        }
+        return HeapFile.open(context.getBufferPools(), table.getFileNode());
+    }
+
+    /**
+     * Разделяемая блокировка таблицы до конца транзакции: не даёт VACUUM отрезать страницы,
+     * которые сейчас читаются или дописываются.
+     */
+    private void lockRelation(TableDefinition table) {
+        if (context != null && context.getLockManager() != null) {
+            context.getLockManager().lock(context.getXid(), LockTag.relation(table.getOid()), LockMode.SHARED);
+        }
+    }
+
+    private BitmapExecutor createBitmapExecutor(PhysicalPlanNode plan, HeapFile heap) {
+        if (plan instanceof PhysicalBitmapIndexScanNode scan) {
+            return new BitmapIndexScanExecutor(context.getIndexManager().getIndex(scan.getIndexDefinition()), scan,
+                    heap.getBufferPool()::getPageCount);
+        } else if (plan instanceof PhysicalBitmapAndNode and) {
+            return new BitmapAndExecutor(and.getChildren().stream().map(c -> createBitmapExecutor(c, heap)).toList());
+        } else if (plan instanceof PhysicalBitmapOrNode or) {
+            return new BitmapOrExecutor(or.getChildren().stream().map(c -> createBitmapExecutor(c, heap)).toList());
+        }
+        throw new UnsupportedOperationException("Unsupported bitmap plan node: " + plan.getClass().getSimpleName());
+    }
+
     private TableDefinition findTable(PhysicalPlanNode node) {
         if (node instanceof PhysicalSeqScanNode s) return s.getTableDefinition();
+        if (node instanceof PhysicalIndexScanNode s) return s.getTableDefinition();
+        if (node instanceof PhysicalBitmapHeapScanNode s) return s.getTableDefinition();
         if (node instanceof PhysicalFilterNode f) return findTable(f.getChild());
         if (node instanceof PhysicalProjectNode p) return findTable(p.getChild());
+        if (node instanceof PhysicalGatherNode g) return findTable(g.getChild());
         return null;
     }
 
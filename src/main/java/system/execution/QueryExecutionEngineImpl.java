@@ -2,6 +2,7 @@ package system.execution;
 
 
 import system.execution.executors.Executor;
+import system.execution.tuple.RowBatch;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -19,9 +20,10 @@ public class QueryExecutionEngineImpl implements QueryExecutionEngine {
         try {
             executor.open();
 
-            Object row;
-            while ((row = executor.next()) != null) {
-                results.add(row);
+            // план читается пакетами; построчные операторы отдают их через переходник Executor.nextBatch()
+            RowBatch batch;
+            while ((batch = executor.nextBatch()) != null) {
+                batch.addRowsTo(results);
             }
 
         } finally {
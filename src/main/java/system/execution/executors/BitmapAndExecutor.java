@@ -0,0 +1,26 @@
+package system.execution.executors;
+
+import system.index.bitmap.TidBitmap;
+
+import java.util.List;
+
+/**
+ * Пересечение карт дочерних узлов; пустая карта обрывает вычисление остальных.
+ */
+public class BitmapAndExecutor implements BitmapExecutor {
+    private final List<BitmapExecutor> children;
+
+    public BitmapAndExecutor(List<BitmapExecutor> children) {
+        this.children = children;
+    }
+
+    @Override
+    public TidBitmap execute() {
+        TidBitmap result = children.get(0).execute();
+        for (int i = 1; i < children.size(); i++) {
+            if (result.isEmpty()) break;
+            result = TidBitmap.and(result, children.get(i).execute());
+        }
+        return result;
+    }
+}
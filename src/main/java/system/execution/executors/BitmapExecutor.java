@@ -0,0 +1,11 @@
+package system.execution.executors;
+
+import system.index.bitmap.TidBitmap;
+
+/**
+ * Узел, который отдаёт не строки, а битовую карту адресов целиком (как MultiExecProcNode в PostgreSQL).
+ * Из таких узлов собирается поддерево под BitmapHeapScanExecutor.
+ */
+public interface BitmapExecutor {
+    TidBitmap execute();
+}
@@ -0,0 +1,66 @@
+package system.execution.executors;
+
+import system.catalog.model.TableDefinition;
+import system.index.bitmap.TidBitmap;
+import system.memory.buffer.BufferPoolManager;
+import system.memory.vm.VisibilityMap;
+import system.transaction.visibility.VisibilityChecker;
+
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Чтение heap-страниц из битовой карты по возрастанию номеров: вместо случайных обращений
+ * по адресам из индексов каждая страница читается один раз и по порядку.
+ * С точной страницы берутся только отмеченные слоты, неточная читается целиком; строки
+ * отдаются без проверки условия — её выполняет FilterExecutor выше.
+ */
+public class BitmapHeapScanExecutor extends SeqScanExecutor {
+    private final BitmapExecutor bitmap;
+    private final Map<Integer, int[]> slotsByPage = new HashMap<>();
+    private int candidatePages;
+    private int lossyPages;
+
+    public BitmapHeapScanExecutor(BitmapExecutor bitmap, BufferPoolManager bufferPool,
+                                  TableDefinition tableDefinition, VisibilityChecker visibility,
+                                  VisibilityMap visibilityMap) {
+        super(bufferPool, tableDefinition, visibility, visibilityMap);
+        this.bitmap = bitmap;
+    }
+
+    @Override
+    protected BitSet pagesToScan() {
+        TidBitmap tids = bitmap.execute();
+        BitSet pages = new BitSet();
+        slotsByPage.clear();
+        for (TidBitmap.PageEntry entry : tids.pages()) {
+            pages.set(entry.pageId());
+            if (!entry.isLossy()) {
+                slotsByPage.put(entry.pageId(), entry.slots());
+            }
+        }
+        candidatePages = tids.getPageCount();
+        lossyPages = tids.getLossyPageCount();
+        return pages;
+    }
+
+    @Override
+    protected int[] slotsToRead(int pageId) {
+        return slotsByPage.get(pageId);
+    }
+
+    /**
+     * Сколько страниц таблицы было в битовой карте при последнем open().
+     */
+    public int getCandidatePages() {
+        return candidatePages;
+    }
+
+    /**
+     * Сколько из них неточных — прочитанных целиком.
+     */
+    public int getLossyPages() {
+        return lossyPages;
+    }
+}
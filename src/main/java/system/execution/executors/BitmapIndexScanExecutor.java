@@ -0,0 +1,46 @@
+package system.execution.executors;
+
+import system.index.Index;
+import system.index.bitmap.TidBitmap;
+import system.index.brin.BrinIndex;
+import system.memory.model.TupleId;
+import system.optimizer.node.PhysicalBitmapIndexScanNode;
+
+import java.util.BitSet;
+import java.util.function.IntSupplier;
+
+/**
+ * Битовая карта из одного индекса. Адреса из btree и хеш-индекса добавляются точно,
+ * страницы, отобранные BRIN, — неточными.
+ */
+public class BitmapIndexScanExecutor implements BitmapExecutor {
+    private final Index index;
+    private final PhysicalBitmapIndexScanNode scan;
+    private final IntSupplier heapPageCount;
+
+    /**
+     * @param heapPageCount текущее число страниц таблицы — BRIN отбирает страницы только среди них.
+     */
+    public BitmapIndexScanExecutor(Index index, PhysicalBitmapIndexScanNode scan, IntSupplier heapPageCount) {
+        this.index = index;
+        this.scan = scan;
+        this.heapPageCount = heapPageCount;
+    }
+
+    @Override
+    public TidBitmap execute() {
+        TidBitmap bitmap = new TidBitmap();
+        if (index instanceof BrinIndex brin) {
+            BitSet pages = brin.getCandidatePages(scan.getLow(), scan.isLowInclusive(), scan.getHigh(),
+                    scan.isHighInclusive(), heapPageCount.getAsInt());
+            for (int pageId = pages.nextSetBit(0); pageId >= 0; pageId = pages.nextSetBit(pageId + 1)) {
+                bitmap.addPage(pageId);
+            }
+            return bitmap;
+        }
+        for (TupleId tid : index.scan(scan.getLow(), scan.isLowInclusive(), scan.getHigh(), scan.isHighInclusive())) {
+            bitmap.add(tid);
+        }
+        return bitmap;
+    }
+}
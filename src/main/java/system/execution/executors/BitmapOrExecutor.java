@@ -0,0 +1,25 @@
+package system.execution.executors;
+
+import system.index.bitmap.TidBitmap;
+
+import java.util.List;
+
+/**
+ * Объединение карт дочерних узлов.
+ */
+public class BitmapOrExecutor implements BitmapExecutor {
+    private final List<BitmapExecutor> children;
+
+    public BitmapOrExecutor(List<BitmapExecutor> children) {
+        this.children = children;
+    }
+
+    @Override
+    public TidBitmap execute() {
+        TidBitmap result = children.get(0).execute();
+        for (int i = 1; i < children.size(); i++) {
+            result = TidBitmap.or(result, children.get(i).execute());
+        }
+        return result;
+    }
+}
@@ -0,0 +1,83 @@
+package system.execution.executors;
+
+import system.catalog.model.TableDefinition;
+import system.execution.ExecutionContext;
+import system.execution.tuple.Row;
+import system.execution.tuple.TupleHeader;
+import system.memory.heap.HeapFile;
+import system.memory.model.TupleId;
+import system.transaction.lock.LockMode;
+import system.transaction.lock.LockTag;
+import system.transaction.model.TransactionId;
+import system.transaction.model.TransactionStatus;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * DELETE помечает версии строк как удалённые (xmax = xid), сами версии остаются в файле.
+ * Перед записью xmax на строку берётся эксклюзивная блокировка до конца транзакции:
+ * так два удаления одной строки выстраиваются друг за другом, а не перетирают xmax.
+ */
+public class DeleteExecutor implements Executor {
+
+    private final Executor child;
+    private final HeapFile heapFile;
+    private final TableDefinition tableDefinition;
+    private final ExecutionContext context;
+
+    private boolean done = false;
+
+    public DeleteExecutor(Executor child, HeapFile heapFile, TableDefinition tableDefinition,
+                          ExecutionContext context) {
+        this.child = child;
+        this.heapFile = heapFile;
+        this.tableDefinition = tableDefinition;
+        this.context = context;
+    }
+
+    @Override
+    public void open() {
+        child.open();
+    }
+
+    @Override
+    public Object next() {
+        if (done) return null;
+        done = true;
+
+        // сначала собираем адреса: скан держит защёлку страницы, а ожидать блокировку под ней нельзя
+        List<TupleId> targets = new ArrayList<>();
+        Object row;
+        while ((row = child.next()) != null) {
+            if (row instanceof Row heapRow && heapRow.getTupleId() != null) {
+                targets.add(heapRow.getTupleId());
+            }
+        }
+
+        int xid = context.getXid();
+        for (TupleId tid : targets) {
+            context.getLockManager().lock(xid,
+                    LockTag.row(tableDefinition.getOid(), tid.pageId(), tid.slot()), LockMode.EXCLUSIVE);
+
+            if (isDeleted(TupleHeader.read(heapFile.fetch(tid)).getXmax(), xid)) {
+                continue;
+            }
+            heapFile.setXmax(tid, xid);
+            context.getTupleCounts().deleted(tableDefinition.getOid());
+        }
+        return null;
+    }
+
+    // после получения блокировки прежний удаляющий уже завершён: либо зафиксирован, либо откатан
+    private boolean isDeleted(int xmax, int xid) {
+        if (xmax == TransactionId.INVALID) return false;
+        if (xmax == xid) return true;
+        return context.getTransactionManager().getStatus(xmax) == TransactionStatus.COMMITTED;
+    }
+
+    @Override
+    public void close() {
+        child.close();
+    }
+}
@@ -1,5 +1,7 @@
 package system.execution.executors;
 
+import system.execution.tuple.RowBatch;
+
 /**
  * Базовый интерфейс исполнителя (Executor).
  *
@@ -7,9 +9,26 @@ package system.execution.executors;
  *  - open() — инициализация ресурсов
  *  - next() — получение следующей строки результата
  *  - close() — освобождение ресурсов
+ *
+ * Наряду с построчным next() есть пакетный nextBatch(): оператор отдаёт сразу до
+ * RowBatch.CAPACITY строк, разложенных по колонкам. Одного оператора не следует читать
+ * попеременно обоими способами.
  */
 public interface Executor {
     void open();
     Object next();
+
+    /**
+     * Следующий пакет строк или null, когда строки кончились. Пакет не бывает пустым.
+     * По умолчанию — переходник для построчных операторов: пакет собирается из вызовов next().
+     */
+    default RowBatch nextBatch() {
+        RowBatch batch = new RowBatch();
+        Object row;
+        while (!batch.isFull() && (row = next()) != null) {
+            batch.appendRow(row);
+        }
+        return batch.isEmpty() ? null : batch;
+    }
     void close();
 }
\ No newline at end of file
@@ -1,12 +1,11 @@
 package system.execution.executors;
 
-import system.ast.AConst;
-import system.ast.AExpr;
-import system.ast.ColumnRef;
 import system.ast.Expr;
 import system.catalog.manager.CatalogManager;
-import system.catalog.model.ColumnDefinition;
 import system.catalog.model.TableDefinition;
+import system.execution.expr.CompiledPredicate;
+import system.execution.expr.ExpressionCompiler;
+import system.execution.tuple.RowBatch;
 
 import java.util.List;
 
@@ -17,6 +16,7 @@ public class FilterExecutor implements Executor {
     private final CatalogManager catalog;
     private final TableDefinition table;
 
+    private CompiledPredicate predicate;
     private boolean isOpen;
 
     public FilterExecutor(Executor child, Expr condition, CatalogManager catalog, TableDefinition table) {
@@ -26,8 +26,15 @@ public class FilterExecutor implements Executor {
         this.table = table;
     }
 
+    /**
+     * Условие компилируется один раз: колонки ищутся в каталоге здесь, а не на каждой строке;
+     * повторяющиеся условия получают сгенерированный класс (ExpressionCompiler).
+     * Над соединением таблицы нет — колонки условия уже указывают номера в строке соединения.
+     */
     @Override
     public void open() {
+        predicate = ExpressionCompiler.compilePredicate(condition,
+                table != null ? catalog.getTableColumns(table) : List.of());
         child.open();
         isOpen = true;
     }
@@ -43,75 +50,41 @@ public class FilterExecutor implements Executor {
         return null;
     }
 
-    private boolean passesFilter(Object rowObj) {
-        if (!(condition instanceof AExpr aexpr)) return false;
-        if (!(aexpr.getLeft() instanceof ColumnRef leftCol)) return false;
-        if (!(aexpr.getRight() instanceof AConst rightConst)) return false;
-
-        if (!(rowObj instanceof List<?> raw)) return false;
-        @SuppressWarnings("unchecked")
-        List<Object> row = (List<Object>) raw;
-
-        int idx = resolveColumnIndex(leftCol.column);
-        if (idx < 0 || idx >= row.size()) return false;
-
-        Object leftValue = row.get(idx);
-        Object rightValue = rightConst.value;
-
-        int cmp = compare(leftValue, rightValue);
-
-        return switch (aexpr.getOp()) {
-            case "="  -> cmp == 0;
-            case "!=" -> cmp != 0;
-            case ">"  -> cmp > 0;
-            case "<"  -> cmp < 0;
-            case ">=" -> cmp >= 0;
-            case "<=" -> cmp <= 0;
-            default -> false;
-        };
-    }
+    /**
+     * Условие вычисляется над пакетом целиком: каждое сравнение проходит по вектору выбора одним
+     * циклом и оставляет в нём подходящие строки, сами строки не копируются.
+     */
+    @Override
+    public RowBatch nextBatch() {
+        if (!isOpen) return null;
 
-    private int resolveColumnIndex(String colName) {
-        List<ColumnDefinition> cols = getTableColumns(table);
-        for (int i = 0; i < cols.size(); i++) {
-            if (cols.get(i).getName().equalsIgnoreCase(colName)) {
-                return i;
+        RowBatch batch;
+        while ((batch = child.nextBatch()) != null) {
+            int count = batch.getSelectedCount();
+            int[] selection = new int[count];
+            for (int k = 0; k < count; k++) {
+                selection[k] = batch.getSelected(k);
+            }
+            count = predicate.select(batch, selection, count);
+            if (count > 0) {
+                batch.select(selection, count);
+                return batch;
             }
         }
-        return -1;
-    }
-
-    @SuppressWarnings("unchecked")
-    private List<ColumnDefinition> getTableColumns(TableDefinition table) {
-        try {
-            var m = catalog.getClass().getMethod("getTableColumns", TableDefinition.class);
-            return (List<ColumnDefinition>) m.invoke(catalog, table);
-        } catch (Exception e) {
-            throw new IllegalStateException("Cannot read table columns from catalog for table=" + table.getName(), e);
-        }
+        return null;
     }
 
-    private int compare(Object a, Object b) {
-        if (a == null && b == null) return 0;
-        if (a == null) return -1;
-        if (b == null) return 1;
-
-        if (a instanceof Number na && b instanceof Number nb) {
-            return Long.compare(na.longValue(), nb.longValue());
-        }
-        if (a instanceof String sa && b instanceof String sb) {
-            return sa.compareTo(sb);
-        }
-        if (a instanceof Boolean ba && b instanceof Boolean bb) {
-            return Boolean.compare(ba, bb);
-        }
-
-        return a.toString().compareTo(b.toString());
+    private boolean passesFilter(Object rowObj) {
+        if (!(rowObj instanceof List<?> raw)) return false;
+        @SuppressWarnings("unchecked")
+        List<Object> row = (List<Object>) raw;
+        return predicate.test(row);
     }
 
     @Override
     public void close() {
         child.close();
         isOpen = false;
+        predicate = null;
     }
 }
@@ -0,0 +1,220 @@
+package system.execution.executors;
+
+import system.execution.tuple.RowBatch;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntSupplier;
+
+/**
+ * Параллельное чтение таблицы (Gather из PostgreSQL). Каждый воркер исполняет свою копию
+ * конвейера Scan → Filter → Project и берёт из общего атомарного счётчика очередной диапазон
+ * из CHUNK_PAGES страниц. Результаты диапазонов отдаются наверх в порядке страниц, поэтому
+ * вывод совпадает с последовательным сканом; вперёд воркеры читают не больше
+ * WINDOW_PER_WORKER диапазонов на каждого — память ограничена, даже если читатель медленный.
+ *
+ * Воркеры всех запросов работают в одном общем ForkJoinPool; в нём же идут задачи RadixJoin.
+ */
+public class GatherExecutor implements Executor {
+    public static final int CHUNK_PAGES = 16;
+    // таблица меньше этого размера читается одним потоком; каждый следующий воркер — при размере втрое больше
+    public static final int MIN_PARALLEL_PAGES = 128;
+    private static final int WINDOW_PER_WORKER = 2;
+
+    static final ForkJoinPool POOL = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+
+    /**
+     * Конвейер одного воркера и скан в его основании, которому назначаются диапазоны страниц.
+     */
+    public record Pipeline(Executor root, SeqScanExecutor scan) {
+    }
+
+    private final List<Pipeline> pipelines;
+    private final IntSupplier pageCount;
+
+    private int pages;
+    private int chunks;
+    private AtomicInteger nextChunk;
+    private Semaphore window;
+    private final Map<Integer, List<Object>> finished = new HashMap<>();
+    private volatile RuntimeException failure;
+    private volatile boolean cancelled;
+    private List<ForkJoinTask<?>> tasks = List.of();
+
+    private int emitChunk;
+    private List<Object> current = List.of();
+    private int currentIndex;
+    private boolean isOpen;
+
+    /**
+     * @param pageCount число страниц таблицы на момент open().
+     */
+    public GatherExecutor(List<Pipeline> pipelines, IntSupplier pageCount) {
+        if (pipelines.isEmpty()) throw new IllegalArgumentException("Gather needs at least one worker");
+        this.pipelines = pipelines;
+        this.pageCount = pageCount;
+    }
+
+    /**
+     * Сколько воркеров стоит запустить для таблицы из pages страниц, не больше maxWorkers:
+     * два с MIN_PARALLEL_PAGES и ещё по одному на каждое утроение размера.
+     * 0 — таблица маленькая, параллельный скан не нужен.
+     */
+    public static int plannedWorkers(int pages, int maxWorkers) {
+        if (pages < MIN_PARALLEL_PAGES || maxWorkers < 2) return 0;
+        int workers = 2;
+        for (long threshold = MIN_PARALLEL_PAGES * 3L; pages >= threshold && workers < maxWorkers; threshold *= 3) {
+            workers++;
+        }
+        return workers;
+    }
+
+    public int getWorkerCount() {
+        return pipelines.size();
+    }
+
+    @Override
+    public void open() {
+        pages = pageCount.getAsInt();
+        chunks = (pages + CHUNK_PAGES - 1) / CHUNK_PAGES;
+        nextChunk = new AtomicInteger();
+        window = new Semaphore(WINDOW_PER_WORKER * pipelines.size());
+        finished.clear();
+        failure = null;
+        cancelled = false;
+        emitChunk = 0;
+        current = List.of();
+        currentIndex = 0;
+
+        // open() компилирует условия и выборку — в потоке запроса, до старта воркеров
+        for (Pipeline pipeline : pipelines) {
+            pipeline.root().open();
+        }
+        List<ForkJoinTask<?>> started = new ArrayList<>();
+        for (Pipeline pipeline : pipelines) {
+            started.add(POOL.submit(() -> runWorker(pipeline)));
+        }
+        tasks = started;
+        isOpen = true;
+    }
+
+    private void runWorker(Pipeline pipeline) {
+        try {
+            while (!cancelled) {
+                window.acquire();
+                int chunk = nextChunk.getAndIncrement();
+                if (chunk >= chunks || cancelled) {
+                    window.release();
+                    return;
+                }
+                pipeline.scan().scanPages(chunk * CHUNK_PAGES, Math.min(pages, (chunk + 1) * CHUNK_PAGES));
+                List<Object> rows = new ArrayList<>();
+                RowBatch batch;
+                while ((batch = pipeline.root().nextBatch()) != null) {
+                    // пакет переиспользуется сканом — строки копируются сразу
+                    batch.addRowsTo(rows);
+                }
+                synchronized (finished) {
+                    finished.put(chunk, rows);
+                    finished.notifyAll();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            fail(new IllegalStateException("Parallel scan worker interrupted", e));
+        } catch (RuntimeException | Error e) {
+            // поток запроса ждёт результаты диапазонов — любая ошибка воркера должна до него дойти
+            fail(e instanceof RuntimeException r ? r : new IllegalStateException("Parallel scan worker failed", e));
+        }
+    }
+
+    private void fail(RuntimeException e) {
+        synchronized (finished) {
+            if (failure == null) failure = e;
+            finished.notifyAll();
+        }
+    }
+
+    /**
+     * Строки следующего по порядку диапазона; null — диапазоны кончились.
+     */
+    private List<Object> nextChunkRows() {
+        if (emitChunk >= chunks) return null;
+        List<Object> rows;
+        synchronized (finished) {
+            while ((rows = finished.remove(emitChunk)) == null) {
+                if (failure != null) throw failure;
+                try {
+                    finished.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Interrupted while waiting for parallel scan", e);
+                }
+            }
+        }
+        emitChunk++;
+        window.release();
+        return rows;
+    }
+
+    @Override
+    public Object next() {
+        if (!isOpen) return null;
+
+        while (currentIndex >= current.size()) {
+            current = nextChunkRows();
+            currentIndex = 0;
+            if (current == null) {
+                current = List.of();
+                return null;
+            }
+        }
+        return current.get(currentIndex++);
+    }
+
+    @Override
+    public RowBatch nextBatch() {
+        if (!isOpen) return null;
+
+        RowBatch batch = new RowBatch();
+        while (!batch.isFull()) {
+            if (currentIndex >= current.size()) {
+                List<Object> rows = nextChunkRows();
+                if (rows == null) break;
+                current = rows;
+                currentIndex = 0;
+                continue;
+            }
+            batch.appendRow(current.get(currentIndex++));
+        }
+        return batch.isEmpty() ? null : batch;
+    }
+
+    /**
+     * Воркеры останавливаются до закрытия конвейеров: скан не должен держать страницы
+     * после того, как запрос завершён.
+     */
+    @Override
+    public void close() {
+        cancelled = true;
+        if (window != null) window.release(pipelines.size());
+        for (ForkJoinTask<?> task : tasks) {
+            task.quietlyJoin();
+        }
+        tasks = List.of();
+        for (Pipeline pipeline : pipelines) {
+            pipeline.root().close();
+        }
+        synchronized (finished) {
+            finished.clear();
+        }
+        current = List.of();
+        isOpen = false;
+    }
+}
@@ -0,0 +1,394 @@
+package system.execution.executors;
+
+import system.execution.tuple.Row;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Внутреннее хеш-соединение по равенству ключевых колонок. Строки inner собираются в хеш-таблицу
+ * с ключами long (LongHashTable), строки outer зондируют её по одной; строка результата — строка
+ * outer, за ней строка inner. NULL в ключе не равен ничему, такие строки в соединение не попадают.
+ *
+ * Если строки inner не помещаются в workMem, соединение идёт по схеме Grace: обе стороны
+ * раскладываются по хешу ключа на FANOUT партиций во временных файлах, и партиции соединяются
+ * по очереди — с равным ключом строки всегда оказываются в партициях с одним номером.
+ * Партиция, которая сама не помещается в память, раскладывается ещё раз по следующим битам хеша
+ * (не глубже MAX_DEPTH уровней: дальше делить бесполезно, если это строки одного ключа).
+ * В таком режиме строки выдаются в порядке партиций, а не в порядке outer.
+ *
+ * Если inner поместился в память, но его хеш-таблица уже больше кэша процессора
+ * (от RADIX_MIN_ROWS строк), в память читается и outer (тоже не больше workMem), и соединение
+ * идёт с радикс-разбиением обеих сторон на партиции размером с кэш, параллельно (RadixJoin).
+ * Строки тогда тоже выдаются в порядке партиций. Если outer в workMem не поместился,
+ * прочитанные строки и остаток outer зондируют обычную хеш-таблицу.
+ */
+public class HashJoinExecutor implements Executor {
+    // как work_mem в PostgreSQL
+    public static final long DEFAULT_WORK_MEM = 4L << 20;
+    private static final int FANOUT_BITS = 5;
+    private static final int FANOUT = 1 << FANOUT_BITS;
+    private static final int MAX_DEPTH = 3;
+    // с этого размера inner разбиение окупается даже на одном ядре (замеры HashJoinBenchmark)
+    static final int RADIX_MIN_ROWS = 64 * RadixJoin.PARTITION_ROWS;
+
+    private final Executor outer;
+    private final Executor inner;
+    private final int[] outerKeys;
+    private final int[] innerKeys;
+    private final long workMem;
+    private final boolean radixPartitioning;
+
+    // хеш-таблица над строками inner текущей партиции (или всеми, если они поместились в память)
+    private final List<List<Object>> buildRows = new ArrayList<>();
+    // строки, ключ которых — не одно целое число: для них совпадения хеша мало, значения сравниваются
+    private final BitSet inexactRows = new BitSet();
+    private LongHashTable table;
+    private RowSource probe;
+
+    private final Deque<Partition> pending = new ArrayDeque<>();
+    private Partition current;
+    private int spilledPartitions;
+
+    // режим радикс-разбиения: строки outer в памяти и пары совпавших строк по партициям
+    private final List<List<Object>> probeRows = new ArrayList<>();
+    private RadixJoin.Pairs[] radixPairs;
+    private int radixPartitions;
+    private int radixPartition;
+    private int radixPosition;
+
+    private List<Object> probeRow;
+    private boolean probeExact;
+    private int match = -1;
+    private boolean isOpen;
+
+    private interface RowSource {
+        List<Object> next();
+    }
+
+    private record Partition(SpillFile build, SpillFile probe, int depth) {
+
+        void delete() {
+            build.delete();
+            probe.delete();
+        }
+    }
+
+    public HashJoinExecutor(Executor outer, Executor inner, int[] outerKeys, int[] innerKeys) {
+        this(outer, inner, outerKeys, innerKeys, DEFAULT_WORK_MEM);
+    }
+
+    /**
+     * @param workMem сколько байт строк inner держать в памяти, прежде чем раскладывать их по файлам.
+     */
+    public HashJoinExecutor(Executor outer, Executor inner, int[] outerKeys, int[] innerKeys, long workMem) {
+        this(outer, inner, outerKeys, innerKeys, workMem, true);
+    }
+
+    /**
+     * @param radixPartitioning соединять большие входы в памяти с радикс-разбиением; false — всегда
+     *                          одна общая хеш-таблица.
+     */
+    public HashJoinExecutor(Executor outer, Executor inner, int[] outerKeys, int[] innerKeys, long workMem,
+                            boolean radixPartitioning) {
+        if (outerKeys.length == 0 || outerKeys.length != innerKeys.length) {
+            throw new IllegalArgumentException("Hash join needs matching key columns on both sides");
+        }
+        this.outer = outer;
+        this.inner = inner;
+        this.outerKeys = outerKeys;
+        this.innerKeys = innerKeys;
+        this.workMem = workMem;
+        this.radixPartitioning = radixPartitioning;
+    }
+
+    /**
+     * Сколько партиций пришлось записать на диск за последнее исполнение; 0 — соединение шло в памяти.
+     */
+    public int getSpilledPartitionCount() {
+        return spilledPartitions;
+    }
+
+    /**
+     * На сколько партиций радикс-разбиение разложило входы в последнем исполнении (первый проход);
+     * 0 — соединение шло без него.
+     */
+    public int getRadixPartitionCount() {
+        return radixPartitions;
+    }
+
+    @Override
+    public void open() {
+        inner.open();
+        outer.open();
+        spilledPartitions = 0;
+        probeRow = null;
+        match = -1;
+        probeRows.clear();
+        radixPairs = null;
+        radixPartitions = 0;
+        load(rowsOf(inner), rowsOf(outer), 0);
+        isOpen = true;
+    }
+
+    /**
+     * Строит хеш-таблицу по строкам build, зондировать её будут строки probe. Если build
+     * не помещается в workMem, обе стороны раскладываются по партициям и ставятся в очередь.
+     */
+    private void load(RowSource build, RowSource probeSource, int depth) {
+        buildRows.clear();
+        inexactRows.clear();
+        table = null;
+        probe = null;
+
+        long bytes = 0;
+        List<Object> row;
+        while ((row = build.next()) != null) {
+            if (JoinRows.hasNullKey(row, innerKeys)) continue;
+            // строка скана действительна до следующего next()
+            row = row instanceof Row r ? r.copy() : row;
+            buildRows.add(row);
+            bytes += estimateSize(row);
+            if (bytes > workMem && depth < MAX_DEPTH) {
+                spill(build, probeSource, depth);
+                return;
+            }
+        }
+        if (buildRows.isEmpty()) return;
+
+        if (radixPartitioning && depth == 0 && buildRows.size() >= RADIX_MIN_ROWS) {
+            probeSource = loadProbe(probeSource);
+            if (probeSource == null) {
+                radixJoin();
+                return;
+            }
+        }
+
+        table = new LongHashTable(buildRows.size());
+        // в обратном порядке: цепочки таблицы отдают совпадения в порядке строк inner
+        for (int i = buildRows.size() - 1; i >= 0; i--) {
+            List<Object> buildRow = buildRows.get(i);
+            table.add(hash(buildRow, innerKeys), i);
+            if (!isExact(buildRow, innerKeys)) inexactRows.set(i);
+        }
+        probe = probeSource;
+    }
+
+    /**
+     * Читает outer в probeRows, пока он помещается в workMem. Если поместился — null; иначе
+     * источник, который отдаёт уже прочитанные строки, а за ними остаток outer.
+     */
+    private RowSource loadProbe(RowSource probeSource) {
+        long bytes = 0;
+        List<Object> row;
+        while ((row = probeSource.next()) != null) {
+            if (JoinRows.hasNullKey(row, outerKeys)) continue;
+            row = row instanceof Row r ? r.copy() : row;
+            probeRows.add(row);
+            bytes += estimateSize(row);
+            if (bytes > workMem) {
+                List<List<Object>> loaded = new ArrayList<>(probeRows);
+                probeRows.clear();
+                int[] position = {0};
+                return () -> position[0] < loaded.size() ? loaded.get(position[0]++) : probeSource.next();
+            }
+        }
+        return null;
+    }
+
+    private void radixJoin() {
+        long[] buildKeys = new long[buildRows.size()];
+        for (int i = 0; i < buildKeys.length; i++) {
+            List<Object> row = buildRows.get(i);
+            buildKeys[i] = hash(row, innerKeys);
+            if (!isExact(row, innerKeys)) inexactRows.set(i);
+        }
+        long[] probeKeys = new long[probeRows.size()];
+        BitSet inexactProbe = new BitSet();
+        for (int i = 0; i < probeKeys.length; i++) {
+            List<Object> row = probeRows.get(i);
+            probeKeys[i] = hash(row, outerKeys);
+            if (!isExact(row, outerKeys)) inexactProbe.set(i);
+        }
+        // равные целочисленные ключи равны как long — строки не читаются; иначе сравниваются значения
+        radixPairs = RadixJoin.join(buildKeys, probeKeys, (probe, build) ->
+                (!inexactProbe.get(probe) && !inexactRows.get(build))
+                        || JoinRows.keysEqual(probeRows.get(probe), outerKeys, buildRows.get(build), innerKeys),
+                GatherExecutor.POOL);
+        radixPartitions = radixPairs.length;
+        radixPartition = 0;
+        radixPosition = 0;
+    }
+
+    private void spill(RowSource build, RowSource probeSource, int depth) {
+        SpillFile[] buildParts = partitions("hashjoin-inner");
+        SpillFile[] probeParts = partitions("hashjoin-outer");
+        for (List<Object> row : buildRows) {
+            buildParts[partition(hash(row, innerKeys), depth)].write(row);
+        }
+        buildRows.clear();
+        List<Object> row;
+        while ((row = build.next()) != null) {
+            if (!JoinRows.hasNullKey(row, innerKeys)) buildParts[partition(hash(row, innerKeys), depth)].write(row);
+        }
+        while ((row = probeSource.next()) != null) {
+            if (!JoinRows.hasNullKey(row, outerKeys)) probeParts[partition(hash(row, outerKeys), depth)].write(row);
+        }
+        for (int i = FANOUT - 1; i >= 0; i--) {
+            pending.push(new Partition(buildParts[i], probeParts[i], depth + 1));
+        }
+        spilledPartitions += FANOUT;
+    }
+
+    private static SpillFile[] partitions(String prefix) {
+        SpillFile[] files = new SpillFile[FANOUT];
+        for (int i = 0; i < FANOUT; i++) {
+            files[i] = new SpillFile(prefix);
+        }
+        return files;
+    }
+
+    // на каждом уровне разбиения — свои FANOUT_BITS старших битов перемешанного ключа
+    private static int partition(long key, int depth) {
+        return (int) (LongHashTable.mix(key) >>> (64 - FANOUT_BITS * (depth + 1))) & (FANOUT - 1);
+    }
+
+    @Override
+    public Object next() {
+        if (!isOpen) return null;
+        if (radixPairs != null) return nextRadixRow();
+
+        while (true) {
+            while (match >= 0) {
+                int row = match;
+                match = table.next(row);
+                List<Object> buildRow = buildRows.get(row);
+                if ((probeExact && !inexactRows.get(row)) || JoinRows.keysEqual(probeRow, outerKeys, buildRow, innerKeys)) {
+                    return JoinRows.concat(probeRow, buildRow);
+                }
+            }
+            probeRow = nextProbeRow();
+            if (probeRow == null) return null;
+            if (JoinRows.hasNullKey(probeRow, outerKeys)) continue;
+            probeExact = isExact(probeRow, outerKeys);
+            match = table.first(hash(probeRow, outerKeys));
+        }
+    }
+
+    private List<Object> nextRadixRow() {
+        while (radixPartition < radixPairs.length) {
+            RadixJoin.Pairs pairs = radixPairs[radixPartition];
+            if (radixPosition < pairs.size()) {
+                int i = radixPosition++;
+                return JoinRows.concat(probeRows.get(pairs.probe(i)), buildRows.get(pairs.build(i)));
+            }
+            radixPartition++;
+            radixPosition = 0;
+        }
+        return null;
+    }
+
+    /**
+     * Следующая строка outer для текущей хеш-таблицы; когда строки кончаются,
+     * загружается следующая партиция из очереди.
+     */
+    private List<Object> nextProbeRow() {
+        while (true) {
+            if (probe != null) {
+                List<Object> row = probe.next();
+                if (row != null) return row;
+                probe = null;
+            }
+            if (current != null) {
+                current.delete();
+                current = null;
+            }
+            if (pending.isEmpty()) return null;
+            current = pending.pop();
+            // соединение внутреннее: без строк с одной из сторон партиция ничего не даст
+            if (current.build().getRowCount() == 0 || current.probe().getRowCount() == 0) continue;
+            load(current.build()::read, current.probe()::read, current.depth());
+        }
+    }
+
+    private static RowSource rowsOf(Executor executor) {
+        return () -> {
+            Object row = executor.next();
+            return row == null ? null : JoinRows.rowOf(row, "HashJoinExecutor");
+        };
+    }
+
+    /**
+     * Ключ — одно целое число: тогда хеш и есть значение, и равенство хешей означает равенство ключей.
+     */
+    private static boolean isExact(List<Object> row, int[] keys) {
+        if (keys.length != 1) return false;
+        return row instanceof Row r ? r.isIntegral(keys[0]) : row.get(keys[0]) instanceof Number n && JoinRows.isIntegral(n);
+    }
+
+    /**
+     * Ключ строки в виде long: целое число — само значение (без упаковки для строк скана),
+     * остальные типы и составные ключи — 64-битный хеш; равные ключи всегда дают равный long.
+     */
+    static long hash(List<Object> row, int[] keys) {
+        if (keys.length == 1) return keyBits(row, keys[0]);
+        long h = 1;
+        for (int key : keys) {
+            h = h * 31 + keyBits(row, key);
+        }
+        return h;
+    }
+
+    private static long keyBits(List<Object> row, int column) {
+        if (row instanceof Row r && r.isIntegral(column)) return r.getLong(column);
+        Object value = row.get(column);
+        if (value instanceof Number n) {
+            if (JoinRows.isIntegral(n)) return n.longValue();
+            double d = n.doubleValue();
+            // 5.0 и 5 равны — и хеш у них должен совпадать
+            return d == (long) d ? (long) d : Double.doubleToLongBits(d);
+        }
+        if (value instanceof Boolean b) return b ? 1 : 0;
+        if (value instanceof String s) {
+            long h = 0xcbf29ce484222325L;
+            for (int i = 0; i < s.length(); i++) {
+                h = (h ^ s.charAt(i)) * 0x100000001b3L;
+            }
+            return h;
+        }
+        return value.hashCode();
+    }
+
+    // примерный размер строки в куче: сам список, ссылки и значения
+    private static long estimateSize(List<Object> row) {
+        long size = 48 + 8L * row.size();
+        for (Object value : row) {
+            if (value instanceof String s) size += 48 + s.length();
+            else if (value != null) size += 16;
+        }
+        return size;
+    }
+
+    @Override
+    public void close() {
+        outer.close();
+        inner.close();
+        if (current != null) current.delete();
+        current = null;
+        while (!pending.isEmpty()) {
+            pending.pop().delete();
+        }
+        buildRows.clear();
+        inexactRows.clear();
+        probeRows.clear();
+        radixPairs = null;
+        table = null;
+        probe = null;
+        probeRow = null;
+        match = -1;
+        isOpen = false;
+    }
+}
@@ -0,0 +1,107 @@
+package system.execution.executors;
+
+import system.ast.Expr;
+import system.catalog.model.ColumnDefinition;
+import system.execution.expr.CompiledPredicate;
+import system.execution.expr.ExpressionCompiler;
+import system.execution.tuple.TupleCodec;
+import system.execution.tuple.TupleHeader;
+import system.index.Index;
+import system.memory.heap.HeapFile;
+import system.memory.model.TupleId;
+import system.transaction.visibility.VisibilityChecker;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Вложенный цикл по индексу: для каждой строки outer inner-таблица ищется по индексу на значение
+ * первого ключа, найденные версии читаются из heap-файла и проверяются снимком, условием
+ * inner-таблицы и всеми парами ключей. Inner-таблица целиком не читается и в памяти не хранится.
+ */
+public class IndexNestedLoopJoinExecutor implements Executor {
+    private final Executor outer;
+    private final Index index;
+    private final HeapFile heapFile;
+    private final VisibilityChecker visibility;
+    private final Expr innerCondition;
+    private final List<ColumnDefinition> innerColumns;
+    private final int[] outerKeys;
+    private final int[] innerKeys;
+
+    private CompiledPredicate predicate;
+    private List<Object> outerRow;
+    private Iterator<TupleId> tids = Collections.emptyIterator();
+    private long probes;
+    private boolean isOpen;
+
+    /**
+     * @param visibility     снимок, по которому отбираются версии строк; null — отдавать все версии.
+     * @param innerCondition условие на колонки inner-таблицы; null — без него.
+     * @param outerKeys      ключи outer; по первому ищется в индексе.
+     * @param innerKeys      ключи inner; первый — ведущая колонка индекса.
+     */
+    public IndexNestedLoopJoinExecutor(Executor outer, Index index, HeapFile heapFile, VisibilityChecker visibility,
+                                       Expr innerCondition, List<ColumnDefinition> innerColumns,
+                                       int[] outerKeys, int[] innerKeys) {
+        this.outer = outer;
+        this.index = index;
+        this.heapFile = heapFile;
+        this.visibility = visibility;
+        this.innerCondition = innerCondition;
+        this.innerColumns = innerColumns;
+        this.outerKeys = outerKeys;
+        this.innerKeys = innerKeys;
+    }
+
+    @Override
+    public void open() {
+        predicate = innerCondition != null ? ExpressionCompiler.compilePredicate(innerCondition, innerColumns) : null;
+        outer.open();
+        tids = Collections.emptyIterator();
+        outerRow = null;
+        probes = 0;
+        isOpen = true;
+    }
+
+    @Override
+    public Object next() {
+        if (!isOpen) return null;
+
+        while (true) {
+            while (tids.hasNext()) {
+                byte[] tuple = heapFile.tryFetch(tids.next());
+                if (tuple == null) continue;
+                if (visibility != null && !visibility.isVisible(TupleHeader.read(tuple))) continue;
+                List<Object> innerRow = TupleCodec.decodeTagged(tuple, TupleHeader.SIZE);
+                if (predicate != null && !predicate.test(innerRow)) continue;
+                // индекс мог вернуть версию с другим значением (хеш-индекс, старые версии) — ключи сверяются заново
+                if (!JoinRows.keysEqual(outerRow, outerKeys, innerRow, innerKeys)) continue;
+                return JoinRows.concat(outerRow, innerRow);
+            }
+            Object row = outer.next();
+            if (row == null) return null;
+            outerRow = JoinRows.rowOf(row, "IndexNestedLoopJoinExecutor");
+            if (JoinRows.hasNullKey(outerRow, outerKeys)) continue;
+            Object key = outerRow.get(outerKeys[0]);
+            probes++;
+            tids = index.scan(key, true, key, true).iterator();
+        }
+    }
+
+    /**
+     * Сколько раз с последнего open() искали в индексе.
+     */
+    public long getProbeCount() {
+        return probes;
+    }
+
+    @Override
+    public void close() {
+        outer.close();
+        tids = Collections.emptyIterator();
+        outerRow = null;
+        isOpen = false;
+    }
+}
@@ -0,0 +1,143 @@
+package system.execution.executors;
+
+import system.catalog.manager.CatalogManager;
+import system.catalog.model.ColumnDefinition;
+import system.catalog.model.IndexDefinition;
+import system.catalog.model.TableDefinition;
+import system.catalog.model.TypeDefinition;
+import system.execution.tuple.HeapRow;
+import system.execution.tuple.TupleCodec;
+import system.execution.tuple.TupleHeader;
+import system.index.Index;
+import system.index.IndexEntry;
+import system.index.KeyCodec;
+import system.memory.heap.HeapFile;
+import system.memory.model.TupleId;
+import system.memory.vm.VisibilityMap;
+import system.optimizer.node.PhysicalIndexOnlyScanNode;
+import system.transaction.visibility.VisibilityChecker;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Сканирование только по индексу. Если страница версии отмечена в карте видимости как
+ * полностью видимая, строка собирается из ключа и INCLUDE-значений записи индекса без чтения
+ * heap-файла; иначе версия читается и проверяется снимком, как в обычном поиске по индексу.
+ * Колонки, которых нет в индексе, в собранной строке равны null — оптимизатор выбирает этот
+ * узел, только когда запрос их не читает.
+ */
+public class IndexOnlyScanExecutor implements Executor {
+    private final Index index;
+    private final PhysicalIndexOnlyScanNode scan;
+    private final HeapFile heapFile;
+    private final VisibilityMap visibilityMap;
+    private final VisibilityChecker visibility;
+
+    private final int columnCount;
+    private final List<Integer> keyPositions = new ArrayList<>();
+    private final List<Boolean> integerKeys = new ArrayList<>();
+    private final List<Integer> includePositions = new ArrayList<>();
+
+    private Iterator<IndexEntry> entries;
+    private long heapFetches;
+
+    /**
+     * @param visibility снимок, по которому отбираются версии строк; null — heap читается всегда.
+     */
+    public IndexOnlyScanExecutor(Index index, PhysicalIndexOnlyScanNode scan, HeapFile heapFile,
+                                 VisibilityChecker visibility, CatalogManager catalog) {
+        this.index = index;
+        this.scan = scan;
+        this.heapFile = heapFile;
+        this.visibilityMap = heapFile.getVisibilityMap();
+        this.visibility = visibility;
+
+        TableDefinition table = scan.getTableDefinition();
+        IndexDefinition definition = scan.getIndexDefinition();
+        this.columnCount = catalog.getTableColumns(table).size();
+        for (String name : definition.getKeyColumns()) {
+            ColumnDefinition key = column(catalog, table, name);
+            keyPositions.add(key.getPosition());
+            // KeyCodec хранит все целые как long, а heap-строка integer-колонки содержит Integer
+            TypeDefinition type = catalog.getType(key.getTypeOid());
+            integerKeys.add(type != null && type.getName().equalsIgnoreCase("integer"));
+        }
+        for (String include : definition.getIncludeColumns()) {
+            includePositions.add(column(catalog, table, include).getPosition());
+        }
+    }
+
+    private static ColumnDefinition column(CatalogManager catalog, TableDefinition table, String name) {
+        ColumnDefinition column = catalog.getColumn(table, name);
+        if (column == null) {
+            throw new IllegalStateException("Column " + name + " does not exist in table " + table.getName());
+        }
+        return column;
+    }
+
+    @Override
+    public void open() {
+        entries = index.scanEntries(scan.getLow(), scan.isLowInclusive(), scan.getHigh(), scan.isHighInclusive())
+                .iterator();
+        heapFetches = 0;
+    }
+
+    @Override
+    public Object next() {
+        if (entries == null) return null;
+
+        while (entries.hasNext()) {
+            IndexEntry entry = entries.next();
+            TupleId tid = entry.tid();
+            if (visibility != null && visibilityMap.isAllVisible(tid.pageId())) {
+                return fromIndex(entry);
+            }
+
+            heapFetches++;
+            byte[] tuple = heapFile.tryFetch(tid);
+            if (tuple == null) continue;
+            if (visibility != null && !visibility.isVisible(TupleHeader.read(tuple))) continue;
+            return new HeapRow(tid, TupleCodec.decodeTagged(tuple, TupleHeader.SIZE));
+        }
+        return null;
+    }
+
+    private HeapRow fromIndex(IndexEntry entry) {
+        List<Object> row = new ArrayList<>(Collections.nCopies(columnCount, null));
+        List<Object> key = KeyCodec.decode(entry.key());
+        for (int i = 0; i < keyPositions.size(); i++) {
+            Object value = key.get(i);
+            row.set(keyPositions.get(i), integerKeys.get(i) && value != null ? toInteger((Long) value) : value);
+        }
+        if (entry.include() != null) {
+            List<Object> values = TupleCodec.decodeTagged(entry.include());
+            for (int i = 0; i < includePositions.size(); i++) {
+                row.set(includePositions.get(i), values.get(i));
+            }
+        }
+        return new HeapRow(entry.tid(), row);
+    }
+
+    // ключ integer-колонки обязан помещаться в int: иначе индекс не соответствует таблице
+    private static Integer toInteger(long value) {
+        if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+            throw new IllegalStateException("Index key " + value + " is out of range for an integer column");
+        }
+        return (int) value;
+    }
+
+    /**
+     * Сколько версий пришлось прочитать из heap-файла (как "Heap Fetches" в EXPLAIN ANALYZE).
+     */
+    public long getHeapFetches() {
+        return heapFetches;
+    }
+
+    @Override
+    public void close() {
+        entries = null;
+    }
+}
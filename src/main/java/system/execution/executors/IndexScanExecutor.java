@@ -0,0 +1,61 @@
+package system.execution.executors;
+
+import system.execution.tuple.HeapRow;
+import system.execution.tuple.TupleCodec;
+import system.execution.tuple.TupleHeader;
+import system.index.Index;
+import system.memory.heap.HeapFile;
+import system.memory.model.TupleId;
+import system.optimizer.node.PhysicalIndexScanNode;
+import system.transaction.visibility.VisibilityChecker;
+
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Поиск по индексу: адреса из индекса, затем выборка версий из heap-файла и проверка снимком.
+ */
+public class IndexScanExecutor implements Executor {
+    private final Index index;
+    private final PhysicalIndexScanNode scan;
+    private final HeapFile heapFile;
+    private final VisibilityChecker visibility;
+
+    private Iterator<TupleId> tids;
+
+    /**
+     * @param visibility снимок, по которому отбираются версии строк; null — отдавать все версии.
+     */
+    public IndexScanExecutor(Index index, PhysicalIndexScanNode scan, HeapFile heapFile,
+                             VisibilityChecker visibility) {
+        this.index = index;
+        this.scan = scan;
+        this.heapFile = heapFile;
+        this.visibility = visibility;
+    }
+
+    @Override
+    public void open() {
+        List<TupleId> found = index.scan(scan.getLow(), scan.isLowInclusive(), scan.getHigh(), scan.isHighInclusive());
+        tids = found.iterator();
+    }
+
+    @Override
+    public Object next() {
+        if (tids == null) return null;
+
+        while (tids.hasNext()) {
+            TupleId tid = tids.next();
+            byte[] tuple = heapFile.tryFetch(tid);
+            if (tuple == null) continue;
+            if (visibility != null && !visibility.isVisible(TupleHeader.read(tuple))) continue;
+            return new HeapRow(tid, TupleCodec.decodeTagged(tuple, TupleHeader.SIZE));
+        }
+        return null;
+    }
+
+    @Override
+    public void close() {
+        tids = null;
+    }
+}
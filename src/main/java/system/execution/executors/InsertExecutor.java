@@ -3,13 +3,13 @@ package system.execution.executors;
 import system.ast.AConst;
 import system.ast.Expr;
 import system.catalog.model.TableDefinition;
-import system.memory.buffer.BufferPoolManager;
-import system.memory.manager.PageFileManager;
-import system.memory.page.HeapPage;
+import system.execution.tuple.TupleCodec;
+import system.execution.tuple.TupleHeader;
+import system.index.IndexManager;
+import system.memory.heap.HeapFile;
+import system.memory.model.TupleId;
+import system.vacuum.PendingTupleCounts;
 
-import java.nio.ByteBuffer;
-import java.nio.ByteOrder;
-import java.nio.file.Path;
 import java.util.List;
 
 public class InsertExecutor implements Executor {
@@ -17,20 +17,25 @@ public class InsertExecutor implements Executor {
     private final TableDefinition tableDefinition;
     private final List<Expr> values;
 
-    // ✅ минимум зависимостей для записи HeapPage
-    private final PageFileManager pageFileManager;
-    private final BufferPoolManager bufferPool;
+    private final HeapFile heapFile;
+    private final int xid;
+    private final PendingTupleCounts tupleCounts;
+    private final IndexManager indexManager;
 
     private boolean done = false;
 
-    public InsertExecutor(PageFileManager pageFileManager,
-                          BufferPoolManager bufferPool,
+    public InsertExecutor(HeapFile heapFile,
                           TableDefinition tableDefinition,
-                          List<Expr> values) {
-        this.pageFileManager = pageFileManager;
-        this.bufferPool = bufferPool;
+                          List<Expr> values,
+                          int xid,
+                          PendingTupleCounts tupleCounts,
+                          IndexManager indexManager) {
+        this.heapFile = heapFile;
+        this.tupleCounts = tupleCounts;
+        this.indexManager = indexManager;
         this.tableDefinition = tableDefinition;
         this.values = values;
+        this.xid = xid;
     }
 
     @Override
@@ -45,60 +50,20 @@ public class InsertExecutor implements Executor {
                 .map(expr -> ((AConst) expr).value)
                 .toList();
 
-        byte[] tuple = serializeRow(rowValues);
+        byte[] tuple = TupleHeader.prepend(xid, TupleCodec.encodeTagged(rowValues));
 
-        Path file = Path.of(tableDefinition.getFileNode()).toAbsolutePath();
-        int pageId = 0;
-
-        HeapPage page;
-        try {
-            page = (HeapPage) pageFileManager.read(pageId, file);
-        } catch (Exception e) {
-
-            page = new HeapPage(pageId);
+        // страница меняется в общем буферном пуле; на диск она уйдёт при фиксации
+        TupleId tid = heapFile.insert(tuple);
+        if (indexManager != null) {
+            indexManager.insertRow(tableDefinition, rowValues, tid);
+        }
+        if (tupleCounts != null) {
+            tupleCounts.inserted(tableDefinition.getOid());
         }
-
-        page.write(tuple);
-
-        pageFileManager.write(page, file);
-
 
         return null;
     }
 
     @Override
     public void close() { }
-
-    private byte[] serializeRow(List<Object> values) {
-        ByteBuffer buf = ByteBuffer.allocate(8192).order(ByteOrder.LITTLE_ENDIAN);
-
-        for (Object v : values) {
-            if (v == null) {
-                buf.put((byte) 0); // null tag
-            } else if (v instanceof Integer i) {
-                buf.put((byte) 1);
-                buf.putInt(i);
-            } else if (v instanceof Long l) {
-                buf.put((byte) 2);
-                buf.putLong(l);
-            } else if (v instanceof Boolean b) {
-                buf.put((byte) 3);
-                buf.put((byte) (b ? 1 : 0));
-            } else if (v instanceof String s) {
-                byte[] bytes = s.getBytes(java.nio.charset.StandardCharsets.UTF_8);
-                buf.put((byte) 4);
-                buf.putShort((short) bytes.length);
-                buf.put(bytes);
-            } else if (v instanceof Number n) {
-                buf.put((byte) 2);
-                buf.putLong(n.longValue());
-            } else {
-                throw new IllegalArgumentException("Unsupported value type: " + v.getClass());
-            }
-        }
-
-        byte[] out = new byte[buf.position()];
-        System.arraycopy(buf.array(), 0, out, 0, buf.position());
-        return out;
-    }
 }
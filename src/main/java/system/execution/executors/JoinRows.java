@@ -0,0 +1,61 @@
+package system.execution.executors;
+
+import system.execution.tuple.Row;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Общее для операторов соединения: строка результата и сравнение ключей. Равенство ключей —
+ * как в WHERE: целые сравниваются как long (INTEGER равен BIGINT), NULL не равен ничему.
+ */
+final class JoinRows {
+
+    private JoinRows() {}
+
+    static List<Object> rowOf(Object row, String operator) {
+        if (!(row instanceof List<?> raw)) {
+            throw new IllegalStateException(operator + " expected List<Object> from child, got: " + row.getClass());
+        }
+        @SuppressWarnings("unchecked")
+        List<Object> list = (List<Object>) raw;
+        return list;
+    }
+
+    /**
+     * Строка outer, за ней строка inner; обе копируются, так что исходные строки можно переиспользовать.
+     */
+    static List<Object> concat(List<Object> outer, List<Object> inner) {
+        List<Object> row = new ArrayList<>(outer.size() + inner.size());
+        row.addAll(outer);
+        row.addAll(inner);
+        return row;
+    }
+
+    static boolean keysEqual(List<Object> outer, int[] outerKeys, List<Object> inner, int[] innerKeys) {
+        for (int i = 0; i < outerKeys.length; i++) {
+            if (!valuesEqual(outer.get(outerKeys[i]), inner.get(innerKeys[i]))) return false;
+        }
+        return true;
+    }
+
+    static boolean valuesEqual(Object a, Object b) {
+        if (a == null || b == null) return false;
+        if (a instanceof Number x && b instanceof Number y) {
+            if (isIntegral(x) && isIntegral(y)) return x.longValue() == y.longValue();
+            return x.doubleValue() == y.doubleValue();
+        }
+        return a.equals(b);
+    }
+
+    static boolean hasNullKey(List<Object> row, int[] keys) {
+        for (int key : keys) {
+            if (row instanceof Row r ? r.isNull(key) : row.get(key) == null) return true;
+        }
+        return false;
+    }
+
+    static boolean isIntegral(Number n) {
+        return n instanceof Integer || n instanceof Long || n instanceof Short || n instanceof Byte;
+    }
+}
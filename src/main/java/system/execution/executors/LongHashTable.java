@@ -0,0 +1,98 @@
+package system.execution.executors;
+
+import java.util.Arrays;
+
+/**
+ * Хеш-таблица с открытой адресацией и ключами long без упаковки: ключ → цепочка номеров строк.
+ * Слоты (ключ и первая строка цепочки) лежат в двух параллельных массивах, поиск идёт линейным
+ * пробированием; строки с одинаковым ключом связаны массивом next по номеру строки.
+ * Цепочка отдаёт строки в порядке, обратном добавлению.
+ */
+final class LongHashTable {
+    private static final int EMPTY = -1;
+
+    private long[] keys;
+    private int[] heads;
+    private int mask;
+    private int size;
+    private int[] next;
+
+    LongHashTable(int expectedRows) {
+        int capacity = Integer.highestOneBit(Math.max(16, expectedRows) * 2 - 1) << 1;
+        keys = new long[capacity];
+        heads = new int[capacity];
+        Arrays.fill(heads, EMPTY);
+        mask = capacity - 1;
+        next = new int[Math.max(16, expectedRows)];
+    }
+
+    /**
+     * Перемешивание битов ключа (финализатор MurmurHash3): соседние целые попадают в далёкие слоты,
+     * а старшие биты годятся для разбиения на партиции.
+     */
+    static long mix(long key) {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        key ^= key >>> 33;
+        return key;
+    }
+
+    void add(long key, int row) {
+        if (row >= next.length) next = Arrays.copyOf(next, Math.max(row + 1, next.length * 2));
+        int slot = slot(key);
+        if (heads[slot] == EMPTY) {
+            if ((size + 1) * 2 > keys.length) {
+                grow();
+                slot = slot(key);
+            }
+            keys[slot] = key;
+            size++;
+        }
+        next[row] = heads[slot];
+        heads[slot] = row;
+    }
+
+    /**
+     * Первая строка с ключом key; -1 — таких нет.
+     */
+    int first(long key) {
+        return heads[slot(key)];
+    }
+
+    /**
+     * Следующая строка той же цепочки; -1 — цепочка кончилась.
+     */
+    int next(int row) {
+        return next[row];
+    }
+
+    int size() {
+        return size;
+    }
+
+    // слот ключа или пустой слот, куда он встанет
+    private int slot(long key) {
+        int slot = (int) mix(key) & mask;
+        while (heads[slot] != EMPTY && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void grow() {
+        long[] oldKeys = keys;
+        int[] oldHeads = heads;
+        keys = new long[oldKeys.length * 2];
+        heads = new int[oldKeys.length * 2];
+        Arrays.fill(heads, EMPTY);
+        mask = keys.length - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldHeads[i] == EMPTY) continue;
+            int slot = slot(oldKeys[i]);
+            keys[slot] = oldKeys[i];
+            heads[slot] = oldHeads[i];
+        }
+    }
+}
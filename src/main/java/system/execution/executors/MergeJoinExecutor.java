@@ -0,0 +1,138 @@
+package system.execution.executors;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Соединение слиянием двух потоков, упорядоченных по возрастанию первой пары ключей
+ * (в порядке btree-индекса: числа как long, строки по кодовым точкам, NULL в конце).
+ * Строки inner с одинаковым ключом собираются в группу; каждая строка outer с тем же ключом
+ * соединяется со всей группой, остальные пары ключей проверяются на каждой паре строк.
+ * Памяти нужно на одну группу inner, а не на всю сторону.
+ */
+public class MergeJoinExecutor implements Executor {
+    private final Executor outer;
+    private final Executor inner;
+    private final int[] outerKeys;
+    private final int[] innerKeys;
+
+    private final List<List<Object>> group = new ArrayList<>();
+    private Object groupKey;
+    private List<Object> innerRow;
+    private List<Object> outerRow;
+    private int position;
+    private boolean isOpen;
+
+    /**
+     * @param outerKeys ключи outer; по первому outer упорядочен.
+     * @param innerKeys ключи inner; по первому inner упорядочен.
+     */
+    public MergeJoinExecutor(Executor outer, Executor inner, int[] outerKeys, int[] innerKeys) {
+        if (outerKeys.length == 0 || outerKeys.length != innerKeys.length) {
+            throw new IllegalArgumentException("Merge join needs the same non-empty number of keys on both sides");
+        }
+        this.outer = outer;
+        this.inner = inner;
+        this.outerKeys = outerKeys;
+        this.innerKeys = innerKeys;
+    }
+
+    @Override
+    public void open() {
+        outer.open();
+        inner.open();
+        group.clear();
+        groupKey = null;
+        outerRow = null;
+        innerRow = nextInner();
+        isOpen = true;
+    }
+
+    @Override
+    public Object next() {
+        if (!isOpen) return null;
+
+        while (true) {
+            if (outerRow != null) {
+                while (position < group.size()) {
+                    List<Object> candidate = group.get(position++);
+                    if (JoinRows.keysEqual(outerRow, outerKeys, candidate, innerKeys)) {
+                        return JoinRows.concat(outerRow, candidate);
+                    }
+                }
+            }
+            Object row = outer.next();
+            if (row == null) return null;
+            outerRow = JoinRows.rowOf(row, "MergeJoinExecutor");
+            position = 0;
+
+            Object key = outerRow.get(outerKeys[0]);
+            if (key == null) {
+                // NULL не равен ничему, а дальше идут только строки с NULL
+                return null;
+            }
+            if (groupKey != null && compareKeys(key, groupKey) == 0) continue;
+            advanceTo(key);
+        }
+    }
+
+    /**
+     * Пропускает строки inner с меньшим ключом и собирает группу с ключом key;
+     * если такого ключа нет, группа пуста.
+     */
+    private void advanceTo(Object key) {
+        group.clear();
+        groupKey = null;
+        while (innerRow != null) {
+            Object innerKey = innerRow.get(innerKeys[0]);
+            int cmp = innerKey == null ? 1 : compareKeys(innerKey, key);
+            if (cmp > 0) return;
+            if (cmp == 0) {
+                groupKey = key;
+                // строку скана нельзя держать дольше следующего next(): в группе лежат копии
+                group.add(new ArrayList<>(innerRow));
+            }
+            innerRow = nextInner();
+        }
+    }
+
+    private List<Object> nextInner() {
+        Object row = inner.next();
+        return row == null ? null : JoinRows.rowOf(row, "MergeJoinExecutor");
+    }
+
+    /**
+     * Порядок ключей btree-индекса (KeyCodec): целые сравниваются как long,
+     * строки — по кодовым точкам (как байты UTF-8), а не по UTF-16.
+     */
+    static int compareKeys(Object a, Object b) {
+        if (a instanceof Number x && b instanceof Number y) {
+            if (JoinRows.isIntegral(x) && JoinRows.isIntegral(y)) return Long.compare(x.longValue(), y.longValue());
+            return Double.compare(x.doubleValue(), y.doubleValue());
+        }
+        if (a instanceof String x && b instanceof String y) {
+            int i = 0;
+            int j = 0;
+            while (i < x.length() && j < y.length()) {
+                int cx = x.codePointAt(i);
+                int cy = y.codePointAt(j);
+                if (cx != cy) return Integer.compare(cx, cy);
+                i += Character.charCount(cx);
+                j += Character.charCount(cy);
+            }
+            return Integer.compare(x.length() - i, y.length() - j);
+        }
+        if (a instanceof Boolean x && b instanceof Boolean y) return Boolean.compare(x, y);
+        throw new IllegalStateException("Merge join keys are not comparable: " + a + ", " + b);
+    }
+
+    @Override
+    public void close() {
+        outer.close();
+        inner.close();
+        group.clear();
+        outerRow = null;
+        innerRow = null;
+        isOpen = false;
+    }
+}
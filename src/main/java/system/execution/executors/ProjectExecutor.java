@@ -4,20 +4,31 @@ import system.ast.TargetEntry;
 import system.ast.ColumnRef;
 import system.ast.AConst;
 import system.catalog.manager.CatalogManager;
-import system.catalog.manager.DefaultCatalogManager;
 import system.catalog.model.ColumnDefinition;
 import system.catalog.model.TableDefinition;
+import system.execution.expr.CompiledProjection;
+import system.execution.expr.ExpressionCompiler;
+import system.execution.tuple.ColumnVector;
+import system.execution.tuple.RowBatch;
 
-import java.util.ArrayList;
 import java.util.List;
 
 public class ProjectExecutor implements Executor {
+    private static final int CONSTANT = ExpressionCompiler.CONSTANT_TARGET;
+    private static final int UNKNOWN = -2;
+
     private final Executor child;
     private final List<TargetEntry> targetList;
     private boolean isOpen;
     private final TableDefinition table;
     private final CatalogManager catalog;
 
+    // номер колонки строки ребёнка для каждого элемента списка выборки
+    private int[] ordinals;
+    private boolean passThrough;
+    // null — в выборке есть неизвестная колонка, ошибка выдаётся на первой строке
+    private CompiledProjection projection;
+
     public ProjectExecutor(Executor child, List<TargetEntry> targetList,
                            CatalogManager catalog, TableDefinition table) {
         this.child = child;
@@ -26,8 +37,25 @@ public class ProjectExecutor implements Executor {
         this.table = table;
     }
 
+    /**
+     * Колонки списка выборки ищутся в каталоге один раз, дальше строки собираются по номерам
+     * (для повторяющихся выборок — сгенерированным классом, см. ExpressionCompiler).
+     */
     @Override
     public void open() {
+        passThrough = targetList == null || targetList.isEmpty()
+                || targetList.stream().anyMatch(t -> t.expr instanceof ColumnRef col && "*".equals(col.column));
+        if (!passThrough) {
+            ordinals = new int[targetList.size()];
+            Object[] constants = new Object[ordinals.length];
+            boolean resolved = true;
+            for (int i = 0; i < ordinals.length; i++) {
+                ordinals[i] = ordinalOf(targetList.get(i));
+                if (ordinals[i] == CONSTANT) constants[i] = ((AConst) targetList.get(i).expr).value;
+                resolved &= ordinals[i] != UNKNOWN;
+            }
+            projection = resolved ? ExpressionCompiler.compileProjection(ordinals, constants) : null;
+        }
         child.open();
         isOpen = true;
     }
@@ -46,61 +74,72 @@ public class ProjectExecutor implements Executor {
         @SuppressWarnings("unchecked")
         List<Object> row = (List<Object>) rawRow;
 
-        if (targetList == null || targetList.isEmpty()) {
+        if (passThrough) {
             return row;
         }
 
-        for (TargetEntry t : targetList) {
-            if (t.expr instanceof ColumnRef col && "*".equals(col.column)) {
-                return row;
+        if (projection == null) {
+            for (int i = 0; i < ordinals.length; i++) {
+                checkedOrdinal(i);
             }
         }
-
-        List<Object> result = new ArrayList<>(targetList.size());
-        for (TargetEntry t : targetList) {
-            if (t.expr instanceof ColumnRef col) {
-                int idx = getFieldIndex(col.column);
-                if (idx < 0) throw new IllegalArgumentException("Unknown column: " + col.column);
-                result.add(row.get(idx));
-            } else if (t.expr instanceof AConst c) {
-                result.add(c.value);
-            }
-        }
-
-        if (result.size() == 1) return result.get(0);
-        return result;
+        return projection.project(row);
     }
 
+    /**
+     * Выходной пакет разделяет с пакетом ребёнка векторы колонок и вектор выбора —
+     * проекция ничего не копирует, только константы разворачиваются в свои векторы.
+     */
+    @Override
+    public RowBatch nextBatch() {
+        if (!isOpen) return null;
+
+        RowBatch input = child.nextBatch();
+        if (input == null) return null;
 
-    private int getFieldIndex(String columnName) {
-        if (table == null) return -1;
+        if (passThrough) {
+            return input;
+        }
 
-        if (catalog instanceof DefaultCatalogManager cm) {
-            var cols = cm.getTableColumns(table);
-            for (int i = 0; i < cols.size(); i++) {
-                if (cols.get(i).getName().equalsIgnoreCase(columnName)) return i;
-            }
-            return -1;
+        ColumnVector[] columns = new ColumnVector[ordinals.length];
+        for (int i = 0; i < ordinals.length; i++) {
+            int idx = checkedOrdinal(i);
+            columns[i] = idx == CONSTANT
+                    ? ColumnVector.constant(((AConst) targetList.get(i).expr).value, input.size())
+                    : input.column(idx);
         }
 
-        try {
-            var m = catalog.getClass().getMethod("getTableColumns", TableDefinition.class);
-            @SuppressWarnings("unchecked")
-            var cols = (List<ColumnDefinition>) m.invoke(catalog, table);
-            for (int i = 0; i < cols.size(); i++) {
-                if (cols.get(i).getName().equalsIgnoreCase(columnName)) return i;
-            }
-            return -1;
-        } catch (Exception e) {
-            return -1;
+        RowBatch output = new RowBatch(input, columns);
+        output.setScalarRows(columns.length == 1);
+        return output;
+    }
+
+    private int checkedOrdinal(int target) {
+        int idx = ordinals[target];
+        if (idx == UNKNOWN) {
+            Object expr = targetList.get(target).expr;
+            throw new IllegalArgumentException("Unknown column: "
+                    + (expr instanceof ColumnRef col ? col.column : String.valueOf(expr)));
         }
+        return idx;
     }
 
+    private int ordinalOf(TargetEntry target) {
+        if (target.expr instanceof AConst) return CONSTANT;
+        if (target.expr instanceof ColumnRef col && col.columnIndex >= 0) return col.columnIndex;
+        if (!(target.expr instanceof ColumnRef col) || table == null) return UNKNOWN;
 
+        List<ColumnDefinition> cols = catalog.getTableColumns(table);
+        for (int i = 0; i < cols.size(); i++) {
+            if (cols.get(i).getName().equalsIgnoreCase(col.column)) return i;
+        }
+        return UNKNOWN;
+    }
 
     @Override
     public void close() {
         child.close();
         isOpen = false;
+        projection = null;
     }
 }
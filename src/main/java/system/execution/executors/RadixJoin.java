@@ -0,0 +1,242 @@
+package system.execution.executors;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntConsumer;
+
+/**
+ * Соединение в памяти с радикс-разбиением: ключи обеих сторон (long из HashJoinExecutor.hash) вместе
+ * с номерами строк раскладываются по старшим битам перемешанного ключа на партиции такого размера,
+ * чтобы хеш-таблица партиции и её ключи помещались в кэш процессора (PARTITION_ROWS строк inner).
+ * Затем каждая партиция соединяется отдельно, и зондирование идёт по таблице в кэше, а не по одной
+ * большой таблице, где почти каждый поиск — промах кэша.
+ *
+ * Партиций за один проход не больше 2^MAX_PASS_BITS: при большем числе одновременно заполняемых
+ * областей промахи TLB съедают выигрыш, поэтому мелкое разбиение делается в два прохода.
+ * Первый проход параллелен по кускам входа (гистограммы кусков, затем запись по своим смещениям),
+ * второй проход и соединение — по партициям первого; всё в общем ForkJoinPool.
+ *
+ * Разбиение устойчиво: внутри партиции строки идут в исходном порядке, так что совпадения
+ * одной строки probe выдаются в порядке строк build. Результат — пары номеров строк (probe, build),
+ * сгруппированные по партициям первого прохода.
+ */
+final class RadixJoin {
+    static final int PARTITION_ROWS = 4096;
+    static final int MAX_PASS_BITS = 7;
+    private static final int MAX_BITS = 2 * MAX_PASS_BITS;
+
+    /**
+     * Проверка пары строк с равными ключами long: для целочисленных ключей это равенство значений,
+     * для хешей нужно сравнить сами значения.
+     */
+    interface Matcher {
+        boolean matches(int probe, int build);
+    }
+
+    /**
+     * Пары (probe, build) одной партиции первого прохода: pairs[2i] — строка probe, pairs[2i + 1] — build.
+     */
+    static final class Pairs {
+        private int[] pairs = new int[32];
+        private int size;
+
+        void add(int probe, int build) {
+            if (2 * size + 2 > pairs.length) pairs = Arrays.copyOf(pairs, pairs.length * 2);
+            pairs[2 * size] = probe;
+            pairs[2 * size + 1] = build;
+            size++;
+        }
+
+        int size() {
+            return size;
+        }
+
+        int probe(int i) {
+            return pairs[2 * i];
+        }
+
+        int build(int i) {
+            return pairs[2 * i + 1];
+        }
+    }
+
+    private RadixJoin() {}
+
+    /**
+     * Сколько бит разбиения нужно, чтобы в партиции было не больше PARTITION_ROWS строк build.
+     */
+    static int radixBits(int buildRows) {
+        int bits = 0;
+        while (bits < MAX_BITS && (long) PARTITION_ROWS << bits < buildRows) {
+            bits++;
+        }
+        return bits;
+    }
+
+    /**
+     * @return пары совпавших строк по партициям первого прохода.
+     */
+    static Pairs[] join(long[] buildKeys, long[] probeKeys, Matcher matcher, ForkJoinPool pool) {
+        int bits = Math.max(1, radixBits(buildKeys.length));
+        int firstBits = bits <= MAX_PASS_BITS ? bits : (bits + 1) / 2;
+        int secondBits = bits - firstBits;
+        int workers = pool.getParallelism();
+
+        Partitioned build = partition(buildKeys, firstBits, workers, pool);
+        Partitioned probe = partition(probeKeys, firstBits, workers, pool);
+
+        Pairs[] result = new Pairs[1 << firstBits];
+        forEach(pool, result.length, p -> {
+            Pairs out = new Pairs();
+            if (secondBits == 0) {
+                joinPartition(build, probe, p, matcher, out);
+            } else if (build.size(p) > 0 && probe.size(p) > 0) {
+                Partitioned subBuild = build.split(p, firstBits, secondBits);
+                Partitioned subProbe = probe.split(p, firstBits, secondBits);
+                for (int q = 0; q < 1 << secondBits; q++) {
+                    joinPartition(subBuild, subProbe, q, matcher, out);
+                }
+            }
+            result[p] = out;
+        });
+        return result;
+    }
+
+    /**
+     * Ключи и номера строк, переставленные по партициям; партиция p занимает [bounds[p], bounds[p + 1]).
+     */
+    private record Partitioned(long[] keys, int[] rows, int[] bounds) {
+
+        int size(int p) {
+            return bounds[p + 1] - bounds[p];
+        }
+
+        /**
+         * Второй проход: партиция p раскладывается по следующим bits битам, последовательно.
+         */
+        Partitioned split(int p, int shift, int bits) {
+            int from = bounds[p];
+            int to = bounds[p + 1];
+            int parts = 1 << bits;
+            int[] counts = new int[parts + 1];
+            for (int i = from; i < to; i++) {
+                counts[digit(keys[i], shift, bits) + 1]++;
+            }
+            for (int q = 0; q < parts; q++) {
+                counts[q + 1] += counts[q];
+            }
+            int[] subBounds = counts.clone();
+            long[] subKeys = new long[to - from];
+            int[] subRows = new int[to - from];
+            for (int i = from; i < to; i++) {
+                int at = counts[digit(keys[i], shift, bits)]++;
+                subKeys[at] = keys[i];
+                subRows[at] = rows[i];
+            }
+            return new Partitioned(subKeys, subRows, subBounds);
+        }
+    }
+
+    /**
+     * Первый проход: каждый кусок входа считает свою гистограмму, по ним вычисляется, с какого места
+     * каждый кусок пишет в каждую партицию, и куски раскладываются параллельно, не мешая друг другу.
+     */
+    private static Partitioned partition(long[] keys, int bits, int workers, ForkJoinPool pool) {
+        int n = keys.length;
+        int parts = 1 << bits;
+        int chunks = Math.max(1, Math.min(workers, n / PARTITION_ROWS));
+        int[][] offsets = new int[chunks][parts];
+        forEach(pool, chunks, c -> {
+            int[] histogram = offsets[c];
+            for (int i = from(c, chunks, n); i < from(c + 1, chunks, n); i++) {
+                histogram[digit(keys[i], 0, bits)]++;
+            }
+        });
+
+        int[] bounds = new int[parts + 1];
+        int position = 0;
+        for (int p = 0; p < parts; p++) {
+            bounds[p] = position;
+            for (int c = 0; c < chunks; c++) {
+                int count = offsets[c][p];
+                offsets[c][p] = position;
+                position += count;
+            }
+        }
+        bounds[parts] = n;
+
+        long[] outKeys = new long[n];
+        int[] outRows = new int[n];
+        forEach(pool, chunks, c -> {
+            int[] next = offsets[c];
+            for (int i = from(c, chunks, n); i < from(c + 1, chunks, n); i++) {
+                int at = next[digit(keys[i], 0, bits)]++;
+                outKeys[at] = keys[i];
+                outRows[at] = i;
+            }
+        });
+        return new Partitioned(outKeys, outRows, bounds);
+    }
+
+    private static int from(int chunk, int chunks, int n) {
+        return (int) ((long) n * chunk / chunks);
+    }
+
+    // bits битов перемешанного ключа после первых shift старших; младшие биты остаются хеш-таблице партиции
+    private static int digit(long key, int shift, int bits) {
+        return (int) (LongHashTable.mix(key) >>> (64 - shift - bits)) & ((1 << bits) - 1);
+    }
+
+    private static void joinPartition(Partitioned build, Partitioned probe, int p, Matcher matcher, Pairs out) {
+        int buildFrom = build.bounds()[p];
+        int buildSize = build.size(p);
+        int probeFrom = probe.bounds()[p];
+        int probeSize = probe.size(p);
+        if (buildSize == 0 || probeSize == 0) return;
+
+        long[] buildKeys = build.keys();
+        LongHashTable table = new LongHashTable(buildSize);
+        // в обратном порядке: цепочки таблицы отдают совпадения в порядке строк build
+        for (int i = buildSize - 1; i >= 0; i--) {
+            table.add(buildKeys[buildFrom + i], i);
+        }
+        long[] probeKeys = probe.keys();
+        int[] buildRows = build.rows();
+        int[] probeRows = probe.rows();
+        for (int j = probeFrom; j < probeFrom + probeSize; j++) {
+            for (int m = table.first(probeKeys[j]); m >= 0; m = table.next(m)) {
+                int buildRow = buildRows[buildFrom + m];
+                if (matcher.matches(probeRows[j], buildRow)) out.add(probeRows[j], buildRow);
+            }
+        }
+    }
+
+    private static void forEach(ForkJoinPool pool, int count, IntConsumer body) {
+        if (count > 0) pool.invoke(new ForEach(0, count, body));
+    }
+
+    private static final class ForEach extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int from;
+        private final int to;
+        private final transient IntConsumer body;
+
+        ForEach(int from, int to, IntConsumer body) {
+            this.from = from;
+            this.to = to;
+            this.body = body;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from == 1) {
+                body.accept(from);
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new ForEach(from, middle, body), new ForEach(middle, to, body));
+        }
+    }
+}
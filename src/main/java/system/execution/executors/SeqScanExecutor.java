@@ -1,25 +1,114 @@
 package system.execution.executors;
 
+import system.ast.Expr;
+import system.catalog.model.ColumnDefinition;
 import system.catalog.model.TableDefinition;
+import system.execution.expr.CompiledPredicate;
+import system.execution.expr.ExpressionCompiler;
+import system.execution.tuple.ColumnVector;
+import system.execution.tuple.RowBatch;
 import system.execution.tuple.TupleCodec;
+import system.execution.tuple.TupleHeader;
+import system.execution.tuple.TupleRow;
 import system.memory.buffer.BufferPoolManager;
+import system.memory.model.BufferSlot;
 import system.memory.page.HeapPage;
+import system.memory.vm.VisibilityMap;
+import system.transaction.visibility.VisibilityChecker;
 
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.locks.Lock;
+
+/**
+ * Последовательное чтение таблицы. next() отдаёт один и тот же TupleRow, перенаправляя его
+ * на очередную версию, — строка действительна до следующего вызова next().
+ *
+ * Оптимизатор может перенести в скан условие WHERE и список выборки: условие проверяется
+ * по байтам версии прямо на странице, и не прошедшие строки не копируются и не декодируются,
+ * а наверх уходят только нужные колонки.
+ */
 public class SeqScanExecutor implements Executor {
     private final BufferPoolManager bufferPool;
     private final String tableName;
+    private final VisibilityChecker visibility;
+    private final VisibilityMap visibilityMap;
+    private final Expr condition;
+    private final List<ColumnDefinition> columns;
+    private final int[] outputColumns;
+    private CompiledPredicate predicate;
+    private final TupleRow probe = new TupleRow();
+    private BitSet pages;
     private int currentPageId;
+    // страницы от endPage и дальше не читаются (диапазон параллельного воркера)
+    private int endPage = Integer.MAX_VALUE;
+    // видимые версии текущей страницы: значения скопированы подряд в pageData
+    private final byte[] pageData = new byte[HeapPage.PAGE_SIZE];
+    private int[] rowStarts = new int[64];
+    private int[] rowEnds = new int[64];
+    private int[] rowSlots = new int[64];
+    private int rowCount;
+    private int loadedPageId;
     private int currentRowIndex;
+    private final TupleRow row = new TupleRow();
+
+    // значения строк текущего пакета; колонки декодируются из них лениво
+    private byte[] batchData = new byte[HeapPage.PAGE_SIZE];
+    private int batchDataSize;
+    private int[] batchStarts = new int[RowBatch.CAPACITY];
+    private int[] batchEnds = new int[RowBatch.CAPACITY];
+    private int batchColumns;
+    private final RowBatch.ColumnLoader columnLoader = this::loadColumn;
+    private RowBatch batch;
     private boolean isOpen;
 
     public SeqScanExecutor(BufferPoolManager bufferPool, TableDefinition tableDefinition) {
+        this(bufferPool, tableDefinition, null);
+    }
+
+    /**
+     * @param visibility снимок, по которому отбираются версии строк; null — отдавать все версии.
+     */
+    public SeqScanExecutor(BufferPoolManager bufferPool, TableDefinition tableDefinition,
+                           VisibilityChecker visibility) {
+        this(bufferPool, tableDefinition, visibility, null);
+    }
+
+    /**
+     * @param visibilityMap карта видимости таблицы: для страниц ALL_VISIBLE проверка снимка не нужна.
+     */
+    public SeqScanExecutor(BufferPoolManager bufferPool, TableDefinition tableDefinition,
+                           VisibilityChecker visibility, VisibilityMap visibilityMap) {
+        this(bufferPool, tableDefinition, visibility, visibilityMap, null, null, null);
+    }
+
+    /**
+     * @param condition     условие WHERE, вычисляемое самим сканом; null — без условия.
+     * @param columns       колонки таблицы, по которым компилируется условие.
+     * @param outputColumns номера колонок таблицы, из которых состоит результат; null — все колонки.
+     *                      Одна колонка отдаётся значением, как у ProjectExecutor.
+     */
+    public SeqScanExecutor(BufferPoolManager bufferPool, TableDefinition tableDefinition,
+                           VisibilityChecker visibility, VisibilityMap visibilityMap,
+                           Expr condition, List<ColumnDefinition> columns, int[] outputColumns) {
         this.bufferPool = bufferPool;
         this.tableName = tableDefinition.getName();
+        this.visibility = visibility;
+        this.visibilityMap = visibilityMap;
+        this.condition = condition;
+        this.columns = columns;
+        this.outputColumns = outputColumns;
+        row.project(outputColumns);
     }
 
     @Override
     public void open() {
+        predicate = condition != null ? ExpressionCompiler.compilePredicate(condition, columns) : null;
+        pages = pagesToScan();
         currentPageId = 0;
+        endPage = Integer.MAX_VALUE;
+        rowCount = 0;
         currentRowIndex = 0;
         isOpen = true;
     }
@@ -29,33 +118,201 @@ public class SeqScanExecutor implements Executor {
         if (!isOpen) return null;
 
         while (true) {
-            var bufferSlot = (system.memory.model.BufferSlot) null;
-            try {
-                bufferSlot = bufferPool.getPage(currentPageId);
-            } catch (Exception e) {
+            if (currentRowIndex < rowCount) {
+                int i = currentRowIndex++;
+                row.reset(pageData, rowStarts[i], rowEnds[i], loadedPageId, rowSlots[i]);
+                return outputColumns != null && outputColumns.length == 1 ? row.get(0) : row;
+            }
+            if (pages != null) {
+                currentPageId = pages.nextSetBit(currentPageId);
+                if (currentPageId < 0) return null;
+            }
+            if (currentPageId >= endPage || !loadPage(currentPageId++)) {
                 return null;
             }
+        }
+    }
 
-            if (bufferSlot == null) return null;
+    /**
+     * Пакет заполняется целыми страницами, пока в нём меньше RowBatch.CAPACITY строк,
+     * и переиспользуется между вызовами. Значения строк только копируются из страницы,
+     * колонки декодируются при первом обращении (поздняя материализация, см. RowBatch):
+     * сначала колонки условия для всех строк, остальные — для строк, прошедших фильтр.
+     */
+    @Override
+    public RowBatch nextBatch() {
+        if (!isOpen) return null;
 
-            HeapPage page = (HeapPage) bufferSlot.getPage();
+        if (batch == null) batch = new RowBatch();
+        batch.clear();
+        batchDataSize = 0;
+        batchColumns = 0;
+        while (!batch.isFull()) {
+            if (pages != null) {
+                int next = pages.nextSetBit(currentPageId);
+                if (next < 0) break;
+                currentPageId = next;
+            }
+            if (currentPageId >= endPage) break;
+            RowBatch target = batch;
+            int pageId = currentPageId++;
+            boolean loaded = scanPage(pageId, (slot, data, offset, length) -> {
+                int row = target.addRow();
+                target.setTupleId(row, pageId, slot);
+                int valuesLength = length - TupleHeader.SIZE;
+                if (row == batchStarts.length) {
+                    batchStarts = Arrays.copyOf(batchStarts, row * 2);
+                    batchEnds = Arrays.copyOf(batchEnds, row * 2);
+                }
+                if (batchDataSize + valuesLength > batchData.length) {
+                    batchData = Arrays.copyOf(batchData, Math.max(batchData.length * 2, batchDataSize + valuesLength));
+                }
+                System.arraycopy(data, offset + TupleHeader.SIZE, batchData, batchDataSize, valuesLength);
+                batchStarts[row] = batchDataSize;
+                batchDataSize += valuesLength;
+                batchEnds[row] = batchDataSize;
+                if (outputColumns == null) {
+                    batchColumns = Math.max(batchColumns, TupleCodec.columnCount(batchData, batchStarts[row], batchDataSize));
+                }
+            });
+            if (!loaded) break;
+        }
+        if (batch.size() == 0) return null;
+        if (outputColumns != null) {
+            batch.setColumnLoader(columnLoader, outputColumns.length);
+            batch.setScalarRows(outputColumns.length == 1);
+        } else {
+            batch.setColumnLoader(columnLoader, batchColumns);
+        }
+        return batch;
+    }
+
+    private void loadColumn(int column, ColumnVector vector, RowBatch target) {
+        int stored = outputColumns != null ? outputColumns[column] : column;
+        int count = target.getSelectedCount();
+        for (int k = 0; k < count; k++) {
+            int row = target.getSelected(k);
+            TupleCodec.decodeColumn(batchData, batchStarts[row], batchEnds[row], stored, vector, row);
+        }
+    }
+
+    /**
+     * Продолжить открытый скан со страниц [from, to): так воркер параллельного скана
+     * переходит к следующему доставшемуся ему диапазону, не открывая конвейер заново.
+     */
+    void scanPages(int from, int to) {
+        currentPageId = from;
+        endPage = to;
+        rowCount = 0;
+        currentRowIndex = 0;
+    }
+
+    /**
+     * Страницы, которые нужно прочитать; null — все страницы таблицы.
+     */
+    protected BitSet pagesToScan() {
+        return null;
+    }
+
+    /**
+     * Слоты страницы, которые нужно прочитать, по возрастанию; null — все слоты.
+     */
+    protected int[] slotsToRead(int pageId) {
+        return null;
+    }
+
+    protected BufferPoolManager getBufferPool() {
+        return bufferPool;
+    }
+
+    /**
+     * Значения видимых строк страницы копируются под read-защёлкой в буфер оператора,
+     * дальше они отдаются наверх уже без удержания страницы. Буфер и массивы позиций
+     * переиспользуются, так что на строку не создаётся ни одного объекта.
+     */
+    private boolean loadPage(int pageId) {
+        rowCount = 0;
+        currentRowIndex = 0;
+        loadedPageId = pageId;
+        return scanPage(pageId, (slot, data, offset, length) -> {
+            if (rowCount == rowStarts.length) {
+                rowStarts = Arrays.copyOf(rowStarts, rowCount * 2);
+                rowEnds = Arrays.copyOf(rowEnds, rowCount * 2);
+                rowSlots = Arrays.copyOf(rowSlots, rowCount * 2);
+            }
+            int start = rowCount == 0 ? 0 : rowEnds[rowCount - 1];
+            int valuesLength = length - TupleHeader.SIZE;
+            System.arraycopy(data, offset + TupleHeader.SIZE, pageData, start, valuesLength);
+            rowStarts[rowCount] = start;
+            rowEnds[rowCount] = start + valuesLength;
+            rowSlots[rowCount] = slot;
+            rowCount++;
+        });
+    }
 
+    /**
+     * Версия строки лежит в data[offset..offset + length): заголовок TupleHeader, затем значения.
+     */
+    private interface RowVisitor {
+        void visit(int slot, byte[] data, int offset, int length);
+    }
+
+    /**
+     * Передаёт visitor видимые версии строк страницы, пока страница удерживается под read-защёлкой.
+     * false — страницы нет (конец таблицы).
+     */
+    private boolean scanPage(int pageId, RowVisitor visitor) {
+        BufferSlot bufferSlot;
+        try {
+            bufferSlot = bufferPool.fetchPage(pageId);
+        } catch (Exception e) {
+            return false;
+        }
+        if (bufferSlot == null) return false;
+
+        Lock latch = bufferSlot.getContentLock().readLock();
+        latch.lock();
+        try {
+            HeapPage page = (HeapPage) bufferSlot.getPage();
+            // бит читается под защёлкой страницы: изменить её и не сбросить бит никто не успеет
+            boolean checkVisibility = visibility != null
+                    && (visibilityMap == null || !visibilityMap.isAllVisible(pageId));
 
-            if (currentRowIndex < page.size()) {
-                byte[] rowData = page.read(currentRowIndex++);
-                return TupleCodec.decodeTagged(rowData);
+            byte[] data = page.bytes();
+            int[] slots = slotsToRead(pageId);
+            int count = slots != null ? slots.length : page.size();
+            for (int n = 0; n < count; n++) {
+                int i = slots != null ? slots[n] : n;
+                // слот из индекса мог быть освобождён VACUUM после построения карты
+                if (i >= page.size() || !page.isNormal(i)) continue;
 
-            } else {
-                currentPageId++;
-                currentRowIndex = 0;
+                int offset = page.itemOffset(i);
+                int length = page.itemLength(i);
+                if (checkVisibility && !visibility.isVisible(
+                        TupleHeader.xmin(data, offset), TupleHeader.xmax(data, offset))) {
+                    continue;
+                }
+                if (predicate != null) {
+                    probe.reset(data, offset + TupleHeader.SIZE, offset + length, pageId, i);
+                    if (!predicate.test(probe)) continue;
+                }
+                visitor.visit(i, data, offset, length);
             }
+        } finally {
+            latch.unlock();
+            bufferPool.unpinPage(pageId);
         }
+        return true;
     }
 
     @Override
     public void close() {
         isOpen = false;
+        pages = null;
         currentPageId = 0;
+        rowCount = 0;
         currentRowIndex = 0;
+        batch = null;
+        predicate = null;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,85 @@
+package system.execution.executors;
+
+import system.execution.tuple.TupleCodec;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Временный файл со строками, которые не поместились в память оператора.
+ * Строки пишутся подряд в формате TupleCodec с длиной впереди и читаются в том же порядке;
+ * после чтения файл удаляется.
+ */
+final class SpillFile {
+    private final Path path;
+    private DataOutputStream out;
+    private DataInputStream in;
+    private int rows;
+
+    SpillFile(String prefix) {
+        try {
+            path = Files.createTempFile(prefix, ".spill");
+            out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path)));
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to create spill file", e);
+        }
+    }
+
+    void write(List<Object> row) {
+        byte[] bytes = TupleCodec.encodeTagged(row);
+        try {
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to write spill file: " + path, e);
+        }
+        rows++;
+    }
+
+    int getRowCount() {
+        return rows;
+    }
+
+    /**
+     * Следующая строка файла; null — строки кончились. Первый вызов заканчивает запись.
+     */
+    List<Object> read() {
+        try {
+            if (in == null) {
+                out.close();
+                out = null;
+                in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)));
+            }
+            int length;
+            try {
+                length = in.readInt();
+            } catch (EOFException e) {
+                return null;
+            }
+            byte[] bytes = new byte[length];
+            in.readFully(bytes);
+            return TupleCodec.decodeTagged(bytes);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read spill file: " + path, e);
+        }
+    }
+
+    void delete() {
+        try {
+            if (out != null) out.close();
+            if (in != null) in.close();
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to delete spill file: " + path, e);
+        }
+        out = null;
+        in = null;
+    }
+}
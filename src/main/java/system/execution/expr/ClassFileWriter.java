@@ -0,0 +1,317 @@
+package system.execution.expr;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Минимальный сборщик class-файлов для сгенерированных выражений: пул констант, поля и методы
+ * с байткодом. Пишется версия 49 (Java 5) — для неё проверка байткода выводит типы сама
+ * и не требует StackMapTable, поэтому переходы можно ставить без расчёта фреймов.
+ */
+final class ClassFileWriter {
+    private static final int VERSION = 49;
+
+    static final int ACC_PUBLIC = 0x0001;
+    static final int ACC_PRIVATE = 0x0002;
+    static final int ACC_FINAL = 0x0010;
+    static final int ACC_SUPER = 0x0020;
+
+    // используемые коды инструкций
+    static final int ICONST_0 = 0x03, ICONST_1 = 0x04, LCONST_0 = 0x09;
+    static final int ILOAD = 0x15, ALOAD = 0x19, ISTORE = 0x36, ASTORE = 0x3a;
+    static final int IALOAD = 0x2e, LALOAD = 0x2f, AALOAD = 0x32, IASTORE = 0x4f;
+    static final int POP = 0x57, DUP = 0x59, LCMP = 0x94;
+    static final int IFEQ = 0x99, IFNE = 0x9a, IFLT = 0x9b, IFGE = 0x9c, IFGT = 0x9d, IFLE = 0x9e;
+    static final int IF_ICMPEQ = 0x9f, IF_ICMPGE = 0xa2, IF_ICMPLE = 0xa4, GOTO = 0xa7;
+    static final int IRETURN = 0xac, ARETURN = 0xb0, RETURN = 0xb1;
+    static final int GETFIELD = 0xb4, PUTFIELD = 0xb5;
+    static final int INVOKEVIRTUAL = 0xb6, INVOKESPECIAL = 0xb7, INVOKESTATIC = 0xb8, INVOKEINTERFACE = 0xb9;
+    static final int NEW = 0xbb, CHECKCAST = 0xc0, IINC = 0x84;
+
+    private final ByteArrayOutputStream pool = new ByteArrayOutputStream();
+    private final DataOutputStream poolOut = new DataOutputStream(pool);
+    private final Map<String, Integer> poolIndex = new HashMap<>();
+    private int poolCount = 1;
+
+    private final String className;
+    private final int thisClass;
+    private final int superClass;
+    private final List<Integer> interfaces = new ArrayList<>();
+    private final List<byte[]> fields = new ArrayList<>();
+    private final List<byte[]> methods = new ArrayList<>();
+
+    ClassFileWriter(String className, String superName, String... interfaceNames) {
+        this.className = className;
+        this.thisClass = classRef(className);
+        this.superClass = classRef(superName);
+        for (String name : interfaceNames) {
+            interfaces.add(classRef(name));
+        }
+    }
+
+    String getClassName() {
+        return className;
+    }
+
+    void field(int access, String name, String descriptor) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        try {
+            out.writeShort(access);
+            out.writeShort(utf8(name));
+            out.writeShort(utf8(descriptor));
+            out.writeShort(0);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        fields.add(bytes.toByteArray());
+    }
+
+    Code method(int access, String name, String descriptor, int maxLocals) {
+        return new Code(access, utf8(name), utf8(descriptor), maxLocals);
+    }
+
+    byte[] toByteArray() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        try {
+            out.writeInt(0xCAFEBABE);
+            out.writeShort(0);
+            out.writeShort(VERSION);
+            out.writeShort(poolCount);
+            poolOut.flush();
+            out.write(pool.toByteArray());
+            out.writeShort(ACC_PUBLIC | ACC_FINAL | ACC_SUPER);
+            out.writeShort(thisClass);
+            out.writeShort(superClass);
+            out.writeShort(interfaces.size());
+            for (int i : interfaces) out.writeShort(i);
+            out.writeShort(fields.size());
+            for (byte[] f : fields) out.write(f);
+            out.writeShort(methods.size());
+            for (byte[] m : methods) out.write(m);
+            out.writeShort(0);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    // ---- пул констант ----
+
+    private int constant(String key, int tag, PoolWriter writer) {
+        Integer index = poolIndex.get(key);
+        if (index != null) return index;
+        try {
+            poolOut.writeByte(tag);
+            writer.write(poolOut);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        int result = poolCount;
+        poolCount += tag == 5 || tag == 6 ? 2 : 1;
+        poolIndex.put(key, result);
+        return result;
+    }
+
+    private interface PoolWriter {
+        void write(DataOutputStream out) throws IOException;
+    }
+
+    int utf8(String value) {
+        return constant("U" + value, 1, out -> out.writeUTF(value));
+    }
+
+    int integer(int value) {
+        return constant("I" + value, 3, out -> out.writeInt(value));
+    }
+
+    int classRef(String internalName) {
+        int name = utf8(internalName);
+        return constant("C" + internalName, 7, out -> out.writeShort(name));
+    }
+
+    private int nameAndType(String name, String descriptor) {
+        int n = utf8(name);
+        int d = utf8(descriptor);
+        return constant("N" + name + ":" + descriptor, 12, out -> {
+            out.writeShort(n);
+            out.writeShort(d);
+        });
+    }
+
+    private int memberRef(int tag, String owner, String name, String descriptor) {
+        int c = classRef(owner);
+        int nt = nameAndType(name, descriptor);
+        return constant(tag + owner + "." + name + ":" + descriptor, tag, out -> {
+            out.writeShort(c);
+            out.writeShort(nt);
+        });
+    }
+
+    /**
+     * Байткод одного метода. Метки переходов разрешаются в конце, при записи метода в класс.
+     */
+    final class Code {
+        private final int access;
+        private final int name;
+        private final int descriptor;
+        private final int maxLocals;
+        private final ByteArrayOutputStream code = new ByteArrayOutputStream();
+        private final List<Label> labels = new ArrayList<>();
+
+        private Code(int access, int name, int descriptor, int maxLocals) {
+            this.access = access;
+            this.name = name;
+            this.descriptor = descriptor;
+            this.maxLocals = maxLocals;
+        }
+
+        Code op(int opcode) {
+            code.write(opcode);
+            return this;
+        }
+
+        private void u2(int value) {
+            code.write(value >>> 8);
+            code.write(value);
+        }
+
+        private Code local(int opcode, int slot) {
+            code.write(opcode);
+            code.write(slot);
+            return this;
+        }
+
+        Code aload(int slot) {
+            return local(ALOAD, slot);
+        }
+
+        Code astore(int slot) {
+            return local(ASTORE, slot);
+        }
+
+        Code iload(int slot) {
+            return local(ILOAD, slot);
+        }
+
+        Code istore(int slot) {
+            return local(ISTORE, slot);
+        }
+
+        Code iinc(int slot, int delta) {
+            code.write(IINC);
+            code.write(slot);
+            code.write(delta);
+            return this;
+        }
+
+        Code iconst(int value) {
+            // ldc_w работает для любого значения, мелкие числа идут короткой формой
+            if (value >= -1 && value <= 5) return op(ICONST_0 + value);
+            code.write(0x13);
+            u2(integer(value));
+            return this;
+        }
+
+        Code field(int opcode, String owner, String fieldName, String fieldDescriptor) {
+            code.write(opcode);
+            u2(memberRef(9, owner, fieldName, fieldDescriptor));
+            return this;
+        }
+
+        Code invoke(int opcode, String owner, String methodName, String methodDescriptor) {
+            code.write(opcode);
+            u2(memberRef(opcode == INVOKEINTERFACE ? 11 : 10, owner, methodName, methodDescriptor));
+            if (opcode == INVOKEINTERFACE) {
+                code.write(argumentSlots(methodDescriptor) + 1);
+                code.write(0);
+            }
+            return this;
+        }
+
+        Code type(int opcode, String internalName) {
+            code.write(opcode);
+            u2(classRef(internalName));
+            return this;
+        }
+
+        Code jump(int opcode, Label target) {
+            if (target.uses.isEmpty()) labels.add(target);
+            target.uses.add(code.size());
+            code.write(opcode);
+            u2(0);
+            return this;
+        }
+
+        Code mark(Label label) {
+            label.position = code.size();
+            return this;
+        }
+
+        void end(int maxStack) {
+            byte[] bytes = code.toByteArray();
+            for (Label label : labels) {
+                if (label.position < 0) throw new IllegalStateException("Unplaced label in " + className);
+                for (int at : label.uses) {
+                    int offset = label.position - at;
+                    bytes[at + 1] = (byte) (offset >>> 8);
+                    bytes[at + 2] = (byte) offset;
+                }
+            }
+
+            ByteArrayOutputStream method = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(method);
+            try {
+                out.writeShort(access);
+                out.writeShort(name);
+                out.writeShort(descriptor);
+                out.writeShort(1);
+                out.writeShort(utf8("Code"));
+                out.writeInt(12 + bytes.length);
+                out.writeShort(maxStack);
+                out.writeShort(maxLocals);
+                out.writeInt(bytes.length);
+                out.write(bytes);
+                out.writeShort(0);
+                out.writeShort(0);
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+            methods.add(method.toByteArray());
+        }
+    }
+
+    static int argumentSlots(String descriptor) {
+        int slots = 0;
+        int i = 1;
+        while (descriptor.charAt(i) != ')') {
+            char c = descriptor.charAt(i);
+            if (c == 'J' || c == 'D') {
+                slots += 2;
+                i++;
+            } else if (c == 'L') {
+                slots++;
+                i = descriptor.indexOf(';', i) + 1;
+            } else if (c == '[') {
+                slots++;
+                while (descriptor.charAt(i) == '[') i++;
+                i = descriptor.charAt(i) == 'L' ? descriptor.indexOf(';', i) + 1 : i + 1;
+            } else {
+                slots++;
+                i++;
+            }
+        }
+        return slots;
+    }
+
+    static final class Label {
+        private int position = -1;
+        private final List<Integer> uses = new ArrayList<>();
+    }
+}
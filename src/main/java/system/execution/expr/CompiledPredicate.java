@@ -0,0 +1,20 @@
+package system.execution.expr;
+
+import system.execution.tuple.RowBatch;
+
+import java.util.List;
+
+/**
+ * Условие WHERE, скомпилированное под конкретную таблицу: номера колонок уже найдены,
+ * сравнение выбрано по типу константы. Вычисляется над строкой или над пакетом строк.
+ */
+public interface CompiledPredicate {
+
+    boolean test(List<Object> row);
+
+    /**
+     * Оставляет в rows[0..count) номера строк пакета, на которых условие истинно
+     * (порядок сохраняется), и возвращает их число.
+     */
+    int select(RowBatch batch, int[] rows, int count);
+}
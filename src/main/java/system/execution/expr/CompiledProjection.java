@@ -0,0 +1,13 @@
+package system.execution.expr;
+
+import java.util.List;
+
+/**
+ * Список выборки, собранный под конкретную таблицу: строка ребёнка превращается в результат —
+ * список значений или одно значение, если в выборке одна колонка.
+ */
+@FunctionalInterface
+public interface CompiledProjection {
+
+    Object project(List<Object> row);
+}
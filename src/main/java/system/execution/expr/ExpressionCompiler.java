@@ -0,0 +1,551 @@
+package system.execution.expr;
+
+import system.ast.AConst;
+import system.ast.AExpr;
+import system.ast.ColumnRef;
+import system.catalog.model.ColumnDefinition;
+import system.execution.tuple.ColumnVector;
+import system.execution.tuple.RowBatch;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static system.execution.expr.ClassFileWriter.*;
+
+/**
+ * Генерация байткода для условий WHERE и списков выборки. Выражение сводится к форме —
+ * структуре без значений констант (номера колонок, операторы, типы констант); для формы
+ * создаётся скрытый класс (Lookup.defineHiddenClass), а константы передаются в конструктор
+ * и лежат в final-полях, которые JIT скрытого класса считает неизменными. Классы кешируются
+ * по форме: тот же фильтр с другими значениями переиспользует готовый класс.
+ * Генерация идёт со второго выполнения формы, первое обходится интерпретатором PredicateCompiler.
+ * Сгенерированный select() проходит пакет одним циклом со вложенными переходами вместо дерева
+ * объектов; если типы векторов пакета не те, под которые он собран (например, колонка смешанных
+ * типов), пакет отдаётся интерпретатору. Построчный test() всегда идёт через интерпретатор.
+ */
+public final class ExpressionCompiler {
+    private ExpressionCompiler() {}
+
+    // со скольких выполнений форма получает свой класс
+    static final int GENERATE_AFTER = 2;
+    // ограничение кеша: новые формы сверх него только интерпретируются
+    static final int MAX_SHAPES = 256;
+    // номер колонки элемента выборки, который является константой
+    public static final int CONSTANT_TARGET = PredicateCompiler.CONSTANT;
+    // результат сравнения, в котором участвовал NULL
+    static final int NULL_RESULT = Integer.MIN_VALUE;
+
+    private static final String PACKAGE = "system/execution/expr/";
+    private static final String OBJECT = "java/lang/Object";
+    private static final String STRING = "java/lang/String";
+    private static final String LIST = "java/util/List";
+    private static final String ARRAY_LIST = "java/util/ArrayList";
+    private static final String VECTOR = "system/execution/tuple/ColumnVector";
+    private static final String BATCH = "system/execution/tuple/RowBatch";
+    private static final String PREDICATE = PACKAGE + "CompiledPredicate";
+    private static final String PROJECTION = PACKAGE + "CompiledProjection";
+    private static final String SELF = PACKAGE + "ExpressionCompiler";
+
+    private static final MethodType PREDICATE_CONSTRUCTOR =
+            MethodType.methodType(void.class, long[].class, Object[].class, CompiledPredicate.class);
+    private static final MethodType PROJECTION_CONSTRUCTOR = MethodType.methodType(void.class, Object[].class);
+
+    private static final Map<String, Shape> shapes = new ConcurrentHashMap<>();
+    private static final AtomicInteger generatedClasses = new AtomicInteger();
+
+    private static final class Shape {
+        final AtomicInteger uses = new AtomicInteger();
+        volatile MethodHandle constructor;
+    }
+
+    public static CompiledPredicate compilePredicate(Object expr, List<ColumnDefinition> columns) {
+        CompiledPredicate interpreted = PredicateCompiler.compile(expr, columns);
+        PredicatePlan plan = new PredicatePlan();
+        Node root = plan.build(expr, columns);
+        if (root instanceof Bool || plan.vectorSlots.size() > MAX_VECTORS) return interpreted;
+
+        MethodHandle constructor = constructorFor("W" + root, () -> generatePredicate(root, plan));
+        if (constructor == null) return interpreted;
+        try {
+            return (CompiledPredicate) constructor.invoke(plan.longs(), plan.objects(), interpreted);
+        } catch (Throwable e) {
+            throw new IllegalStateException("Failed to instantiate generated predicate " + root, e);
+        }
+    }
+
+    /**
+     * @param ordinals  номер колонки строки для каждого элемента выборки; CONSTANT_TARGET — константа
+     * @param constants значения констант на местах, где ordinals[i] == CONSTANT_TARGET
+     */
+    public static CompiledProjection compileProjection(int[] ordinals, Object[] constants) {
+        StringBuilder shape = new StringBuilder("P");
+        for (int ordinal : ordinals) {
+            shape.append(ordinal == PredicateCompiler.CONSTANT ? "k" : "c" + ordinal).append(',');
+        }
+        MethodHandle constructor = constructorFor(shape.toString(), () -> generateProjection(ordinals));
+        if (constructor == null) return row -> interpretProjection(ordinals, constants, row);
+        try {
+            return (CompiledProjection) constructor.invoke(constants);
+        } catch (Throwable e) {
+            throw new IllegalStateException("Failed to instantiate generated projection " + shape, e);
+        }
+    }
+
+    /**
+     * Сколько скрытых классов создано с момента запуска.
+     */
+    public static int getGeneratedClassCount() {
+        return generatedClasses.get();
+    }
+
+    private static Object interpretProjection(int[] ordinals, Object[] constants, List<Object> row) {
+        if (ordinals.length == 1) {
+            return ordinals[0] == PredicateCompiler.CONSTANT ? constants[0] : row.get(ordinals[0]);
+        }
+        List<Object> result = new ArrayList<>(ordinals.length);
+        for (int i = 0; i < ordinals.length; i++) {
+            result.add(ordinals[i] == PredicateCompiler.CONSTANT ? constants[i] : row.get(ordinals[i]));
+        }
+        return result;
+    }
+
+    private interface Generator {
+        MethodHandle generate() throws ReflectiveOperationException;
+    }
+
+    /**
+     * Конструктор класса формы; null — форма пока холодная или кеш заполнен.
+     */
+    private static MethodHandle constructorFor(String key, Generator generator) {
+        Shape shape = shapes.get(key);
+        if (shape == null) {
+            if (shapes.size() >= MAX_SHAPES) return null;
+            shape = shapes.computeIfAbsent(key, k -> new Shape());
+        }
+        MethodHandle constructor = shape.constructor;
+        if (constructor != null) return constructor;
+        if (shape.uses.incrementAndGet() < GENERATE_AFTER) return null;
+
+        synchronized (shape) {
+            if (shape.constructor == null) {
+                try {
+                    shape.constructor = generator.generate();
+                } catch (ReflectiveOperationException e) {
+                    throw new IllegalStateException("Failed to define class for " + key, e);
+                }
+                generatedClasses.incrementAndGet();
+            }
+            return shape.constructor;
+        }
+    }
+
+    // ---- вспомогательные методы, которые вызывает сгенерированный код ----
+
+    static boolean isStrings(ColumnVector vector) {
+        return vector.getType() == ColumnVector.Type.STRING;
+    }
+
+    static int compareValue(ColumnVector vector, int row, Object constant) {
+        Object value = vector.get(row);
+        return value == null ? NULL_RESULT : Integer.signum(PredicateCompiler.compare(value, constant));
+    }
+
+    static int compareColumns(ColumnVector left, ColumnVector right, int row) {
+        Object l = left.get(row);
+        Object r = right.get(row);
+        return l == null || r == null ? NULL_RESULT : Integer.signum(PredicateCompiler.compare(l, r));
+    }
+
+    // ---- форма условия ----
+
+    private sealed interface Node permits Bool, And, Or, Leaf {}
+
+    private record Bool(boolean value) implements Node {
+        @Override
+        public String toString() {
+            return value ? "T" : "F";
+        }
+    }
+
+    private record And(Node left, Node right) implements Node {
+        @Override
+        public String toString() {
+            return "&(" + left + "," + right + ")";
+        }
+    }
+
+    private record Or(Node left, Node right) implements Node {
+        @Override
+        public String toString() {
+            return "|(" + left + "," + right + ")";
+        }
+    }
+
+    private enum LeafKind { LONG, STRING, VALUE, COLUMNS }
+
+    /**
+     * Сравнение колонки column с константой constant (поле slot) или с колонкой otherColumn.
+     * Значение константы в форму не входит.
+     */
+    private record Leaf(LeafKind kind, int column, int accepted, int slot, int otherColumn, Object constant)
+            implements Node {
+        @Override
+        public String toString() {
+            return kind.name().charAt(0) + "" + column + ":" + accepted
+                    + (kind == LeafKind.COLUMNS ? ":c" + otherColumn : ":$" + slot);
+        }
+    }
+
+    // на векторы колонок уходят локальные переменные с 8-й; номер слота занимает один байт
+    private static final int FIRST_VECTOR_LOCAL = 8;
+    private static final int MAX_VECTORS = 255 - FIRST_VECTOR_LOCAL;
+
+    /**
+     * Разбор условия в форму: константы раскладываются по слотам, колонки — по локальным переменным.
+     * Слоты и векторы раздаются уже после упрощения, обходом итогового дерева: иначе отброшенные
+     * ветви оставляли бы лишние поля, и одна строка формы описывала бы разные классы.
+     */
+    private static final class PredicatePlan {
+        final List<Object> constants = new ArrayList<>();
+        // колонка -> локальная переменная с её вектором
+        final Map<Integer, Integer> vectorSlots = new LinkedHashMap<>();
+        final List<Integer> longColumns = new ArrayList<>();
+        final List<Integer> stringColumns = new ArrayList<>();
+
+        Node build(Object expr, List<ColumnDefinition> columns) {
+            return assign(simplify(expr, columns));
+        }
+
+        private Node assign(Node node) {
+            if (node instanceof And and) return new And(assign(and.left()), assign(and.right()));
+            if (node instanceof Or or) return new Or(assign(or.left()), assign(or.right()));
+            if (!(node instanceof Leaf leaf)) return node;
+
+            vector(leaf.column());
+            switch (leaf.kind()) {
+                case COLUMNS -> {
+                    vector(leaf.otherColumn());
+                    return leaf;
+                }
+                case LONG -> longColumns.add(leaf.column());
+                case STRING -> stringColumns.add(leaf.column());
+                case VALUE -> { }
+            }
+            return new Leaf(leaf.kind(), leaf.column(), leaf.accepted(), slot(leaf.constant()), -1, leaf.constant());
+        }
+
+        private static Node simplify(Object expr, List<ColumnDefinition> columns) {
+            if (!(expr instanceof AExpr aexpr)) return new Bool(false);
+            if (aexpr.getOp().equals("AND")) {
+                return simplifyAnd(simplify(aexpr.getLeft(), columns), simplify(aexpr.getRight(), columns));
+            }
+            if (aexpr.getOp().equals("OR")) {
+                return simplifyOr(simplify(aexpr.getLeft(), columns), simplify(aexpr.getRight(), columns));
+            }
+
+            Object left = aexpr.getLeft();
+            Object right = aexpr.getRight();
+            String op = aexpr.getOp();
+            if (left instanceof AConst && right instanceof ColumnRef) {
+                Object tmp = left;
+                left = right;
+                right = tmp;
+                op = PredicateCompiler.flip(op);
+            }
+            int accepted = PredicateCompiler.acceptedOutcomes(op);
+            int leftColumn = PredicateCompiler.columnIndex(left, columns);
+            int rightColumn = PredicateCompiler.columnIndex(right, columns);
+            if (leftColumn == PredicateCompiler.UNKNOWN || rightColumn == PredicateCompiler.UNKNOWN || accepted == 0) {
+                return new Bool(false);
+            }
+
+            if (left instanceof AConst l && right instanceof AConst r) {
+                return new Bool(l.value != null && r.value != null
+                        && PredicateCompiler.matches(accepted, PredicateCompiler.compare(l.value, r.value)));
+            }
+            if (rightColumn != PredicateCompiler.CONSTANT) {
+                return new Leaf(LeafKind.COLUMNS, leftColumn, accepted, -1, rightColumn, null);
+            }
+            Object constant = ((AConst) right).value;
+            if (constant == null) return new Bool(false);
+            if (constant instanceof Number number) {
+                return new Leaf(LeafKind.LONG, leftColumn, accepted, -1, -1, number.longValue());
+            }
+            if (constant instanceof String) {
+                return new Leaf(LeafKind.STRING, leftColumn, accepted, -1, -1, constant);
+            }
+            return new Leaf(LeafKind.VALUE, leftColumn, accepted, -1, -1, constant);
+        }
+
+        private static Node simplifyAnd(Node left, Node right) {
+            if (left instanceof Bool b) return b.value() ? right : left;
+            if (right instanceof Bool b) return b.value() ? left : right;
+            return new And(left, right);
+        }
+
+        private static Node simplifyOr(Node left, Node right) {
+            if (left instanceof Bool b) return b.value() ? left : right;
+            if (right instanceof Bool b) return b.value() ? right : left;
+            return new Or(left, right);
+        }
+
+        private void vector(int column) {
+            vectorSlots.computeIfAbsent(column, c -> FIRST_VECTOR_LOCAL + vectorSlots.size());
+        }
+
+        private int slot(Object constant) {
+            constants.add(constant);
+            return constants.size() - 1;
+        }
+
+        String descriptor(int slot) {
+            Object constant = constants.get(slot);
+            if (constant instanceof Long) return "J";
+            if (constant instanceof String) return "L" + STRING + ";";
+            return "L" + OBJECT + ";";
+        }
+
+        long[] longs() {
+            long[] longs = new long[constants.size()];
+            for (int i = 0; i < longs.length; i++) {
+                if (constants.get(i) instanceof Long l) longs[i] = l;
+            }
+            return longs;
+        }
+
+        Object[] objects() {
+            Object[] objects = new Object[constants.size()];
+            for (int i = 0; i < objects.length; i++) {
+                if (!(constants.get(i) instanceof Long)) objects[i] = constants.get(i);
+            }
+            return objects;
+        }
+    }
+
+    // ---- генерация условия ----
+
+    private static final int THIS = 0, BATCH_ARG = 1, ROWS = 2, COUNT = 3, N = 4, K = 5, ROW = 6, TMP = 7;
+
+    private static MethodHandle generatePredicate(Node root, PredicatePlan plan) throws ReflectiveOperationException {
+        ClassFileWriter cw = new ClassFileWriter(PACKAGE + "GeneratedPredicate", OBJECT, PREDICATE);
+        String self = cw.getClassName();
+        for (int i = 0; i < plan.constants.size(); i++) {
+            cw.field(ACC_PRIVATE | ACC_FINAL, "c" + i, plan.descriptor(i));
+        }
+        cw.field(ACC_PRIVATE | ACC_FINAL, "fallback", "L" + PREDICATE + ";");
+
+        ClassFileWriter.Code init = cw.method(ACC_PUBLIC, "<init>", "([J[Ljava/lang/Object;L" + PREDICATE + ";)V", 4);
+        init.aload(THIS).invoke(INVOKESPECIAL, OBJECT, "<init>", "()V");
+        for (int i = 0; i < plan.constants.size(); i++) {
+            String descriptor = plan.descriptor(i);
+            init.aload(THIS);
+            if (descriptor.equals("J")) {
+                init.aload(1).iconst(i).op(LALOAD);
+            } else {
+                init.aload(2).iconst(i).op(AALOAD);
+                if (descriptor.contains(STRING)) init.type(CHECKCAST, STRING);
+            }
+            init.field(PUTFIELD, self, "c" + i, descriptor);
+        }
+        init.aload(THIS).aload(3).field(PUTFIELD, self, "fallback", "L" + PREDICATE + ";");
+        init.op(RETURN).end(5);
+
+        ClassFileWriter.Code test = cw.method(ACC_PUBLIC, "test", "(L" + LIST + ";)Z", 2);
+        test.aload(THIS).field(GETFIELD, self, "fallback", "L" + PREDICATE + ";")
+                .aload(1).invoke(INVOKEINTERFACE, PREDICATE, "test", "(L" + LIST + ";)Z")
+                .op(IRETURN).end(2);
+
+        int maxLocals = FIRST_VECTOR_LOCAL + plan.vectorSlots.size();
+        ClassFileWriter.Code select = cw.method(ACC_PUBLIC, "select", "(L" + BATCH + ";[II)I", maxLocals);
+        ClassFileWriter.Label fallback = new ClassFileWriter.Label();
+
+        // пакет должен содержать все колонки и хранить их в тех векторах, под которые собран код
+        int maxColumn = plan.vectorSlots.keySet().stream().mapToInt(Integer::intValue).max().orElse(-1);
+        select.aload(BATCH_ARG).invoke(INVOKEVIRTUAL, BATCH, "getColumnCount", "()I")
+                .iconst(maxColumn).jump(IF_ICMPLE, fallback);
+        for (Map.Entry<Integer, Integer> e : plan.vectorSlots.entrySet()) {
+            select.aload(BATCH_ARG).iconst(e.getKey())
+                    .invoke(INVOKEVIRTUAL, BATCH, "column", "(I)L" + VECTOR + ";")
+                    .astore(e.getValue());
+        }
+        for (int column : plan.longColumns) {
+            select.aload(plan.vectorSlots.get(column)).invoke(INVOKEVIRTUAL, VECTOR, "isIntegral", "()Z")
+                    .jump(IFEQ, fallback);
+        }
+        for (int column : plan.stringColumns) {
+            select.aload(plan.vectorSlots.get(column))
+                    .invoke(INVOKESTATIC, SELF, "isStrings", "(L" + VECTOR + ";)Z")
+                    .jump(IFEQ, fallback);
+        }
+
+        ClassFileWriter.Label loop = new ClassFileWriter.Label();
+        ClassFileWriter.Label next = new ClassFileWriter.Label();
+        ClassFileWriter.Label end = new ClassFileWriter.Label();
+        select.iconst(0).istore(N).iconst(0).istore(K);
+        select.mark(loop).iload(K).iload(COUNT).jump(IF_ICMPGE, end);
+        select.aload(ROWS).iload(K).op(IALOAD).istore(ROW);
+        jumpIfFalse(select, self, plan, root, next);
+        select.aload(ROWS).iload(N).iload(ROW).op(IASTORE).iinc(N, 1);
+        select.mark(next).iinc(K, 1).jump(GOTO, loop);
+        select.mark(end).iload(N).op(IRETURN);
+
+        select.mark(fallback).aload(THIS).field(GETFIELD, self, "fallback", "L" + PREDICATE + ";")
+                .aload(BATCH_ARG).aload(ROWS).iload(COUNT)
+                .invoke(INVOKEINTERFACE, PREDICATE, "select", "(L" + BATCH + ";[II)I")
+                .op(IRETURN);
+        select.end(8);
+
+        return define(cw.toByteArray(), PREDICATE_CONSTRUCTOR);
+    }
+
+    private static void jumpIfFalse(ClassFileWriter.Code code, String self, PredicatePlan plan, Node node,
+                                    ClassFileWriter.Label target) {
+        if (node instanceof Bool b) {
+            if (!b.value()) code.jump(GOTO, target);
+        } else if (node instanceof And and) {
+            jumpIfFalse(code, self, plan, and.left(), target);
+            jumpIfFalse(code, self, plan, and.right(), target);
+        } else if (node instanceof Or or) {
+            ClassFileWriter.Label passed = new ClassFileWriter.Label();
+            jumpIfTrue(code, self, plan, or.left(), passed);
+            jumpIfFalse(code, self, plan, or.right(), target);
+            code.mark(passed);
+        } else {
+            leaf(code, self, plan, (Leaf) node, target, false);
+        }
+    }
+
+    private static void jumpIfTrue(ClassFileWriter.Code code, String self, PredicatePlan plan, Node node,
+                                   ClassFileWriter.Label target) {
+        if (node instanceof Bool b) {
+            if (b.value()) code.jump(GOTO, target);
+        } else if (node instanceof And and) {
+            ClassFileWriter.Label failed = new ClassFileWriter.Label();
+            jumpIfFalse(code, self, plan, and.left(), failed);
+            jumpIfTrue(code, self, plan, and.right(), target);
+            code.mark(failed);
+        } else if (node instanceof Or or) {
+            jumpIfTrue(code, self, plan, or.left(), target);
+            jumpIfTrue(code, self, plan, or.right(), target);
+        } else {
+            leaf(code, self, plan, (Leaf) node, target, true);
+        }
+    }
+
+    /**
+     * Сравнение для текущей строки: переход на target, если его результат равен jumpWhen.
+     * NULL делает сравнение ложным.
+     */
+    private static void leaf(ClassFileWriter.Code code, String self, PredicatePlan plan, Leaf leaf,
+                             ClassFileWriter.Label target, boolean jumpWhen) {
+        ClassFileWriter.Label skip = new ClassFileWriter.Label();
+        ClassFileWriter.Label onNull = jumpWhen ? skip : target;
+        int vector = plan.vectorSlots.get(leaf.column());
+
+        switch (leaf.kind()) {
+            case LONG -> {
+                code.aload(vector).iload(ROW).invoke(INVOKEVIRTUAL, VECTOR, "isNull", "(I)Z").jump(IFNE, onNull);
+                code.aload(vector).iload(ROW).invoke(INVOKEVIRTUAL, VECTOR, "getLong", "(I)J")
+                        .aload(THIS).field(GETFIELD, self, "c" + leaf.slot(), "J")
+                        .op(LCMP);
+            }
+            case STRING -> {
+                code.aload(vector).iload(ROW).invoke(INVOKEVIRTUAL, VECTOR, "isNull", "(I)Z").jump(IFNE, onNull);
+                code.aload(vector).iload(ROW).invoke(INVOKEVIRTUAL, VECTOR, "get", "(I)L" + OBJECT + ";")
+                        .type(CHECKCAST, STRING)
+                        .aload(THIS).field(GETFIELD, self, "c" + leaf.slot(), "L" + STRING + ";")
+                        .invoke(INVOKEVIRTUAL, STRING, "compareTo", "(L" + STRING + ";)I");
+            }
+            case VALUE, COLUMNS -> {
+                if (leaf.kind() == LeafKind.VALUE) {
+                    code.aload(vector).iload(ROW)
+                            .aload(THIS).field(GETFIELD, self, "c" + leaf.slot(), "L" + OBJECT + ";")
+                            .invoke(INVOKESTATIC, SELF, "compareValue", "(L" + VECTOR + ";IL" + OBJECT + ";)I");
+                } else {
+                    code.aload(vector).aload(plan.vectorSlots.get(leaf.otherColumn())).iload(ROW)
+                            .invoke(INVOKESTATIC, SELF, "compareColumns", "(L" + VECTOR + ";L" + VECTOR + ";I)I");
+                }
+                code.istore(TMP).iload(TMP).iconst(NULL_RESULT).jump(IF_ICMPEQ, onNull).iload(TMP);
+            }
+        }
+        int jumpIfTrue = branchOpcode(leaf.accepted());
+        code.jump(jumpWhen ? jumpIfTrue : negate(jumpIfTrue), target);
+        code.mark(skip);
+    }
+
+    /**
+     * Условный переход по знаку результата сравнения, срабатывающий на допустимых исходах.
+     */
+    private static int branchOpcode(int accepted) {
+        return switch (accepted) {
+            case 0b010 -> IFEQ;
+            case 0b101 -> IFNE;
+            case 0b100 -> IFGT;
+            case 0b001 -> IFLT;
+            case 0b110 -> IFGE;
+            case 0b011 -> IFLE;
+            default -> throw new IllegalArgumentException("Unsupported comparison mask: " + accepted);
+        };
+    }
+
+    // IFEQ/IFNE, IFLT/IFGE, IFGT/IFLE идут парами подряд
+    private static int negate(int opcode) {
+        return ((opcode - IFEQ) ^ 1) + IFEQ;
+    }
+
+    // ---- генерация проекции ----
+
+    private static MethodHandle generateProjection(int[] ordinals) throws ReflectiveOperationException {
+        ClassFileWriter cw = new ClassFileWriter(PACKAGE + "GeneratedProjection", OBJECT, PROJECTION);
+        String self = cw.getClassName();
+        for (int i = 0; i < ordinals.length; i++) {
+            if (ordinals[i] == PredicateCompiler.CONSTANT) cw.field(ACC_PRIVATE | ACC_FINAL, "c" + i, "L" + OBJECT + ";");
+        }
+
+        ClassFileWriter.Code init = cw.method(ACC_PUBLIC, "<init>", "([L" + OBJECT + ";)V", 2);
+        init.aload(0).invoke(INVOKESPECIAL, OBJECT, "<init>", "()V");
+        for (int i = 0; i < ordinals.length; i++) {
+            if (ordinals[i] != PredicateCompiler.CONSTANT) continue;
+            init.aload(0).aload(1).iconst(i).op(AALOAD).field(PUTFIELD, self, "c" + i, "L" + OBJECT + ";");
+        }
+        init.op(RETURN).end(4);
+
+        ClassFileWriter.Code project = cw.method(ACC_PUBLIC, "project", "(L" + LIST + ";)L" + OBJECT + ";", 3);
+        if (ordinals.length == 1) {
+            pushTarget(project, self, ordinals, 0);
+            project.op(ARETURN).end(3);
+        } else {
+            project.type(NEW, ARRAY_LIST).op(DUP).iconst(ordinals.length)
+                    .invoke(INVOKESPECIAL, ARRAY_LIST, "<init>", "(I)V").astore(2);
+            for (int i = 0; i < ordinals.length; i++) {
+                project.aload(2);
+                pushTarget(project, self, ordinals, i);
+                project.invoke(INVOKEVIRTUAL, ARRAY_LIST, "add", "(L" + OBJECT + ";)Z").op(POP);
+            }
+            project.aload(2).op(ARETURN).end(4);
+        }
+
+        return define(cw.toByteArray(), PROJECTION_CONSTRUCTOR);
+    }
+
+    private static void pushTarget(ClassFileWriter.Code code, String self, int[] ordinals, int i) {
+        if (ordinals[i] == PredicateCompiler.CONSTANT) {
+            code.aload(0).field(GETFIELD, self, "c" + i, "L" + OBJECT + ";");
+        } else {
+            code.aload(1).iconst(ordinals[i]).invoke(INVOKEINTERFACE, LIST, "get", "(I)L" + OBJECT + ";");
+        }
+    }
+
+    private static MethodHandle define(byte[] bytes, MethodType constructorType) throws ReflectiveOperationException {
+        MethodHandles.Lookup lookup = MethodHandles.lookup().defineHiddenClass(bytes, true);
+        return lookup.findConstructor(lookup.lookupClass(), constructorType)
+                .asType(constructorType.changeReturnType(Object.class));
+    }
+}
@@ -0,0 +1,285 @@
+package system.execution.expr;
+
+import system.ast.AConst;
+import system.ast.AExpr;
+import system.ast.ColumnRef;
+import system.catalog.model.ColumnDefinition;
+import system.execution.tuple.ColumnVector;
+import system.execution.tuple.Row;
+import system.execution.tuple.RowBatch;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Компилирует AND/OR-дерево сравнений в дерево CompiledPredicate один раз на открытие оператора.
+ * Имена колонок заменяются их номерами, оператор сравнения — маской допустимых исходов, а узел
+ * выбирается по типу константы: с числом сравнение идёт по long, со строкой — compareTo.
+ * Семантика та же, что у построчного вычисления: сравнение с NULL и с неизвестной колонкой ложно.
+ */
+public final class PredicateCompiler {
+    private PredicateCompiler() {}
+
+    public static CompiledPredicate compile(Object expr, List<ColumnDefinition> columns) {
+        if (!(expr instanceof AExpr aexpr)) return Constant.FALSE;
+        if (aexpr.getOp().equals("AND")) {
+            return new And(compile(aexpr.getLeft(), columns), compile(aexpr.getRight(), columns));
+        }
+        if (aexpr.getOp().equals("OR")) {
+            return new Or(compile(aexpr.getLeft(), columns), compile(aexpr.getRight(), columns));
+        }
+        return compileComparison(aexpr, columns);
+    }
+
+    private static CompiledPredicate compileComparison(AExpr aexpr, List<ColumnDefinition> columns) {
+        Object left = aexpr.getLeft();
+        Object right = aexpr.getRight();
+        String op = aexpr.getOp();
+        // константа всегда справа: 5 > id — то же, что id < 5
+        if (left instanceof AConst && right instanceof ColumnRef) {
+            Object tmp = left;
+            left = right;
+            right = tmp;
+            op = flip(op);
+        }
+        int accepted = acceptedOutcomes(op);
+
+        int leftColumn = columnIndex(left, columns);
+        int rightColumn = columnIndex(right, columns);
+        if (leftColumn == UNKNOWN || rightColumn == UNKNOWN || accepted == 0) return Constant.FALSE;
+
+        if (left instanceof AConst l && right instanceof AConst r) {
+            return l.value != null && r.value != null && matches(accepted, compare(l.value, r.value))
+                    ? Constant.TRUE : Constant.FALSE;
+        }
+        if (right instanceof AConst c) {
+            if (c.value == null) return Constant.FALSE;
+            if (c.value instanceof Number number) {
+                return new LongComparison(leftColumn, accepted, number, number.longValue());
+            }
+            if (c.value instanceof String s) {
+                return new StringComparison(leftColumn, accepted, s);
+            }
+        }
+        return new GenericComparison(leftColumn, constantOf(left), rightColumn, constantOf(right), accepted);
+    }
+
+    static final int UNKNOWN = -2;
+    static final int CONSTANT = -1;
+
+    static int columnIndex(Object operand, List<ColumnDefinition> columns) {
+        if (operand instanceof AConst) return CONSTANT;
+        if (!(operand instanceof ColumnRef col)) return UNKNOWN;
+        // номер уже найден планировщиком (колонки над соединением)
+        if (col.columnIndex >= 0) return col.columnIndex;
+        for (int i = 0; i < columns.size(); i++) {
+            if (columns.get(i).getName().equalsIgnoreCase(col.column)) return i;
+        }
+        return UNKNOWN;
+    }
+
+    private static Object constantOf(Object operand) {
+        return operand instanceof AConst c ? c.value : null;
+    }
+
+    static String flip(String op) {
+        return switch (op) {
+            case ">" -> "<";
+            case "<" -> ">";
+            case ">=" -> "<=";
+            case "<=" -> ">=";
+            default -> op;
+        };
+    }
+
+    /**
+     * Маска исходов сравнения, при которых op истинен: бит 0 — меньше, 1 — равно, 2 — больше.
+     */
+    static int acceptedOutcomes(String op) {
+        return switch (op) {
+            case "="  -> 0b010;
+            case "!=" -> 0b101;
+            case ">"  -> 0b100;
+            case "<"  -> 0b001;
+            case ">=" -> 0b110;
+            case "<=" -> 0b011;
+            default -> 0;
+        };
+    }
+
+    static boolean matches(int accepted, int cmp) {
+        return (accepted >> (Integer.signum(cmp) + 1) & 1) != 0;
+    }
+
+    /**
+     * Сравнение непустых значений: числа — как long, значения разных типов — по строковому виду.
+     */
+    static int compare(Object a, Object b) {
+        if (a instanceof Number na && b instanceof Number nb) {
+            return Long.compare(na.longValue(), nb.longValue());
+        }
+        if (a instanceof String sa && b instanceof String sb) {
+            return sa.compareTo(sb);
+        }
+        if (a instanceof Boolean ba && b instanceof Boolean bb) {
+            return Boolean.compare(ba, bb);
+        }
+        return a.toString().compareTo(b.toString());
+    }
+
+    private enum Constant implements CompiledPredicate {
+        TRUE, FALSE;
+
+        @Override
+        public boolean test(List<Object> row) {
+            return this == TRUE;
+        }
+
+        @Override
+        public int select(RowBatch batch, int[] rows, int count) {
+            return this == TRUE ? count : 0;
+        }
+    }
+
+    private record And(CompiledPredicate left, CompiledPredicate right) implements CompiledPredicate {
+        @Override
+        public boolean test(List<Object> row) {
+            return left.test(row) && right.test(row);
+        }
+
+        @Override
+        public int select(RowBatch batch, int[] rows, int count) {
+            count = left.select(batch, rows, count);
+            return count == 0 ? 0 : right.select(batch, rows, count);
+        }
+    }
+
+    private record Or(CompiledPredicate left, CompiledPredicate right) implements CompiledPredicate {
+        @Override
+        public boolean test(List<Object> row) {
+            return left.test(row) || right.test(row);
+        }
+
+        /**
+         * Ветви отбирают строки независимо, результаты сливаются по возрастанию номеров.
+         */
+        @Override
+        public int select(RowBatch batch, int[] rows, int count) {
+            int[] other = Arrays.copyOf(rows, count);
+            int leftCount = left.select(batch, rows, count);
+            int rightCount = right.select(batch, other, count);
+
+            int[] merged = new int[leftCount + rightCount];
+            int i = 0, j = 0, n = 0;
+            while (i < leftCount || j < rightCount) {
+                if (j == rightCount || (i < leftCount && rows[i] < other[j])) {
+                    merged[n++] = rows[i++];
+                } else if (i == leftCount || rows[i] > other[j]) {
+                    merged[n++] = other[j++];
+                } else {
+                    merged[n++] = rows[i++];
+                    j++;
+                }
+            }
+            System.arraycopy(merged, 0, rows, 0, n);
+            return n;
+        }
+    }
+
+    /**
+     * Колонка против числовой константы. Integer и Long сравниваются без общего compare(),
+     * в пакете — прямо по long-вектору колонки.
+     */
+    private record LongComparison(int column, int accepted, Number boxed, long constant) implements CompiledPredicate {
+        @Override
+        public boolean test(List<Object> row) {
+            if (column >= row.size()) return false;
+            // типизированная строка читается без упаковки
+            if (row instanceof Row typed && typed.isIntegral(column)) {
+                return matches(accepted, Long.compare(typed.getLong(column), constant));
+            }
+            Object value = row.get(column);
+            if (value instanceof Integer i) return matches(accepted, Long.compare(i, constant));
+            if (value instanceof Long l) return matches(accepted, Long.compare(l, constant));
+            return value != null && matches(accepted, compare(value, boxed));
+        }
+
+        @Override
+        public int select(RowBatch batch, int[] rows, int count) {
+            if (column >= batch.getColumnCount()) return 0;
+            ColumnVector vector = batch.column(column);
+            int n = 0;
+            if (vector.isIntegral()) {
+                for (int k = 0; k < count; k++) {
+                    int row = rows[k];
+                    if (!vector.isNull(row) && matches(accepted, Long.compare(vector.getLong(row), constant))) {
+                        rows[n++] = row;
+                    }
+                }
+                return n;
+            }
+            for (int k = 0; k < count; k++) {
+                int row = rows[k];
+                Object value = vector.get(row);
+                if (value != null && matches(accepted, compare(value, boxed))) rows[n++] = row;
+            }
+            return n;
+        }
+    }
+
+    private record StringComparison(int column, int accepted, String constant) implements CompiledPredicate {
+        @Override
+        public boolean test(List<Object> row) {
+            if (column >= row.size()) return false;
+            Object value = row.get(column);
+            if (value instanceof String s) return matches(accepted, s.compareTo(constant));
+            return value != null && matches(accepted, compare(value, constant));
+        }
+
+        @Override
+        public int select(RowBatch batch, int[] rows, int count) {
+            if (column >= batch.getColumnCount()) return 0;
+            ColumnVector vector = batch.column(column);
+            int n = 0;
+            for (int k = 0; k < count; k++) {
+                int row = rows[k];
+                Object value = vector.get(row);
+                if (value instanceof String s ? matches(accepted, s.compareTo(constant))
+                        : value != null && matches(accepted, compare(value, constant))) {
+                    rows[n++] = row;
+                }
+            }
+            return n;
+        }
+    }
+
+    /**
+     * Остальные сравнения: колонка с колонкой, с логической константой. Номер колонки CONSTANT
+     * означает, что операнд — константа.
+     */
+    private record GenericComparison(int leftColumn, Object leftConstant, int rightColumn, Object rightConstant,
+                                     int accepted) implements CompiledPredicate {
+        @Override
+        public boolean test(List<Object> row) {
+            if (leftColumn >= row.size() || rightColumn >= row.size()) return false;
+            Object left = leftColumn == CONSTANT ? leftConstant : row.get(leftColumn);
+            Object right = rightColumn == CONSTANT ? rightConstant : row.get(rightColumn);
+            return left != null && right != null && matches(accepted, compare(left, right));
+        }
+
+        @Override
+        public int select(RowBatch batch, int[] rows, int count) {
+            if (leftColumn >= batch.getColumnCount() || rightColumn >= batch.getColumnCount()) return 0;
+            ColumnVector leftVector = leftColumn == CONSTANT ? null : batch.column(leftColumn);
+            ColumnVector rightVector = rightColumn == CONSTANT ? null : batch.column(rightColumn);
+            int n = 0;
+            for (int k = 0; k < count; k++) {
+                int row = rows[k];
+                Object left = leftVector == null ? leftConstant : leftVector.get(row);
+                Object right = rightVector == null ? rightConstant : rightVector.get(row);
+                if (left != null && right != null && matches(accepted, compare(left, right))) rows[n++] = row;
+            }
+            return n;
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package system.execution.tuple;
+
+import java.util.Arrays;
+
+/**
+ * Значения одной колонки пакета строк. Целые и логические значения лежат в массиве long без
+ * упаковки в объекты, строки — в массиве ссылок; NULL отмечается отдельным массивом.
+ * Тип вектора определяется первым непустым значением. Если в колонке встретились значения разных
+ * типов (например, Integer и Long), вектор переходит к хранению объектов — get() всегда возвращает
+ * значение того же класса, что было записано.
+ */
+public final class ColumnVector {
+
+    public enum Type { EMPTY, INT, LONG, BOOLEAN, STRING, OBJECT }
+
+    private Type type = Type.EMPTY;
+    private long[] longs;
+    private Object[] objects;
+    private boolean[] nulls;
+
+    ColumnVector(int capacity) {
+        nulls = new boolean[capacity];
+        Arrays.fill(nulls, true);
+    }
+
+    /**
+     * Вектор из size одинаковых значений — для констант в списке выборки.
+     */
+    public static ColumnVector constant(Object value, int size) {
+        ColumnVector vector = new ColumnVector(Math.max(size, 1));
+        for (int row = 0; row < size; row++) {
+            vector.set(row, value);
+        }
+        return vector;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * Значения хранятся в long: сравнения с числовой константой идут без распаковки.
+     */
+    public boolean isIntegral() {
+        return type == Type.INT || type == Type.LONG;
+    }
+
+    public boolean isNull(int row) {
+        return nulls[row];
+    }
+
+    /**
+     * Значение INT, LONG или BOOLEAN (1/0) колонки без упаковки.
+     */
+    public long getLong(int row) {
+        return longs[row];
+    }
+
+    public Object get(int row) {
+        if (nulls[row]) return null;
+        return switch (type) {
+            case INT -> (int) longs[row];
+            case LONG -> longs[row];
+            case BOOLEAN -> longs[row] != 0;
+            case STRING, OBJECT -> objects[row];
+            case EMPTY -> null;
+        };
+    }
+
+    public void setNull(int row) {
+        nulls[row] = true;
+    }
+
+    public void setInt(int row, int value) {
+        setPrimitive(row, Type.INT, value);
+    }
+
+    public void setLong(int row, long value) {
+        setPrimitive(row, Type.LONG, value);
+    }
+
+    public void setBoolean(int row, boolean value) {
+        setPrimitive(row, Type.BOOLEAN, value ? 1 : 0);
+    }
+
+    public void setString(int row, String value) {
+        if (type == Type.EMPTY) {
+            type = Type.STRING;
+            if (objects == null) objects = new Object[nulls.length];
+        } else if (type != Type.STRING && type != Type.OBJECT) {
+            toObjects();
+        }
+        objects[row] = value;
+        nulls[row] = false;
+    }
+
+    public void set(int row, Object value) {
+        if (value == null) {
+            setNull(row);
+        } else if (value instanceof Integer i) {
+            setInt(row, i);
+        } else if (value instanceof Long l) {
+            setLong(row, l);
+        } else if (value instanceof Boolean b) {
+            setBoolean(row, b);
+        } else if (value instanceof String s) {
+            setString(row, s);
+        } else {
+            if (type != Type.OBJECT) toObjects();
+            objects[row] = value;
+            nulls[row] = false;
+        }
+    }
+
+    private void setPrimitive(int row, Type valueType, long value) {
+        if (type == Type.EMPTY) {
+            type = valueType;
+            if (longs == null) longs = new long[nulls.length];
+        }
+        if (type == valueType) {
+            longs[row] = value;
+            nulls[row] = false;
+            return;
+        }
+        if (type != Type.OBJECT) toObjects();
+        objects[row] = switch (valueType) {
+            case INT -> (int) value;
+            case BOOLEAN -> value != 0;
+            default -> value;
+        };
+        nulls[row] = false;
+    }
+
+    /**
+     * Смешанные типы: уже записанные значения упаковываются в объекты.
+     */
+    private void toObjects() {
+        Object[] boxed = new Object[nulls.length];
+        for (int row = 0; row < nulls.length; row++) {
+            boxed[row] = get(row);
+        }
+        objects = boxed;
+        type = Type.OBJECT;
+    }
+
+    void ensureCapacity(int capacity) {
+        if (capacity <= nulls.length) return;
+        int oldLength = nulls.length;
+        int newLength = Math.max(capacity, oldLength * 2);
+        nulls = Arrays.copyOf(nulls, newLength);
+        Arrays.fill(nulls, oldLength, newLength, true);
+        if (longs != null) longs = Arrays.copyOf(longs, newLength);
+        if (objects != null) objects = Arrays.copyOf(objects, newLength);
+    }
+
+    /**
+     * Подготовить вектор к следующему пакету: массивы остаются, тип определяется заново.
+     */
+    void reset(int size) {
+        Arrays.fill(nulls, 0, size, true);
+        if (objects != null) Arrays.fill(objects, 0, size, null);
+        type = Type.EMPTY;
+    }
+}
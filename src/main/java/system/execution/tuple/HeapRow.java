@@ -0,0 +1,66 @@
+package system.execution.tuple;
+
+import system.memory.model.TupleId;
+
+import java.util.ArrayList;
+import java.util.Collection;
+
+/**
+ * Строка, прочитанная из heap-файла, вместе с адресом своей версии.
+ * Для вышестоящих операторов это обычный List значений колонок.
+ */
+public class HeapRow extends ArrayList<Object> implements Row {
+    private static final long serialVersionUID = 1L;
+
+    // адрес имеет смысл только внутри выполнения запроса, сериализовать его незачем
+    private final transient TupleId tupleId;
+
+    public HeapRow(TupleId tupleId, Collection<?> values) {
+        super(values);
+        this.tupleId = tupleId;
+    }
+
+    @Override
+    public TupleId getTupleId() {
+        return tupleId;
+    }
+
+    @Override
+    public boolean isNull(int column) {
+        return get(column) == null;
+    }
+
+    @Override
+    public boolean isIntegral(int column) {
+        Object value = get(column);
+        return value instanceof Integer || value instanceof Long;
+    }
+
+    @Override
+    public int getInt(int column) {
+        return ((Number) get(column)).intValue();
+    }
+
+    @Override
+    public long getLong(int column) {
+        return ((Number) get(column)).longValue();
+    }
+
+    @Override
+    public boolean getBoolean(int column) {
+        return (Boolean) get(column);
+    }
+
+    @Override
+    public String getString(int column) {
+        return (String) get(column);
+    }
+
+    /**
+     * HeapRow не переиспользуется операторами, поэтому копией служит сама строка.
+     */
+    @Override
+    public Row copy() {
+        return this;
+    }
+}
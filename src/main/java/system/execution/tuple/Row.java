@@ -0,0 +1,40 @@
+package system.execution.tuple;
+
+import system.memory.model.TupleId;
+
+import java.util.List;
+
+/**
+ * Строка результата с типизированным доступом к колонкам. Для операторов, которые работают
+ * со значениями как с объектами, это по-прежнему List; get(i) упаковывает значение.
+ *
+ * Строка, полученная от next(), может переиспользоваться оператором и действительна только
+ * до следующего вызова next() — кто хранит строки дольше, сохраняет copy().
+ */
+public interface Row extends List<Object> {
+
+    /**
+     * Адрес версии строки в heap-файле; null — строка не из таблицы.
+     */
+    TupleId getTupleId();
+
+    boolean isNull(int column);
+
+    /**
+     * Колонка хранит int или long (и её можно читать getLong).
+     */
+    boolean isIntegral(int column);
+
+    int getInt(int column);
+
+    long getLong(int column);
+
+    boolean getBoolean(int column);
+
+    String getString(int column);
+
+    /**
+     * Неизменяемая копия, не зависящая от буферов оператора.
+     */
+    Row copy();
+}
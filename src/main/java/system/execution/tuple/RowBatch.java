@@ -0,0 +1,230 @@
+package system.execution.tuple;
+
+import system.memory.model.TupleId;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Пакет строк для векторного исполнения: около CAPACITY строк, разложенных по колонкам
+ * (ColumnVector), и вектор выбора — номера строк пакета, прошедших фильтры. Фильтр не копирует
+ * строки, а только сужает вектор выбора; проекция переиспользует векторы колонок ребёнка.
+ * Пакет, полученный от nextBatch(), действителен до следующего вызова nextBatch() того же оператора:
+ * сканы заполняют один и тот же пакет заново.
+ *
+ * Колонки могут декодироваться лениво (ColumnLoader): колонка раскладывается в вектор при первом
+ * обращении и только для строк, выбранных к этому моменту. Фильтр, читающий свои колонки первым,
+ * сужает выбор — остальные колонки декодируются только для прошедших строк.
+ */
+public final class RowBatch {
+    public static final int CAPACITY = 1024;
+
+    private ColumnVector[] columns = new ColumnVector[0];
+    // адреса версий, упакованные как pageId << 32 | slot; NO_TUPLE — адреса нет
+    private static final long NO_TUPLE = -1L;
+    private long[] tupleIds;
+    private int size;
+    private int capacity = CAPACITY;
+
+    // null — выбраны все строки пакета
+    private int[] selection;
+    private int selectedCount;
+
+    // строка из одной колонки отдаётся значением, а не списком — как ProjectExecutor.next()
+    private boolean scalarRows;
+
+    private ColumnLoader loader;
+    private int loaderColumns;
+    private boolean[] loaded = new boolean[0];
+
+    /**
+     * Декодирует колонку пакета по требованию: заполняет vector для выбранных строк batch.
+     */
+    @FunctionalInterface
+    public interface ColumnLoader {
+        void load(int column, ColumnVector vector, RowBatch batch);
+    }
+
+    public RowBatch() {
+    }
+
+    /**
+     * Пакет, разделяющий с source строки и вектор выбора, но со своим набором колонок.
+     */
+    public RowBatch(RowBatch source, ColumnVector[] columns) {
+        this.columns = columns;
+        this.size = source.size;
+        this.capacity = source.capacity;
+        this.selection = source.selection;
+        this.selectedCount = source.selectedCount;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isFull() {
+        return size >= CAPACITY;
+    }
+
+    public int getColumnCount() {
+        return Math.max(columns.length, loaderColumns);
+    }
+
+    /**
+     * Вектор колонки; недостающие колонки создаются заполненными NULL,
+     * ленивые — декодируются при первом обращении.
+     */
+    public ColumnVector column(int index) {
+        if (index >= columns.length) {
+            int old = columns.length;
+            columns = Arrays.copyOf(columns, index + 1);
+            for (int c = old; c <= index; c++) {
+                columns[c] = new ColumnVector(capacity);
+            }
+        }
+        if (index < loaderColumns && !loaded[index]) {
+            loaded[index] = true;
+            loader.load(index, columns[index], this);
+        }
+        return columns[index];
+    }
+
+    /**
+     * Колонки 0..columnCount) пакета декодируются loader при первом обращении к ним.
+     * Вызывается после того, как все строки пакета добавлены.
+     */
+    public void setColumnLoader(ColumnLoader loader, int columnCount) {
+        this.loader = loader;
+        this.loaderColumns = columnCount;
+        if (loaded.length < columnCount) loaded = new boolean[columnCount];
+    }
+
+    /**
+     * Добавить пустую строку (все колонки NULL) и вернуть её номер.
+     */
+    public int addRow() {
+        if (size == capacity) {
+            capacity *= 2;
+            for (ColumnVector column : columns) {
+                column.ensureCapacity(capacity);
+            }
+            if (tupleIds != null) {
+                int old = tupleIds.length;
+                tupleIds = Arrays.copyOf(tupleIds, capacity);
+                Arrays.fill(tupleIds, old, capacity, NO_TUPLE);
+            }
+        }
+        return size++;
+    }
+
+    /**
+     * Добавить строку, пришедшую от построчного оператора: List значений или одно значение.
+     * Строка копируется, так что переиспользуемый оператором Row можно сразу отдавать дальше.
+     */
+    public void appendRow(Object row) {
+        int index = addRow();
+        if (row instanceof TupleRow tupleRow) {
+            tupleRow.decodeInto(this, index);
+        } else if (row instanceof List<?> values) {
+            for (int c = 0; c < values.size(); c++) {
+                column(c).set(index, values.get(c));
+            }
+            if (row instanceof Row typed && typed.getTupleId() != null) {
+                setTupleId(index, typed.getTupleId());
+            }
+        } else {
+            scalarRows = true;
+            column(0).set(index, row);
+        }
+    }
+
+    public void setTupleId(int row, TupleId tid) {
+        setTupleId(row, tid.pageId(), tid.slot());
+    }
+
+    /**
+     * Адрес без создания TupleId: объект появляется, только когда его запросят.
+     */
+    public void setTupleId(int row, int pageId, int slot) {
+        if (tupleIds == null) {
+            tupleIds = new long[capacity];
+            Arrays.fill(tupleIds, NO_TUPLE);
+        }
+        tupleIds[row] = (long) pageId << 32 | slot & 0xFFFFFFFFL;
+    }
+
+    public TupleId getTupleId(int row) {
+        if (tupleIds == null || tupleIds[row] == NO_TUPLE) return null;
+        long packed = tupleIds[row];
+        return new TupleId((int) (packed >>> 32), (int) packed);
+    }
+
+    public void setScalarRows(boolean scalarRows) {
+        this.scalarRows = scalarRows;
+    }
+
+    public int getSelectedCount() {
+        return selection != null ? selectedCount : size;
+    }
+
+    /**
+     * Номер k-й выбранной строки в пакете.
+     */
+    public int getSelected(int k) {
+        return selection != null ? selection[k] : k;
+    }
+
+    /**
+     * Оставить выбранными строки selection[0..count) — номера по возрастанию.
+     */
+    public void select(int[] selection, int count) {
+        this.selection = selection;
+        this.selectedCount = count;
+    }
+
+    public boolean isEmpty() {
+        return getSelectedCount() == 0;
+    }
+
+    /**
+     * Строка пакета в построчном виде: HeapRow, если известен её адрес в heap-файле.
+     */
+    public Object getRow(int row) {
+        if (scalarRows && getColumnCount() == 1) {
+            return column(0).get(row);
+        }
+        int columnCount = getColumnCount();
+        List<Object> values = new ArrayList<>(columnCount);
+        for (int c = 0; c < columnCount; c++) {
+            values.add(column(c).get(row));
+        }
+        TupleId tid = getTupleId(row);
+        return tid != null ? new HeapRow(tid, values) : values;
+    }
+
+    /**
+     * Выбранные строки по порядку в построчном виде.
+     */
+    public void addRowsTo(List<Object> out) {
+        int count = getSelectedCount();
+        for (int k = 0; k < count; k++) {
+            out.add(getRow(getSelected(k)));
+        }
+    }
+
+    public void clear() {
+        for (ColumnVector column : columns) {
+            column.reset(size);
+        }
+        if (tupleIds != null) Arrays.fill(tupleIds, 0, size, NO_TUPLE);
+        size = 0;
+        selection = null;
+        selectedCount = 0;
+        scalarRows = false;
+        Arrays.fill(loaded, 0, loaderColumns, false);
+        loader = null;
+        loaderColumns = 0;
+    }
+}
@@ -6,29 +6,201 @@ import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
 
+/**
+ * Формат значений строки: директория колонок, затем значения "тег + значение".
+ *
+ *  - DIRECTORY (1 байт), число колонок n (short), n смещений тегов колонок от начала записи (short);
+ *  - значения: 0 null, 1 int, 2 long, 3 boolean, 4 строка (short длина + UTF-8).
+ *
+ * Директория даёт позицию любой колонки за O(1): читатель, которому нужны две колонки из двадцати,
+ * не разбирает остальные. Записи без директории (старый формат) читаются проходом по тегам.
+ * Числа хранятся в little-endian.
+ */
 public final class TupleCodec {
+    static final byte DIRECTORY = 0x40;
+    private static final int DIRECTORY_HEADER = 3;
+
     private TupleCodec() {}
 
-    public static List<Object> decodeTagged(byte[] rowData) {
-        ByteBuffer b = ByteBuffer.wrap(rowData).order(ByteOrder.LITTLE_ENDIAN);
-        List<Object> row = new ArrayList<>();
+    public static byte[] encodeTagged(List<Object> values) {
+        ByteBuffer buf = ByteBuffer.allocate(8192).order(ByteOrder.LITTLE_ENDIAN);
+        int directorySize = DIRECTORY_HEADER + 2 * values.size();
+        buf.put(DIRECTORY);
+        buf.putShort((short) values.size());
+        buf.position(directorySize);
 
-        while (b.hasRemaining()) {
-            byte tag = b.get();
-            switch (tag) {
-                case 0 -> row.add(null);
-                case 1 -> row.add(b.getInt());
-                case 2 -> row.add(b.getLong());
-                case 3 -> row.add(b.get() != 0);
-                case 4 -> {
-                    int len = b.getShort() & 0xFFFF;
-                    byte[] s = new byte[len];
-                    b.get(s);
-                    row.add(new String(s, StandardCharsets.UTF_8));
-                }
-                default -> throw new IllegalStateException("Bad tag in tuple: " + tag);
+        int column = 0;
+        for (Object v : values) {
+            buf.putShort(DIRECTORY_HEADER + 2 * column++, (short) buf.position());
+            if (v == null) {
+                buf.put((byte) 0); // null tag
+            } else if (v instanceof Integer i) {
+                buf.put((byte) 1);
+                buf.putInt(i);
+            } else if (v instanceof Long l) {
+                buf.put((byte) 2);
+                buf.putLong(l);
+            } else if (v instanceof Boolean b) {
+                buf.put((byte) 3);
+                buf.put((byte) (b ? 1 : 0));
+            } else if (v instanceof String s) {
+                byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+                buf.put((byte) 4);
+                buf.putShort((short) bytes.length);
+                buf.put(bytes);
+            } else if (v instanceof Number n) {
+                buf.put((byte) 2);
+                buf.putLong(n.longValue());
+            } else {
+                throw new IllegalArgumentException("Unsupported value type: " + v.getClass());
             }
         }
+
+        byte[] out = new byte[buf.position()];
+        System.arraycopy(buf.array(), 0, out, 0, buf.position());
+        return out;
+    }
+
+    public static List<Object> decodeTagged(byte[] rowData) {
+        return decodeTagged(rowData, 0);
+    }
+
+    public static List<Object> decodeTagged(byte[] rowData, int offset) {
+        List<Object> row = new ArrayList<>();
+        int pos = valuesStart(rowData, offset, rowData.length);
+        while (pos < rowData.length) {
+            row.add(decodeValue(rowData, pos));
+            pos = nextValue(rowData, pos);
+        }
         return row;
     }
+
+    /**
+     * Раскладывает строку сразу по колонкам пакета, без промежуточного списка и упаковки значений.
+     */
+    public static void decodeTagged(byte[] rowData, int offset, RowBatch batch, int row) {
+        decodeTagged(rowData, offset, rowData.length, batch, row);
+    }
+
+    /**
+     * То же для строки, лежащей в rowData[offset..end) — например, прямо в байтах страницы.
+     */
+    public static void decodeTagged(byte[] rowData, int offset, int end, RowBatch batch, int row) {
+        int pos = valuesStart(rowData, offset, end);
+        for (int column = 0; pos < end; column++) {
+            decodeInto(rowData, pos, batch.column(column), row);
+            pos = nextValue(rowData, pos);
+        }
+    }
+
+    /**
+     * Декодирует одну колонку строки rowData[offset..end) в vector; колонки, которой в строке нет, — NULL.
+     */
+    public static void decodeColumn(byte[] rowData, int offset, int end, int column, ColumnVector vector, int row) {
+        int pos = columnPosition(rowData, offset, end, column);
+        if (pos < 0) {
+            vector.setNull(row);
+        } else {
+            decodeInto(rowData, pos, vector, row);
+        }
+    }
+
+    /**
+     * Число колонок строки rowData[offset..end).
+     */
+    public static int columnCount(byte[] rowData, int offset, int end) {
+        if (hasDirectory(rowData, offset, end)) {
+            return readUnsignedShort(rowData, offset + 1);
+        }
+        int count = 0;
+        for (int pos = offset; pos < end; pos = nextValue(rowData, pos)) {
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Позиция тега колонки в rowData или -1, если колонки в строке нет.
+     */
+    public static int columnPosition(byte[] rowData, int offset, int end, int column) {
+        if (hasDirectory(rowData, offset, end)) {
+            if (column >= readUnsignedShort(rowData, offset + 1)) return -1;
+            return offset + readUnsignedShort(rowData, offset + DIRECTORY_HEADER + 2 * column);
+        }
+        int pos = offset;
+        for (int c = 0; c < column && pos < end; c++) {
+            pos = nextValue(rowData, pos);
+        }
+        return pos < end ? pos : -1;
+    }
+
+    static boolean hasDirectory(byte[] data, int offset, int end) {
+        return offset < end && data[offset] == DIRECTORY;
+    }
+
+    /**
+     * Позиция первого значения — сразу за директорией, если она есть.
+     */
+    static int valuesStart(byte[] data, int offset, int end) {
+        if (!hasDirectory(data, offset, end)) return offset;
+        return offset + DIRECTORY_HEADER + 2 * readUnsignedShort(data, offset + 1);
+    }
+
+    /**
+     * Значение с тегом в pos, упакованное в объект.
+     */
+    static Object decodeValue(byte[] data, int pos) {
+        return switch (data[pos]) {
+            case 0 -> null;
+            case 1 -> readInt(data, pos + 1);
+            case 2 -> readLong(data, pos + 1);
+            case 3 -> data[pos + 1] != 0;
+            case 4 -> readString(data, pos + 1);
+            default -> throw new IllegalStateException("Bad tag in tuple: " + data[pos]);
+        };
+    }
+
+    private static void decodeInto(byte[] data, int pos, ColumnVector vector, int row) {
+        switch (data[pos]) {
+            case 0 -> vector.setNull(row);
+            case 1 -> vector.setInt(row, readInt(data, pos + 1));
+            case 2 -> vector.setLong(row, readLong(data, pos + 1));
+            case 3 -> vector.setBoolean(row, data[pos + 1] != 0);
+            case 4 -> vector.setString(row, readString(data, pos + 1));
+            default -> throw new IllegalStateException("Bad tag in tuple: " + data[pos]);
+        }
+    }
+
+    /**
+     * Позиция тега, следующего за значением с тегом в pos.
+     */
+    static int nextValue(byte[] data, int pos) {
+        return pos + 1 + switch (data[pos]) {
+            case 0 -> 0;
+            case 1 -> 4;
+            case 2 -> 8;
+            case 3 -> 1;
+            case 4 -> 2 + readUnsignedShort(data, pos + 1);
+            default -> throw new IllegalStateException("Bad tag in tuple: " + data[pos]);
+        };
+    }
+
+    static int readInt(byte[] data, int pos) {
+        return (data[pos] & 0xFF)
+                | (data[pos + 1] & 0xFF) << 8
+                | (data[pos + 2] & 0xFF) << 16
+                | (data[pos + 3] & 0xFF) << 24;
+    }
+
+    static long readLong(byte[] data, int pos) {
+        return (readInt(data, pos) & 0xFFFFFFFFL) | (long) readInt(data, pos + 4) << 32;
+    }
+
+    static int readUnsignedShort(byte[] data, int pos) {
+        return (data[pos] & 0xFF) | (data[pos + 1] & 0xFF) << 8;
+    }
+
+    static String readString(byte[] data, int pos) {
+        return new String(data, pos + 2, readUnsignedShort(data, pos), StandardCharsets.UTF_8);
+    }
 }
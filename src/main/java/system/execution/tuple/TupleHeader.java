@@ -0,0 +1,66 @@
+package system.execution.tuple;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Заголовок версии строки в heap-странице:
+ *  - xmin (4 байта) — транзакция, создавшая версию;
+ *  - xmax (4 байта) — транзакция, удалившая версию (0, если версия живая).
+ *
+ * Данные строки (TupleCodec) идут сразу после заголовка.
+ */
+public final class TupleHeader {
+    public static final int SIZE = 8;
+
+    private static final int XMIN_OFFSET = 0;
+    private static final int XMAX_OFFSET = 4;
+
+    private final int xmin;
+    private final int xmax;
+
+    public TupleHeader(int xmin, int xmax) {
+        this.xmin = xmin;
+        this.xmax = xmax;
+    }
+
+    public int getXmin() { return xmin; }
+    public int getXmax() { return xmax; }
+
+    public static TupleHeader read(byte[] tuple) {
+        ByteBuffer b = ByteBuffer.wrap(tuple).order(ByteOrder.LITTLE_ENDIAN);
+        return new TupleHeader(b.getInt(XMIN_OFFSET), b.getInt(XMAX_OFFSET));
+    }
+
+    /**
+     * xmin версии, лежащей в data с позиции offset, — без копирования строки и создания заголовка.
+     */
+    public static int xmin(byte[] data, int offset) {
+        return TupleCodec.readInt(data, offset + XMIN_OFFSET);
+    }
+
+    public static int xmax(byte[] data, int offset) {
+        return TupleCodec.readInt(data, offset + XMAX_OFFSET);
+    }
+
+    public static byte[] prepend(int xmin, byte[] payload) {
+        ByteBuffer b = ByteBuffer.allocate(SIZE + payload.length).order(ByteOrder.LITTLE_ENDIAN);
+        b.putInt(xmin);
+        b.putInt(0);
+        b.put(payload);
+        return b.array();
+    }
+
+    public static void setXmin(byte[] tuple, int xmin) {
+        ByteBuffer.wrap(tuple).order(ByteOrder.LITTLE_ENDIAN).putInt(XMIN_OFFSET, xmin);
+    }
+
+    public static void setXmax(byte[] tuple, int xmax) {
+        ByteBuffer.wrap(tuple).order(ByteOrder.LITTLE_ENDIAN).putInt(XMAX_OFFSET, xmax);
+    }
+
+    @Override
+    public String toString() {
+        return "TupleHeader{xmin=" + xmin + ", xmax=" + xmax + '}';
+    }
+}
@@ -0,0 +1,176 @@
+package system.execution.tuple;
+
+import system.memory.model.TupleId;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+
+/**
+ * Строка, читаемая прямо из байтов версии в формате TupleCodec: значения не раскладываются
+ * в список заранее, типизированные методы читают их без упаковки. Один объект переиспользуется
+ * оператором для всех строк — reset() перенаправляет его на следующую версию. Позиция колонки
+ * берётся из директории записи за O(1), так что читаются только запрошенные колонки; для записей
+ * старого формата позиции находятся одним проходом по тегам при первом обращении к строке.
+ *
+ * Строка может показывать не все колонки версии, а выбранные (project): так скан отдаёт
+ * результат проекции, ничего не копируя.
+ */
+public final class TupleRow extends AbstractList<Object> implements Row {
+    private byte[] data;
+    private int start;
+    private int end;
+    private int pageId = -1;
+    private int slot;
+    private TupleId tupleId;
+
+    // columnCount < 0 — строка ещё не разобрана; positions нужны только записям без директории
+    private int columnCount = -1;
+    private boolean hasDirectory;
+    private int[] positions = new int[16];
+
+    // номера колонок версии, составляющих строку; null — все колонки
+    private int[] columns;
+
+    /**
+     * Направить строку на значения в data[start..end) — без заголовка версии.
+     * pageId < 0 — адрес версии неизвестен.
+     */
+    public void reset(byte[] data, int start, int end, int pageId, int slot) {
+        this.data = data;
+        this.start = start;
+        this.end = end;
+        this.pageId = pageId;
+        this.slot = slot;
+        this.tupleId = null;
+        this.columnCount = -1;
+    }
+
+    /**
+     * Показывать только колонки версии с номерами columns, в этом порядке; колонка, которой
+     * в версии нет, читается как NULL. null — все колонки. Действует и после reset().
+     */
+    public void project(int[] columns) {
+        this.columns = columns;
+    }
+
+    @Override
+    public TupleId getTupleId() {
+        if (tupleId == null && pageId >= 0) {
+            tupleId = new TupleId(pageId, slot);
+        }
+        return tupleId;
+    }
+
+    @Override
+    public int size() {
+        if (columns != null) return columns.length;
+        if (columnCount < 0) parse();
+        return columnCount;
+    }
+
+    @Override
+    public Object get(int column) {
+        int pos = position(column);
+        return pos < 0 ? null : TupleCodec.decodeValue(data, pos);
+    }
+
+    @Override
+    public boolean isNull(int column) {
+        return tag(column) == 0;
+    }
+
+    @Override
+    public boolean isIntegral(int column) {
+        byte tag = tag(column);
+        return tag == 1 || tag == 2;
+    }
+
+    @Override
+    public int getInt(int column) {
+        return (int) getLong(column);
+    }
+
+    @Override
+    public long getLong(int column) {
+        int pos = position(column);
+        return switch (pos < 0 ? 0 : data[pos]) {
+            case 1 -> TupleCodec.readInt(data, pos + 1);
+            case 2 -> TupleCodec.readLong(data, pos + 1);
+            default -> throw typeMismatch(column, "integer");
+        };
+    }
+
+    @Override
+    public boolean getBoolean(int column) {
+        int pos = position(column);
+        if (pos < 0 || data[pos] != 3) throw typeMismatch(column, "boolean");
+        return data[pos + 1] != 0;
+    }
+
+    @Override
+    public String getString(int column) {
+        int pos = position(column);
+        return switch (pos < 0 ? 0 : data[pos]) {
+            case 0 -> null;
+            case 4 -> TupleCodec.readString(data, pos + 1);
+            default -> throw typeMismatch(column, "string");
+        };
+    }
+
+    @Override
+    public Row copy() {
+        return new HeapRow(getTupleId(), this);
+    }
+
+    /**
+     * Разложить значения строки по колонкам пакета, не создавая объектов для чисел.
+     */
+    public void decodeInto(RowBatch batch, int row) {
+        if (columns == null) {
+            TupleCodec.decodeTagged(data, start, end, batch, row);
+        } else {
+            for (int c = 0; c < columns.length; c++) {
+                TupleCodec.decodeColumn(data, start, end, columns[c], batch.column(c), row);
+            }
+        }
+        if (pageId >= 0) batch.setTupleId(row, getTupleId());
+    }
+
+    private byte tag(int column) {
+        int pos = position(column);
+        return pos < 0 ? 0 : data[pos];
+    }
+
+    /**
+     * Позиция тега колонки строки в data; -1 — колонки в версии нет.
+     */
+    private int position(int column) {
+        if (columnCount < 0) parse();
+        int size = columns != null ? columns.length : columnCount;
+        if (column < 0 || column >= size) {
+            throw new IndexOutOfBoundsException("Column " + column + " of " + size);
+        }
+        int stored = columns != null ? columns[column] : column;
+        if (stored >= columnCount) return -1;
+        return hasDirectory ? TupleCodec.columnPosition(data, start, end, stored) : positions[stored];
+    }
+
+    private void parse() {
+        hasDirectory = TupleCodec.hasDirectory(data, start, end);
+        if (hasDirectory) {
+            columnCount = TupleCodec.columnCount(data, start, end);
+            return;
+        }
+        int count = 0;
+        for (int pos = start; pos < end; count++) {
+            if (count == positions.length) positions = Arrays.copyOf(positions, count * 2);
+            positions[count] = pos;
+            pos = TupleCodec.nextValue(data, pos);
+        }
+        columnCount = count;
+    }
+
+    private IllegalStateException typeMismatch(int column, String expected) {
+        return new IllegalStateException("Column " + column + " is not " + expected + ": tag " + tag(column));
+    }
+}
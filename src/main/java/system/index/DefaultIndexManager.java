@@ -0,0 +1,230 @@
+package system.index;
+
+import system.catalog.manager.CatalogManager;
+import system.catalog.model.ColumnDefinition;
+import system.catalog.model.IndexDefinition;
+import system.catalog.model.TableDefinition;
+import system.execution.tuple.TupleCodec;
+import system.execution.tuple.TupleHeader;
+import system.index.brin.BrinIndex;
+import system.index.brin.BrinPageFileManager;
+import system.index.btree.BTreeIndex;
+import system.index.btree.BTreePageFileManager;
+import system.index.hash.HashIndex;
+import system.index.hash.HashPageFileManager;
+import system.index.sort.ExternalSorter;
+import system.memory.buffer.BufferPoolManager;
+import system.memory.buffer.BufferPoolRegistry;
+import system.memory.heap.HeapFile;
+import system.memory.manager.PageFileManager;
+import system.memory.model.BufferSlot;
+import system.memory.model.TupleId;
+import system.memory.page.HeapPage;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
+import java.util.function.BiConsumer;
+
+public class DefaultIndexManager implements IndexManager {
+    private static final PageFileManager BTREE_FILES = new BTreePageFileManager();
+    private static final PageFileManager HASH_FILES = new HashPageFileManager();
+    private static final PageFileManager BRIN_FILES = new BrinPageFileManager();
+
+    // параметры WITH (...), которые понимает каждый метод доступа
+    private static final Map<String, Set<String>> METHOD_OPTIONS = Map.of(
+            "btree", Set.of("fillfactor"),
+            "hash", Set.of(),
+            "brin", Set.of("pages_per_range"));
+
+    // память под сортировку при построении индекса (maintenance_work_mem)
+    public static final long DEFAULT_SORT_MEMORY = 16L * 1024 * 1024;
+
+    private final CatalogManager catalogManager;
+    private final BufferPoolRegistry bufferPools;
+    private final long sortMemory;
+    private final Map<Integer, Index> openIndexes = new ConcurrentHashMap<>();
+
+    public DefaultIndexManager(CatalogManager catalogManager, BufferPoolRegistry bufferPools) {
+        this(catalogManager, bufferPools, DEFAULT_SORT_MEMORY);
+    }
+
+    public DefaultIndexManager(CatalogManager catalogManager, BufferPoolRegistry bufferPools, long sortMemory) {
+        this.catalogManager = catalogManager;
+        this.bufferPools = bufferPools;
+        this.sortMemory = sortMemory;
+    }
+
+    @Override
+    public Index createIndex(String name, TableDefinition table, String method, List<String> keyColumns,
+                             List<String> includeColumns, Map<String, Integer> options, HeapFile heap) {
+        String normalized = checkMethod(method);
+        if (keyColumns.isEmpty()) {
+            throw new IllegalArgumentException("Index must have at least one key column");
+        }
+        if (keyColumns.size() > 1 && !normalized.equals("btree")) {
+            throw new IllegalArgumentException("Access method \"" + method + "\" does not support multicolumn indexes");
+        }
+        if (!includeColumns.isEmpty() && !normalized.equals("btree")) {
+            throw new IllegalArgumentException("Access method \"" + method + "\" does not support included columns");
+        }
+        for (String option : options.keySet()) {
+            if (!METHOD_OPTIONS.get(normalized).contains(option)) {
+                throw new IllegalArgumentException("Unrecognized parameter \"" + option + "\" for access method " + normalized);
+            }
+        }
+        int fillFactor = options.getOrDefault("fillfactor", BTreeIndex.DEFAULT_FILL_FACTOR);
+        if (fillFactor < 10 || fillFactor > 100) {
+            throw new IllegalArgumentException("fillfactor must be between 10 and 100: " + fillFactor);
+        }
+        int pagesPerRange = options.getOrDefault("pages_per_range", BrinIndex.DEFAULT_PAGES_PER_RANGE);
+        if (pagesPerRange < 1 || pagesPerRange > BrinIndex.MAX_PAGES_PER_RANGE) {
+            throw new IllegalArgumentException("pages_per_range must be between 1 and "
+                    + BrinIndex.MAX_PAGES_PER_RANGE + ": " + pagesPerRange);
+        }
+        IndexDefinition definition = catalogManager.createIndex(name, table, method, keyColumns, includeColumns);
+        Index index = openIndex(definition, pagesPerRange);
+        List<Integer> keyPositions = columnPositions(table, definition, definition.getKeyColumns());
+        List<Integer> includePositions = columnPositions(table, definition, definition.getIncludeColumns());
+
+        // btree строится снизу вверх из отсортированных записей, остальные — вставками по одной
+        if (index instanceof BTreeIndex btree) {
+            try (ExternalSorter sorter = new ExternalSorter(sortMemory, null)) {
+                scanHeap(heap, keyPositions.get(0), (row, tid) -> {
+                    List<Object> include = project(row, includePositions);
+                    sorter.add(new IndexEntry(KeyCodec.encode(keyOf(row, keyPositions)), tid,
+                            include.isEmpty() ? null : TupleCodec.encodeTagged(include)));
+                });
+                btree.bulkLoad(sorter.sorted(), fillFactor);
+            }
+        } else {
+            scanHeap(heap, keyPositions.get(0), (row, tid) -> index.insert(keyOf(row, keyPositions), tid));
+        }
+        return index;
+    }
+
+    // значение колонки или, для составного индекса, List значений в порядке колонок индекса
+    private static Object keyOf(List<Object> row, List<Integer> keyPositions) {
+        return keyPositions.size() == 1 ? row.get(keyPositions.get(0)) : project(row, keyPositions);
+    }
+
+    /**
+     * В индекс попадают все версии, включая ещё не видимые и уже удалённые:
+     * видимость проверяется при чтении, мёртвые версии убирает VACUUM.
+     * Строки страницы снимаются под её защёлкой, а в индекс уходят уже после неё.
+     */
+    private static void scanHeap(HeapFile heap, int leadingKeyPosition, BiConsumer<List<Object>, TupleId> consumer) {
+        BufferPoolManager pool = heap.getBufferPool();
+        int pageCount = pool.getPageCount();
+        for (int pageId = 0; pageId < pageCount; pageId++) {
+            List<List<Object>> rows = new ArrayList<>();
+            List<TupleId> tids = new ArrayList<>();
+            BufferSlot slot = pool.fetchPage(pageId);
+            Lock latch = slot.getContentLock().readLock();
+            latch.lock();
+            try {
+                HeapPage page = (HeapPage) slot.getPage();
+                for (int i = 0; i < page.size(); i++) {
+                    if (!page.isNormal(i)) continue;
+                    List<Object> row = TupleCodec.decodeTagged(page.read(i), TupleHeader.SIZE);
+                    if (row.get(leadingKeyPosition) == null) continue;
+                    rows.add(row);
+                    tids.add(new TupleId(pageId, i));
+                }
+            } finally {
+                latch.unlock();
+                pool.unpinPage(pageId);
+            }
+            for (int i = 0; i < rows.size(); i++) {
+                consumer.accept(rows.get(i), tids.get(i));
+            }
+        }
+    }
+
+    private static List<Object> project(List<Object> row, List<Integer> positions) {
+        List<Object> values = new ArrayList<>(positions.size());
+        for (int position : positions) {
+            values.add(row.get(position));
+        }
+        return values;
+    }
+
+    @Override
+    public List<Index> getIndexes(TableDefinition table) {
+        List<Index> result = new ArrayList<>();
+        for (IndexDefinition definition : catalogManager.getIndexes(table)) {
+            result.add(getIndex(definition));
+        }
+        return result;
+    }
+
+    @Override
+    public void insertRow(TableDefinition table, List<Object> row, TupleId tid) {
+        for (Index index : getIndexes(table)) {
+            // строки с NULL в первой колонке ключа не индексируются: индекс используется только при
+            // условии на первую колонку, а сравнение с NULL никогда не истинно. NULL в следующих
+            // колонках хранится — строка должна находиться по префиксу ключа
+            IndexDefinition definition = index.getDefinition();
+            List<Integer> keyPositions = columnPositions(table, definition, definition.getKeyColumns());
+            if (row.get(keyPositions.get(0)) != null) {
+                index.insert(keyOf(row, keyPositions),
+                        project(row, columnPositions(table, definition, definition.getIncludeColumns())), tid);
+            }
+        }
+    }
+
+    @Override
+    public long bulkDelete(TableDefinition table, Set<TupleId> deadTids) {
+        long removed = 0;
+        for (Index index : getIndexes(table)) {
+            removed += index.bulkDelete(deadTids);
+        }
+        return removed;
+    }
+
+    @Override
+    public Index getIndex(IndexDefinition definition) {
+        return openIndex(definition, BrinIndex.DEFAULT_PAGES_PER_RANGE);
+    }
+
+    // pagesPerRange нужен только при создании BRIN-индекса, дальше он читается из его метастраницы
+    private Index openIndex(IndexDefinition definition, int pagesPerRange) {
+        return openIndexes.computeIfAbsent(definition.getOid(), oid -> {
+            Path file = Path.of(definition.getFileNode());
+            return switch (checkMethod(definition.getMethod())) {
+                case "btree" -> new BTreeIndex(definition, bufferPools.get(file, BTREE_FILES));
+                case "hash" -> new HashIndex(definition, bufferPools.get(file, HASH_FILES));
+                case "brin" -> new BrinIndex(definition, bufferPools.get(file, BRIN_FILES), pagesPerRange);
+                default -> throw new IllegalStateException("Unexpected access method " + definition.getMethod());
+            };
+        });
+    }
+
+    private static String checkMethod(String method) {
+        String normalized = method.toLowerCase();
+        if (!METHOD_OPTIONS.containsKey(normalized)) {
+            throw new IllegalArgumentException("Access method \"" + method + "\" does not exist");
+        }
+        return normalized;
+    }
+
+    private List<Integer> columnPositions(TableDefinition table, IndexDefinition index, List<String> columns) {
+        List<Integer> positions = new ArrayList<>();
+        for (String column : columns) {
+            positions.add(columnPosition(table, index, column));
+        }
+        return positions;
+    }
+
+    private int columnPosition(TableDefinition table, IndexDefinition index, String column) {
+        ColumnDefinition definition = catalogManager.getColumn(table, column);
+        if (definition == null) {
+            throw new IllegalStateException("Column " + column + " of index " + index.getName() + " does not exist");
+        }
+        return definition.getPosition();
+    }
+}
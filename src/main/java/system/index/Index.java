@@ -0,0 +1,56 @@
+package system.index;
+
+import system.catalog.model.IndexDefinition;
+import system.memory.buffer.BufferPoolManager;
+import system.memory.model.TupleId;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Вторичный индекс: отображение значения ключа в адреса версий строк в heap-файле.
+ * Индекс не знает о видимости — каждую найденную версию исполнитель проверяет по снимку.
+ */
+public interface Index {
+
+    IndexDefinition getDefinition();
+
+    /**
+     * Пул страниц индекса: как и страницы таблицы, они сбрасываются на диск при фиксации.
+     */
+    BufferPoolManager getBufferPool();
+
+    /**
+     * @param key значение колонки или, для составного индекса, List значений колонок
+     */
+    void insert(Object key, TupleId tid);
+
+    /**
+     * Вставка вместе со значениями INCLUDE-колонок; хранить их умеют только покрывающие индексы.
+     */
+    default void insert(Object key, List<Object> include, TupleId tid) {
+        if (!include.isEmpty()) {
+            throw new UnsupportedOperationException("Index " + getDefinition().getName() + " cannot store INCLUDE columns");
+        }
+        insert(key, tid);
+    }
+
+    /**
+     * Адреса версий с ключом в заданном диапазоне; null-граница — диапазон не ограничен с этой стороны.
+     * Ключ составного индекса — List значений колонок; граница может быть его префиксом
+     * (первые колонки), тогда ей равны все ключи, которые с него начинаются.
+     */
+    List<TupleId> scan(Object low, boolean lowInclusive, Object high, boolean highInclusive);
+
+    /**
+     * Записи индекса в диапазоне вместе с ключами и INCLUDE-значениями — для сканирования только по индексу.
+     */
+    default List<IndexEntry> scanEntries(Object low, boolean lowInclusive, Object high, boolean highInclusive) {
+        throw new UnsupportedOperationException("Index " + getDefinition().getName() + " cannot return indexed values");
+    }
+
+    /**
+     * Удалить записи, указывающие на перечисленные версии (вызывается VACUUM до освобождения слотов).
+     */
+    long bulkDelete(Set<TupleId> deadTids);
+}
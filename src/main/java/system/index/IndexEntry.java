@@ -0,0 +1,26 @@
+package system.index;
+
+import system.memory.model.TupleId;
+
+import java.util.Comparator;
+
+/**
+ * Запись индекса: закодированный KeyCodec ключ, адрес версии строки и, для покрывающего индекса,
+ * закодированные TupleCodec значения INCLUDE-колонок (null — их нет).
+ */
+public record IndexEntry(byte[] key, TupleId tid, byte[] include) {
+
+    public IndexEntry(byte[] key, TupleId tid) {
+        this(key, tid, null);
+    }
+
+    /**
+     * Порядок ключей индекса; равные ключи упорядочены по адресу, чтобы результат сортировки был детерминирован.
+     */
+    public static final Comparator<IndexEntry> ORDER = (a, b) -> {
+        int c = KeyCodec.compare(a.key, b.key);
+        if (c != 0) return c;
+        c = Integer.compare(a.tid.pageId(), b.tid.pageId());
+        return c != 0 ? c : Integer.compare(a.tid.slot(), b.tid.slot());
+    };
+}
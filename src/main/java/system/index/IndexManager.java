@@ -0,0 +1,43 @@
+package system.index;
+
+import system.catalog.model.IndexDefinition;
+import system.catalog.model.TableDefinition;
+import system.memory.heap.HeapFile;
+import system.memory.model.TupleId;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Открытые индексы таблиц и их сопровождение при изменении heap-файла.
+ */
+public interface IndexManager {
+
+    /**
+     * Зарегистрировать индекс в каталоге и построить его по всем версиям строк таблицы.
+     * Вызывающий держит исключительную блокировку таблицы.
+     *
+     * @param includeColumns неключевые колонки, хранимые в листьях (покрывающий btree-индекс)
+     * @param options        параметры из WITH (...): fillfactor для btree, pages_per_range для brin
+     */
+    Index createIndex(String name, TableDefinition table, String method, List<String> keyColumns,
+                      List<String> includeColumns, Map<String, Integer> options, HeapFile heap);
+
+    /**
+     * Открытый индекс по его описанию в каталоге.
+     */
+    Index getIndex(IndexDefinition definition);
+
+    List<Index> getIndexes(TableDefinition table);
+
+    /**
+     * Добавить новую версию строки во все индексы таблицы.
+     */
+    void insertRow(TableDefinition table, List<Object> row, TupleId tid);
+
+    /**
+     * Удалить из всех индексов таблицы записи, указывающие на мёртвые версии.
+     */
+    long bulkDelete(TableDefinition table, Set<TupleId> deadTids);
+}
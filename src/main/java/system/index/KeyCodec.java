@@ -0,0 +1,113 @@
+package system.index;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Нормализованные ключи индекса: байтовое представление, порядок которого при беззнаковом
+ * побайтовом сравнении (memcmp) совпадает с порядком значений. Сравнение ключей в узлах
+ * дерева не разбирает их обратно в объекты.
+ *
+ * Составной ключ (List значений) — конкатенация частей, каждая начинается с тега типа:
+ * <ul>
+ *   <li>2 — целое: 8 байт big-endian с инвертированным знаковым битом; все целые приводятся к long,
+ *       чтобы integer-колонка и константа из WHERE сравнивались одинаково;</li>
+ *   <li>3 — boolean: 0 или 1;</li>
+ *   <li>4 — строка: UTF-8, где байт 0x00 записан как 0x00 0xFF, с терминатором 0x00 0x00 —
+ *       так более короткая строка меньше любого своего продолжения (порядок кодовых точек, как collation C);</li>
+ *   <li>0xFF — NULL, больше любого значения (NULLS LAST, как в PostgreSQL).</li>
+ * </ul>
+ * Части самоограничены, поэтому префикс составного ключа тоже является корректным ключом для сравнения.
+ */
+public final class KeyCodec {
+    private static final byte TAG_LONG = 2;
+    private static final byte TAG_BOOLEAN = 3;
+    private static final byte TAG_STRING = 4;
+    private static final byte TAG_NULL = (byte) 0xFF;
+
+    private KeyCodec() {}
+
+    public static byte[] encode(Object value) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(16);
+        if (value instanceof List<?> parts) {
+            for (Object part : parts) {
+                encodePart(out, part);
+            }
+        } else {
+            encodePart(out, value);
+        }
+        return out.toByteArray();
+    }
+
+    private static void encodePart(ByteArrayOutputStream out, Object value) {
+        if (value == null) {
+            out.write(TAG_NULL);
+        } else if (value instanceof Number n && !(value instanceof Double) && !(value instanceof Float)) {
+            out.write(TAG_LONG);
+            out.writeBytes(ByteBuffer.allocate(8).order(ByteOrder.BIG_ENDIAN)
+                    .putLong(n.longValue() ^ Long.MIN_VALUE).array());
+        } else if (value instanceof Boolean b) {
+            out.write(TAG_BOOLEAN);
+            out.write(b ? 1 : 0);
+        } else if (value instanceof String s) {
+            out.write(TAG_STRING);
+            for (byte b : s.getBytes(StandardCharsets.UTF_8)) {
+                out.write(b);
+                if (b == 0) out.write(0xFF);
+            }
+            out.write(0);
+            out.write(0);
+        } else {
+            throw new IllegalArgumentException("Unsupported index key type: " + value.getClass());
+        }
+    }
+
+    /**
+     * Части ключа в порядке колонок индекса; целые возвращаются как Long.
+     */
+    public static List<Object> decode(byte[] key) {
+        ByteBuffer b = ByteBuffer.wrap(key).order(ByteOrder.BIG_ENDIAN);
+        List<Object> parts = new ArrayList<>(2);
+        while (b.hasRemaining()) {
+            byte tag = b.get();
+            switch (tag) {
+                case TAG_NULL -> parts.add(null);
+                case TAG_LONG -> parts.add(b.getLong() ^ Long.MIN_VALUE);
+                case TAG_BOOLEAN -> parts.add(b.get() != 0);
+                case TAG_STRING -> {
+                    ByteArrayOutputStream s = new ByteArrayOutputStream();
+                    while (true) {
+                        byte c = b.get();
+                        if (c != 0) {
+                            s.write(c);
+                        } else if (b.get() == 0) {
+                            break;
+                        } else {
+                            s.write(0);
+                        }
+                    }
+                    parts.add(s.toString(StandardCharsets.UTF_8));
+                }
+                default -> throw new IllegalStateException("Bad tag in index key: " + tag);
+            }
+        }
+        return parts;
+    }
+
+    public static int compare(byte[] a, byte[] b) {
+        return Arrays.compareUnsigned(a, b);
+    }
+
+    /**
+     * Сравнение ключа с префиксом: ключ, начинающийся с prefix, считается равным ему.
+     * Так граница по первым колонкам составного индекса покрывает все значения следующих.
+     */
+    public static int comparePrefix(byte[] key, byte[] prefix) {
+        return Arrays.compareUnsigned(key, 0, Math.min(key.length, prefix.length), prefix, 0, prefix.length);
+    }
+}
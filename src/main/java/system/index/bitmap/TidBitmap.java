@@ -0,0 +1,379 @@
+package system.index.bitmap;
+
+import system.memory.model.TupleId;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Множество адресов строк, собранное из одного или нескольких индексов (аналог TIDBitmap PostgreSQL).
+ * Устроено как roaring bitmap: старшая часть адреса — номер страницы — хранится в отсортированном
+ * массиве, младшая — номера слотов страницы — в контейнере. Контейнер страницы с немногими строками —
+ * отсортированный массив слотов, с плотно занятыми — битовая карта; представление меняется, когда
+ * карта становится компактнее массива.
+ * Страница может быть неточной (lossy): известно только, что на ней могут быть подходящие строки,
+ * — так страницы отбирает BRIN. Такую страницу читают целиком, условие всё равно перепроверяется.
+ * Пересечение и объединение идут слиянием по отсортированным номерам страниц.
+ */
+public final class TidBitmap {
+
+    /**
+     * Страница битовой карты: slots — номера слотов по возрастанию, null — неточная страница.
+     */
+    public record PageEntry(int pageId, int[] slots) {
+        public boolean isLossy() {
+            return slots == null;
+        }
+    }
+
+    private int[] pages = new int[8];
+    private Container[] containers = new Container[8];
+    private int size;
+
+    public void add(TupleId tid) {
+        int i = findOrInsert(tid.pageId());
+        if (containers[i] == null) {
+            containers[i] = new ArrayContainer();
+        }
+        containers[i] = containers[i].add(tid.slot());
+    }
+
+    /**
+     * Пометить страницу целиком (неточно): ранее добавленные слоты страницы поглощаются.
+     */
+    public void addPage(int pageId) {
+        containers[findOrInsert(pageId)] = LossyContainer.INSTANCE;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int getPageCount() {
+        return size;
+    }
+
+    public int getLossyPageCount() {
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            if (containers[i] == LossyContainer.INSTANCE) count++;
+        }
+        return count;
+    }
+
+    /**
+     * Число адресов на точных страницах; неточные страницы не считаются.
+     */
+    public long getTupleCount() {
+        long count = 0;
+        for (int i = 0; i < size; i++) {
+            count += containers[i].cardinality();
+        }
+        return count;
+    }
+
+    /**
+     * Страницы в порядке возрастания номеров — в этом порядке их и читает bitmap heap scan.
+     */
+    public List<PageEntry> pages() {
+        List<PageEntry> result = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            result.add(new PageEntry(pages[i], containers[i].slots()));
+        }
+        return result;
+    }
+
+    /**
+     * Строки, попавшие в оба множества. Неточная страница пересекается с точной до её слотов,
+     * с неточной — остаётся неточной.
+     */
+    public static TidBitmap and(TidBitmap a, TidBitmap b) {
+        TidBitmap result = new TidBitmap();
+        int i = 0, j = 0;
+        while (i < a.size && j < b.size) {
+            if (a.pages[i] < b.pages[j]) {
+                i++;
+            } else if (a.pages[i] > b.pages[j]) {
+                j++;
+            } else {
+                Container c = a.containers[i].and(b.containers[j]);
+                if (c.cardinality() > 0 || c == LossyContainer.INSTANCE) {
+                    result.append(a.pages[i], c);
+                }
+                i++;
+                j++;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Строки хотя бы одного из множеств; неточная страница поглощает точную.
+     */
+    public static TidBitmap or(TidBitmap a, TidBitmap b) {
+        TidBitmap result = new TidBitmap();
+        int i = 0, j = 0;
+        while (i < a.size || j < b.size) {
+            if (j == b.size || (i < a.size && a.pages[i] < b.pages[j])) {
+                result.append(a.pages[i], a.containers[i].copy());
+                i++;
+            } else if (i == a.size || a.pages[i] > b.pages[j]) {
+                result.append(b.pages[j], b.containers[j].copy());
+                j++;
+            } else {
+                result.append(a.pages[i], a.containers[i].or(b.containers[j]));
+                i++;
+                j++;
+            }
+        }
+        return result;
+    }
+
+    private void append(int pageId, Container container) {
+        ensureCapacity();
+        pages[size] = pageId;
+        containers[size] = container;
+        size++;
+    }
+
+    private int findOrInsert(int pageId) {
+        // индексы чаще всего отдают адреса по возрастанию страниц — сначала проверяем конец
+        if (size > 0 && pages[size - 1] == pageId) return size - 1;
+        int i = size > 0 && pages[size - 1] < pageId ? -(size + 1) : Arrays.binarySearch(pages, 0, size, pageId);
+        if (i >= 0) return i;
+        i = -(i + 1);
+        ensureCapacity();
+        System.arraycopy(pages, i, pages, i + 1, size - i);
+        System.arraycopy(containers, i, containers, i + 1, size - i);
+        pages[i] = pageId;
+        containers[i] = null;
+        size++;
+        return i;
+    }
+
+    private void ensureCapacity() {
+        if (size == pages.length) {
+            pages = Arrays.copyOf(pages, size * 2);
+            containers = Arrays.copyOf(containers, size * 2);
+        }
+    }
+
+    private interface Container {
+        Container add(int slot);
+
+        int cardinality();
+
+        boolean contains(int slot);
+
+        // null — страница неточная
+        int[] slots();
+
+        Container and(Container other);
+
+        Container or(Container other);
+
+        // результат слияния не должен делить изменяемый контейнер с исходной картой
+        Container copy();
+    }
+
+    private static final class LossyContainer implements Container {
+        static final LossyContainer INSTANCE = new LossyContainer();
+
+        @Override
+        public Container add(int slot) {
+            return this;
+        }
+
+        @Override
+        public int cardinality() {
+            return 0;
+        }
+
+        @Override
+        public boolean contains(int slot) {
+            return true;
+        }
+
+        @Override
+        public int[] slots() {
+            return null;
+        }
+
+        @Override
+        public Container and(Container other) {
+            return other.copy();
+        }
+
+        @Override
+        public Container or(Container other) {
+            return this;
+        }
+
+        @Override
+        public Container copy() {
+            return this;
+        }
+    }
+
+    private static final class ArrayContainer implements Container {
+        private char[] slots = new char[4];
+        private int cardinality;
+
+        @Override
+        public Container add(int slot) {
+            int i = cardinality > 0 && slots[cardinality - 1] < slot
+                    ? -(cardinality + 1) : Arrays.binarySearch(slots, 0, cardinality, (char) slot);
+            if (i >= 0) return this;
+            i = -(i + 1);
+            if (cardinality == slots.length) {
+                slots = Arrays.copyOf(slots, cardinality * 2);
+            }
+            System.arraycopy(slots, i, slots, i + 1, cardinality - i);
+            slots[i] = (char) slot;
+            cardinality++;
+            // массив занимает 2 байта на слот, карта — 8 байт на 64 слота до наибольшего
+            return cardinality * 2 > BitmapContainer.words(slots[cardinality - 1]) * 8
+                    ? BitmapContainer.of(this) : this;
+        }
+
+        @Override
+        public int cardinality() {
+            return cardinality;
+        }
+
+        @Override
+        public boolean contains(int slot) {
+            return Arrays.binarySearch(slots, 0, cardinality, (char) slot) >= 0;
+        }
+
+        @Override
+        public int[] slots() {
+            int[] result = new int[cardinality];
+            for (int i = 0; i < cardinality; i++) result[i] = slots[i];
+            return result;
+        }
+
+        @Override
+        public Container and(Container other) {
+            if (other == LossyContainer.INSTANCE) return copy();
+            ArrayContainer result = new ArrayContainer();
+            for (int i = 0; i < cardinality; i++) {
+                if (other.contains(slots[i])) result.add(slots[i]);
+            }
+            return result;
+        }
+
+        @Override
+        public Container or(Container other) {
+            if (other == LossyContainer.INSTANCE) return other;
+            Container result = other.copy();
+            for (int i = 0; i < cardinality; i++) {
+                result = result.add(slots[i]);
+            }
+            return result;
+        }
+
+        @Override
+        public ArrayContainer copy() {
+            ArrayContainer copy = new ArrayContainer();
+            copy.slots = Arrays.copyOf(slots, Math.max(4, cardinality));
+            copy.cardinality = cardinality;
+            return copy;
+        }
+    }
+
+    private static final class BitmapContainer implements Container {
+        private long[] words;
+        private int cardinality;
+
+        private BitmapContainer(long[] words, int cardinality) {
+            this.words = words;
+            this.cardinality = cardinality;
+        }
+
+        static int words(int maxSlot) {
+            return (maxSlot >>> 6) + 1;
+        }
+
+        static BitmapContainer of(ArrayContainer array) {
+            BitmapContainer bitmap = new BitmapContainer(new long[words(array.slots[array.cardinality - 1])], 0);
+            for (int i = 0; i < array.cardinality; i++) {
+                bitmap.add(array.slots[i]);
+            }
+            return bitmap;
+        }
+
+        @Override
+        public Container add(int slot) {
+            int word = slot >>> 6;
+            if (word >= words.length) {
+                words = Arrays.copyOf(words, Math.max(word + 1, words.length * 2));
+            }
+            long bit = 1L << slot;
+            if ((words[word] & bit) == 0) {
+                words[word] |= bit;
+                cardinality++;
+            }
+            return this;
+        }
+
+        @Override
+        public int cardinality() {
+            return cardinality;
+        }
+
+        @Override
+        public boolean contains(int slot) {
+            int word = slot >>> 6;
+            return word < words.length && (words[word] & (1L << slot)) != 0;
+        }
+
+        @Override
+        public int[] slots() {
+            int[] result = new int[cardinality];
+            int n = 0;
+            for (int w = 0; w < words.length; w++) {
+                long bits = words[w];
+                while (bits != 0) {
+                    result[n++] = (w << 6) + Long.numberOfTrailingZeros(bits);
+                    bits &= bits - 1;
+                }
+            }
+            return result;
+        }
+
+        @Override
+        public Container and(Container other) {
+            if (other == LossyContainer.INSTANCE) return copy();
+            if (other instanceof ArrayContainer array) return array.and(this);
+            long[] theirs = ((BitmapContainer) other).words;
+            long[] result = new long[Math.min(words.length, theirs.length)];
+            int count = 0;
+            for (int w = 0; w < result.length; w++) {
+                result[w] = words[w] & theirs[w];
+                count += Long.bitCount(result[w]);
+            }
+            return new BitmapContainer(result, count);
+        }
+
+        @Override
+        public Container or(Container other) {
+            if (other == LossyContainer.INSTANCE) return other;
+            if (other instanceof ArrayContainer array) return array.or(this);
+            long[] theirs = ((BitmapContainer) other).words;
+            long[] result = Arrays.copyOf(words, Math.max(words.length, theirs.length));
+            int count = 0;
+            for (int w = 0; w < result.length; w++) {
+                if (w < theirs.length) result[w] |= theirs[w];
+                count += Long.bitCount(result[w]);
+            }
+            return new BitmapContainer(result, count);
+        }
+
+        @Override
+        public BitmapContainer copy() {
+            return new BitmapContainer(words.clone(), cardinality);
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package system.index.brin;
+
+import system.catalog.model.IndexDefinition;
+import system.index.Index;
+import system.index.KeyCodec;
+import system.memory.buffer.BufferPoolManager;
+import system.memory.model.BufferSlot;
+import system.memory.model.TupleId;
+
+import java.util.BitSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.locks.Lock;
+
+/**
+ * Индекс диапазонов блоков (BRIN): heap-файл делится на диапазоны по pagesPerRange страниц,
+ * для каждого хранится только минимум и максимум ключа. Индекс крошечный и годится для таблиц,
+ * куда строки дописываются примерно в порядке ключа (время события, возрастающий id).
+ *
+ * Индекс неточен: он не возвращает адреса строк, а лишь исключает диапазоны, в которых
+ * подходящих ключей заведомо нет. Страницы остальных диапазонов читает bitmap-сканирование,
+ * а условие перепроверяется для каждой строки.
+ * Сводка расширяется при каждой вставке; удаление её не сужает — как и в PostgreSQL,
+ * после массового удаления диапазон остаётся кандидатом, что не нарушает корректности.
+ */
+public class BrinIndex implements Index {
+    public static final int DEFAULT_PAGES_PER_RANGE = 128;
+    public static final int MAX_PAGES_PER_RANGE = 131072;
+
+    private final IndexDefinition definition;
+    private final BufferPoolManager bufferPool;
+    private final int pagesPerRange;
+
+    public BrinIndex(IndexDefinition definition, BufferPoolManager bufferPool) {
+        this(definition, bufferPool, DEFAULT_PAGES_PER_RANGE);
+    }
+
+    /**
+     * @param pagesPerRange размер диапазона для нового индекса; у существующего берётся из метастраницы.
+     */
+    public BrinIndex(IndexDefinition definition, BufferPoolManager bufferPool, int pagesPerRange) {
+        if (pagesPerRange < 1 || pagesPerRange > MAX_PAGES_PER_RANGE) {
+            throw new IllegalArgumentException("pages_per_range must be between 1 and " + MAX_PAGES_PER_RANGE
+                    + ": " + pagesPerRange);
+        }
+        this.definition = definition;
+        this.bufferPool = bufferPool;
+        if (bufferPool.getPageCount() == 0) {
+            initialize(pagesPerRange);
+        }
+        this.pagesPerRange = readPagesPerRange();
+    }
+
+    private void initialize(int pagesPerRange) {
+        BufferSlot meta = bufferPool.newPage(BrinPage::new);
+        try {
+            ((BrinPage) meta.getPage()).initMeta(pagesPerRange);
+            meta.setDirty(true);
+        } finally {
+            bufferPool.unpinPage(meta.getPageId());
+        }
+    }
+
+    private int readPagesPerRange() {
+        BufferSlot slot = bufferPool.fetchPage(BrinPage.META_PAGE_ID);
+        Lock latch = slot.getContentLock().readLock();
+        latch.lock();
+        try {
+            return ((BrinPage) slot.getPage()).getPagesPerRange();
+        } finally {
+            latch.unlock();
+            bufferPool.unpinPage(BrinPage.META_PAGE_ID);
+        }
+    }
+
+    @Override
+    public IndexDefinition getDefinition() {
+        return definition;
+    }
+
+    @Override
+    public BufferPoolManager getBufferPool() {
+        return bufferPool;
+    }
+
+    public int getPagesPerRange() {
+        return pagesPerRange;
+    }
+
+    /**
+     * Расширить сводку диапазона, в который попала новая версия строки.
+     */
+    @Override
+    public void insert(Object key, TupleId tid) {
+        byte[] encoded = KeyCodec.encode(key);
+        int range = tid.pageId() / pagesPerRange;
+        int pageId = ensureSummaryPage(range);
+
+        BufferSlot slot = bufferPool.fetchPage(pageId);
+        Lock latch = slot.getContentLock().writeLock();
+        latch.lock();
+        try {
+            BrinPage page = (BrinPage) slot.getPage();
+            BrinSummary current = page.readSummary(range);
+            BrinSummary updated = current == null ? BrinSummary.of(encoded) : current.add(encoded);
+            if (updated != current) {
+                page.writeSummary(range, updated);
+                slot.setDirty(true);
+            }
+        } finally {
+            latch.unlock();
+            bufferPool.unpinPage(pageId);
+        }
+    }
+
+    // страницы сводок создаются по мере роста таблицы; newPage выдаёт следующий номер
+    private synchronized int ensureSummaryPage(int range) {
+        int pageId = BrinPage.pageOf(range);
+        while (bufferPool.getPageCount() <= pageId) {
+            BufferSlot slot = bufferPool.newPage(BrinPage::new);
+            try {
+                ((BrinPage) slot.getPage()).initSummaries();
+                slot.setDirty(true);
+            } finally {
+                bufferPool.unpinPage(slot.getPageId());
+            }
+        }
+        return pageId;
+    }
+
+    /**
+     * Heap-страницы, в которых могут быть ключи из диапазона [low, high]; null-граница — диапазон
+     * не ограничен с этой стороны. Неописанные диапазоны включаются целиком.
+     *
+     * @param heapPageCount текущее число страниц таблицы
+     */
+    public BitSet getCandidatePages(Object low, boolean lowInclusive, Object high, boolean highInclusive,
+                                    int heapPageCount) {
+        byte[] lowKey = low == null ? null : KeyCodec.encode(low);
+        byte[] highKey = high == null ? null : KeyCodec.encode(high);
+        BitSet pages = new BitSet(heapPageCount);
+        int ranges = (heapPageCount + pagesPerRange - 1) / pagesPerRange;
+        int summaryPages = bufferPool.getPageCount();
+
+        int range = 0;
+        while (range < ranges) {
+            int pageId = BrinPage.pageOf(range);
+            int last = Math.min(ranges, pageId * BrinPage.RANGES_PER_PAGE);
+            BrinSummary[] summaries = new BrinSummary[last - range];
+            if (pageId < summaryPages) {
+                readSummaries(pageId, range, summaries);
+            }
+            for (BrinSummary summary : summaries) {
+                if (summary == null || summary.mayContain(lowKey, lowInclusive, highKey, highInclusive)) {
+                    pages.set(range * pagesPerRange, Math.min(heapPageCount, (range + 1) * pagesPerRange));
+                }
+                range++;
+            }
+        }
+        return pages;
+    }
+
+    // сводки страницы копируются под одной разделяемой защёлкой
+    private void readSummaries(int pageId, int firstRange, BrinSummary[] out) {
+        BufferSlot slot = bufferPool.fetchPage(pageId);
+        Lock latch = slot.getContentLock().readLock();
+        latch.lock();
+        try {
+            BrinPage page = (BrinPage) slot.getPage();
+            for (int i = 0; i < out.length; i++) {
+                out[i] = page.readSummary(firstRange + i);
+            }
+        } finally {
+            latch.unlock();
+            bufferPool.unpinPage(pageId);
+        }
+    }
+
+    /**
+     * BRIN не хранит адресов строк — вместо поиска используется getCandidatePages.
+     */
+    @Override
+    public List<TupleId> scan(Object low, boolean lowInclusive, Object high, boolean highInclusive) {
+        throw new UnsupportedOperationException("BRIN index " + definition.getName() + " returns page ranges, not rows");
+    }
+
+    // ссылок на отдельные версии нет, чистить нечего
+    @Override
+    public long bulkDelete(Set<TupleId> deadTids) {
+        return 0;
+    }
+}
@@ -0,0 +1,151 @@
+package system.index.brin;
+
+import system.memory.page.HeapPage;
+import system.memory.page.Page;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Страница файла BRIN-индекса.
+ * Метастраница (номер 0): magic, флаги, число heap-страниц в диапазоне.
+ * Страница сводок (16 байт заголовка): magic, флаги, номер первого диапазона; далее
+ * RANGES_PER_PAGE слотов фиксированного размера, слот i — сводка диапазона first + i:
+ * [состояние byte][длина min short][min][длина max short][max].
+ * Страница сводок с номером p хранит диапазоны с (p - 1) * RANGES_PER_PAGE, поэтому
+ * отдельная карта "диапазон -> страница" (revmap в PostgreSQL) не нужна.
+ */
+public class BrinPage implements Page {
+    public static final int MAGIC = 0x4252494E;
+    public static final int HEADER_SIZE = 16;
+    public static final int META_PAGE_ID = 0;
+
+    public static final int RANGES_PER_PAGE = 32;
+    static final int SLOT_SIZE = (HeapPage.PAGE_SIZE - HEADER_SIZE) / RANGES_PER_PAGE;
+    // обе границы со своими длинами и байт состояния должны поместиться в слот
+    public static final int MAX_KEY_SIZE = (SLOT_SIZE - 5) / 2;
+
+    private static final int FLAG_META = 1;
+    private static final int FLAG_SUMMARY = 2;
+
+    private static final byte NOT_SUMMARIZED = 0;
+    private static final byte SUMMARIZED = 1;
+    private static final byte UNBOUNDED = 2;
+
+    private final int pageId;
+    private final byte[] data;
+
+    public BrinPage(int pageId, byte[] data) {
+        this.pageId = pageId;
+        this.data = data;
+    }
+
+    public BrinPage(int pageId) {
+        this(pageId, new byte[HeapPage.PAGE_SIZE]);
+    }
+
+    static int pageOf(int range) {
+        return 1 + range / RANGES_PER_PAGE;
+    }
+
+    void initMeta(int pagesPerRange) {
+        ByteBuffer b = buffer();
+        b.putInt(0, MAGIC);
+        b.put(4, (byte) FLAG_META);
+        b.putInt(8, pagesPerRange);
+    }
+
+    int getPagesPerRange() {
+        ByteBuffer b = buffer();
+        if (b.getInt(0) != MAGIC || (b.get(4) & FLAG_META) == 0) {
+            throw new IllegalStateException("Page " + pageId + " is not a BRIN meta page");
+        }
+        return b.getInt(8);
+    }
+
+    void initSummaries() {
+        ByteBuffer b = buffer();
+        b.putInt(0, MAGIC);
+        b.put(4, (byte) FLAG_SUMMARY);
+        b.putInt(8, (pageId - 1) * RANGES_PER_PAGE);
+    }
+
+    /**
+     * Сводка диапазона range; null — диапазон ещё не описан.
+     */
+    BrinSummary readSummary(int range) {
+        ByteBuffer b = summaries();
+        b.position(slotOffset(range));
+        byte state = b.get();
+        if (state == NOT_SUMMARIZED) return null;
+        if (state == UNBOUNDED) return BrinSummary.UNBOUNDED;
+        byte[] min = new byte[b.getShort() & 0xFFFF];
+        b.get(min);
+        byte[] max = new byte[b.getShort() & 0xFFFF];
+        b.get(max);
+        return new BrinSummary(min, max);
+    }
+
+    void writeSummary(int range, BrinSummary summary) {
+        ByteBuffer b = summaries();
+        b.position(slotOffset(range));
+        if (summary.isUnbounded()) {
+            b.put(UNBOUNDED);
+            return;
+        }
+        b.put(SUMMARIZED);
+        b.putShort((short) summary.min().length);
+        b.put(summary.min());
+        b.putShort((short) summary.max().length);
+        b.put(summary.max());
+    }
+
+    private int slotOffset(int range) {
+        if (pageOf(range) != pageId) {
+            throw new IllegalArgumentException("Range " + range + " is not stored on BRIN page " + pageId);
+        }
+        return HEADER_SIZE + (range % RANGES_PER_PAGE) * SLOT_SIZE;
+    }
+
+    private ByteBuffer summaries() {
+        ByteBuffer b = buffer();
+        if (b.getInt(0) != MAGIC || (b.get(4) & FLAG_SUMMARY) == 0) {
+            throw new IllegalStateException("Page " + pageId + " is not a BRIN summary page");
+        }
+        return b;
+    }
+
+    private ByteBuffer buffer() {
+        return ByteBuffer.wrap(data).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    @Override
+    public byte[] bytes() {
+        return data;
+    }
+
+    @Override
+    public int getPageId() {
+        return pageId;
+    }
+
+    @Override
+    public int size() {
+        return pageId == META_PAGE_ID ? 0 : RANGES_PER_PAGE;
+    }
+
+    @Override
+    public boolean isValid() {
+        return buffer().getInt(0) == MAGIC;
+    }
+
+    @Override
+    public byte[] read(int index) {
+        throw new UnsupportedOperationException("BRIN pages are accessed through BrinIndex");
+    }
+
+    @Override
+    public void write(byte[] data) {
+        throw new UnsupportedOperationException("BRIN pages are accessed through BrinIndex");
+    }
+}
@@ -0,0 +1,17 @@
+package system.index.brin;
+
+import system.memory.manager.ForkPageFileManager;
+import system.memory.page.Page;
+
+import java.nio.file.Path;
+
+/**
+ * Файл BRIN-индекса: страницы фиксированного размера, обёрнутые в BrinPage.
+ */
+public class BrinPageFileManager extends ForkPageFileManager {
+
+    @Override
+    public Page read(int pageId, Path path) {
+        return new BrinPage(pageId, super.read(pageId, path).bytes());
+    }
+}
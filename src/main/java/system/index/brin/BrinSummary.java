@@ -0,0 +1,48 @@
+package system.index.brin;
+
+import system.index.KeyCodec;
+
+/**
+ * Сводка диапазона heap-страниц: наименьший и наибольший ключ (закодированные KeyCodec).
+ * Сводка без границ (min == max == null) подходит под любое условие — так помечается диапазон,
+ * ключ которого не поместился в слот сводки.
+ */
+record BrinSummary(byte[] min, byte[] max) {
+    static final BrinSummary UNBOUNDED = new BrinSummary(null, null);
+
+    boolean isUnbounded() {
+        return min == null;
+    }
+
+    /**
+     * Сводка, расширенная ключом key; та же сводка, если ключ уже в её границах.
+     */
+    BrinSummary add(byte[] key) {
+        if (isUnbounded()) return this;
+        if (key.length > BrinPage.MAX_KEY_SIZE) return UNBOUNDED;
+        boolean lower = KeyCodec.compare(key, min) < 0;
+        boolean higher = KeyCodec.compare(key, max) > 0;
+        if (!lower && !higher) return this;
+        return new BrinSummary(lower ? key : min, higher ? key : max);
+    }
+
+    static BrinSummary of(byte[] key) {
+        return key.length > BrinPage.MAX_KEY_SIZE ? UNBOUNDED : new BrinSummary(key, key);
+    }
+
+    /**
+     * Могут ли в диапазоне быть ключи из [low, high]; null-граница — диапазон открыт с этой стороны.
+     */
+    boolean mayContain(byte[] low, boolean lowInclusive, byte[] high, boolean highInclusive) {
+        if (isUnbounded()) return true;
+        if (low != null) {
+            int c = KeyCodec.compare(max, low);
+            if (c < 0 || (c == 0 && !lowInclusive)) return false;
+        }
+        if (high != null) {
+            int c = KeyCodec.compare(min, high);
+            if (c > 0 || (c == 0 && !highInclusive)) return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,100 @@
+package system.index.btree;
+
+import system.memory.buffer.BufferPoolManager;
+
+import java.nio.ByteBuffer;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Адаптивный хеш-индекс над листьями B+дерева (по образцу InnoDB): для часто искомых ключей
+ * запоминается лист, с которого начинается их поиск, и точечный поиск идёт сразу туда,
+ * без спуска от корня через внутренние узлы.
+ * Строится он сам: сначала считается, сколько точечных поисков пришло в каждый лист; когда лист
+ * становится горячим, ключи следующих поисков, пришедших в него, попадают в хеш. Ключом служит
+ * сама искомая строка байтов, поэтому так же ускоряется поиск по префиксу составного ключа.
+ * Записи листа сбрасываются при его разделении и при вытеснении его страницы из буферного пула
+ * (последнее обнаруживается при обращении). Устаревшая запись не даёт неверного ответа: узлы не
+ * удаляются, а ключи при разделении уходят только вправо, куда поиск доходит по ссылкам соседей.
+ */
+public class AdaptiveHashIndex {
+    // столько точечных поисков должно прийти в лист, прежде чем его ключи начнут хешироваться
+    static final int HOT_PAGE_SEARCHES = 16;
+    // ограничение памяти: после него новые ключи не добавляются, пока старые не сброшены
+    static final int MAX_ENTRIES = 1 << 16;
+
+    private final BufferPoolManager bufferPool;
+    private final Map<ByteBuffer, Integer> leafByKey = new ConcurrentHashMap<>();
+    private final Map<Integer, Set<ByteBuffer>> keysByLeaf = new ConcurrentHashMap<>();
+    private final Map<Integer, Integer> searchesByLeaf = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    AdaptiveHashIndex(BufferPoolManager bufferPool) {
+        this.bufferPool = bufferPool;
+    }
+
+    /**
+     * Лист, с которого начинать поиск key, или BTreeNode.NO_PAGE — тогда нужен спуск от корня.
+     */
+    int lookup(byte[] key) {
+        Integer leaf = leafByKey.get(ByteBuffer.wrap(key));
+        if (leaf != null && !bufferPool.isResident(leaf)) {
+            invalidate(leaf);
+            leaf = null;
+        }
+        if (leaf == null) {
+            misses.increment();
+            return BTreeNode.NO_PAGE;
+        }
+        hits.increment();
+        return leaf;
+    }
+
+    /**
+     * Точечный поиск key спустился от корня в лист leaf.
+     */
+    void onDescent(byte[] key, int leaf) {
+        int searches = searchesByLeaf.merge(leaf, 1, Integer::sum);
+        if (searches < HOT_PAGE_SEARCHES || leafByKey.size() >= MAX_ENTRIES) return;
+
+        ByteBuffer hashKey = ByteBuffer.wrap(key.clone());
+        keysByLeaf.computeIfAbsent(leaf, k -> ConcurrentHashMap.newKeySet()).add(hashKey);
+        leafByKey.put(hashKey, leaf);
+    }
+
+    /**
+     * Лист разделился или покинул буферный пул: его ключи и счётчик поисков сбрасываются.
+     */
+    void invalidate(int leaf) {
+        searchesByLeaf.remove(leaf);
+        Set<ByteBuffer> keys = keysByLeaf.remove(leaf);
+        if (keys == null) return;
+        for (ByteBuffer key : keys) {
+            leafByKey.remove(key, leaf);
+        }
+    }
+
+    void clear() {
+        leafByKey.clear();
+        keysByLeaf.clear();
+        searchesByLeaf.clear();
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * Точечные поиски, которым пришлось спускаться от корня.
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public int size() {
+        return leafByKey.size();
+    }
+}
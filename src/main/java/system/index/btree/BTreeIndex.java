@@ -0,0 +1,589 @@
+package system.index.btree;
+
+import system.catalog.model.IndexDefinition;
+import system.execution.tuple.TupleCodec;
+import system.index.Index;
+import system.index.IndexEntry;
+import system.index.KeyCodec;
+import system.memory.buffer.BufferPoolManager;
+import system.memory.model.BufferSlot;
+import system.memory.model.TupleId;
+import system.memory.page.HeapPage;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.locks.Lock;
+
+/**
+ * B+дерево, узлы которого — страницы буферного пула индексного файла.
+ * Страница 0 — метастраница с номером корня.
+ *
+ * Параллельный доступ устроен по Lehman–Yao (B-link дерево): у каждого узла есть верхний ключ
+ * и ссылка на правого соседа того же уровня. Поток держит защёлку не более чем одной страницы:
+ * поиск берёт только разделяемые защёлки, вставка — исключительную на изменяемый лист.
+ * Разделение сначала записывает новый правый узел, затем левый (с новым верхним ключом и ссылкой)
+ * и лишь потом добавляет разделитель в родителя; читатель, пришедший по устаревшему указателю,
+ * увидит, что ключ больше верхнего, и уйдёт вправо. Узлы не сливаются и не удаляются,
+ * поэтому переход по ссылке всегда безопасен.
+ * Дубликаты ключей допускаются: запись однозначно определяется парой (ключ, TID).
+ * Разделитель, поднимаемый из листа, усекается до кратчайшего префикса, отличающего правую
+ * половину от левой (suffix truncation): во внутренние узлы помещается больше ключей.
+ * Точечные поиски часто искомых ключей обходят спуск через AdaptiveHashIndex.
+ */
+public class BTreeIndex implements Index {
+    // в странице должно помещаться хотя бы три записи и верхний ключ, иначе разделение не поможет
+    public static final int MAX_KEY_SIZE = (HeapPage.PAGE_SIZE - BTreePage.HEADER_SIZE) / 4 - 8;
+    // заполнение узлов при построении по умолчанию, как у btree в PostgreSQL
+    public static final int DEFAULT_FILL_FACTOR = 90;
+
+    private final IndexDefinition definition;
+    private final BufferPoolManager bufferPool;
+    private final AdaptiveHashIndex adaptiveHash;
+
+    public BTreeIndex(IndexDefinition definition, BufferPoolManager bufferPool) {
+        this.definition = definition;
+        this.bufferPool = bufferPool;
+        this.adaptiveHash = new AdaptiveHashIndex(bufferPool);
+        if (bufferPool.getPageCount() == 0) {
+            initialize();
+        }
+    }
+
+    private void initialize() {
+        BufferSlot meta = bufferPool.newPage(BTreePage::new);
+        try {
+            int root = allocate(new BTreeNode(0));
+            ((BTreePage) meta.getPage()).setRoot(root);
+            meta.setDirty(true);
+        } finally {
+            bufferPool.unpinPage(meta.getPageId());
+        }
+    }
+
+    @Override
+    public IndexDefinition getDefinition() {
+        return definition;
+    }
+
+    @Override
+    public BufferPoolManager getBufferPool() {
+        return bufferPool;
+    }
+
+    public AdaptiveHashIndex getAdaptiveHashIndex() {
+        return adaptiveHash;
+    }
+
+    @Override
+    public void insert(Object key, TupleId tid) {
+        insert(key, List.of(), tid);
+    }
+
+    @Override
+    public void insert(Object key, List<Object> include, TupleId tid) {
+        byte[] encoded = KeyCodec.encode(key);
+        byte[] payload = include.isEmpty() ? null : TupleCodec.encodeTagged(include);
+        checkEntrySize(encoded, payload);
+
+        // спуск без удержания защёлок; запоминаем узлы, через которые прошли, — кандидаты в родители
+        Deque<Integer> path = new ArrayDeque<>();
+        int pageId = getRoot();
+        while (true) {
+            BTreeNode node = readNode(pageId);
+            if (isBeyond(node, encoded)) {
+                pageId = node.rightLink;
+                continue;
+            }
+            if (node.leaf) break;
+            path.push(pageId);
+            pageId = node.children.get(upperBound(node.keys, encoded));
+        }
+
+        Latched leaf = moveRight(new Latched(pageId), encoded);
+        byte[] separator;
+        int rightId;
+        int leftId;
+        try {
+            BTreeNode node = leaf.node;
+            int pos = upperBound(node.keys, encoded);
+            node.keys.add(pos, encoded);
+            node.tids.add(pos, tid);
+            node.includes.add(pos, payload);
+            if (BTreePage.fits(node)) {
+                leaf.write(node);
+                return;
+            }
+
+            int mid = node.keys.size() / 2;
+            BTreeNode right = new BTreeNode(0);
+            right.keys.addAll(node.keys.subList(mid, node.keys.size()));
+            right.tids.addAll(node.tids.subList(mid, node.tids.size()));
+            right.includes.addAll(node.includes.subList(mid, node.includes.size()));
+            right.rightLink = node.rightLink;
+            right.highKey = node.highKey;
+            node.keys.subList(mid, node.keys.size()).clear();
+            node.tids.subList(mid, node.tids.size()).clear();
+            node.includes.subList(mid, node.includes.size()).clear();
+
+            // правый узел недостижим, пока левый не записан со ссылкой на него
+            separator = truncate(node.keys.get(mid - 1), right.keys.get(0));
+            rightId = allocate(right);
+            node.rightLink = rightId;
+            node.highKey = separator;
+            leaf.write(node);
+            leftId = leaf.pageId;
+            // половина ключей ушла вправо — поиск с этого листа стал бы длиннее
+            adaptiveHash.invalidate(leftId);
+        } finally {
+            leaf.close();
+        }
+        insertIntoParent(path, leftId, 0, separator, rightId);
+    }
+
+    /**
+     * Добавить разделитель separator -> rightId на уровень выше childLevel.
+     * Защёлка ребёнка к этому моменту уже отпущена, поэтому родитель мог разделиться
+     * (ищем вправо) или дерево могло вырасти (ищем родителя спуском от нового корня).
+     */
+    private void insertIntoParent(Deque<Integer> path, int leftId, int childLevel, byte[] separator, int rightId) {
+        int parentId;
+        if (path.isEmpty()) {
+            if (tryGrowRoot(leftId, childLevel, separator, rightId)) return;
+            parentId = findNodeAtLevel(separator, childLevel + 1);
+        } else {
+            parentId = path.pop();
+        }
+
+        Latched parent = new Latched(parentId);
+        byte[] up;
+        int newRightId;
+        int splitId;
+        try {
+            while (!parent.node.children.contains(leftId) && isBeyond(parent.node, separator)) {
+                parent = parent.moveTo(parent.node.rightLink);
+            }
+
+            BTreeNode node = parent.node;
+            int idx = node.children.indexOf(leftId);
+            // левый ребёнок сам мог ещё не попасть в родителя (его разделение не завершено) — место по ключу
+            int pos = idx >= 0 ? idx : upperBound(node.keys, separator);
+            node.keys.add(pos, separator);
+            node.children.add(pos + 1, rightId);
+            if (BTreePage.fits(node)) {
+                parent.write(node);
+                return;
+            }
+
+            // средний ключ уходит наверх и становится верхним ключом левой половины
+            int mid = node.keys.size() / 2;
+            up = node.keys.get(mid);
+            BTreeNode right = new BTreeNode(node.level);
+            right.keys.addAll(node.keys.subList(mid + 1, node.keys.size()));
+            right.children.addAll(node.children.subList(mid + 1, node.children.size()));
+            right.rightLink = node.rightLink;
+            right.highKey = node.highKey;
+            node.keys.subList(mid, node.keys.size()).clear();
+            node.children.subList(mid + 1, node.children.size()).clear();
+
+            newRightId = allocate(right);
+            node.rightLink = newRightId;
+            node.highKey = up;
+            parent.write(node);
+            splitId = parent.pageId;
+        } finally {
+            parent.close();
+        }
+        insertIntoParent(path, splitId, childLevel + 1, up, newRightId);
+    }
+
+    /**
+     * Разделился корень: новый корень создаётся под защёлкой метастраницы,
+     * если корнем всё ещё является разделившийся узел.
+     */
+    private boolean tryGrowRoot(int leftId, int childLevel, byte[] separator, int rightId) {
+        BufferSlot slot = bufferPool.fetchPage(BTreePage.META_PAGE_ID);
+        Lock latch = slot.getContentLock().writeLock();
+        latch.lock();
+        try {
+            BTreePage meta = (BTreePage) slot.getPage();
+            if (meta.getRoot() != leftId) return false;
+
+            BTreeNode root = new BTreeNode(childLevel + 1);
+            root.keys.add(separator);
+            root.children.add(leftId);
+            root.children.add(rightId);
+            meta.setRoot(allocate(root));
+            slot.setDirty(true);
+            return true;
+        } finally {
+            latch.unlock();
+            bufferPool.unpinPage(BTreePage.META_PAGE_ID);
+        }
+    }
+
+    /**
+     * Самый левый узел уровня level, который может содержать key.
+     * Уровня ещё может не быть: корень разделился, а новый корень над ним ставит другой поток
+     * (так бывает, когда правый сосед только что разделившегося корня делится снова). Тот поток
+     * не держит защёлок и вот-вот запишет метастраницу — ждём, перечитывая корень.
+     */
+    private int findNodeAtLevel(byte[] key, int level) {
+        int pageId = getRoot();
+        while (true) {
+            BTreeNode node = readNode(pageId);
+            if (isBeyond(node, key)) {
+                pageId = node.rightLink;
+            } else if (node.level == level) {
+                return pageId;
+            } else if (node.level < level) {
+                Thread.yield();
+                pageId = getRoot();
+            } else {
+                pageId = node.children.get(lowerBound(node.keys, key));
+            }
+        }
+    }
+
+    /**
+     * Построение снизу вверх из отсортированных записей: листья заполняются до fillFactor процентов
+     * страницы и связываются по порядку, затем над ними так же плотно строится каждый внутренний уровень.
+     * Дерево должно быть пустым; параллельные вставки на время построения исключает вызывающий.
+     */
+    public void bulkLoad(Iterator<IndexEntry> sorted, int fillFactor) {
+        if (fillFactor < 10 || fillFactor > 100) {
+            throw new IllegalArgumentException("fillfactor must be between 10 and 100: " + fillFactor);
+        }
+        int limit = HeapPage.PAGE_SIZE * fillFactor / 100;
+
+        int rootId = getRoot();
+        BTreeNode root = readNode(rootId);
+        if (!root.leaf || !root.keys.isEmpty() || root.rightLink != BTreeNode.NO_PAGE) {
+            throw new IllegalStateException("Bulk load requires an empty index: " + definition.getName());
+        }
+        adaptiveHash.clear();
+
+        // первый лист занимает страницу пустого корня
+        List<byte[]> firstKeys = new ArrayList<>();
+        List<Integer> pages = new ArrayList<>();
+        BTreeNode leaf = new BTreeNode(0);
+        int leafId = rootId;
+        // нижняя граница текущего листа — усечённый разделитель с предыдущим
+        byte[] leafLow = null;
+        while (sorted.hasNext()) {
+            IndexEntry entry = sorted.next();
+            int entrySize = checkEntrySize(entry.key(), entry.include());
+            byte[] last = leaf.keys.isEmpty() ? null : leaf.keys.get(leaf.keys.size() - 1);
+            if (last != null && BTreePage.sizeOf(leaf) + entrySize - BTreePage.sharedPrefix(last, entry.key()) > limit) {
+                BTreeNode next = new BTreeNode(0);
+                leaf.highKey = truncate(last, entry.key());
+                // сжатые записи короче верхнего ключа: если он не помещается, хвост листа переезжает в следующий
+                while (!BTreePage.fits(leaf)) {
+                    int tail = leaf.keys.size() - 1;
+                    next.keys.add(0, leaf.keys.remove(tail));
+                    next.tids.add(0, leaf.tids.remove(tail));
+                    next.includes.add(0, leaf.includes.remove(tail));
+                    leaf.highKey = truncate(leaf.keys.get(tail - 1), next.keys.get(0));
+                }
+                int nextId = allocate(new BTreeNode(0));
+                leaf.rightLink = nextId;
+                writeNode(leafId, leaf);
+                firstKeys.add(leafLow);
+                pages.add(leafId);
+                leafLow = leaf.highKey;
+                leaf = next;
+                leafId = nextId;
+            }
+            leaf.keys.add(entry.key());
+            leaf.tids.add(entry.tid());
+            leaf.includes.add(entry.include());
+        }
+        writeNode(leafId, leaf);
+        firstKeys.add(leafLow);
+        pages.add(leafId);
+
+        int level = 1;
+        while (pages.size() > 1) {
+            List<byte[]> upperKeys = new ArrayList<>();
+            List<Integer> upperPages = new ArrayList<>();
+            BTreeNode node = new BTreeNode(level);
+            int nodeId = allocate(new BTreeNode(0));
+            node.children.add(pages.get(0));
+            upperKeys.add(firstKeys.get(0));
+            upperPages.add(nodeId);
+            for (int i = 1; i < pages.size(); i++) {
+                byte[] separator = firstKeys.get(i);
+                if (!node.keys.isEmpty() && BTreePage.sizeOf(node) + 2 + separator.length + 4 > limit) {
+                    // разделитель первого ребёнка следующего узла становится верхним ключом текущего
+                    BTreeNode next = new BTreeNode(level);
+                    node.highKey = separator;
+                    if (!BTreePage.fits(node)) {
+                        // последний ребёнок переезжает в следующий узел, его разделитель короче пары ключ + ссылка
+                        node.highKey = node.keys.remove(node.keys.size() - 1);
+                        next.children.add(node.children.remove(node.children.size() - 1));
+                        next.keys.add(separator);
+                    }
+                    int nextId = allocate(new BTreeNode(0));
+                    node.rightLink = nextId;
+                    writeNode(nodeId, node);
+                    upperKeys.add(node.highKey);
+                    node = next;
+                    nodeId = nextId;
+                    node.children.add(pages.get(i));
+                    upperPages.add(nodeId);
+                    continue;
+                }
+                node.keys.add(separator);
+                node.children.add(pages.get(i));
+            }
+            writeNode(nodeId, node);
+            pages = upperPages;
+            firstKeys = upperKeys;
+            level++;
+        }
+        setRoot(pages.get(0));
+    }
+
+    @Override
+    public List<TupleId> scan(Object low, boolean lowInclusive, Object high, boolean highInclusive) {
+        List<TupleId> result = new ArrayList<>();
+        for (IndexEntry entry : scanEntries(low, lowInclusive, high, highInclusive)) {
+            result.add(entry.tid());
+        }
+        return result;
+    }
+
+    @Override
+    public List<IndexEntry> scanEntries(Object low, boolean lowInclusive, Object high, boolean highInclusive) {
+        byte[] lowKey = low == null ? null : KeyCodec.encode(low);
+        byte[] highKey = high == null ? null : KeyCodec.encode(high);
+        List<IndexEntry> result = new ArrayList<>();
+
+        // точечный поиск (в том числе по префиксу составного ключа) может начаться сразу с листа
+        boolean point = lowKey != null && highKey != null && lowInclusive && highInclusive
+                && Arrays.equals(lowKey, highKey);
+        int pageId = point ? adaptiveHash.lookup(lowKey) : BTreeNode.NO_PAGE;
+        boolean descended = pageId == BTreeNode.NO_PAGE;
+        if (descended) {
+            pageId = getRoot();
+        }
+        BTreeNode node = readNode(pageId);
+        while (true) {
+            if (lowKey != null && isBeyond(node, lowKey)) {
+                pageId = node.rightLink;
+                node = readNode(pageId);
+                continue;
+            }
+            if (node.leaf) break;
+            // равные нижней границе ключи могут быть и левее разделителя — спускаемся в самый левый
+            pageId = node.children.get(lowKey == null ? 0 : lowerBound(node.keys, lowKey));
+            node = readNode(pageId);
+        }
+        if (point && descended) {
+            adaptiveHash.onDescent(lowKey, pageId);
+        }
+
+        // каждый лист копируется под своей защёлкой; между листами защёлки не держим
+        while (true) {
+            for (int i = 0; i < node.keys.size(); i++) {
+                byte[] key = node.keys.get(i);
+                if (lowKey != null) {
+                    int c = KeyCodec.comparePrefix(key, lowKey);
+                    if (c < 0 || (c == 0 && !lowInclusive)) continue;
+                }
+                if (highKey != null) {
+                    int c = KeyCodec.comparePrefix(key, highKey);
+                    if (c > 0 || (c == 0 && !highInclusive)) return result;
+                }
+                result.add(new IndexEntry(key, node.tids.get(i), node.includes.get(i)));
+            }
+            if (node.rightLink == BTreeNode.NO_PAGE) return result;
+            node = readNode(node.rightLink);
+        }
+    }
+
+    @Override
+    public long bulkDelete(Set<TupleId> deadTids) {
+        if (deadTids.isEmpty()) return 0;
+
+        int pageId = getRoot();
+        BTreeNode node = readNode(pageId);
+        while (!node.leaf) {
+            pageId = node.children.get(0);
+            node = readNode(pageId);
+        }
+
+        // пустые листья остаются в цепочке: слияние узлов не реализовано
+        long removed = 0;
+        while (pageId != BTreeNode.NO_PAGE) {
+            try (Latched leaf = new Latched(pageId)) {
+                BTreeNode current = leaf.node;
+                int before = current.keys.size();
+                for (int i = current.keys.size() - 1; i >= 0; i--) {
+                    if (deadTids.contains(current.tids.get(i))) {
+                        current.keys.remove(i);
+                        current.tids.remove(i);
+                        current.includes.remove(i);
+                    }
+                }
+                if (current.keys.size() != before) {
+                    removed += before - current.keys.size();
+                    leaf.write(current);
+                }
+                pageId = current.rightLink;
+            }
+        }
+        return removed;
+    }
+
+    // размер записи листа в странице; ключ вместе с INCLUDE-значениями ограничен MAX_KEY_SIZE
+    private int checkEntrySize(byte[] key, byte[] include) {
+        int size = key.length + (include != null ? 2 + include.length : 0);
+        if (size > MAX_KEY_SIZE) {
+            throw new IllegalArgumentException("Index row size " + size
+                    + " exceeds maximum " + MAX_KEY_SIZE + " for index " + definition.getName());
+        }
+        return 4 + size + 6;
+    }
+
+    /**
+     * Кратчайший префикс right, который строго больше left: left < результат <= right.
+     * Разделитель только направляет поиск, поэтому не обязан быть существующим ключом.
+     * Равные ключи (дубликаты по обе стороны разделения) не усекаются.
+     */
+    static byte[] truncate(byte[] left, byte[] right) {
+        int shared = BTreePage.sharedPrefix(left, right);
+        if (shared >= right.length) return right;
+        return Arrays.copyOf(right, shared + 1);
+    }
+
+    // ключ больше верхнего ключа узла — узел разделился, искать нужно правее
+    private static boolean isBeyond(BTreeNode node, byte[] key) {
+        return node.highKey != null && node.rightLink != BTreeNode.NO_PAGE
+                && KeyCodec.compare(key, node.highKey) > 0;
+    }
+
+    private Latched moveRight(Latched latched, byte[] key) {
+        while (isBeyond(latched.node, key)) {
+            latched = latched.moveTo(latched.node.rightLink);
+        }
+        return latched;
+    }
+
+    // первый ключ > key
+    private static int upperBound(List<byte[]> keys, byte[] key) {
+        int lo = 0, hi = keys.size();
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (KeyCodec.compare(keys.get(mid), key) <= 0) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    // первый ключ >= key
+    private static int lowerBound(List<byte[]> keys, byte[] key) {
+        int lo = 0, hi = keys.size();
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (KeyCodec.compare(keys.get(mid), key) < 0) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    private int getRoot() {
+        BufferSlot slot = bufferPool.fetchPage(BTreePage.META_PAGE_ID);
+        Lock latch = slot.getContentLock().readLock();
+        latch.lock();
+        try {
+            return ((BTreePage) slot.getPage()).getRoot();
+        } finally {
+            latch.unlock();
+            bufferPool.unpinPage(BTreePage.META_PAGE_ID);
+        }
+    }
+
+    // копия узла, снятая под разделяемой защёлкой
+    private BTreeNode readNode(int pageId) {
+        BufferSlot slot = bufferPool.fetchPage(pageId);
+        Lock latch = slot.getContentLock().readLock();
+        latch.lock();
+        try {
+            return ((BTreePage) slot.getPage()).readNode();
+        } finally {
+            latch.unlock();
+            bufferPool.unpinPage(pageId);
+        }
+    }
+
+    private void setRoot(int root) {
+        BufferSlot slot = bufferPool.fetchPage(BTreePage.META_PAGE_ID);
+        Lock latch = slot.getContentLock().writeLock();
+        latch.lock();
+        try {
+            ((BTreePage) slot.getPage()).setRoot(root);
+            slot.setDirty(true);
+        } finally {
+            latch.unlock();
+            bufferPool.unpinPage(BTreePage.META_PAGE_ID);
+        }
+    }
+
+    private void writeNode(int pageId, BTreeNode node) {
+        try (Latched latched = new Latched(pageId)) {
+            latched.write(node);
+        }
+    }
+
+    // новая страница ещё никому не видна, защёлка не нужна
+    private int allocate(BTreeNode node) {
+        BufferSlot slot = bufferPool.newPage(BTreePage::new);
+        try {
+            ((BTreePage) slot.getPage()).writeNode(node);
+            slot.setDirty(true);
+            return slot.getPageId();
+        } finally {
+            bufferPool.unpinPage(slot.getPageId());
+        }
+    }
+
+    /**
+     * Закреплённая страница под исключительной защёлкой вместе с разобранным узлом.
+     */
+    private final class Latched implements AutoCloseable {
+        final int pageId;
+        final BTreeNode node;
+        private final BufferSlot slot;
+        private final Lock latch;
+
+        Latched(int pageId) {
+            this.pageId = pageId;
+            this.slot = bufferPool.fetchPage(pageId);
+            this.latch = slot.getContentLock().writeLock();
+            latch.lock();
+            this.node = ((BTreePage) slot.getPage()).readNode();
+        }
+
+        void write(BTreeNode updated) {
+            ((BTreePage) slot.getPage()).writeNode(updated);
+            slot.setDirty(true);
+        }
+
+        // защёлка текущей страницы отпускается до захвата следующей
+        Latched moveTo(int nextPageId) {
+            close();
+            return new Latched(nextPageId);
+        }
+
+        @Override
+        public void close() {
+            latch.unlock();
+            bufferPool.unpinPage(pageId);
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package system.index.btree;
+
+import system.memory.model.TupleId;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Разобранный в памяти узел B+дерева.
+ * В листе keys[i] соответствует tids[i]; во внутреннем узле children на один длиннее keys,
+ * и в поддереве children[i] лежат ключи из [keys[i-1], keys[i]].
+ * includes[i] листа — закодированные TupleCodec значения INCLUDE-колонок записи (null — их нет).
+ * highKey — верхняя граница ключей узла (null — бесконечность): ключ больше неё
+ * нужно искать правее, по rightLink (B-link дерево Lehman–Yao).
+ */
+class BTreeNode {
+    static final int NO_PAGE = -1;
+
+    final boolean leaf;
+    // 0 — лист
+    final int level;
+    final List<byte[]> keys = new ArrayList<>();
+    final List<TupleId> tids = new ArrayList<>();
+    final List<byte[]> includes = new ArrayList<>();
+    final List<Integer> children = new ArrayList<>();
+    int rightLink = NO_PAGE;
+    byte[] highKey;
+
+    BTreeNode(int level) {
+        this.level = level;
+        this.leaf = level == 0;
+    }
+}
@@ -0,0 +1,228 @@
+package system.index.btree;
+
+import system.memory.model.TupleId;
+import system.memory.page.HeapPage;
+import system.memory.page.Page;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Страница индексного файла B+дерева.
+ * Заголовок (16 байт): magic, флаги, уровень узла, число записей, правый сосед, служебное поле
+ * (во внутреннем узле — самый левый потомок, в метастранице — корень).
+ * Следом, если задан, верхний ключ узла: [длина short][ключ].
+ * Записи: [длина ключа short][ключ][лист: pageId int + slot short | внутренний: потомок int].
+ * Ключи листа хранятся со сжатием префикса (флаг PREFIX): вместо [длина][ключ] пишется
+ * [длина общего с предыдущим ключом префикса short][длина остатка short][остаток].
+ * Соседние ключи листа отсортированы и обычно начинаются одинаково (тег, общее начало строк),
+ * так что от длинного ключа остаётся несколько байт. Листы без флага (старый формат) читаются как есть.
+ * В листе покрывающего индекса (флаг INCLUDE) за TID каждой записи следуют значения
+ * неключевых колонок: [длина short][TupleCodec].
+ */
+public class BTreePage implements Page {
+    public static final int MAGIC = 0x42545245;
+    public static final int HEADER_SIZE = 16;
+    public static final int META_PAGE_ID = 0;
+
+    private static final int FLAG_LEAF = 1;
+    private static final int FLAG_META = 2;
+    private static final int FLAG_HIGH_KEY = 4;
+    private static final int FLAG_INCLUDE = 8;
+    private static final int FLAG_PREFIX = 16;
+
+    private final int pageId;
+    private final byte[] data;
+
+    public BTreePage(int pageId, byte[] data) {
+        this.pageId = pageId;
+        this.data = data;
+    }
+
+    public BTreePage(int pageId) {
+        this(pageId, new byte[HeapPage.PAGE_SIZE]);
+    }
+
+    static int sizeOf(BTreeNode node) {
+        int size = HEADER_SIZE + (node.highKey != null ? 2 + node.highKey.length : 0);
+        byte[] previous = null;
+        for (byte[] key : node.keys) {
+            size += node.leaf ? 4 + key.length - sharedPrefix(previous, key) + 6 : 2 + key.length + 4;
+            previous = key;
+        }
+        if (hasIncludes(node)) {
+            for (byte[] include : node.includes) {
+                size += 2 + (include != null ? include.length : 0);
+            }
+        }
+        return size;
+    }
+
+    static int sharedPrefix(byte[] previous, byte[] key) {
+        if (previous == null) return 0;
+        int length = Math.min(Math.min(previous.length, key.length), 0xFFFF);
+        int i = 0;
+        while (i < length && previous[i] == key[i]) i++;
+        return i;
+    }
+
+    private static boolean hasIncludes(BTreeNode node) {
+        if (!node.leaf) return false;
+        for (byte[] include : node.includes) {
+            if (include != null) return true;
+        }
+        return false;
+    }
+
+    static boolean fits(BTreeNode node) {
+        return sizeOf(node) <= HeapPage.PAGE_SIZE;
+    }
+
+    int getRoot() {
+        ByteBuffer b = buffer();
+        if (b.getInt(0) != MAGIC || (b.get(4) & FLAG_META) == 0) {
+            throw new IllegalStateException("Page " + pageId + " is not a B-tree meta page");
+        }
+        return b.getInt(12);
+    }
+
+    void setRoot(int root) {
+        ByteBuffer b = buffer();
+        b.putInt(0, MAGIC);
+        b.put(4, (byte) FLAG_META);
+        b.putInt(12, root);
+    }
+
+    BTreeNode readNode() {
+        ByteBuffer b = buffer();
+        if (b.getInt(0) != MAGIC || (b.get(4) & FLAG_META) != 0) {
+            throw new IllegalStateException("Page " + pageId + " is not a B-tree node");
+        }
+        int flags = b.get(4);
+        BTreeNode node = new BTreeNode(b.get(5));
+        if (node.leaf != ((flags & FLAG_LEAF) != 0)) {
+            throw new IllegalStateException("Page " + pageId + " has inconsistent B-tree node level");
+        }
+        int count = b.getShort(6) & 0xFFFF;
+        node.rightLink = b.getInt(8);
+        if (!node.leaf) {
+            node.children.add(b.getInt(12));
+        }
+
+        b.position(HEADER_SIZE);
+        if ((flags & FLAG_HIGH_KEY) != 0) {
+            node.highKey = new byte[b.getShort() & 0xFFFF];
+            b.get(node.highKey);
+        }
+        boolean prefixed = (flags & FLAG_PREFIX) != 0;
+        byte[] previous = null;
+        for (int i = 0; i < count; i++) {
+            byte[] key;
+            if (prefixed) {
+                int shared = b.getShort() & 0xFFFF;
+                key = new byte[shared + (b.getShort() & 0xFFFF)];
+                if (shared > 0) System.arraycopy(previous, 0, key, 0, shared);
+                b.get(key, shared, key.length - shared);
+            } else {
+                key = new byte[b.getShort() & 0xFFFF];
+                b.get(key);
+            }
+            node.keys.add(key);
+            previous = key;
+            if (node.leaf) {
+                int page = b.getInt();
+                node.tids.add(new TupleId(page, b.getShort() & 0xFFFF));
+                byte[] include = null;
+                if ((flags & FLAG_INCLUDE) != 0) {
+                    include = new byte[b.getShort() & 0xFFFF];
+                    b.get(include);
+                }
+                node.includes.add(include);
+            } else {
+                node.children.add(b.getInt());
+            }
+        }
+        return node;
+    }
+
+    void writeNode(BTreeNode node) {
+        if (!fits(node)) {
+            throw new IllegalStateException("B-tree node does not fit into page " + pageId);
+        }
+        boolean includes = hasIncludes(node);
+        ByteBuffer b = buffer();
+        b.putInt(0, MAGIC);
+        b.put(4, (byte) ((node.leaf ? FLAG_LEAF | FLAG_PREFIX : 0) | (node.highKey != null ? FLAG_HIGH_KEY : 0)
+                | (includes ? FLAG_INCLUDE : 0)));
+        b.put(5, (byte) node.level);
+        b.putShort(6, (short) node.keys.size());
+        b.putInt(8, node.rightLink);
+        b.putInt(12, node.leaf ? BTreeNode.NO_PAGE : node.children.get(0));
+
+        b.position(HEADER_SIZE);
+        if (node.highKey != null) {
+            b.putShort((short) node.highKey.length);
+            b.put(node.highKey);
+        }
+        byte[] previous = null;
+        for (int i = 0; i < node.keys.size(); i++) {
+            byte[] key = node.keys.get(i);
+            if (node.leaf) {
+                int shared = sharedPrefix(previous, key);
+                b.putShort((short) shared);
+                b.putShort((short) (key.length - shared));
+                b.put(key, shared, key.length - shared);
+                previous = key;
+            } else {
+                b.putShort((short) key.length);
+                b.put(key);
+            }
+            if (node.leaf) {
+                TupleId tid = node.tids.get(i);
+                b.putInt(tid.pageId());
+                b.putShort((short) tid.slot());
+                if (includes) {
+                    byte[] include = node.includes.get(i);
+                    b.putShort((short) (include != null ? include.length : 0));
+                    if (include != null) b.put(include);
+                }
+            } else {
+                b.putInt(node.children.get(i + 1));
+            }
+        }
+    }
+
+    private ByteBuffer buffer() {
+        return ByteBuffer.wrap(data).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    @Override
+    public byte[] bytes() {
+        return data;
+    }
+
+    @Override
+    public int getPageId() {
+        return pageId;
+    }
+
+    @Override
+    public int size() {
+        return buffer().getShort(6) & 0xFFFF;
+    }
+
+    @Override
+    public boolean isValid() {
+        return buffer().getInt(0) == MAGIC;
+    }
+
+    @Override
+    public byte[] read(int index) {
+        throw new UnsupportedOperationException("B-tree pages are accessed through BTreeIndex");
+    }
+
+    @Override
+    public void write(byte[] data) {
+        throw new UnsupportedOperationException("B-tree pages are accessed through BTreeIndex");
+    }
+}
@@ -0,0 +1,18 @@
+package system.index.btree;
+
+import system.memory.manager.ForkPageFileManager;
+import system.memory.page.Page;
+
+import java.nio.file.Path;
+
+/**
+ * Индексный файл B+дерева: те же страницы фиксированного размера, что и у служебных слоев,
+ * но прочитанные байты оборачиваются в BTreePage.
+ */
+public class BTreePageFileManager extends ForkPageFileManager {
+
+    @Override
+    public Page read(int pageId, Path path) {
+        return new BTreePage(pageId, super.read(pageId, path).bytes());
+    }
+}
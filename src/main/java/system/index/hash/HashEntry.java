@@ -0,0 +1,14 @@
+package system.index.hash;
+
+import system.memory.model.TupleId;
+
+/**
+ * Запись хеш-индекса. Хеш хранится рядом с ключом, чтобы при разделении корзины
+ * не декодировать и не хешировать ключи заново.
+ */
+record HashEntry(int hash, byte[] key, TupleId tid) {
+
+    int size() {
+        return 4 + 2 + key.length + 6;
+    }
+}
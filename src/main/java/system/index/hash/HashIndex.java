@@ -0,0 +1,360 @@
+package system.index.hash;
+
+import system.catalog.model.IndexDefinition;
+import system.index.Index;
+import system.index.KeyCodec;
+import system.memory.buffer.BufferPoolManager;
+import system.memory.model.BufferSlot;
+import system.memory.model.TupleId;
+import system.memory.page.HeapPage;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+
+/**
+ * Хеш-индекс с линейным хешированием (Litwin): корзины делятся по одной, по кругу,
+ * в порядке указателя next, когда средняя загрузка превышает порог.
+ * Корзина — цепочка страниц буферного пула: основная страница и страницы переполнения.
+ * Поиск по равенству читает одну цепочку, то есть в среднем O(1) страниц.
+ */
+public class HashIndex implements Index {
+    public static final int INITIAL_BUCKETS = 4;
+    // средняя загрузка корзины, после которой делится очередная (в странице ~390 целых ключей)
+    public static final int SPLIT_THRESHOLD = 256;
+    // две записи должны помещаться в страницу
+    public static final int MAX_KEY_SIZE = (HeapPage.PAGE_SIZE - HashPage.HEADER_SIZE) / 2 - 12;
+
+    private final IndexDefinition definition;
+    private final BufferPoolManager bufferPool;
+    private final ReadWriteLock indexLock = new ReentrantReadWriteLock();
+
+    public HashIndex(IndexDefinition definition, BufferPoolManager bufferPool) {
+        this.definition = definition;
+        this.bufferPool = bufferPool;
+        if (bufferPool.getPageCount() == 0) {
+            initialize();
+        }
+    }
+
+    private void initialize() {
+        BufferSlot meta = bufferPool.newPage(HashPage::new);
+        try {
+            HashPage page = (HashPage) meta.getPage();
+            page.initMeta(INITIAL_BUCKETS);
+            for (int bucket = 0; bucket < INITIAL_BUCKETS; bucket++) {
+                page.setBucketPage(bucket, allocate(bucket, List.of()));
+            }
+            meta.setDirty(true);
+        } finally {
+            bufferPool.unpinPage(meta.getPageId());
+        }
+    }
+
+    @Override
+    public IndexDefinition getDefinition() {
+        return definition;
+    }
+
+    @Override
+    public BufferPoolManager getBufferPool() {
+        return bufferPool;
+    }
+
+    @Override
+    public void insert(Object key, TupleId tid) {
+        byte[] encoded = KeyCodec.encode(key);
+        if (encoded.length > MAX_KEY_SIZE) {
+            throw new IllegalArgumentException("Index row size " + encoded.length
+                    + " exceeds maximum " + MAX_KEY_SIZE + " for index " + definition.getName());
+        }
+        HashEntry entry = new HashEntry(hash(encoded), encoded, tid);
+
+        indexLock.writeLock().lock();
+        try {
+            int bucket = readMeta(meta -> bucketFor(meta, entry.hash()));
+            append(bucket, entry);
+
+            boolean split = writeMeta(meta -> {
+                meta.setEntryCount(meta.getEntryCount() + 1);
+                return meta.getEntryCount() > meta.getBucketCount() * SPLIT_THRESHOLD
+                        && meta.getBucketCount() < HashPage.MAX_BUCKETS;
+            });
+            if (split) {
+                split();
+            }
+        } finally {
+            indexLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Хеш-индекс умеет только равенство: low и high должны совпадать и быть включены.
+     */
+    @Override
+    public List<TupleId> scan(Object low, boolean lowInclusive, Object high, boolean highInclusive) {
+        byte[] encoded = low == null ? null : KeyCodec.encode(low);
+        if (encoded == null || high == null || !lowInclusive || !highInclusive
+                || KeyCodec.compare(encoded, KeyCodec.encode(high)) != 0) {
+            throw new UnsupportedOperationException("Hash index " + definition.getName() + " supports only equality lookups");
+        }
+        int hash = hash(encoded);
+        List<TupleId> result = new ArrayList<>();
+
+        indexLock.readLock().lock();
+        try {
+            int pageId = readMeta(meta -> meta.getBucketPage(bucketFor(meta, hash)));
+            while (pageId != HashPage.NO_PAGE) {
+                pageId = readPage(pageId, page -> {
+                    for (HashEntry entry : page.readEntries()) {
+                        // сравниваем хеш до ключа: большая часть чужих записей отсекается сразу
+                        if (entry.hash() == hash && KeyCodec.compare(entry.key(), encoded) == 0) {
+                            result.add(entry.tid());
+                        }
+                    }
+                    return page.getNextPage();
+                });
+            }
+            return result;
+        } finally {
+            indexLock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public long bulkDelete(Set<TupleId> deadTids) {
+        if (deadTids.isEmpty()) return 0;
+
+        indexLock.writeLock().lock();
+        try {
+            int buckets = readMeta(HashPage::getBucketCount);
+            long removed = 0;
+            for (int bucket = 0; bucket < buckets; bucket++) {
+                int b = bucket;
+                int pageId = readMeta(meta -> meta.getBucketPage(b));
+                while (pageId != HashPage.NO_PAGE) {
+                    long[] count = new long[1];
+                    pageId = writePage(pageId, page -> {
+                        List<HashEntry> entries = page.readEntries();
+                        int before = entries.size();
+                        entries.removeIf(entry -> deadTids.contains(entry.tid()));
+                        count[0] = before - entries.size();
+                        if (count[0] > 0) {
+                            page.writeEntries(b, entries, page.getNextPage());
+                        }
+                        return page.getNextPage();
+                    });
+                    removed += count[0];
+                }
+            }
+
+            long total = removed;
+            writeMeta(meta -> {
+                meta.setEntryCount(meta.getEntryCount() - (int) total);
+                return null;
+            });
+            return removed;
+        } finally {
+            indexLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Номер корзины: h mod (N * 2^level), а для уже разделённых в этом раунде корзин
+     * (номер меньше next) — h mod (N * 2^(level+1)).
+     */
+    private static int bucketFor(HashPage meta, int hash) {
+        int h = hash & 0x7FFFFFFF;
+        int n = INITIAL_BUCKETS << meta.getLevel();
+        int bucket = h % n;
+        return bucket < meta.getNext() ? h % (2 * n) : bucket;
+    }
+
+    private static int hash(byte[] key) {
+        // финализатор MurmurHash3: Arrays.hashCode плохо перемешивает младшие биты
+        int h = Arrays.hashCode(key);
+        h ^= h >>> 16;
+        h *= 0x85EBCA6B;
+        h ^= h >>> 13;
+        h *= 0xC2B2AE35;
+        h ^= h >>> 16;
+        return h;
+    }
+
+    private void append(int bucket, HashEntry entry) {
+        int pageId = readMeta(meta -> meta.getBucketPage(bucket));
+        while (true) {
+            int current = pageId;
+            Integer next = writePage(current, page -> {
+                List<HashEntry> entries = page.readEntries();
+                entries.add(entry);
+                if (HashPage.sizeOf(entries) <= HeapPage.PAGE_SIZE) {
+                    page.writeEntries(bucket, entries, page.getNextPage());
+                    return null;
+                }
+                return page.getNextPage();
+            });
+            if (next == null) return;
+            if (next == HashPage.NO_PAGE) {
+                int overflow = allocate(bucket, List.of(entry));
+                writePage(current, page -> {
+                    page.setNextPage(overflow);
+                    return null;
+                });
+                return;
+            }
+            pageId = next;
+        }
+    }
+
+    /**
+     * Разделить корзину next: записи, у которых следующий бит хеша равен единице,
+     * переезжают в новую корзину next + N * 2^level.
+     */
+    private void split() {
+        int[] state = readMeta(meta -> new int[]{meta.getLevel(), meta.getNext()});
+        int level = state[0];
+        int oldBucket = state[1];
+        int n = INITIAL_BUCKETS << level;
+        int newBucket = oldBucket + n;
+
+        List<Integer> chain = new ArrayList<>();
+        List<HashEntry> stay = new ArrayList<>();
+        List<HashEntry> move = new ArrayList<>();
+        int pageId = readMeta(meta -> meta.getBucketPage(oldBucket));
+        while (pageId != HashPage.NO_PAGE) {
+            chain.add(pageId);
+            pageId = readPage(pageId, page -> {
+                for (HashEntry entry : page.readEntries()) {
+                    ((entry.hash() & 0x7FFFFFFF) % (2 * n) == oldBucket ? stay : move).add(entry);
+                }
+                return page.getNextPage();
+            });
+        }
+
+        writeChain(oldBucket, chain, stay);
+        int newPrimary = allocate(newBucket, List.of());
+        writeChain(newBucket, new ArrayList<>(List.of(newPrimary)), move);
+
+        writeMeta(meta -> {
+            meta.setBucketPage(newBucket, newPrimary);
+            meta.setBucketCount(meta.getBucketCount() + 1);
+            if (oldBucket + 1 == n) {
+                meta.setLevel(level + 1);
+                meta.setNext(0);
+            } else {
+                meta.setNext(oldBucket + 1);
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Переписать цепочку корзины: страницы chain используются по порядку, недостающие выделяются,
+     * лишние страницы переполнения уходят в список свободных.
+     */
+    private void writeChain(int bucket, List<Integer> chain, List<HashEntry> entries) {
+        List<List<HashEntry>> pages = new ArrayList<>();
+        List<HashEntry> current = new ArrayList<>();
+        for (HashEntry entry : entries) {
+            current.add(entry);
+            if (HashPage.sizeOf(current) > HeapPage.PAGE_SIZE) {
+                current.remove(current.size() - 1);
+                pages.add(current);
+                current = new ArrayList<>(List.of(entry));
+            }
+        }
+        pages.add(current);
+
+        while (chain.size() < pages.size()) {
+            chain.add(allocate(bucket, List.of()));
+        }
+        for (int i = 0; i < pages.size(); i++) {
+            List<HashEntry> content = pages.get(i);
+            int next = i + 1 < pages.size() ? chain.get(i + 1) : HashPage.NO_PAGE;
+            writePage(chain.get(i), page -> {
+                page.writeEntries(bucket, content, next);
+                return null;
+            });
+        }
+        for (int i = pages.size(); i < chain.size(); i++) {
+            release(chain.get(i));
+        }
+    }
+
+    private int allocate(int bucket, List<HashEntry> entries) {
+        Integer free = writeMeta(meta -> {
+            int head = meta.getFreeList();
+            if (head == HashPage.NO_PAGE) return null;
+            meta.setFreeList(readPage(head, HashPage::getNextPage));
+            return head;
+        });
+        if (free != null) {
+            writePage(free, page -> {
+                page.writeEntries(bucket, entries, HashPage.NO_PAGE);
+                return null;
+            });
+            return free;
+        }
+
+        BufferSlot slot = bufferPool.newPage(HashPage::new);
+        try {
+            ((HashPage) slot.getPage()).writeEntries(bucket, entries, HashPage.NO_PAGE);
+            slot.setDirty(true);
+            return slot.getPageId();
+        } finally {
+            bufferPool.unpinPage(slot.getPageId());
+        }
+    }
+
+    private void release(int pageId) {
+        int head = readMeta(HashPage::getFreeList);
+        writePage(pageId, page -> {
+            page.writeEntries(-1, List.of(), head);
+            return null;
+        });
+        writeMeta(meta -> {
+            meta.setFreeList(pageId);
+            return null;
+        });
+    }
+
+    private <T> T readMeta(Function<HashPage, T> action) {
+        return readPage(HashPage.META_PAGE_ID, action);
+    }
+
+    private <T> T writeMeta(Function<HashPage, T> action) {
+        return writePage(HashPage.META_PAGE_ID, action);
+    }
+
+    private <T> T readPage(int pageId, Function<HashPage, T> action) {
+        BufferSlot slot = bufferPool.fetchPage(pageId);
+        Lock latch = slot.getContentLock().readLock();
+        latch.lock();
+        try {
+            return action.apply((HashPage) slot.getPage());
+        } finally {
+            latch.unlock();
+            bufferPool.unpinPage(pageId);
+        }
+    }
+
+    private <T> T writePage(int pageId, Function<HashPage, T> action) {
+        BufferSlot slot = bufferPool.fetchPage(pageId);
+        Lock latch = slot.getContentLock().writeLock();
+        latch.lock();
+        try {
+            T result = action.apply((HashPage) slot.getPage());
+            slot.setDirty(true);
+            return result;
+        } finally {
+            latch.unlock();
+            bufferPool.unpinPage(pageId);
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package system.index.hash;
+
+import system.memory.model.TupleId;
+import system.memory.page.HeapPage;
+import system.memory.page.Page;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Страница файла хеш-индекса.
+ * Метастраница (номер 0): magic, флаги, level, next, число корзин, число записей,
+ * голова списка свободных страниц и таблица "корзина -> первая страница".
+ * Страница корзины (16 байт заголовка): magic, флаги, число записей, следующая страница цепочки,
+ * номер корзины; записи [hash int][длина ключа short][ключ][pageId int][slot short].
+ */
+public class HashPage implements Page {
+    public static final int MAGIC = 0x48415348;
+    public static final int HEADER_SIZE = 16;
+    public static final int META_PAGE_ID = 0;
+    public static final int NO_PAGE = -1;
+
+    private static final int FLAG_BUCKET = 1;
+    private static final int FLAG_META = 2;
+
+    private static final int META_BUCKETS_OFFSET = 28;
+    public static final int MAX_BUCKETS = (HeapPage.PAGE_SIZE - META_BUCKETS_OFFSET) / 4;
+
+    private final int pageId;
+    private final byte[] data;
+
+    public HashPage(int pageId, byte[] data) {
+        this.pageId = pageId;
+        this.data = data;
+    }
+
+    public HashPage(int pageId) {
+        this(pageId, new byte[HeapPage.PAGE_SIZE]);
+    }
+
+    static int sizeOf(List<HashEntry> entries) {
+        int size = HEADER_SIZE;
+        for (HashEntry entry : entries) {
+            size += entry.size();
+        }
+        return size;
+    }
+
+    // ---- метастраница ----
+
+    void initMeta(int initialBuckets) {
+        ByteBuffer b = buffer();
+        b.putInt(0, MAGIC);
+        b.put(4, (byte) FLAG_META);
+        setLevel(0);
+        setNext(0);
+        setBucketCount(initialBuckets);
+        setEntryCount(0);
+        setFreeList(NO_PAGE);
+    }
+
+    private ByteBuffer meta() {
+        ByteBuffer b = buffer();
+        if (b.getInt(0) != MAGIC || (b.get(4) & FLAG_META) == 0) {
+            throw new IllegalStateException("Page " + pageId + " is not a hash index meta page");
+        }
+        return b;
+    }
+
+    int getLevel() { return meta().getInt(8); }
+    void setLevel(int level) { buffer().putInt(8, level); }
+
+    int getNext() { return meta().getInt(12); }
+    void setNext(int next) { buffer().putInt(12, next); }
+
+    int getBucketCount() { return meta().getInt(16); }
+    void setBucketCount(int count) { buffer().putInt(16, count); }
+
+    int getEntryCount() { return meta().getInt(20); }
+    void setEntryCount(int count) { buffer().putInt(20, count); }
+
+    int getFreeList() { return meta().getInt(24); }
+    void setFreeList(int head) { buffer().putInt(24, head); }
+
+    int getBucketPage(int bucket) {
+        return meta().getInt(META_BUCKETS_OFFSET + bucket * 4);
+    }
+
+    void setBucketPage(int bucket, int page) {
+        buffer().putInt(META_BUCKETS_OFFSET + bucket * 4, page);
+    }
+
+    // ---- страница корзины ----
+
+    int getNextPage() {
+        return buffer().getInt(8);
+    }
+
+    void setNextPage(int next) {
+        buffer().putInt(8, next);
+    }
+
+    List<HashEntry> readEntries() {
+        ByteBuffer b = buffer();
+        if (b.getInt(0) != MAGIC || (b.get(4) & FLAG_BUCKET) == 0) {
+            throw new IllegalStateException("Page " + pageId + " is not a hash bucket page");
+        }
+        int count = b.getShort(6) & 0xFFFF;
+        List<HashEntry> entries = new ArrayList<>(count);
+        b.position(HEADER_SIZE);
+        for (int i = 0; i < count; i++) {
+            int hash = b.getInt();
+            byte[] key = new byte[b.getShort() & 0xFFFF];
+            b.get(key);
+            int page = b.getInt();
+            entries.add(new HashEntry(hash, key, new TupleId(page, b.getShort() & 0xFFFF)));
+        }
+        return entries;
+    }
+
+    void writeEntries(int bucket, List<HashEntry> entries, int nextPage) {
+        if (sizeOf(entries) > HeapPage.PAGE_SIZE) {
+            throw new IllegalStateException("Hash entries do not fit into page " + pageId);
+        }
+        ByteBuffer b = buffer();
+        b.putInt(0, MAGIC);
+        b.put(4, (byte) FLAG_BUCKET);
+        b.putShort(6, (short) entries.size());
+        b.putInt(8, nextPage);
+        b.putInt(12, bucket);
+
+        b.position(HEADER_SIZE);
+        for (HashEntry entry : entries) {
+            b.putInt(entry.hash());
+            b.putShort((short) entry.key().length);
+            b.put(entry.key());
+            b.putInt(entry.tid().pageId());
+            b.putShort((short) entry.tid().slot());
+        }
+    }
+
+    private ByteBuffer buffer() {
+        return ByteBuffer.wrap(data).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    @Override
+    public byte[] bytes() {
+        return data;
+    }
+
+    @Override
+    public int getPageId() {
+        return pageId;
+    }
+
+    @Override
+    public int size() {
+        return buffer().getShort(6) & 0xFFFF;
+    }
+
+    @Override
+    public boolean isValid() {
+        return buffer().getInt(0) == MAGIC;
+    }
+
+    @Override
+    public byte[] read(int index) {
+        throw new UnsupportedOperationException("Hash index pages are accessed through HashIndex");
+    }
+
+    @Override
+    public void write(byte[] data) {
+        throw new UnsupportedOperationException("Hash index pages are accessed through HashIndex");
+    }
+}
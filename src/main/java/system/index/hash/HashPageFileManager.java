@@ -0,0 +1,17 @@
+package system.index.hash;
+
+import system.memory.manager.ForkPageFileManager;
+import system.memory.page.Page;
+
+import java.nio.file.Path;
+
+/**
+ * Файл хеш-индекса: страницы фиксированного размера, обёрнутые в HashPage.
+ */
+public class HashPageFileManager extends ForkPageFileManager {
+
+    @Override
+    public Page read(int pageId, Path path) {
+        return new HashPage(pageId, super.read(pageId, path).bytes());
+    }
+}
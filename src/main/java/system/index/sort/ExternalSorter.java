@@ -0,0 +1,172 @@
+package system.index.sort;
+
+import system.index.IndexEntry;
+import system.memory.model.TupleId;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+
+/**
+ * Внешняя сортировка записей индекса (аналог tuplesort в PostgreSQL).
+ * Пока записи помещаются в бюджет памяти, сортировка идёт в памяти; при превышении
+ * отсортированная порция сбрасывается во временный файл (run), а в конце runs
+ * сливаются одним k-путевым слиянием через кучу.
+ */
+public class ExternalSorter implements AutoCloseable {
+    // оценка накладных расходов на запись в памяти: объекты записи, TID и массива
+    private static final int ENTRY_OVERHEAD = 64;
+
+    private final long memoryBudget;
+    private final Path tempDir;
+
+    private final List<IndexEntry> buffer = new ArrayList<>();
+    private long bufferedBytes;
+    private final List<Path> runs = new ArrayList<>();
+    private final List<DataInputStream> openRuns = new ArrayList<>();
+
+    /**
+     * @param memoryBudget байт памяти под записи (maintenance_work_mem)
+     * @param tempDir      каталог временных файлов; null — системный
+     */
+    public ExternalSorter(long memoryBudget, Path tempDir) {
+        if (memoryBudget <= 0) {
+            throw new IllegalArgumentException("Sort memory budget must be positive: " + memoryBudget);
+        }
+        this.memoryBudget = memoryBudget;
+        this.tempDir = tempDir;
+    }
+
+    public void add(IndexEntry entry) {
+        buffer.add(entry);
+        bufferedBytes += entry.key().length + (entry.include() != null ? entry.include().length : 0) + ENTRY_OVERHEAD;
+        if (bufferedBytes > memoryBudget) {
+            spill();
+        }
+    }
+
+    public int getRunCount() {
+        return runs.size();
+    }
+
+    /**
+     * Все добавленные записи в порядке IndexEntry.ORDER. Вызывается один раз, после всех add.
+     */
+    public Iterator<IndexEntry> sorted() {
+        if (runs.isEmpty()) {
+            buffer.sort(IndexEntry.ORDER);
+            return buffer.iterator();
+        }
+        if (!buffer.isEmpty()) {
+            spill();
+        }
+        return new MergeIterator();
+    }
+
+    private void spill() {
+        buffer.sort(IndexEntry.ORDER);
+        try {
+            Path run = tempDir != null
+                    ? Files.createTempFile(tempDir, "index_sort", ".run")
+                    : Files.createTempFile("index_sort", ".run");
+            runs.add(run);
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(run)))) {
+                for (IndexEntry entry : buffer) {
+                    out.writeShort(entry.key().length);
+                    out.write(entry.key());
+                    out.writeInt(entry.tid().pageId());
+                    out.writeShort(entry.tid().slot());
+                    // длина 0 — у записи нет INCLUDE-колонок (пустой набор значений не кодируется)
+                    byte[] include = entry.include() != null ? entry.include() : new byte[0];
+                    out.writeShort(include.length);
+                    out.write(include);
+                }
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to write sort run", e);
+        }
+        buffer.clear();
+        bufferedBytes = 0;
+    }
+
+    private static IndexEntry readEntry(DataInputStream in) throws IOException {
+        int length;
+        try {
+            length = in.readUnsignedShort();
+        } catch (EOFException e) {
+            return null;
+        }
+        byte[] key = new byte[length];
+        in.readFully(key);
+        int page = in.readInt();
+        TupleId tid = new TupleId(page, in.readUnsignedShort());
+        byte[] include = new byte[in.readUnsignedShort()];
+        in.readFully(include);
+        return new IndexEntry(key, tid, include.length > 0 ? include : null);
+    }
+
+    @Override
+    public void close() {
+        for (DataInputStream in : openRuns) {
+            try {
+                in.close();
+            } catch (IOException ignored) {
+            }
+        }
+        for (Path run : runs) {
+            try {
+                Files.deleteIfExists(run);
+            } catch (IOException ignored) {
+            }
+        }
+        openRuns.clear();
+        runs.clear();
+    }
+
+    private record Head(IndexEntry entry, DataInputStream source) {}
+
+    private class MergeIterator implements Iterator<IndexEntry> {
+        private final PriorityQueue<Head> heads = new PriorityQueue<>((a, b) -> IndexEntry.ORDER.compare(a.entry, b.entry));
+
+        MergeIterator() {
+            try {
+                for (Path run : runs) {
+                    DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(run), 64 * 1024));
+                    openRuns.add(in);
+                    IndexEntry first = readEntry(in);
+                    if (first != null) heads.add(new Head(first, in));
+                }
+            } catch (IOException e) {
+                throw new RuntimeException("Failed to open sort runs", e);
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !heads.isEmpty();
+        }
+
+        @Override
+        public IndexEntry next() {
+            Head head = heads.poll();
+            if (head == null) throw new NoSuchElementException();
+            try {
+                IndexEntry following = readEntry(head.source);
+                if (following != null) heads.add(new Head(following, head.source));
+            } catch (IOException e) {
+                throw new RuntimeException("Failed to read sort run", e);
+            }
+            return head.entry;
+        }
+    }
+}
@@ -6,9 +6,12 @@ import java.util.Set;
 
 public class DefaultLexer implements Lexer {
     private static final Set<String> KEYWORDS = Set.of(
-            "SELECT", "FROM", "WHERE", "AND", "OR",
+            "SELECT", "FROM", "WHERE", "AND", "OR", "JOIN", "INNER",
             "INSERT", "INTO", "VALUES", "UPDATE", "SET",
-            "DELETE", "CREATE", "TABLE"
+            "DELETE", "CREATE", "TABLE", "INDEX", "ON", "USING", "WITH", "INCLUDE",
+            "BEGIN", "COMMIT", "ROLLBACK", "TRANSACTION",
+            "VACUUM", "FREEZE",
+            "TRUE", "FALSE", "NULL"
     );
 
     public List<Token> tokenize(String sql) {
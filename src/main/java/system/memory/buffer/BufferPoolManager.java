@@ -4,6 +4,7 @@ import system.memory.model.BufferSlot;
 import system.memory.page.Page;
 
 import java.util.List;
+import java.util.function.IntFunction;
 
 public interface BufferPoolManager {
     BufferSlot getPage(int pageId);
@@ -17,4 +18,49 @@ public interface BufferPoolManager {
     void flushAllPages();
 
     List<BufferSlot> getDirtyPages();
+
+    default void unpinPage(int pageId) {
+        throw new UnsupportedOperationException("unpinPage is not supported by " + getClass().getSimpleName());
+    }
+
+    /**
+     * Загрузить страницу и закрепить её (атомарно), чтобы она не была вытеснена,
+     * пока с ней работают. Парный вызов — unpinPage.
+     */
+    default BufferSlot fetchPage(int pageId) {
+        BufferSlot slot = getPage(pageId);
+        if (slot != null) pinPage(pageId);
+        return slot;
+    }
+
+    /**
+     * Дописать в конец файла новую страницу, созданную фабрикой по её номеру.
+     * Страница возвращается закреплённой и "грязной".
+     */
+    default BufferSlot newPage(IntFunction<Page> factory) {
+        throw new UnsupportedOperationException("newPage is not supported by " + getClass().getSimpleName());
+    }
+
+    /**
+     * Число страниц в файле с учётом ещё не сброшенных на диск.
+     */
+    default int getPageCount() {
+        throw new UnsupportedOperationException("getPageCount is not supported by " + getClass().getSimpleName());
+    }
+
+    /**
+     * Находится ли страница в пуле сейчас (без загрузки и закрепления).
+     * Пул, который этого не отслеживает, отвечает true.
+     */
+    default boolean isResident(int pageId) {
+        return true;
+    }
+
+    /**
+     * Отбросить страницы с номером >= pageCount (в том числе грязные) и обрезать файл.
+     * Вызывающий гарантирует, что этими страницами никто не пользуется.
+     */
+    default void truncate(int pageCount) {
+        throw new UnsupportedOperationException("truncate is not supported by " + getClass().getSimpleName());
+    }
 }
@@ -0,0 +1,43 @@
+package system.memory.buffer;
+
+import system.memory.manager.PageFileManager;
+import system.memory.replacer.ClockReplacer;
+
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Общий (разделяемый между сессиями) набор буферных пулов: по одному пулу на файл.
+ * Все сессии, работающие с одним файлом, видят одни и те же страницы в памяти.
+ */
+public class BufferPoolRegistry {
+    private final int poolSize;
+    private final PageFileManager defaultPageFileManager;
+    private final Map<Path, BufferPoolManager> pools = new ConcurrentHashMap<>();
+
+    public BufferPoolRegistry(int poolSize, PageFileManager defaultPageFileManager) {
+        this.poolSize = poolSize;
+        this.defaultPageFileManager = defaultPageFileManager;
+    }
+
+    public BufferPoolManager get(Path file) {
+        return get(file, defaultPageFileManager);
+    }
+
+    public BufferPoolManager get(Path file, PageFileManager pageFileManager) {
+        return pools.computeIfAbsent(file.toAbsolutePath(), path -> new DefaultBufferPoolManager(
+                poolSize,
+                pageFileManager,
+                new ClockReplacer(),
+                new ClockReplacer(),
+                path
+        ));
+    }
+
+    public void flushAll() {
+        for (BufferPoolManager pool : pools.values()) {
+            pool.flushAllPages();
+        }
+    }
+}
@@ -5,12 +5,18 @@ import system.memory.model.BufferSlot;
 import system.memory.page.Page;
 import system.memory.replacer.Replacer;
 
+import java.io.IOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.locks.Lock;
+import java.util.function.IntFunction;
 import java.util.stream.Collectors;
 
+import static system.memory.page.HeapPage.PAGE_SIZE;
+
 public class DefaultBufferPoolManager implements BufferPoolManager {
 
     private final int poolSize;
@@ -34,7 +40,7 @@ public class DefaultBufferPoolManager implements BufferPoolManager {
     }
 
     @Override
-    public BufferSlot getPage(int pageId) {
+    public synchronized BufferSlot getPage(int pageId) {
 
         if (store.containsKey(pageId)) {
             BufferSlot slot = store.get(pageId);
@@ -61,7 +67,66 @@ public class DefaultBufferPoolManager implements BufferPoolManager {
     }
 
     @Override
-    public void updatePage(int pageId, Page page) {
+    public synchronized BufferSlot fetchPage(int pageId) {
+        BufferSlot slot = getPage(pageId);
+        pinPage(pageId);
+        return slot;
+    }
+
+    @Override
+    public synchronized BufferSlot newPage(IntFunction<Page> factory) {
+        int pageId = getPageCount();
+
+        if (store.size() >= poolSize) {
+            evictPage();
+        }
+
+        BufferSlot slot = new BufferSlot(pageId, factory.apply(pageId));
+        slot.setDirty(true);
+        slot.pin();
+        store.put(pageId, slot);
+        return slot;
+    }
+
+    @Override
+    public synchronized int getPageCount() {
+        int count = 0;
+        try {
+            if (Files.exists(dataPath)) {
+                count = (int) (Files.size(dataPath) / PAGE_SIZE);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to stat file: " + dataPath, e);
+        }
+        for (int pageId : store.keySet()) {
+            count = Math.max(count, pageId + 1);
+        }
+        return count;
+    }
+
+    @Override
+    public synchronized boolean isResident(int pageId) {
+        return store.containsKey(pageId);
+    }
+
+    @Override
+    public synchronized void truncate(int pageCount) {
+        for (BufferSlot slot : store.values()) {
+            if (slot.getPageId() >= pageCount && slot.isPinned()) {
+                throw new IllegalStateException("Cannot truncate pinned page " + slot.getPageId());
+            }
+        }
+        store.keySet().removeIf(pageId -> {
+            if (pageId < pageCount) return false;
+            primaryReplacer.delete(pageId);
+            secondaryReplacer.delete(pageId);
+            return true;
+        });
+        pgManager.truncate(dataPath, pageCount);
+    }
+
+    @Override
+    public synchronized void updatePage(int pageId, Page page) {
         if (!store.containsKey(pageId)) {
             throw new IllegalArgumentException("Page not in buffer: " + pageId);
         }
@@ -74,58 +139,72 @@ public class DefaultBufferPoolManager implements BufferPoolManager {
     }
 
     @Override
-    public void pinPage(int pageId) {
+    public synchronized void pinPage(int pageId) {
         BufferSlot slot = store.get(pageId);
         if (slot == null) {
             throw new IllegalArgumentException("Page not found in buffer: " + pageId);
         }
 
-        slot.setPinned(true);
+        slot.pin();
         primaryReplacer.delete(pageId);
         secondaryReplacer.delete(pageId);
     }
 
-    public void unpinPage(int pageId) {
+    @Override
+    public synchronized void unpinPage(int pageId) {
         BufferSlot slot = store.get(pageId);
         if (slot == null) {
             throw new IllegalArgumentException("Page not found in buffer: " + pageId);
         }
 
-        slot.setPinned(false);
-        primaryReplacer.push(slot);
-        secondaryReplacer.push(slot);
+        slot.unpin();
+        if (!slot.isPinned()) {
+            primaryReplacer.push(slot);
+            secondaryReplacer.push(slot);
+        }
     }
 
     @Override
     public void flushPage(int pageId) {
-        BufferSlot slot = store.get(pageId);
+        BufferSlot slot;
+        synchronized (this) {
+            slot = store.get(pageId);
+        }
         if (slot == null) {
             return;
         }
 
-        if (slot.isDirty()) {
-            pgManager.write(slot.getPage(), dataPath);
-            slot.setDirty(false);
-        }
+        writeIfDirty(slot);
     }
 
     @Override
     public void flushAllPages() {
-        for (BufferSlot slot : store.values()) {
-            if (slot.isDirty()) {
-                pgManager.write(slot.getPage(), dataPath);
-                slot.setDirty(false);
-            }
+        for (BufferSlot slot : getDirtyPages()) {
+            writeIfDirty(slot);
         }
     }
 
     @Override
-    public List<BufferSlot> getDirtyPages() {
+    public synchronized List<BufferSlot> getDirtyPages() {
         return store.values().stream()
                 .filter(BufferSlot::isDirty)
                 .collect(Collectors.toList());
     }
 
+    // сброс идёт под read-защёлкой страницы, чтобы не записать её на середине модификации
+    private void writeIfDirty(BufferSlot slot) {
+        Lock latch = slot.getContentLock().readLock();
+        latch.lock();
+        try {
+            if (slot.isDirty()) {
+                pgManager.write(slot.getPage(), dataPath);
+                slot.setDirty(false);
+            }
+        } finally {
+            latch.unlock();
+        }
+    }
+
     private void evictPage() {
         BufferSlot victim = primaryReplacer.pickVictim();
         if (victim == null) {
@@ -151,4 +230,4 @@ public class DefaultBufferPoolManager implements BufferPoolManager {
             secondaryReplacer.push(slot);
         }
     }
-}
\ No newline at end of file
+}
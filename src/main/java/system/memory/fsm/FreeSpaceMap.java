@@ -0,0 +1,103 @@
+package system.memory.fsm;
+
+import system.memory.buffer.BufferPoolManager;
+import system.memory.model.BufferSlot;
+import system.memory.page.ForkPage;
+import system.memory.page.HeapPage;
+
+import java.util.concurrent.locks.Lock;
+
+/**
+ * Карта свободного места таблицы (аналог FSM в PostgreSQL): по одному байту на heap-страницу,
+ * значение — свободное место в единицах по 32 байта. Карта приблизительная: перед вставкой
+ * место на странице всё равно проверяется, а при расхождении карта поправляется.
+ */
+public class FreeSpaceMap {
+
+    private static final int CATEGORY_SIZE = HeapPage.PAGE_SIZE / 256;
+    private static final int ENTRIES_PER_PAGE = HeapPage.PAGE_SIZE;
+
+    private final BufferPoolManager forkPool;
+
+    public FreeSpaceMap(BufferPoolManager forkPool) {
+        this.forkPool = forkPool;
+    }
+
+    public void update(int heapPageId, int freeBytes) {
+        int category = Math.min(255, freeBytes / CATEGORY_SIZE);
+        int forkPageId = heapPageId / ENTRIES_PER_PAGE;
+
+        BufferSlot slot = forkPool.fetchPage(forkPageId);
+        Lock latch = slot.getContentLock().writeLock();
+        latch.lock();
+        try {
+            ForkPage page = (ForkPage) slot.getPage();
+            int index = heapPageId % ENTRIES_PER_PAGE;
+            if (page.getByte(index) != category) {
+                page.setByte(index, category);
+                slot.setDirty(true);
+            }
+        } finally {
+            latch.unlock();
+            forkPool.unpinPage(forkPageId);
+        }
+    }
+
+    /**
+     * Первая из heapPageCount страниц, где по карте хватает места; -1 — таких нет.
+     */
+    public int findPage(int neededBytes, int heapPageCount) {
+        // округляем вверх: категория гарантирует не меньше category * 32 байт
+        int needed = (neededBytes + CATEGORY_SIZE - 1) / CATEGORY_SIZE;
+
+        for (int forkPageId = 0; forkPageId * ENTRIES_PER_PAGE < heapPageCount; forkPageId++) {
+            BufferSlot slot = forkPool.fetchPage(forkPageId);
+            Lock latch = slot.getContentLock().readLock();
+            latch.lock();
+            try {
+                ForkPage page = (ForkPage) slot.getPage();
+                int limit = Math.min(ENTRIES_PER_PAGE, heapPageCount - forkPageId * ENTRIES_PER_PAGE);
+                for (int i = 0; i < limit; i++) {
+                    if (page.getByte(i) >= needed && page.getByte(i) > 0) {
+                        return forkPageId * ENTRIES_PER_PAGE + i;
+                    }
+                }
+            } finally {
+                latch.unlock();
+                forkPool.unpinPage(forkPageId);
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Забыть страницы с номером >= heapPageCount (после усечения таблицы).
+     */
+    public void truncate(int heapPageCount) {
+        int forkPages = forkPool.getPageCount();
+        for (int forkPageId = heapPageCount / ENTRIES_PER_PAGE; forkPageId < forkPages; forkPageId++) {
+            BufferSlot slot = forkPool.fetchPage(forkPageId);
+            Lock latch = slot.getContentLock().writeLock();
+            latch.lock();
+            try {
+                ForkPage page = (ForkPage) slot.getPage();
+                int from = Math.max(0, heapPageCount - forkPageId * ENTRIES_PER_PAGE);
+                for (int i = from; i < ENTRIES_PER_PAGE; i++) {
+                    page.setByte(i, 0);
+                }
+                slot.setDirty(true);
+            } finally {
+                latch.unlock();
+                forkPool.unpinPage(forkPageId);
+            }
+        }
+    }
+
+    public void flush() {
+        forkPool.flushAllPages();
+    }
+
+    public BufferPoolManager getForkPool() {
+        return forkPool;
+    }
+}
@@ -0,0 +1,200 @@
+package system.memory.heap;
+
+import system.execution.tuple.TupleHeader;
+import system.memory.buffer.BufferPoolManager;
+import system.memory.buffer.BufferPoolRegistry;
+import system.memory.fsm.FreeSpaceMap;
+import system.memory.manager.ForkPageFileManager;
+import system.memory.manager.PageFileManager;
+import system.memory.model.BufferSlot;
+import system.memory.model.TupleId;
+import system.memory.page.HeapPage;
+import system.memory.vm.VisibilityMap;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.Lock;
+
+/**
+ * Доступ к heap-файлу таблицы через общий буферный пул.
+ * Изменения страниц выполняются под write-защёлкой страницы, чтение — под read-защёлкой.
+ */
+public class HeapFile {
+    private static final PageFileManager FORK_FILES = new ForkPageFileManager();
+
+    private final BufferPoolManager bufferPool;
+    private final FreeSpaceMap freeSpaceMap;
+    private final VisibilityMap visibilityMap;
+
+    public HeapFile(BufferPoolManager bufferPool) {
+        this(bufferPool, null, null);
+    }
+
+    /**
+     * @param freeSpaceMap  карта свободного места; null — вставка только в последнюю страницу.
+     * @param visibilityMap карта видимости; null — не вести.
+     */
+    public HeapFile(BufferPoolManager bufferPool, FreeSpaceMap freeSpaceMap, VisibilityMap visibilityMap) {
+        this.bufferPool = bufferPool;
+        this.freeSpaceMap = freeSpaceMap;
+        this.visibilityMap = visibilityMap;
+    }
+
+    /**
+     * Heap-файл таблицы вместе с её FSM и VM из общего набора буферных пулов.
+     */
+    public static HeapFile open(BufferPoolRegistry registry, String fileNode) {
+        return new HeapFile(
+                registry.get(Path.of(fileNode)),
+                new FreeSpaceMap(registry.get(forkPath(fileNode, "fsm"), FORK_FILES)),
+                new VisibilityMap(registry.get(forkPath(fileNode, "vm"), FORK_FILES))
+        );
+    }
+
+    /**
+     * Файл служебного слоя рядом с данными: "1.dat" -> "1_fsm.dat".
+     */
+    public static Path forkPath(String fileNode, String fork) {
+        int dot = fileNode.lastIndexOf('.');
+        String base = dot >= 0 ? fileNode.substring(0, dot) : fileNode;
+        return Path.of(base + "_" + fork + ".dat");
+    }
+
+    public static PageFileManager forkFileManager() {
+        return FORK_FILES;
+    }
+
+    public BufferPoolManager getBufferPool() {
+        return bufferPool;
+    }
+
+    public FreeSpaceMap getFreeSpaceMap() {
+        return freeSpaceMap;
+    }
+
+    public VisibilityMap getVisibilityMap() {
+        return visibilityMap;
+    }
+
+    /**
+     * Пулы, страницы которых пачкает изменение таблицы: сам heap-файл, FSM и VM.
+     * При фиксации их нужно сбросить все — иначе после перезапуска вернётся старый бит
+     * ALL_VISIBLE, и сканы пропустят проверку видимости удалённых строк.
+     */
+    public List<BufferPoolManager> getPools() {
+        List<BufferPoolManager> pools = new ArrayList<>();
+        pools.add(bufferPool);
+        if (freeSpaceMap != null) pools.add(freeSpaceMap.getForkPool());
+        if (visibilityMap != null) pools.add(visibilityMap.getForkPool());
+        return pools;
+    }
+
+    public TupleId insert(byte[] tuple) {
+        int pageCount = bufferPool.getPageCount();
+        if (freeSpaceMap != null) {
+            int target = freeSpaceMap.findPage(tuple.length, pageCount);
+            if (target >= 0) {
+                TupleId tid = tryInsert(bufferPool.fetchPage(target), tuple);
+                if (tid != null) return tid;
+            }
+        }
+        if (pageCount > 0) {
+            TupleId tid = tryInsert(bufferPool.fetchPage(pageCount - 1), tuple);
+            if (tid != null) return tid;
+        }
+
+        TupleId tid = tryInsert(bufferPool.newPage(HeapPage::new), tuple);
+        if (tid == null) {
+            throw new IllegalArgumentException("Tuple is too large for a page: " + tuple.length + " bytes");
+        }
+        return tid;
+    }
+
+    public byte[] fetch(TupleId tid) {
+        BufferSlot slot = bufferPool.fetchPage(tid.pageId());
+        Lock latch = slot.getContentLock().readLock();
+        latch.lock();
+        try {
+            HeapPage page = (HeapPage) slot.getPage();
+            if (tid.slot() >= page.size() || !page.isNormal(tid.slot())) {
+                throw new IllegalArgumentException("No tuple at " + tid);
+            }
+            return page.read(tid.slot());
+        } finally {
+            latch.unlock();
+            bufferPool.unpinPage(tid.pageId());
+        }
+    }
+
+    /**
+     * Версия по адресу из индекса; null, если слот уже не содержит кортежа.
+     */
+    public byte[] tryFetch(TupleId tid) {
+        if (tid.pageId() >= bufferPool.getPageCount()) return null;
+
+        BufferSlot slot = bufferPool.fetchPage(tid.pageId());
+        Lock latch = slot.getContentLock().readLock();
+        latch.lock();
+        try {
+            HeapPage page = (HeapPage) slot.getPage();
+            if (tid.slot() >= page.size() || !page.isNormal(tid.slot())) {
+                return null;
+            }
+            return page.read(tid.slot());
+        } finally {
+            latch.unlock();
+            bufferPool.unpinPage(tid.pageId());
+        }
+    }
+
+    public void setXmax(TupleId tid, int xmax) {
+        BufferSlot slot = bufferPool.fetchPage(tid.pageId());
+        Lock latch = slot.getContentLock().writeLock();
+        latch.lock();
+        try {
+            HeapPage page = (HeapPage) slot.getPage();
+            byte[] tuple = page.read(tid.slot());
+            TupleHeader.setXmax(tuple, xmax);
+            page.update(tid.slot(), tuple);
+            slot.setDirty(true);
+            clearVisibility(tid.pageId());
+        } finally {
+            latch.unlock();
+            bufferPool.unpinPage(tid.pageId());
+        }
+    }
+
+    // вызывается под write-защёлкой изменённой страницы
+    private void clearVisibility(int pageId) {
+        if (visibilityMap != null) {
+            visibilityMap.clear(pageId);
+        }
+    }
+
+    // slot приходит закреплённым; откреплять его — наша забота
+    private TupleId tryInsert(BufferSlot slot, byte[] tuple) {
+        TupleId tid = null;
+        int freeSpace;
+        Lock latch = slot.getContentLock().writeLock();
+        latch.lock();
+        try {
+            HeapPage page = (HeapPage) slot.getPage();
+            if (page.freeSpace() >= tuple.length) {
+                int index = page.insert(tuple);
+                slot.setDirty(true);
+                clearVisibility(slot.getPageId());
+                tid = new TupleId(slot.getPageId(), index);
+            }
+            freeSpace = page.freeSpace();
+        } finally {
+            latch.unlock();
+            bufferPool.unpinPage(slot.getPageId());
+        }
+
+        if (freeSpaceMap != null) {
+            freeSpaceMap.update(slot.getPageId(), freeSpace);
+        }
+        return tid;
+    }
+}
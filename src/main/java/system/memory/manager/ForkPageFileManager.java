@@ -0,0 +1,67 @@
+package system.memory.manager;
+
+import system.memory.page.ForkPage;
+import system.memory.page.Page;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static system.memory.page.HeapPage.PAGE_SIZE;
+
+/**
+ * Файлы служебных слоев (<oid>_fsm.dat, <oid>_vm.dat).
+ * Страница за концом файла читается как нулевая: пустая карта означает "ничего не известно".
+ */
+public class ForkPageFileManager implements PageFileManager {
+
+    @Override
+    public void write(Page page, Path path) {
+        byte[] bytes = page.bytes();
+        if (bytes == null || bytes.length != PAGE_SIZE) {
+            throw new IllegalArgumentException("Page bytes must be exactly " + PAGE_SIZE + " bytes");
+        }
+
+        try {
+            Path parent = path.getParent();
+            if (parent != null && !Files.exists(parent)) {
+                Files.createDirectories(parent);
+            }
+
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE, StandardOpenOption.CREATE)) {
+                channel.write(ByteBuffer.wrap(bytes), ((long) page.getPageId()) * PAGE_SIZE);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to write fork page to file: " + path, e);
+        }
+    }
+
+    @Override
+    public Page read(int pageId, Path path) {
+        byte[] bytes = new byte[PAGE_SIZE];
+        if (!Files.exists(path)) {
+            return new ForkPage(pageId, bytes);
+        }
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            channel.read(ByteBuffer.wrap(bytes), ((long) pageId) * PAGE_SIZE);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read fork page " + pageId + " from file: " + path, e);
+        }
+        return new ForkPage(pageId, bytes);
+    }
+
+    @Override
+    public void truncate(Path path, int pageCount) {
+        if (!Files.exists(path)) return;
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            channel.truncate(((long) pageCount) * PAGE_SIZE);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to truncate file: " + path, e);
+        }
+    }
+}
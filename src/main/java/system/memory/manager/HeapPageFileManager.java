@@ -50,6 +50,17 @@ public class HeapPageFileManager implements PageFileManager {
         }
     }
 
+    @Override
+    public void truncate(Path path, int pageCount) {
+        if (!Files.exists(path)) return;
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            channel.truncate(((long) pageCount) * PAGE_SIZE);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to truncate file: " + path, e);
+        }
+    }
+
     @Override
     public Page read(int pageId, Path path) {
         if (!Files.exists(path)) {
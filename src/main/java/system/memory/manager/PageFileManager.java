@@ -8,4 +8,11 @@ public interface PageFileManager {
     void write(Page page, Path path);
 
     Page read(int pageId, Path path);
+
+    /**
+     * Обрезать файл до pageCount страниц.
+     */
+    default void truncate(Path path, int pageCount) {
+        throw new UnsupportedOperationException("truncate is not supported by " + getClass().getSimpleName());
+    }
 }
@@ -2,18 +2,23 @@ package system.memory.model;
 
 import system.memory.page.Page;
 
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
 public class BufferSlot {
     private final int pageId;
-    private Page page;
-    private boolean dirty;
-    private boolean pinned;
+    private volatile Page page;
+    private volatile boolean dirty;
+    private int pinCount;
     private int usageCount;
+    // защёлка содержимого страницы: читатели берут read, модифицирующие — write
+    private final ReadWriteLock contentLock = new ReentrantReadWriteLock();
 
     public BufferSlot(int pageId, Page page) {
         this.pageId = pageId;
         this.page = page;
         this.dirty = false;
-        this.pinned = false;
+        this.pinCount = 0;
         this.usageCount = 0;
     }
 
@@ -22,17 +27,20 @@ public class BufferSlot {
     public void setPage(Page page) { this.page = page; }
     public boolean isDirty() { return dirty; }
     public void setDirty(boolean dirty) { this.dirty = dirty; }
-    public boolean isPinned() { return pinned; }
-    public void setPinned(boolean pinned) { this.pinned = pinned; }
+    public boolean isPinned() { return pinCount > 0; }
+    public int getPinCount() { return pinCount; }
+    public void pin() { this.pinCount++; }
+    public void unpin() { if (pinCount > 0) this.pinCount--; }
     public int getUsageCount() { return usageCount; }
     public void incrementUsage() { this.usageCount++; }
+    public ReadWriteLock getContentLock() { return contentLock; }
 
     @Override
     public String toString() {
         return "BufferSlot{" +
                 "pageId=" + pageId +
                 ", dirty=" + dirty +
-                ", pinned=" + pinned +
+                ", pinCount=" + pinCount +
                 ", usageCount=" + usageCount +
                 '}';
     }
@@ -0,0 +1,11 @@
+package system.memory.model;
+
+/**
+ * Физический адрес версии строки: номер страницы и номер слота в ней (аналог ctid).
+ */
+public record TupleId(int pageId, int slot) {
+    @Override
+    public String toString() {
+        return "(" + pageId + "," + slot + ")";
+    }
+}
@@ -0,0 +1,58 @@
+package system.memory.page;
+
+/**
+ * Страница служебного слоя (fork) таблицы: карта свободного места, карта видимости.
+ * Это просто массив байтов без директории записей; отсутствующие в файле страницы читаются нулями.
+ */
+public class ForkPage implements Page {
+
+    private final byte[] data;
+    private final int pageId;
+
+    public ForkPage(int pageId, byte[] data) {
+        this.pageId = pageId;
+        this.data = data;
+    }
+
+    public ForkPage(int pageId) {
+        this(pageId, new byte[HeapPage.PAGE_SIZE]);
+    }
+
+    public int getByte(int index) {
+        return data[index] & 0xFF;
+    }
+
+    public void setByte(int index, int value) {
+        data[index] = (byte) value;
+    }
+
+    @Override
+    public byte[] bytes() {
+        return data;
+    }
+
+    @Override
+    public int getPageId() {
+        return pageId;
+    }
+
+    @Override
+    public int size() {
+        return data.length;
+    }
+
+    @Override
+    public boolean isValid() {
+        return true;
+    }
+
+    @Override
+    public byte[] read(int index) {
+        throw new UnsupportedOperationException("Fork pages have no records");
+    }
+
+    @Override
+    public void write(byte[] data) {
+        throw new UnsupportedOperationException("Fork pages have no records");
+    }
+}
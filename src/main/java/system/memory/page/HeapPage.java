@@ -7,6 +7,10 @@ public class HeapPage implements Page {
     public static final int PAGE_SIZE = 8192;
     private static final int HEADER_SIZE = 10;
 
+    // состояния слота без данных (length = 0), различаются смещением
+    private static final int LP_UNUSED = 0;
+    private static final int LP_DEAD = 1;
+
     private final ByteBuffer data;
     private final int pageId;
 
@@ -55,29 +59,152 @@ public class HeapPage implements Page {
 
     @Override
     public byte[] read(int index) {
-        var offset = data.getShort(HEADER_SIZE + index * 4) & 0xFFFF;
-        var length = data.getShort(HEADER_SIZE + index * 4 + 2) & 0xFFFF;
+        var offset = itemOffset(index);
+        var length = itemLength(index);
 
         var result = new byte[length];
-        data.get(offset, result);
+        if (length > 0) {
+            data.get(offset, result);
+        }
         return result;
     }
 
     @Override
     public void write(byte[] data) {
+        insert(data);
+    }
+
+    /**
+     * Свободное место под ещё одну запись (с учётом её слота в директории,
+     * если свободного слота для повторного использования нет).
+     */
+    public int freeSpace() {
+        var slotCost = firstUnusedSlot() >= 0 ? 0 : 4;
+        return Math.max(0, upper() - lower() - slotCost);
+    }
+
+    /**
+     * Добавить запись и вернуть номер её слота. Освобождённые вакуумом слоты используются повторно.
+     */
+    public int insert(byte[] data) {
         var lower = lower();
         var upper = upper();
-        var index = size();
+        var index = firstUnusedSlot();
+        var slotCost = index >= 0 ? 0 : 4;
 
-        if (upper - lower < data.length + 4) {
+        if (upper - lower < data.length + slotCost) {
             throw new IllegalArgumentException("Not enough space");
         }
 
+        if (index < 0) {
+            index = size();
+            this.data.putShort(6, (short) (lower + 4));
+            this.data.putShort(4, (short) (index + 1));
+        }
         this.data.put(upper - data.length, data);
-        this.data.putShort(6, (short) (lower + 4));
         this.data.putShort(8, (short) (upper - data.length));
-        this.data.putShort(HEADER_SIZE + index * 4, (short) (upper - data.length));
-        this.data.putShort(HEADER_SIZE + index * 4 + 2, (short) data.length);
-        this.data.putShort(4, (short) (index + 1));
+        setItem(index, upper - data.length, data.length);
+        return index;
+    }
+
+    /**
+     * Перезаписать запись на месте; длина должна совпадать с исходной.
+     */
+    public void update(int index, byte[] data) {
+        var offset = itemOffset(index);
+        var length = itemLength(index);
+
+        if (length != data.length) {
+            throw new IllegalArgumentException("In-place update must keep record length: " + length + " != " + data.length);
+        }
+        this.data.put(offset, data);
+    }
+
+    /**
+     * Слот указывает на запись (не мёртвый и не свободный).
+     */
+    public boolean isNormal(int index) {
+        return itemLength(index) > 0;
+    }
+
+    public boolean isDead(int index) {
+        return itemLength(index) == 0 && itemOffset(index) == LP_DEAD;
+    }
+
+    public boolean isUnused(int index) {
+        return itemLength(index) == 0 && itemOffset(index) == LP_UNUSED;
+    }
+
+    /**
+     * Запись больше никому не видна; слот держится, пока на него могут ссылаться индексы.
+     * Место под данные освобождается при compact().
+     */
+    public void markDead(int index) {
+        setItem(index, LP_DEAD, 0);
+    }
+
+    public void markUnused(int index) {
+        setItem(index, LP_UNUSED, 0);
+    }
+
+    /**
+     * Число слотов с живыми или мёртвыми записями.
+     */
+    public int usedSlots() {
+        int used = 0;
+        for (int i = 0; i < size(); i++) {
+            if (!isUnused(i)) used++;
+        }
+        return used;
+    }
+
+    /**
+     * Дефрагментация на месте: записи сдвигаются к концу страницы без дыр,
+     * номера слотов не меняются; свободные слоты в хвосте директории отрезаются.
+     */
+    public void compact() {
+        var count = size();
+        while (count > 0 && isUnused(count - 1)) {
+            count--;
+        }
+
+        var buffer = new byte[PAGE_SIZE];
+        var upper = PAGE_SIZE;
+        for (int i = 0; i < count; i++) {
+            if (!isNormal(i)) continue;
+
+            var length = itemLength(i);
+            upper -= length;
+            data.get(itemOffset(i), buffer, upper, length);
+            setItem(i, upper, length);
+        }
+        data.put(upper, buffer, upper, PAGE_SIZE - upper);
+
+        data.putShort(4, (short) count);
+        data.putShort(6, (short) (HEADER_SIZE + count * 4));
+        data.putShort(8, (short) upper);
+    }
+
+    private int firstUnusedSlot() {
+        for (int i = 0; i < size(); i++) {
+            if (isUnused(i)) return i;
+        }
+        return -1;
+    }
+
+    /**
+     * Смещение записи слота внутри bytes(): для чтения на месте, без копии из read().
+     */
+    public int itemOffset(int index) {
+        return data.getShort(HEADER_SIZE + index * 4) & 0xFFFF;
+    }
+
+    public int itemLength(int index) {
+        return data.getShort(HEADER_SIZE + index * 4 + 2) & 0xFFFF;
+    }
+
+    private void setItem(int index, int offset, int length) {
+        data.putShort(HEADER_SIZE + index * 4, (short) offset);
+        data.putShort(HEADER_SIZE + index * 4 + 2, (short) length);
     }
 }
@@ -0,0 +1,149 @@
+package system.memory.vm;
+
+import system.memory.buffer.BufferPoolManager;
+import system.memory.model.BufferSlot;
+import system.memory.page.ForkPage;
+import system.memory.page.HeapPage;
+
+import java.util.concurrent.locks.Lock;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Карта видимости таблицы (аналог visibility map в PostgreSQL): два бита на heap-страницу.
+ * ALL_VISIBLE — все версии на странице видны любому снимку, ALL_FROZEN — к тому же заморожены.
+ *
+ * Биты выставляет только VACUUM, а сбрасывает любое изменение страницы. Сброс выполняется,
+ * пока держится write-защёлка heap-страницы, — иначе читатель успел бы увидеть новую
+ * версию на странице, которая ещё числится полностью видимой.
+ */
+public class VisibilityMap {
+
+    public static final int ALL_VISIBLE = 0b01;
+    public static final int ALL_FROZEN = 0b10;
+
+    private static final int PAGES_PER_BYTE = 4;
+    private static final int PAGES_PER_MAP_PAGE = HeapPage.PAGE_SIZE * PAGES_PER_BYTE;
+
+    private final BufferPoolManager forkPool;
+
+    public VisibilityMap(BufferPoolManager forkPool) {
+        this.forkPool = forkPool;
+    }
+
+    public int getFlags(int heapPageId) {
+        int mapPageId = heapPageId / PAGES_PER_MAP_PAGE;
+        BufferSlot slot = forkPool.fetchPage(mapPageId);
+        Lock latch = slot.getContentLock().readLock();
+        latch.lock();
+        try {
+            return readFlags((ForkPage) slot.getPage(), heapPageId);
+        } finally {
+            latch.unlock();
+            forkPool.unpinPage(mapPageId);
+        }
+    }
+
+    public boolean isAllVisible(int heapPageId) {
+        return (getFlags(heapPageId) & ALL_VISIBLE) != 0;
+    }
+
+    public boolean isAllFrozen(int heapPageId) {
+        return (getFlags(heapPageId) & ALL_FROZEN) != 0;
+    }
+
+    /**
+     * Выставить биты (ALL_FROZEN без ALL_VISIBLE не бывает).
+     */
+    public void set(int heapPageId, int flags) {
+        if ((flags & ALL_FROZEN) != 0) {
+            flags |= ALL_VISIBLE;
+        }
+        int target = flags;
+        modify(heapPageId, current -> current | target);
+    }
+
+    public void clear(int heapPageId) {
+        modify(heapPageId, current -> 0);
+    }
+
+    /**
+     * Забыть страницы с номером >= heapPageCount (после усечения таблицы).
+     */
+    public void truncate(int heapPageCount) {
+        // остаток байта, где проходит граница, — по одной странице, дальше — целыми байтами
+        int heapPageId = heapPageCount;
+        while (heapPageId % PAGES_PER_BYTE != 0) {
+            clear(heapPageId++);
+        }
+        clearFrom(heapPageId);
+    }
+
+    public void flush() {
+        forkPool.flushAllPages();
+    }
+
+    public BufferPoolManager getForkPool() {
+        return forkPool;
+    }
+
+    private void clearFrom(int heapPageId) {
+        int mapPages = forkPool.getPageCount();
+        for (int mapPageId = heapPageId / PAGES_PER_MAP_PAGE; mapPageId < mapPages; mapPageId++) {
+            BufferSlot slot = forkPool.fetchPage(mapPageId);
+            Lock latch = slot.getContentLock().writeLock();
+            latch.lock();
+            try {
+                ForkPage page = (ForkPage) slot.getPage();
+                int from = Math.max(0, heapPageId - mapPageId * PAGES_PER_MAP_PAGE) / PAGES_PER_BYTE;
+                for (int i = from; i < HeapPage.PAGE_SIZE; i++) {
+                    page.setByte(i, 0);
+                }
+                slot.setDirty(true);
+            } finally {
+                latch.unlock();
+                forkPool.unpinPage(mapPageId);
+            }
+        }
+    }
+
+    private void modify(int heapPageId, IntUnaryOperator change) {
+        int mapPageId = heapPageId / PAGES_PER_MAP_PAGE;
+        BufferSlot slot = forkPool.fetchPage(mapPageId);
+        try {
+            // частый случай — биты и так сброшены; проверяем под read-защёлкой
+            Lock readLatch = slot.getContentLock().readLock();
+            readLatch.lock();
+            try {
+                int current = readFlags((ForkPage) slot.getPage(), heapPageId);
+                if (change.applyAsInt(current) == current) return;
+            } finally {
+                readLatch.unlock();
+            }
+
+            Lock writeLatch = slot.getContentLock().writeLock();
+            writeLatch.lock();
+            try {
+                ForkPage page = (ForkPage) slot.getPage();
+                int current = readFlags(page, heapPageId);
+                int updated = change.applyAsInt(current);
+                if (updated != current) {
+                    int index = (heapPageId % PAGES_PER_MAP_PAGE) / PAGES_PER_BYTE;
+                    int shift = (heapPageId % PAGES_PER_BYTE) * 2;
+                    int b = page.getByte(index) & ~(0b11 << shift);
+                    page.setByte(index, b | (updated << shift));
+                    slot.setDirty(true);
+                }
+            } finally {
+                writeLatch.unlock();
+            }
+        } finally {
+            forkPool.unpinPage(mapPageId);
+        }
+    }
+
+    private static int readFlags(ForkPage page, int heapPageId) {
+        int index = (heapPageId % PAGES_PER_MAP_PAGE) / PAGES_PER_BYTE;
+        int shift = (heapPageId % PAGES_PER_BYTE) * 2;
+        return (page.getByte(index) >> shift) & 0b11;
+    }
+}
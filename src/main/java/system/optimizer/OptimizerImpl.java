@@ -1,13 +1,88 @@
 package system.optimizer;
 
 
+import system.ast.AConst;
+import system.ast.AExpr;
+import system.ast.ColumnRef;
+import system.ast.Expr;
+import system.ast.TargetEntry;
+import system.catalog.manager.CatalogManager;
+import system.catalog.model.ColumnDefinition;
+import system.catalog.model.IndexDefinition;
+import system.catalog.model.TableDefinition;
 import system.optimizer.node.*;
 import system.planner.node.*;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
 public class OptimizerImpl implements Optimizer {
+    public static final int DEFAULT_MAX_PARALLEL_WORKERS = Math.min(4, Runtime.getRuntime().availableProcessors());
+
+    // оценка размера таблицы, когда о ней ничего не известно
+    static final long DEFAULT_TABLE_ROWS = 1000;
+
+    // стоимости в единицах "одна строка последовательного скана"
+    private static final double HASH_BUILD_COST = 2;
+    private static final double RANDOM_FETCH_COST = 4;
+
+    private final CatalogManager catalogManager;
+    private final int maxParallelWorkers;
+    private final RowCountEstimator rowCounts;
+
+    public OptimizerImpl() {
+        this(null);
+    }
+
+    /**
+     * @param catalogManager источник сведений об индексах; null — всегда последовательный просмотр.
+     */
+    public OptimizerImpl(CatalogManager catalogManager) {
+        this(catalogManager, 0);
+    }
+
+    /**
+     * @param maxParallelWorkers сколько воркеров может читать одну таблицу; меньше двух — без параллельных сканов.
+     */
+    public OptimizerImpl(CatalogManager catalogManager, int maxParallelWorkers) {
+        this(catalogManager, maxParallelWorkers, null);
+    }
+
+    /**
+     * @param rowCounts размеры таблиц для выбора способа соединения; null — каждая считается
+     *                  размером DEFAULT_TABLE_ROWS.
+     */
+    public OptimizerImpl(CatalogManager catalogManager, int maxParallelWorkers, RowCountEstimator rowCounts) {
+        this.catalogManager = catalogManager;
+        this.maxParallelWorkers = maxParallelWorkers;
+        this.rowCounts = rowCounts;
+    }
 
     @Override
     public PhysicalPlanNode optimize(LogicalPlanNode logicalPlan) {
+        return parallelize(physical(logicalPlan));
+    }
+
+    /**
+     * SELECT, читающий таблицу последовательным сканом (с фильтром и проекцией над ним),
+     * исполняется под Gather; будет ли скан действительно параллельным, решается при исполнении
+     * по размеру таблицы. DELETE и сканы по индексам остаются последовательными.
+     */
+    private PhysicalPlanNode parallelize(PhysicalPlanNode plan) {
+        if (maxParallelWorkers < 2 || !isParallelSafe(plan)) return plan;
+        return new PhysicalGatherNode(maxParallelWorkers, plan);
+    }
+
+    private static boolean isParallelSafe(PhysicalPlanNode plan) {
+        if (plan instanceof PhysicalSeqScanNode) return true;
+        if (plan instanceof PhysicalFilterNode filter) return isParallelSafe(filter.getChild());
+        if (plan instanceof PhysicalProjectNode project) return isParallelSafe(project.getChild());
+        return false;
+    }
+
+    private PhysicalPlanNode physical(LogicalPlanNode logicalPlan) {
 
         if (logicalPlan instanceof CreateTableNode ln) {
             return new PhysicalCreateNode(ln.getTableDefinition());
@@ -15,16 +90,41 @@ public class OptimizerImpl implements Optimizer {
         } else if (logicalPlan instanceof InsertNode ln) {
             return new PhysicalInsertNode(ln.getTableDefinition(), ln.getValues());
 
+        } else if (logicalPlan instanceof DeleteNode ln) {
+            PhysicalPlanNode child = physical(ln.getChild());
+            return new PhysicalDeleteNode(ln.getTableDefinition(), child);
+
         } else if (logicalPlan instanceof ProjectNode ln) {
-            PhysicalPlanNode child = optimize(ln.getChild());
+            PhysicalPlanNode child = physical(ln.getChild());
+            if (child instanceof PhysicalIndexScanNode scan && coversTargets(scan.getIndexDefinition(), ln.getTargetList())) {
+                child = indexOnly(scan);
+            } else if (child instanceof PhysicalFilterNode filter
+                    && filter.getChild() instanceof PhysicalIndexScanNode scan
+                    && coversTargets(scan.getIndexDefinition(), ln.getTargetList())
+                    && coversCondition(scan.getIndexDefinition(), filter.getCondition())) {
+                // остаток условия по другим колонкам ключа тоже вычисляется по строке из индекса
+                child = new PhysicalFilterNode(filter.getCondition(), indexOnly(scan));
+            } else if (child instanceof PhysicalSeqScanNode scan && scan.getTargetList() == null
+                    && columnsOnly(ln.getTargetList())) {
+                // список из одних колонок скан отдаёт сам, без отдельной проекции
+                return new PhysicalSeqScanNode(scan.getTableDefinition(), scan.getCondition(), ln.getTargetList());
+            }
             return new PhysicalProjectNode(ln.getTargetList(), child);
 
         } else if (logicalPlan instanceof FilterNode ln) {
-            PhysicalPlanNode child = optimize(ln.getChild());
+            if (ln.getChild() instanceof ScanNode scan) {
+                PhysicalPlanNode indexScan = tryIndexScan(scan.getTableDefinition(), ln.getCondition());
+                if (indexScan != null) return indexScan;
+                return pushDownFilter(scan.getTableDefinition(), ln.getCondition());
+            }
+            PhysicalPlanNode child = physical(ln.getChild());
             return new PhysicalFilterNode(ln.getCondition(), child);
 
         } else if (logicalPlan instanceof ScanNode ln) {
             return new PhysicalSeqScanNode(ln.getTableDefinition());
+
+        } else if (logicalPlan instanceof JoinNode ln) {
+            return join(ln);
         }
 
 
@@ -32,4 +132,510 @@ public class OptimizerImpl implements Optimizer {
                 "Unsupported logical node type: " + logicalPlan.getClass().getSimpleName()
         );
     }
-}
\ No newline at end of file
+
+    /**
+     * Каждая сторона соединения читается как отдельный запрос: с индексом, переносом условий в скан
+     * и Gather. Способ соединения выбирается по оценкам числа строк (стоимость — в строках
+     * последовательного скана):
+     * - хеш-соединение: чтение inner, построение таблицы по его строкам и один проход по outer;
+     * - слияние: обе стороны уже упорядочены по одной из пар ключей, таблица не строится;
+     * - вложенный цикл по индексу: на каждую строку outer — спуск по индексу inner-таблицы и чтение
+     *   найденной строки. Считается, что индексированный ключ почти уникален. При маленьком outer это
+     *   несколько обращений к индексу вместо чтения всего inner.
+     */
+    private PhysicalPlanNode join(JoinNode ln) {
+        PhysicalPlanNode left = parallelize(physical(ln.getLeft()));
+        PhysicalPlanNode right = parallelize(physical(ln.getRight()));
+        int[] leftKeys = ln.getLeftKeys();
+        int[] rightKeys = ln.getRightKeys();
+        double outerRows = estimateRows(ln.getLeft());
+        double innerRows = estimateRows(ln.getRight());
+
+        double hashCost = scanCost(right, innerRows) + HASH_BUILD_COST * innerRows + outerRows;
+
+        int merge = mergeKey(left, right, leftKeys, rightKeys);
+        double mergeCost = merge >= 0 ? scanCost(right, innerRows) + outerRows + innerRows : Double.MAX_VALUE;
+
+        IndexProbe probe = indexProbe(ln.getRight(), rightKeys);
+        double nestLoopCost = probe == null ? Double.MAX_VALUE
+                : outerRows * (log2(tableRows(probe.table()) + 2) + RANDOM_FETCH_COST);
+
+        if (nestLoopCost < hashCost && nestLoopCost < mergeCost) {
+            return new PhysicalIndexNestedLoopJoinNode(left, probe.table(), probe.index(), probe.condition(),
+                    firstKey(leftKeys, probe.key()), firstKey(rightKeys, probe.key()), ln.getCondition());
+        }
+        if (mergeCost <= hashCost) {
+            return new PhysicalMergeJoinNode(left, right, firstKey(leftKeys, merge), firstKey(rightKeys, merge),
+                    ln.getCondition());
+        }
+        return new PhysicalHashJoinNode(left, right, leftKeys, rightKeys, ln.getCondition());
+    }
+
+    /**
+     * Inner-сторона — таблица (возможно, с условием), и у неё есть индекс, который ищет по одной
+     * из колонок ключа: хеш-индекс по ней или btree, где она ведущая.
+     */
+    private record IndexProbe(TableDefinition table, IndexDefinition index, Expr condition, int key) {
+    }
+
+    private IndexProbe indexProbe(LogicalPlanNode inner, int[] innerKeys) {
+        if (catalogManager == null) return null;
+        Expr condition = null;
+        if (inner instanceof FilterNode filter) {
+            condition = filter.getCondition();
+            inner = filter.getChild();
+        }
+        if (!(inner instanceof ScanNode scan)) return null;
+        TableDefinition table = scan.getTableDefinition();
+        List<IndexDefinition> indexes = catalogManager.getIndexes(table);
+        if (indexes.isEmpty()) return null;
+        List<ColumnDefinition> columns = catalogManager.getTableColumns(table);
+        for (String method : List.of("hash", "btree")) {
+            for (int k = 0; k < innerKeys.length; k++) {
+                String column = columns.get(innerKeys[k]).getName();
+                for (IndexDefinition index : indexes) {
+                    if (index.getMethod().equalsIgnoreCase(method)
+                            && index.getKeyColumns().get(0).equalsIgnoreCase(column)) {
+                        return new IndexProbe(table, index, condition, k);
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Номер пары ключей, по которой обе стороны уже упорядочены; -1 — такой нет.
+     */
+    private int mergeKey(PhysicalPlanNode left, PhysicalPlanNode right, int[] leftKeys, int[] rightKeys) {
+        int leftSorted = sortedColumn(left);
+        int rightSorted = sortedColumn(right);
+        if (leftSorted < 0 || rightSorted < 0) return -1;
+        for (int k = 0; k < leftKeys.length; k++) {
+            if (leftKeys[k] == leftSorted && rightKeys[k] == rightSorted) return k;
+        }
+        return -1;
+    }
+
+    /**
+     * Колонка, по возрастанию которой план отдаёт строки; -1 — порядок не известен.
+     */
+    private int sortedColumn(PhysicalPlanNode plan) {
+        if (plan instanceof PhysicalIndexScanNode scan && !(plan instanceof PhysicalIndexOnlyScanNode)
+                && "btree".equalsIgnoreCase(scan.getIndexDefinition().getMethod())) {
+            String leading = scan.getIndexDefinition().getKeyColumns().get(0);
+            List<ColumnDefinition> columns = catalogManager.getTableColumns(scan.getTableDefinition());
+            for (int c = 0; c < columns.size(); c++) {
+                if (columns.get(c).getName().equalsIgnoreCase(leading)) return c;
+            }
+            return -1;
+        }
+        if (plan instanceof PhysicalFilterNode filter) return sortedColumn(filter.getChild());
+        if (plan instanceof PhysicalMergeJoinNode merge) return merge.getLeftKeys()[0];
+        if (plan instanceof PhysicalIndexNestedLoopJoinNode join) return sortedColumn(join.getOuter());
+        return -1;
+    }
+
+    // ключи с парой number впереди, остальные в прежнем порядке
+    private static int[] firstKey(int[] keys, int number) {
+        int[] reordered = keys.clone();
+        for (int k = number; k > 0; k--) {
+            reordered[k] = reordered[k - 1];
+        }
+        reordered[0] = keys[number];
+        return reordered;
+    }
+
+    /**
+     * Стоимость получения строк стороны: последовательный скан читает всю таблицу,
+     * поиск по индексу платит случайным чтением за каждую найденную строку.
+     */
+    private double scanCost(PhysicalPlanNode plan, double rows) {
+        if (plan instanceof PhysicalGatherNode gather) return scanCost(gather.getChild(), rows);
+        if (plan instanceof PhysicalFilterNode filter) return scanCost(filter.getChild(), rows);
+        if (plan instanceof PhysicalSeqScanNode scan) return tableRows(scan.getTableDefinition());
+        if (plan instanceof PhysicalIndexScanNode || plan instanceof PhysicalBitmapHeapScanNode) {
+            return rows * RANDOM_FETCH_COST;
+        }
+        return rows;
+    }
+
+    private double estimateRows(LogicalPlanNode plan) {
+        if (plan instanceof ScanNode scan) return tableRows(scan.getTableDefinition());
+        if (plan instanceof FilterNode filter) {
+            return Math.max(1, estimateRows(filter.getChild()) * selectivity(filter.getCondition()));
+        }
+        if (plan instanceof JoinNode join) {
+            // соединение по ключу: каждая строка большей стороны находит примерно одну пару
+            return Math.max(estimateRows(join.getLeft()), estimateRows(join.getRight()));
+        }
+        return DEFAULT_TABLE_ROWS;
+    }
+
+    private double tableRows(TableDefinition table) {
+        long rows = rowCounts != null ? rowCounts.estimateRows(table) : -1;
+        return rows >= 0 ? rows : DEFAULT_TABLE_ROWS;
+    }
+
+    /**
+     * Доля строк, проходящих условие, по тем же грубым правилам, что и в PostgreSQL без статистики:
+     * равенство — 0.005, сравнение — 1/3, остальное — половина.
+     */
+    private static double selectivity(Object expr) {
+        if (!(expr instanceof AExpr aexpr)) return 0.5;
+        return switch (aexpr.getOp()) {
+            case "AND" -> selectivity(aexpr.getLeft()) * selectivity(aexpr.getRight());
+            case "OR" -> {
+                double a = selectivity(aexpr.getLeft());
+                double b = selectivity(aexpr.getRight());
+                yield a + b - a * b;
+            }
+            case "=" -> 0.005;
+            case "!=" -> 0.995;
+            case "<", ">", "<=", ">=" -> 1.0 / 3;
+            default -> 0.5;
+        };
+    }
+
+    private static double log2(double x) {
+        return Math.log(x) / Math.log(2);
+    }
+
+    /**
+     * Сравнения из AND-цепочки WHERE переносятся в последовательный скан: он проверяет их
+     * по байтам строки на странице и не копирует отброшенные строки. Остальное остаётся фильтром.
+     */
+    private static PhysicalPlanNode pushDownFilter(TableDefinition table, Expr condition) {
+        List<Expr> conjuncts = new ArrayList<>();
+        flatten(condition, "AND", conjuncts);
+        Expr pushed = null;
+        Expr residual = null;
+        for (Expr conjunct : conjuncts) {
+            if (isSimpleComparison(conjunct)) {
+                pushed = pushed == null ? conjunct : new AExpr("AND", pushed, conjunct);
+            } else {
+                residual = residual == null ? conjunct : new AExpr("AND", residual, conjunct);
+            }
+        }
+        PhysicalPlanNode scan = new PhysicalSeqScanNode(table, pushed, null);
+        return residual == null ? scan : new PhysicalFilterNode(residual, scan);
+    }
+
+    /**
+     * Сравнение колонок и констант или OR таких сравнений — то, что скан умеет вычислить сам.
+     */
+    private static boolean isSimpleComparison(Object expr) {
+        if (!(expr instanceof AExpr aexpr)) return false;
+        if (aexpr.getOp().equals("OR")) {
+            return isSimpleComparison(aexpr.getLeft()) && isSimpleComparison(aexpr.getRight());
+        }
+        if (!List.of("=", "!=", "<", ">", "<=", ">=").contains(aexpr.getOp())) return false;
+        return (aexpr.getLeft() instanceof ColumnRef || aexpr.getLeft() instanceof AConst)
+                && (aexpr.getRight() instanceof ColumnRef || aexpr.getRight() instanceof AConst);
+    }
+
+    private static boolean columnsOnly(List<TargetEntry> targets) {
+        if (targets == null || targets.isEmpty()) return false;
+        return targets.stream().allMatch(t -> t.expr instanceof ColumnRef column && !"*".equals(column.column));
+    }
+
+    private static PhysicalIndexOnlyScanNode indexOnly(PhysicalIndexScanNode scan) {
+        return new PhysicalIndexOnlyScanNode(scan.getTableDefinition(), scan.getIndexDefinition(),
+                scan.getLow(), scan.isLowInclusive(), scan.getHigh(), scan.isHighInclusive());
+    }
+
+    private static boolean coversCondition(IndexDefinition index, Object expr) {
+        if (expr instanceof AConst) return true;
+        if (expr instanceof ColumnRef column) return covers(index, column.column);
+        return expr instanceof AExpr aexpr
+                && coversCondition(index, aexpr.getLeft()) && coversCondition(index, aexpr.getRight());
+    }
+
+    private static boolean covers(IndexDefinition index, String column) {
+        return index.getKeyColumns().stream().anyMatch(c -> c.equalsIgnoreCase(column))
+                || index.getIncludeColumns().stream().anyMatch(c -> c.equalsIgnoreCase(column));
+    }
+
+    /**
+     * Запрос читает только колонки, хранящиеся в btree-индексе (ключ и INCLUDE), — heap-файл нужен
+     * лишь для проверки видимости, и её можно пропустить на полностью видимых страницах.
+     */
+    private static boolean coversTargets(IndexDefinition index, List<TargetEntry> targets) {
+        if (!"btree".equalsIgnoreCase(index.getMethod()) || targets == null || targets.isEmpty()) return false;
+        for (TargetEntry target : targets) {
+            if (target.expr instanceof AConst) continue;
+            if (!(target.expr instanceof ColumnRef column) || "*".equals(column.column)) return false;
+            if (!covers(index, column.column)) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Простое условие "колонка op константа" из AND-цепочки WHERE;
+     * "константа op колонка" разворачивается в ту же форму.
+     */
+    private record Predicate(AExpr source, String column, String op, Object value) {
+
+        static Predicate of(Expr expr) {
+            if (!(expr instanceof AExpr aexpr)) return null;
+            String op = aexpr.getOp();
+            if (!List.of("=", "<", ">", "<=", ">=").contains(op)) return null;
+            if (aexpr.getLeft() instanceof ColumnRef c && aexpr.getRight() instanceof AConst v) {
+                return v.value == null ? null : new Predicate(aexpr, c.column, op, v.value);
+            }
+            if (aexpr.getLeft() instanceof AConst v && aexpr.getRight() instanceof ColumnRef c) {
+                String flipped = switch (op) {
+                    case "<" -> ">";
+                    case ">" -> "<";
+                    case "<=" -> ">=";
+                    case ">=" -> "<=";
+                    default -> op;
+                };
+                return v.value == null ? null : new Predicate(aexpr, c.column, flipped, v.value);
+            }
+            return null;
+        }
+
+        boolean on(String name) {
+            return column.equalsIgnoreCase(name);
+        }
+    }
+
+    /**
+     * Подобранный к btree-индексу диапазон: равенства по ведущим колонкам и,
+     * возможно, границы по следующей за ними.
+     */
+    private record IndexMatch(IndexDefinition index, List<Object> prefix, Predicate lower, Predicate upper,
+                              List<AExpr> consumed) {
+
+        int columns() {
+            return prefix.size() + (lower != null || upper != null ? 1 : 0);
+        }
+    }
+
+    private static void flatten(Object expr, String op, List<Expr> out) {
+        if (expr instanceof AExpr aexpr && aexpr.getOp().equals(op)) {
+            flatten(aexpr.getLeft(), op, out);
+            flatten(aexpr.getRight(), op, out);
+        } else if (expr instanceof Expr e) {
+            out.add(e);
+        } else {
+            throw new IllegalArgumentException("Unsupported condition: " + expr);
+        }
+    }
+
+    /**
+     * Сопоставление условий с колонками составного индекса слева направо: пока на колонку
+     * есть равенство, она входит в префикс; первая колонка без равенства может дать диапазон,
+     * после неё сопоставление заканчивается (как в PostgreSQL, дальше индекс не упорядочен).
+     */
+    private static IndexMatch matchBTree(IndexDefinition index, List<Predicate> predicates) {
+        List<Object> prefix = new ArrayList<>();
+        List<AExpr> consumed = new ArrayList<>();
+        Predicate lower = null;
+        Predicate upper = null;
+        for (String column : index.getKeyColumns()) {
+            Predicate eq = predicates.stream().filter(p -> p.on(column) && p.op().equals("=")).findFirst().orElse(null);
+            if (eq != null) {
+                prefix.add(eq.value());
+                consumed.add(eq.source());
+                continue;
+            }
+            for (Predicate p : predicates) {
+                if (!p.on(column)) continue;
+                if (lower == null && p.op().startsWith(">")) lower = p;
+                else if (upper == null && p.op().startsWith("<")) upper = p;
+                else continue;
+                consumed.add(p.source());
+            }
+            break;
+        }
+        return new IndexMatch(index, prefix, lower, upper, consumed);
+    }
+
+    /**
+     * Границы для индекса из одной колонки передаются значениями, для составного — списками:
+     * префикс равенств плюс граница по следующей колонке. Открытая верхняя граница при непустом
+     * префиксе закрывается значением NULL (оно сортируется последним), чтобы строки с NULL
+     * в колонке диапазона не попали в результат.
+     */
+    private static PhysicalIndexScanNode indexScan(TableDefinition table, IndexMatch match) {
+        List<Object> prefix = match.prefix();
+        Object low = match.lower() != null ? bound(prefix, match.lower().value()) : prefix.isEmpty() ? null : bound(prefix);
+        boolean lowInclusive = match.lower() == null || match.lower().op().equals(">=");
+        Object high;
+        boolean highInclusive;
+        if (match.upper() != null) {
+            high = bound(prefix, match.upper().value());
+            highInclusive = match.upper().op().equals("<=");
+        } else if (match.lower() != null && !prefix.isEmpty()) {
+            high = bound(prefix, (Object) null);
+            highInclusive = false;
+        } else {
+            high = prefix.isEmpty() ? null : bound(prefix);
+            highInclusive = true;
+        }
+        return new PhysicalIndexScanNode(table, match.index(), low, lowInclusive, high, highInclusive);
+    }
+
+    private static Object bound(List<Object> prefix, Object... next) {
+        List<Object> parts = new ArrayList<>(prefix);
+        parts.addAll(Arrays.asList(next));
+        return parts.size() == 1 ? parts.get(0) : parts;
+    }
+
+    /**
+     * Условия WHERE (AND-цепочка "колонка op константа") заменяются поиском по индексу.
+     * Btree подходит, если условия покрывают ведущие колонки его ключа; выбирается индекс с
+     * наибольшим числом сопоставленных колонок. Для одиночного равенства дешевле хеш-индекс.
+     * Остальные условия остаются фильтром над сканированием индекса.
+     * Если условие требует нескольких индексов (разные колонки под AND или ветви OR), строится
+     * bitmap-сканирование: карты адресов из индексов пересекаются или объединяются, а таблица
+     * читается по порядку страниц. Так же, через карту страниц, используется BRIN, если точного
+     * индекса нет. Над bitmap-сканированием всё условие перепроверяется фильтром.
+     */
+    private PhysicalPlanNode tryIndexScan(TableDefinition table, Expr condition) {
+        if (catalogManager == null) return null;
+        List<IndexDefinition> indexes = catalogManager.getIndexes(table);
+        if (indexes.isEmpty()) return null;
+
+        PhysicalPlanNode bitmap = bitmapPath(table, indexes, condition);
+        if (bitmap instanceof PhysicalBitmapAndNode || bitmap instanceof PhysicalBitmapOrNode) {
+            return new PhysicalFilterNode(condition, new PhysicalBitmapHeapScanNode(table, bitmap));
+        }
+
+        List<Expr> conjuncts = new ArrayList<>();
+        flatten(condition, "AND", conjuncts);
+        List<Predicate> predicates = predicates(conjuncts);
+
+        IndexMatch best = indexes.stream()
+                .filter(i -> "btree".equalsIgnoreCase(i.getMethod()))
+                .map(i -> matchBTree(i, predicates))
+                .filter(m -> m.columns() > 0)
+                .max(Comparator.comparingInt(IndexMatch::columns))
+                .orElse(null);
+
+        // хеш-индекс — одна цепочка страниц вместо спуска по дереву, но умеет только равенство
+        if (best == null || best.columns() == 1) {
+            for (IndexDefinition hash : indexes) {
+                Predicate eq = hashMatch(hash, predicates);
+                if (eq != null) {
+                    PhysicalPlanNode scan = new PhysicalIndexScanNode(table, hash, eq.value(), true, eq.value(), true);
+                    return withResidual(scan, conjuncts, List.of(eq.source()));
+                }
+            }
+        }
+        if (best != null) {
+            return withResidual(indexScan(table, best), conjuncts, best.consumed());
+        }
+        // остался только BRIN
+        return bitmap == null ? null : new PhysicalFilterNode(condition, new PhysicalBitmapHeapScanNode(table, bitmap));
+    }
+
+    private static List<Predicate> predicates(List<Expr> conjuncts) {
+        List<Predicate> predicates = new ArrayList<>();
+        for (Expr conjunct : conjuncts) {
+            Predicate p = Predicate.of(conjunct);
+            if (p != null) predicates.add(p);
+        }
+        return predicates;
+    }
+
+    private static Predicate hashMatch(IndexDefinition index, List<Predicate> predicates) {
+        if (!"hash".equalsIgnoreCase(index.getMethod())) return null;
+        String column = index.getKeyColumns().get(0);
+        return predicates.stream().filter(p -> p.on(column) && p.op().equals("=")).findFirst().orElse(null);
+    }
+
+    /**
+     * Поддерево битовых карт для условия; null — индексы его не покрывают.
+     * Ветвь OR годится, только если каждая её часть находится по индексу. Под AND индексы
+     * выбираются жадно: сначала тот, что покрывает больше условий (точный индекс — раньше BRIN),
+     * затем следующий по оставшимся условиям; карты всех выбранных пересекаются.
+     */
+    private PhysicalPlanNode bitmapPath(TableDefinition table, List<IndexDefinition> indexes, Expr condition) {
+        if (condition instanceof AExpr aexpr && aexpr.getOp().equals("OR")) {
+            List<Expr> disjuncts = new ArrayList<>();
+            flatten(condition, "OR", disjuncts);
+            List<PhysicalPlanNode> children = new ArrayList<>();
+            for (Expr disjunct : disjuncts) {
+                PhysicalPlanNode child = bitmapPath(table, indexes, disjunct);
+                if (child == null) return null;
+                children.add(child);
+            }
+            return new PhysicalBitmapOrNode(children);
+        }
+
+        List<Expr> conjuncts = new ArrayList<>();
+        flatten(condition, "AND", conjuncts);
+        List<Predicate> remaining = predicates(conjuncts);
+        List<IndexDefinition> unused = new ArrayList<>(indexes);
+        List<PhysicalPlanNode> children = new ArrayList<>();
+        while (!remaining.isEmpty()) {
+            BitmapCandidate chosen = null;
+            for (IndexDefinition index : unused) {
+                BitmapCandidate candidate = bitmapCandidate(table, index, remaining);
+                if (candidate != null && (chosen == null || candidate.score() > chosen.score())) {
+                    chosen = candidate;
+                }
+            }
+            if (chosen == null) break;
+            children.add(chosen.scan());
+            remaining.removeAll(chosen.consumed());
+            unused.remove(chosen.scan().getIndexDefinition());
+        }
+        for (Expr conjunct : conjuncts) {
+            if (conjunct instanceof AExpr aexpr && aexpr.getOp().equals("OR")) {
+                PhysicalPlanNode child = bitmapPath(table, indexes, conjunct);
+                if (child != null) children.add(child);
+            }
+        }
+        if (children.isEmpty()) return null;
+        return children.size() == 1 ? children.get(0) : new PhysicalBitmapAndNode(children);
+    }
+
+    private record BitmapCandidate(PhysicalBitmapIndexScanNode scan, List<Predicate> consumed, int score) {
+    }
+
+    private static BitmapCandidate bitmapCandidate(TableDefinition table, IndexDefinition index,
+                                                   List<Predicate> predicates) {
+        String method = index.getMethod().toLowerCase();
+        if (method.equals("btree")) {
+            IndexMatch match = matchBTree(index, predicates);
+            if (match.columns() == 0) return null;
+            PhysicalIndexScanNode scan = indexScan(table, match);
+            List<Predicate> consumed = predicates.stream()
+                    .filter(p -> match.consumed().contains(p.source())).toList();
+            return new BitmapCandidate(new PhysicalBitmapIndexScanNode(table, index, scan.getLow(),
+                    scan.isLowInclusive(), scan.getHigh(), scan.isHighInclusive()), consumed, 2 * match.columns() + 1);
+        }
+        if (method.equals("hash")) {
+            Predicate eq = hashMatch(index, predicates);
+            if (eq == null) return null;
+            return new BitmapCandidate(new PhysicalBitmapIndexScanNode(table, index, eq.value(), true, eq.value(), true),
+                    List.of(eq), 3);
+        }
+        if (method.equals("brin")) {
+            Predicate p = predicates.stream().filter(q -> q.on(index.getKeyColumns().get(0))).findFirst().orElse(null);
+            if (p == null) return null;
+            PhysicalBitmapIndexScanNode scan = switch (p.op()) {
+                case "=" -> new PhysicalBitmapIndexScanNode(table, index, p.value(), true, p.value(), true);
+                case ">" -> new PhysicalBitmapIndexScanNode(table, index, p.value(), false, null, false);
+                case ">=" -> new PhysicalBitmapIndexScanNode(table, index, p.value(), true, null, false);
+                case "<" -> new PhysicalBitmapIndexScanNode(table, index, null, false, p.value(), false);
+                default -> new PhysicalBitmapIndexScanNode(table, index, null, false, p.value(), true);
+            };
+            return new BitmapCandidate(scan, List.of(p), 2);
+        }
+        return null;
+    }
+
+    private static PhysicalPlanNode withResidual(PhysicalPlanNode scan, List<Expr> conjuncts, List<AExpr> consumed) {
+        Expr residual = null;
+        for (Expr conjunct : conjuncts) {
+            if (consumed.stream().anyMatch(c -> c == conjunct)) continue;
+            residual = residual == null ? conjunct : new AExpr("AND", residual, conjunct);
+        }
+        return residual == null ? scan : new PhysicalFilterNode(residual, scan);
+    }
+}
@@ -0,0 +1,16 @@
+package system.optimizer;
+
+
+import system.catalog.model.TableDefinition;
+
+/**
+ * Оценка числа живых строк таблицы для выбора способа соединения.
+ */
+@FunctionalInterface
+public interface RowCountEstimator {
+
+    /**
+     * @return примерное число строк; отрицательное — оценки нет.
+     */
+    long estimateRows(TableDefinition table);
+}
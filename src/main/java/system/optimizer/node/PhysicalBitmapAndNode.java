@@ -0,0 +1,29 @@
+package system.optimizer.node;
+
+
+import java.util.List;
+
+/**
+ * Пересечение битовых карт дочерних узлов: строка должна найтись в каждом индексе.
+ */
+public class PhysicalBitmapAndNode extends PhysicalPlanNode {
+    private final List<PhysicalPlanNode> children;
+
+    public PhysicalBitmapAndNode(List<PhysicalPlanNode> children) {
+        super("PhysicalBitmapAnd");
+        this.children = List.copyOf(children);
+    }
+
+    public List<PhysicalPlanNode> getChildren() {
+        return children;
+    }
+
+    @Override
+    public String prettyPrint(String indent) {
+        StringBuilder sb = new StringBuilder(indent + "PhysicalBitmapAnd\n");
+        for (PhysicalPlanNode child : children) {
+            sb.append(child.prettyPrint(indent + "  "));
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,34 @@
+package system.optimizer.node;
+
+
+import system.catalog.model.TableDefinition;
+
+/**
+ * Чтение страниц таблицы по битовой карте адресов в порядке номеров страниц.
+ * Карту строит поддерево bitmap-узлов (PhysicalBitmapIndexScan, PhysicalBitmapAnd, PhysicalBitmapOr);
+ * неточные страницы читаются целиком, поэтому условие перепроверяется узлом фильтра над сканированием.
+ */
+public class PhysicalBitmapHeapScanNode extends PhysicalPlanNode {
+    private final TableDefinition tableDefinition;
+    private final PhysicalPlanNode bitmap;
+
+    public PhysicalBitmapHeapScanNode(TableDefinition tableDefinition, PhysicalPlanNode bitmap) {
+        super("PhysicalBitmapHeapScan");
+        this.tableDefinition = tableDefinition;
+        this.bitmap = bitmap;
+    }
+
+    public TableDefinition getTableDefinition() {
+        return tableDefinition;
+    }
+
+    public PhysicalPlanNode getBitmap() {
+        return bitmap;
+    }
+
+    @Override
+    public String prettyPrint(String indent) {
+        return indent + "PhysicalBitmapHeapScan(" + tableDefinition.getName() + ")\n"
+                + bitmap.prettyPrint(indent + "  ");
+    }
+}
@@ -0,0 +1,60 @@
+package system.optimizer.node;
+
+
+import system.catalog.model.IndexDefinition;
+import system.catalog.model.TableDefinition;
+
+/**
+ * Битовая карта адресов из одного индекса по диапазону ключей; null-граница — диапазон открыт
+ * с этой стороны. Btree и хеш дают точные адреса, BRIN — неточные страницы.
+ */
+public class PhysicalBitmapIndexScanNode extends PhysicalPlanNode {
+    private final TableDefinition tableDefinition;
+    private final IndexDefinition indexDefinition;
+    private final Object low;
+    private final boolean lowInclusive;
+    private final Object high;
+    private final boolean highInclusive;
+
+    public PhysicalBitmapIndexScanNode(TableDefinition tableDefinition, IndexDefinition indexDefinition,
+                                       Object low, boolean lowInclusive, Object high, boolean highInclusive) {
+        super("PhysicalBitmapIndexScan");
+        this.tableDefinition = tableDefinition;
+        this.indexDefinition = indexDefinition;
+        this.low = low;
+        this.lowInclusive = lowInclusive;
+        this.high = high;
+        this.highInclusive = highInclusive;
+    }
+
+    public TableDefinition getTableDefinition() {
+        return tableDefinition;
+    }
+
+    public IndexDefinition getIndexDefinition() {
+        return indexDefinition;
+    }
+
+    public Object getLow() {
+        return low;
+    }
+
+    public boolean isLowInclusive() {
+        return lowInclusive;
+    }
+
+    public Object getHigh() {
+        return high;
+    }
+
+    public boolean isHighInclusive() {
+        return highInclusive;
+    }
+
+    @Override
+    public String prettyPrint(String indent) {
+        String range = (low == null ? "(-inf" : (lowInclusive ? "[" : "(") + low)
+                + ", " + (high == null ? "+inf)" : high + (highInclusive ? "]" : ")"));
+        return indent + "PhysicalBitmapIndexScan(" + indexDefinition.getName() + " " + range + ")\n";
+    }
+}
@@ -0,0 +1,29 @@
+package system.optimizer.node;
+
+
+import java.util.List;
+
+/**
+ * Объединение битовых карт дочерних узлов: строка найдена хотя бы одним индексом.
+ */
+public class PhysicalBitmapOrNode extends PhysicalPlanNode {
+    private final List<PhysicalPlanNode> children;
+
+    public PhysicalBitmapOrNode(List<PhysicalPlanNode> children) {
+        super("PhysicalBitmapOr");
+        this.children = List.copyOf(children);
+    }
+
+    public List<PhysicalPlanNode> getChildren() {
+        return children;
+    }
+
+    @Override
+    public String prettyPrint(String indent) {
+        StringBuilder sb = new StringBuilder(indent + "PhysicalBitmapOr\n");
+        for (PhysicalPlanNode child : children) {
+            sb.append(child.prettyPrint(indent + "  "));
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,28 @@
+package system.optimizer.node;
+
+import system.catalog.model.TableDefinition;
+
+public class PhysicalDeleteNode extends PhysicalPlanNode {
+
+    private final TableDefinition tableDefinition;
+    private final PhysicalPlanNode child;
+
+    public PhysicalDeleteNode(TableDefinition tableDefinition, PhysicalPlanNode child) {
+        super("PhysicalDelete");
+        this.tableDefinition = tableDefinition;
+        this.child = child;
+    }
+
+    public TableDefinition getTableDefinition() {
+        return tableDefinition;
+    }
+
+    public PhysicalPlanNode getChild() {
+        return child;
+    }
+
+    @Override
+    public String prettyPrint(String indent) {
+        return indent + "PhysicalDelete(" + tableDefinition.getName() + ")\n" + child.prettyPrint(indent + "  ");
+    }
+}
@@ -0,0 +1,31 @@
+package system.optimizer.node;
+
+
+/**
+ * Параллельное исполнение поддерева Scan → Filter → Project: несколько воркеров читают
+ * таблицу по диапазонам страниц, Gather собирает их результаты. Сколько воркеров запустить,
+ * решается при исполнении по размеру таблицы, но не больше maxWorkers.
+ */
+public class PhysicalGatherNode extends PhysicalPlanNode {
+    private final int maxWorkers;
+    private final PhysicalPlanNode child;
+
+    public PhysicalGatherNode(int maxWorkers, PhysicalPlanNode child) {
+        super("PhysicalGather");
+        this.maxWorkers = maxWorkers;
+        this.child = child;
+    }
+
+    public int getMaxWorkers() {
+        return maxWorkers;
+    }
+
+    public PhysicalPlanNode getChild() {
+        return child;
+    }
+
+    @Override
+    public String prettyPrint(String indent) {
+        return indent + "PhysicalGather(maxWorkers=" + maxWorkers + ")\n" + child.prettyPrint(indent + "  ");
+    }
+}
@@ -0,0 +1,52 @@
+package system.optimizer.node;
+
+
+import system.ast.Expr;
+
+/**
+ * Хеш-соединение: по строкам right (inner) строится хеш-таблица, строки left (outer) её зондируют.
+ * Строка результата — строка left, за ней строка right.
+ */
+public class PhysicalHashJoinNode extends PhysicalPlanNode {
+    private final PhysicalPlanNode left;
+    private final PhysicalPlanNode right;
+    private final int[] leftKeys;
+    private final int[] rightKeys;
+    private final Expr condition;
+
+    public PhysicalHashJoinNode(PhysicalPlanNode left, PhysicalPlanNode right,
+                                int[] leftKeys, int[] rightKeys, Expr condition) {
+        super("PhysicalHashJoin");
+        this.left = left;
+        this.right = right;
+        this.leftKeys = leftKeys;
+        this.rightKeys = rightKeys;
+        this.condition = condition;
+    }
+
+    public PhysicalPlanNode getLeft() {
+        return left;
+    }
+
+    public PhysicalPlanNode getRight() {
+        return right;
+    }
+
+    public int[] getLeftKeys() {
+        return leftKeys;
+    }
+
+    public int[] getRightKeys() {
+        return rightKeys;
+    }
+
+    public Expr getCondition() {
+        return condition;
+    }
+
+    @Override
+    public String prettyPrint(String indent) {
+        return indent + "PhysicalHashJoin(" + condition + ")\n"
+                + left.prettyPrint(indent + "  ") + right.prettyPrint(indent + "  ");
+    }
+}
@@ -0,0 +1,75 @@
+package system.optimizer.node;
+
+
+import system.ast.Expr;
+import system.catalog.model.IndexDefinition;
+import system.catalog.model.TableDefinition;
+
+/**
+ * Вложенный цикл по индексу: для каждой строки outer inner-таблица ищется по индексу на значение
+ * первого ключа outer; найденные строки проверяются условием inner-таблицы и остальными парами ключей.
+ * Строка результата — строка outer, за ней строка inner.
+ */
+public class PhysicalIndexNestedLoopJoinNode extends PhysicalPlanNode {
+    private final PhysicalPlanNode outer;
+    private final TableDefinition innerTable;
+    private final IndexDefinition indexDefinition;
+    private final Expr innerCondition;
+    private final int[] outerKeys;
+    private final int[] innerKeys;
+    private final Expr condition;
+
+    /**
+     * @param innerCondition условие на колонки inner-таблицы; null — без него.
+     * @param outerKeys      ключи outer; первый — значение для поиска по индексу.
+     * @param innerKeys      ключи inner; первый — ведущая колонка индекса.
+     */
+    public PhysicalIndexNestedLoopJoinNode(PhysicalPlanNode outer, TableDefinition innerTable,
+                                           IndexDefinition indexDefinition, Expr innerCondition,
+                                           int[] outerKeys, int[] innerKeys, Expr condition) {
+        super("PhysicalIndexNestedLoopJoin");
+        this.outer = outer;
+        this.innerTable = innerTable;
+        this.indexDefinition = indexDefinition;
+        this.innerCondition = innerCondition;
+        this.outerKeys = outerKeys;
+        this.innerKeys = innerKeys;
+        this.condition = condition;
+    }
+
+    public PhysicalPlanNode getOuter() {
+        return outer;
+    }
+
+    public TableDefinition getInnerTable() {
+        return innerTable;
+    }
+
+    public IndexDefinition getIndexDefinition() {
+        return indexDefinition;
+    }
+
+    public Expr getInnerCondition() {
+        return innerCondition;
+    }
+
+    public int[] getOuterKeys() {
+        return outerKeys;
+    }
+
+    public int[] getInnerKeys() {
+        return innerKeys;
+    }
+
+    public Expr getCondition() {
+        return condition;
+    }
+
+    @Override
+    public String prettyPrint(String indent) {
+        return indent + "PhysicalIndexNestedLoopJoin(" + condition + ")\n"
+                + outer.prettyPrint(indent + "  ")
+                + indent + "  IndexProbe(" + innerTable.getName() + " using " + indexDefinition.getName()
+                + (innerCondition != null ? " filter " + innerCondition : "") + ")\n";
+    }
+}
@@ -0,0 +1,17 @@
+package system.optimizer.node;
+
+
+import system.catalog.model.IndexDefinition;
+import system.catalog.model.TableDefinition;
+
+/**
+ * Поиск по покрывающему индексу: все нужные запросу колонки есть в индексе,
+ * и heap-файл читается только для страниц, не отмеченных в карте видимости.
+ */
+public class PhysicalIndexOnlyScanNode extends PhysicalIndexScanNode {
+
+    public PhysicalIndexOnlyScanNode(TableDefinition tableDefinition, IndexDefinition indexDefinition,
+                                     Object low, boolean lowInclusive, Object high, boolean highInclusive) {
+        super("PhysicalIndexOnlyScan", tableDefinition, indexDefinition, low, lowInclusive, high, highInclusive);
+    }
+}
@@ -0,0 +1,53 @@
+package system.optimizer.node;
+
+
+import system.ast.Expr;
+
+/**
+ * Соединение слиянием: обе стороны уже упорядочены по первой паре ключей (btree-скан или
+ * предыдущее слияние), и они читаются одновременно, без хеш-таблицы. Остальные пары ключей
+ * проверяются на каждой паре строк. Строка результата — строка left, за ней строка right.
+ */
+public class PhysicalMergeJoinNode extends PhysicalPlanNode {
+    private final PhysicalPlanNode left;
+    private final PhysicalPlanNode right;
+    private final int[] leftKeys;
+    private final int[] rightKeys;
+    private final Expr condition;
+
+    public PhysicalMergeJoinNode(PhysicalPlanNode left, PhysicalPlanNode right,
+                                 int[] leftKeys, int[] rightKeys, Expr condition) {
+        super("PhysicalMergeJoin");
+        this.left = left;
+        this.right = right;
+        this.leftKeys = leftKeys;
+        this.rightKeys = rightKeys;
+        this.condition = condition;
+    }
+
+    public PhysicalPlanNode getLeft() {
+        return left;
+    }
+
+    public PhysicalPlanNode getRight() {
+        return right;
+    }
+
+    public int[] getLeftKeys() {
+        return leftKeys;
+    }
+
+    public int[] getRightKeys() {
+        return rightKeys;
+    }
+
+    public Expr getCondition() {
+        return condition;
+    }
+
+    @Override
+    public String prettyPrint(String indent) {
+        return indent + "PhysicalMergeJoin(" + condition + ")\n"
+                + left.prettyPrint(indent + "  ") + right.prettyPrint(indent + "  ");
+    }
+}
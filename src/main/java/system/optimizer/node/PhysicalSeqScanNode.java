@@ -1,22 +1,57 @@
 package system.optimizer.node;
 
 
+import system.ast.Expr;
+import system.ast.TargetEntry;
 import system.catalog.model.TableDefinition;
 
+import java.util.List;
+
+/**
+ * Последовательный просмотр таблицы. Оптимизатор может перенести в него условие WHERE
+ * и список выборки — тогда скан сам отбрасывает строки и отдаёт только нужные колонки.
+ */
 public class PhysicalSeqScanNode extends PhysicalPlanNode {
     private final TableDefinition tableDefinition;
+    private final Expr condition;
+    private final List<TargetEntry> targetList;
 
     public PhysicalSeqScanNode(TableDefinition tableDefinition) {
+        this(tableDefinition, null, null);
+    }
+
+    /**
+     * @param condition  условие, проверяемое сканом; null — без условия.
+     * @param targetList колонки результата (только ссылки на колонки); null — все колонки таблицы.
+     */
+    public PhysicalSeqScanNode(TableDefinition tableDefinition, Expr condition, List<TargetEntry> targetList) {
         super("PhysicalSeqScan");
         this.tableDefinition = tableDefinition;
+        this.condition = condition;
+        this.targetList = targetList;
     }
 
     public TableDefinition getTableDefinition() {
         return tableDefinition;
     }
 
+    public Expr getCondition() {
+        return condition;
+    }
+
+    public List<TargetEntry> getTargetList() {
+        return targetList;
+    }
+
     @Override
     public String prettyPrint(String indent) {
-        return indent + "PhysicalSeqScan(" + tableDefinition.getName() + ")\n";
+        StringBuilder sb = new StringBuilder(indent).append("PhysicalSeqScan(").append(tableDefinition.getName());
+        if (condition != null) sb.append(", filter=").append(condition);
+        if (targetList != null) {
+            sb.append(", columns=").append(targetList.stream()
+                    .map(te -> te.alias != null ? te.alias : te.expr.toString())
+                    .toList());
+        }
+        return sb.append(")\n").toString();
     }
-}
\ No newline at end of file
+}
@@ -21,6 +21,9 @@ public class DefaultParser implements Parser {
             case "CREATE" -> parseCreate();
             case "UPDATE" -> parseUpdate();
             case "INSERT" -> parseInsert();
+            case "DELETE" -> parseDelete();
+            case "BEGIN", "COMMIT", "ROLLBACK" -> parseTransaction();
+            case "VACUUM" -> parseVacuum();
             default -> throw new RuntimeException("Unsupported statement: " + first);
         };
     }
@@ -43,13 +46,19 @@ public class DefaultParser implements Parser {
 
         List<ResTarget> targetList = parseTargetList();
         match("FROM");
-        List<RangeVar> fromClause = parseFromClause();
+        List<AstNode> joinConditions = new ArrayList<>();
+        List<RangeVar> fromClause = parseFromClause(joinConditions);
 
         AstNode whereClause = null;
         if (currentToken().getType().equals("WHERE")) {
             match("WHERE");
             whereClause = parseWhereClause();
         }
+        // a JOIN b ON cond — то же, что FROM a, b WHERE cond: условия ON приписываются к WHERE
+        for (int i = joinConditions.size() - 1; i >= 0; i--) {
+            whereClause = whereClause == null ? joinConditions.get(i)
+                    : new AExpr("AND", joinConditions.get(i), whereClause);
+        }
 
         if (currentToken().getType().equals("SEMICOLON")) {
             match("SEMICOLON");
@@ -58,8 +67,11 @@ public class DefaultParser implements Parser {
         return new SelectStmt(targetList, fromClause, whereClause);
     }
 
-    private CreateStmt parseCreate() {
+    private AstNode parseCreate() {
         match("CREATE");
+        if (currentToken().getType().equals("INDEX")) {
+            return parseCreateIndex();
+        }
         match("TABLE");
 
         String tableName = match("IDENT").getValue();
@@ -83,6 +95,61 @@ public class DefaultParser implements Parser {
         return new CreateStmt(tableName, columns);
     }
 
+    // CREATE INDEX name ON table [USING method] (column) [INCLUDE (column, ...)] [WITH (name = N, ...)]
+    private CreateIndexStmt parseCreateIndex() {
+        match("INDEX");
+        String indexName = match("IDENT").getValue();
+        match("ON");
+        String tableName = match("IDENT").getValue();
+
+        String method = "btree";
+        if (currentToken().getType().equals("USING")) {
+            match("USING");
+            method = match("IDENT").getValue().toLowerCase();
+        }
+
+        List<String> columns = parseColumnList();
+
+        List<String> includeColumns = new ArrayList<>();
+        if (currentToken().getType().equals("INCLUDE")) {
+            match("INCLUDE");
+            includeColumns = parseColumnList();
+        }
+
+        // допустимость параметров для метода доступа проверяет IndexManager
+        Map<String, Integer> options = new LinkedHashMap<>();
+        if (currentToken().getType().equals("WITH")) {
+            match("WITH");
+            match("LPAREN");
+            do {
+                String option = match("IDENT").getValue().toLowerCase();
+                match("EQ");
+                options.put(option, Integer.parseInt(match("NUMBER").getValue()));
+                if (currentToken().getType().equals("COMMA")) {
+                    match("COMMA");
+                } else break;
+            } while (true);
+            match("RPAREN");
+        }
+        if (currentToken().getType().equals("SEMICOLON")) match("SEMICOLON");
+
+        return new CreateIndexStmt(indexName, tableName, method, columns, includeColumns, options);
+    }
+
+    // (column, ...)
+    private List<String> parseColumnList() {
+        match("LPAREN");
+        List<String> columns = new ArrayList<>();
+        do {
+            columns.add(match("IDENT").getValue());
+            if (currentToken().getType().equals("COMMA")) {
+                match("COMMA");
+            } else break;
+        } while (true);
+        match("RPAREN");
+        return columns;
+    }
+
 
     private UpdateStmt parseUpdate() {
         match("UPDATE");
@@ -106,6 +173,58 @@ public class DefaultParser implements Parser {
         return new UpdateStmt(tableName, column, newValue, where);
     }
 
+    private TransactionStmt parseTransaction() {
+        Token keyword = currentToken();
+        match(keyword.getType());
+
+        if (currentToken().getType().equals("TRANSACTION")) {
+            match("TRANSACTION");
+        }
+        if (currentToken().getType().equals("SEMICOLON")) {
+            match("SEMICOLON");
+        }
+
+        return new TransactionStmt(TransactionStmt.Kind.valueOf(keyword.getType()));
+    }
+
+    private VacuumStmt parseVacuum() {
+        match("VACUUM");
+
+        boolean freeze = false;
+        if (currentToken().getType().equals("FREEZE")) {
+            match("FREEZE");
+            freeze = true;
+        }
+
+        String tableName = null;
+        if (currentToken().getType().equals("IDENT")) {
+            tableName = match("IDENT").getValue();
+        }
+        if (currentToken().getType().equals("SEMICOLON")) {
+            match("SEMICOLON");
+        }
+
+        return new VacuumStmt(tableName, freeze);
+    }
+
+    private DeleteStmt parseDelete() {
+        match("DELETE");
+        match("FROM");
+        String tableName = match("IDENT").getValue();
+
+        AstNode where = null;
+        if (currentToken().getType().equals("WHERE")) {
+            match("WHERE");
+            where = parseWhereClause();
+        }
+
+        if (currentToken().getType().equals("SEMICOLON")) {
+            match("SEMICOLON");
+        }
+
+        return new DeleteStmt(tableName, where);
+    }
+
     private InsertStmt parseInsert() {
         match("INSERT");
         match("INTO");
@@ -184,15 +303,26 @@ public class DefaultParser implements Parser {
         }
     }
 
-    private List<RangeVar> parseFromClause() {
+    // таблица { , таблица | [INNER] JOIN таблица ON условие }
+    private List<RangeVar> parseFromClause(List<AstNode> joinConditions) {
         List<RangeVar> tables = new ArrayList<>();
         tables.add(parseRangeVar());
 
-        while (currentToken().getType().equals("COMMA")) {
-            match("COMMA");
-            tables.add(parseRangeVar());
+        while (true) {
+            String type = currentToken().getType();
+            if (type.equals("COMMA")) {
+                match("COMMA");
+                tables.add(parseRangeVar());
+            } else if (type.equals("JOIN") || type.equals("INNER")) {
+                if (type.equals("INNER")) match("INNER");
+                match("JOIN");
+                tables.add(parseRangeVar());
+                match("ON");
+                joinConditions.add(parseWhereClause());
+            } else {
+                return tables;
+            }
         }
-        return tables;
     }
 
     private RangeVar parseRangeVar() {
@@ -206,7 +336,32 @@ public class DefaultParser implements Parser {
         return new RangeVar(tableName, alias);
     }
 
+    // конъюнкция { OR конъюнкция }; AND связывает сильнее OR, оба левоассоциативны
     private AstNode parseWhereClause() {
+        AstNode condition = parseConjunction();
+        while (currentToken().getType().equals("OR")) {
+            match("OR");
+            condition = new AExpr("OR", condition, parseConjunction());
+        }
+        return condition;
+    }
+
+    private AstNode parseConjunction() {
+        AstNode condition = parseComparison();
+        while (currentToken().getType().equals("AND")) {
+            match("AND");
+            condition = new AExpr("AND", condition, parseComparison());
+        }
+        return condition;
+    }
+
+    private AstNode parseComparison() {
+        if (currentToken().getType().equals("LPAREN")) {
+            match("LPAREN");
+            AstNode condition = parseWhereClause();
+            match("RPAREN");
+            return condition;
+        }
         AstNode left = parseExpression();
         String operator = parseOperator();
         AstNode right = parseExpression();
@@ -225,6 +380,10 @@ public class DefaultParser implements Parser {
             Token t = match("STRING");
             return new AConst(t.getValue(), "STRING");
         }
+        else if (token.getType().equals("TRUE") || token.getType().equals("FALSE")) {
+            match(token.getType());
+            return new AConst(token.getType().equals("TRUE"), "BOOL");
+        }
         else if (token.getType().equals("IDENT")) {
             Token first = match("IDENT");
             String name = first.getValue();
@@ -0,0 +1,43 @@
+package system.parser.nodes;
+
+import java.util.List;
+import java.util.Map;
+
+public class CreateIndexStmt implements AstNode {
+    private final String indexName;
+    private final String tableName;
+    private final String method;
+    private final List<String> columns;
+    private final List<String> includeColumns;
+    private final Map<String, Integer> options;
+
+    /**
+     * @param includeColumns неключевые колонки из INCLUDE (...); пустой список — их нет.
+     * @param options        параметры из WITH (name = N, ...) с именами в нижнем регистре.
+     */
+    public CreateIndexStmt(String indexName, String tableName, String method, List<String> columns,
+                           List<String> includeColumns, Map<String, Integer> options) {
+        this.indexName = indexName;
+        this.tableName = tableName;
+        this.method = method;
+        this.columns = columns;
+        this.includeColumns = includeColumns;
+        this.options = options;
+    }
+
+    public String getIndexName() { return indexName; }
+    public String getTableName() { return tableName; }
+    public String getMethod() { return method; }
+    public List<String> getColumns() { return columns; }
+    public List<String> getIncludeColumns() { return includeColumns; }
+    public Map<String, Integer> getOptions() { return options; }
+    // процент заполнения страниц; null — по умолчанию для метода
+    public Integer getFillFactor() { return options.get("fillfactor"); }
+
+    @Override
+    public String toString() {
+        return "CreateIndexStmt(name=" + indexName + ", table=" + tableName
+                + ", using=" + method + ", columns=" + columns
+                + ", include=" + includeColumns + ", with=" + options + ")";
+    }
+}
@@ -0,0 +1,19 @@
+package system.parser.nodes;
+
+public class DeleteStmt implements AstNode {
+    private final String tableName;
+    private final AstNode whereClause;
+
+    public DeleteStmt(String tableName, AstNode whereClause) {
+        this.tableName = tableName;
+        this.whereClause = whereClause;
+    }
+
+    public String getTableName() { return tableName; }
+    public AstNode getWhereClause() { return whereClause; }
+
+    @Override
+    public String toString() {
+        return "DeleteStmt(table=" + tableName + ", where=" + whereClause + ")";
+    }
+}
@@ -0,0 +1,23 @@
+package system.parser.nodes;
+
+public class TransactionStmt implements AstNode {
+
+    public enum Kind {
+        BEGIN,
+        COMMIT,
+        ROLLBACK
+    }
+
+    private final Kind kind;
+
+    public TransactionStmt(Kind kind) {
+        this.kind = kind;
+    }
+
+    public Kind getKind() { return kind; }
+
+    @Override
+    public String toString() {
+        return "TransactionStmt(" + kind + ")";
+    }
+}
@@ -0,0 +1,22 @@
+package system.parser.nodes;
+
+public class VacuumStmt implements AstNode {
+    private final String tableName;
+    private final boolean freeze;
+
+    /**
+     * @param tableName таблица; null — все таблицы каталога.
+     */
+    public VacuumStmt(String tableName, boolean freeze) {
+        this.tableName = tableName;
+        this.freeze = freeze;
+    }
+
+    public String getTableName() { return tableName; }
+    public boolean isFreeze() { return freeze; }
+
+    @Override
+    public String toString() {
+        return "VacuumStmt(table=" + tableName + ", freeze=" + freeze + ")";
+    }
+}
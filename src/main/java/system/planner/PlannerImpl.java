@@ -1,7 +1,10 @@
 package system.planner;
 
 
+import system.ast.AExpr;
+import system.ast.ColumnRef;
 import system.ast.QueryTree;
+import system.ast.RangeTblEntry;
 import system.catalog.manager.CatalogManager;
 import system.catalog.model.*;
 import system.ast.Expr;
@@ -9,6 +12,8 @@ import system.ast.TargetEntry;
 import system.planner.node.*;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.List;
 
 
@@ -28,6 +33,7 @@ public class PlannerImpl implements Planner {
             case CREATE -> planCreate(queryTree);
             case INSERT -> planInsert(queryTree);
             case SELECT -> planSelect(queryTree);
+            case DELETE -> planDelete(queryTree);
         };
     }
 
@@ -64,6 +70,9 @@ public class PlannerImpl implements Planner {
     }
 
     private LogicalPlanNode planSelect(QueryTree q) {
+        if (q.rangeTable != null && q.rangeTable.size() > 1) {
+            return planJoin(q);
+        }
         String tableName = extractTableName(q);
         TableDefinition tableDef = catalogManager.getTable(tableName);
         LogicalPlanNode plan = new ScanNode(tableDef);
@@ -77,6 +86,242 @@ public class PlannerImpl implements Planner {
         return plan;
     }
 
+    private LogicalPlanNode planDelete(QueryTree q) {
+        String tableName = extractTableName(q);
+        TableDefinition tableDef = catalogManager.getTable(tableName);
+        LogicalPlanNode plan = new ScanNode(tableDef);
+
+        if (q.whereClause != null) {
+            plan = new FilterNode(q.whereClause, plan);
+        }
+
+        return new DeleteNode(tableDef, plan);
+    }
+
+    /**
+     * Таблицы FROM соединяются слева направо: к уже соединённым присоединяется первая из оставшихся,
+     * с которой есть равенство колонок. Условия WHERE по одной таблице остаются фильтром над её
+     * сканом, равенства между таблицами становятся ключами соединения, остальные условия
+     * проверяются над соединением, как только доступны все их таблицы.
+     * Над соединением колонки адресуются номерами в строке соединения (ColumnRef.columnIndex).
+     */
+    private LogicalPlanNode planJoin(QueryTree q) {
+        JoinScope scope = new JoinScope(q.rangeTable);
+        int n = q.rangeTable.size();
+
+        List<Expr> conjuncts = new ArrayList<>();
+        if (q.whereClause != null) flatten(q.whereClause, conjuncts);
+        List<List<Expr>> local = new ArrayList<>();
+        for (int i = 0; i < n; i++) local.add(new ArrayList<>());
+        List<Expr> shared = new ArrayList<>();
+        for (Expr conjunct : conjuncts) {
+            BitSet tables = scope.tablesOf(conjunct);
+            if (tables.cardinality() == 1) local.get(tables.nextSetBit(0)).add(conjunct);
+            else shared.add(conjunct);
+        }
+
+        boolean[] joined = new boolean[n];
+        joined[0] = true;
+        scope.place(0);
+        LogicalPlanNode plan = input(scope.tables.get(0), local.get(0));
+        for (int step = 1; step < n; step++) {
+            int next = -1;
+            for (int t = 0; t < n && next < 0; t++) {
+                if (joined[t]) continue;
+                for (Expr conjunct : shared) {
+                    if (scope.joinKey(conjunct, joined, t) != null) {
+                        next = t;
+                        break;
+                    }
+                }
+            }
+            if (next < 0) {
+                throw new UnsupportedOperationException("Join without an equality condition is not supported: "
+                        + q.rangeTable.get(firstMissing(joined)).tableName);
+            }
+
+            List<int[]> keys = new ArrayList<>();
+            Expr keyCondition = null;
+            for (int i = 0; i < shared.size(); i++) {
+                int[] key = scope.joinKey(shared.get(i), joined, next);
+                if (key == null) continue;
+                keys.add(key);
+                keyCondition = and(keyCondition, shared.remove(i--));
+            }
+            int[] leftKeys = keys.stream().mapToInt(k -> k[0]).toArray();
+            int[] rightKeys = keys.stream().mapToInt(k -> k[1]).toArray();
+            plan = new JoinNode(plan, input(scope.tables.get(next), local.get(next)), leftKeys, rightKeys,
+                    keyCondition);
+            joined[next] = true;
+            scope.place(next);
+
+            Expr residual = null;
+            for (int i = 0; i < shared.size(); i++) {
+                if (scope.tablesOf(shared.get(i)).stream().allMatch(t -> joined[t])) {
+                    residual = and(residual, scope.rewrite(shared.remove(i--)));
+                }
+            }
+            if (residual != null) plan = new FilterNode(residual, plan);
+        }
+
+        List<TargetEntry> targets = new ArrayList<>();
+        for (TargetEntry te : q.targetList) {
+            if (te.expr instanceof ColumnRef col && "*".equals(col.column)) {
+                targets.addAll(scope.allColumns());
+            } else {
+                TargetEntry rewritten = new TargetEntry(scope.rewrite(te.expr), te.alias);
+                rewritten.resultType = te.resultType;
+                targets.add(rewritten);
+            }
+        }
+        return new ProjectNode(targets, plan);
+    }
+
+    private static LogicalPlanNode input(TableDefinition table, List<Expr> conditions) {
+        LogicalPlanNode scan = new ScanNode(table);
+        Expr condition = null;
+        for (Expr c : conditions) condition = and(condition, c);
+        return condition == null ? scan : new FilterNode(condition, scan);
+    }
+
+    private static int firstMissing(boolean[] joined) {
+        for (int i = 0; i < joined.length; i++) {
+            if (!joined[i]) return i;
+        }
+        return -1;
+    }
+
+    private static Expr and(Expr left, Expr right) {
+        return left == null ? right : new AExpr("AND", left, right);
+    }
+
+    private static void flatten(Object expr, List<Expr> out) {
+        if (expr instanceof AExpr aexpr && aexpr.getOp().equals("AND")) {
+            flatten(aexpr.getLeft(), out);
+            flatten(aexpr.getRight(), out);
+        } else if (expr instanceof Expr e) {
+            out.add(e);
+        } else {
+            throw new IllegalArgumentException("Unsupported condition: " + expr);
+        }
+    }
+
+    /**
+     * Таблицы FROM и их колонки: по какой таблице разрешается ссылка на колонку
+     * и где колонка оказывается в строке соединения.
+     */
+    private final class JoinScope {
+        final List<RangeTblEntry> entries;
+        final List<TableDefinition> tables = new ArrayList<>();
+        final List<List<ColumnDefinition>> columns = new ArrayList<>();
+        // смещение колонок таблицы в строке соединения; -1 — таблица ещё не соединена
+        final int[] offsets;
+        int width;
+
+        JoinScope(List<RangeTblEntry> entries) {
+            this.entries = entries;
+            for (RangeTblEntry rte : entries) {
+                TableDefinition table = catalogManager.getTable(rte.tableName);
+                if (table == null) throw new IllegalArgumentException("Table not found: " + rte.tableName);
+                tables.add(table);
+                columns.add(catalogManager.getTableColumns(table));
+            }
+            offsets = new int[entries.size()];
+            Arrays.fill(offsets, -1);
+        }
+
+        void place(int table) {
+            offsets[table] = width;
+            width += columns.get(table).size();
+        }
+
+        /**
+         * {номер таблицы, номер колонки в таблице}. Без имени таблицы колонка ищется во всех
+         * таблицах FROM и должна найтись ровно в одной.
+         */
+        int[] resolve(ColumnRef ref) {
+            int[] found = null;
+            for (int t = 0; t < entries.size(); t++) {
+                RangeTblEntry rte = entries.get(t);
+                if (ref.table != null && !ref.table.equalsIgnoreCase(rte.tableName)
+                        && !ref.table.equalsIgnoreCase(rte.alias)) continue;
+                List<ColumnDefinition> cols = columns.get(t);
+                for (int c = 0; c < cols.size(); c++) {
+                    if (!cols.get(c).getName().equalsIgnoreCase(ref.column)) continue;
+                    if (found != null) throw new IllegalArgumentException("Ambiguous column reference: " + ref);
+                    found = new int[]{t, c};
+                }
+            }
+            if (found == null) throw new IllegalArgumentException("Column not found: " + ref);
+            return found;
+        }
+
+        BitSet tablesOf(Object expr) {
+            BitSet tables = new BitSet();
+            collect(expr, tables);
+            return tables;
+        }
+
+        private void collect(Object expr, BitSet tables) {
+            if (expr instanceof ColumnRef ref) {
+                tables.set(resolve(ref)[0]);
+            } else if (expr instanceof AExpr aexpr) {
+                collect(aexpr.getLeft(), tables);
+                collect(aexpr.getRight(), tables);
+            }
+        }
+
+        /**
+         * Пара ключей {колонка в строке соединённых таблиц, колонка в таблице next}, если условие —
+         * равенство колонки одной из соединённых таблиц и колонки next; иначе null.
+         */
+        int[] joinKey(Expr expr, boolean[] joined, int next) {
+            if (!(expr instanceof AExpr aexpr) || !aexpr.getOp().equals("=")
+                    || !(aexpr.getLeft() instanceof ColumnRef l) || !(aexpr.getRight() instanceof ColumnRef r)) {
+                return null;
+            }
+            int[] left = resolve(l);
+            int[] right = resolve(r);
+            if (left[0] == next) {
+                int[] tmp = left;
+                left = right;
+                right = tmp;
+            }
+            if (right[0] != next || !joined[left[0]]) return null;
+            return new int[]{offsets[left[0]] + left[1], right[1]};
+        }
+
+        /**
+         * Копия выражения, в которой каждая колонка указывает на своё место в строке соединения.
+         */
+        Expr rewrite(Object expr) {
+            if (expr instanceof ColumnRef ref) {
+                int[] at = resolve(ref);
+                return new ColumnRef(ref.table, ref.column, at[0], offsets[at[0]] + at[1]);
+            }
+            if (expr instanceof AExpr aexpr) {
+                return new AExpr(aexpr.getOp(), rewrite(aexpr.getLeft()), rewrite(aexpr.getRight()));
+            }
+            return (Expr) expr;
+        }
+
+        /**
+         * SELECT * — колонки всех таблиц в порядке FROM, независимо от порядка соединения.
+         */
+        List<TargetEntry> allColumns() {
+            List<TargetEntry> targets = new ArrayList<>();
+            for (int t = 0; t < entries.size(); t++) {
+                RangeTblEntry rte = entries.get(t);
+                String qualifier = rte.alias != null ? rte.alias : rte.tableName;
+                for (int c = 0; c < columns.get(t).size(); c++) {
+                    targets.add(new TargetEntry(new ColumnRef(qualifier, columns.get(t).get(c).getName(),
+                            t, offsets[t] + c), null));
+                }
+            }
+            return targets;
+        }
+    }
+
     private String extractTableName(QueryTree q) {
         if (q.rangeTable != null && !q.rangeTable.isEmpty() && q.rangeTable.get(0).tableName != null) {
             return q.rangeTable.get(0).tableName;
@@ -0,0 +1,31 @@
+package system.planner.node;
+
+import system.catalog.model.TableDefinition;
+
+import java.util.List;
+
+public class DeleteNode extends LogicalPlanNode {
+
+    private final TableDefinition tableDefinition;
+    private final LogicalPlanNode child;
+
+    public DeleteNode(TableDefinition tableDefinition, LogicalPlanNode child) {
+        super("Delete");
+        this.tableDefinition = tableDefinition;
+        this.child = child;
+        this.outputColumns = List.of();
+    }
+
+    public TableDefinition getTableDefinition() {
+        return tableDefinition;
+    }
+
+    public LogicalPlanNode getChild() {
+        return child;
+    }
+
+    @Override
+    public String prettyPrint(String indent) {
+        return indent + "Delete(" + tableDefinition.getName() + ")\n" + child.prettyPrint(indent + "  ");
+    }
+}
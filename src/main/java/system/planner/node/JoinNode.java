@@ -0,0 +1,57 @@
+package system.planner.node;
+
+
+import system.ast.Expr;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Внутреннее соединение по равенству колонок: строка результата — строка left, за ней строка right.
+ * leftKeys[i] и rightKeys[i] — номера колонок i-й пары ключей в строках своих сторон.
+ */
+public class JoinNode extends LogicalPlanNode {
+    private final LogicalPlanNode left;
+    private final LogicalPlanNode right;
+    private final int[] leftKeys;
+    private final int[] rightKeys;
+    // равенства, из которых взяты ключи
+    private final Expr condition;
+
+    public JoinNode(LogicalPlanNode left, LogicalPlanNode right, int[] leftKeys, int[] rightKeys, Expr condition) {
+        super("Join");
+        this.left = left;
+        this.right = right;
+        this.leftKeys = leftKeys;
+        this.rightKeys = rightKeys;
+        this.condition = condition;
+        List<String> columns = new ArrayList<>(left.getOutputColumns());
+        columns.addAll(right.getOutputColumns());
+        this.outputColumns = columns;
+    }
+
+    public LogicalPlanNode getLeft() {
+        return left;
+    }
+
+    public LogicalPlanNode getRight() {
+        return right;
+    }
+
+    public int[] getLeftKeys() {
+        return leftKeys;
+    }
+
+    public int[] getRightKeys() {
+        return rightKeys;
+    }
+
+    public Expr getCondition() {
+        return condition;
+    }
+
+    @Override
+    public String prettyPrint(String indent) {
+        return indent + "Join(" + condition + ")\n" + left.prettyPrint(indent + "  ") + right.prettyPrint(indent + "  ");
+    }
+}
@@ -0,0 +1,19 @@
+package system.transaction.clog;
+
+import system.transaction.model.TransactionStatus;
+
+/**
+ * Журнал статусов транзакций (аналог pg_xact / CLOG).
+ * На каждый xid хранится 2 бита: IN_PROGRESS / COMMITTED / ABORTED.
+ */
+public interface CommitLog {
+    TransactionStatus getStatus(int xid);
+
+    void setStatus(int xid, TransactionStatus status);
+
+    /**
+     * Верхняя граница xid, которые когда-либо были зарегистрированы в журнале.
+     * Все выдаваемые после перезапуска xid должны быть не меньше этого значения.
+     */
+    int getXidLimit();
+}
@@ -0,0 +1,93 @@
+package system.transaction.clog;
+
+import system.transaction.model.TransactionStatus;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+public class DefaultCommitLog implements CommitLog {
+    private static final int XIDS_PER_BYTE = 4;
+    private static final int BITS_PER_XID = 2;
+
+    private final Path path;
+    // файл открыт всё время работы: статус пишется и сбрасывается на диск при каждом commit / abort
+    private final FileChannel channel;
+    private byte[] statuses;
+    private int usedBytes;
+
+    public DefaultCommitLog(Path path) {
+        this.path = path;
+        try {
+            this.channel = FileChannel.open(path,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.CREATE);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to open commit log: " + path, e);
+        }
+        load();
+    }
+
+    @Override
+    public synchronized TransactionStatus getStatus(int xid) {
+        int byteIndex = xid / XIDS_PER_BYTE;
+        if (byteIndex >= usedBytes) {
+            return TransactionStatus.IN_PROGRESS;
+        }
+        int shift = (xid % XIDS_PER_BYTE) * BITS_PER_XID;
+        return TransactionStatus.fromCode((statuses[byteIndex] >> shift) & 0b11);
+    }
+
+    @Override
+    public synchronized void setStatus(int xid, TransactionStatus status) {
+        int byteIndex = xid / XIDS_PER_BYTE;
+        ensureCapacity(byteIndex + 1);
+
+        int shift = (xid % XIDS_PER_BYTE) * BITS_PER_XID;
+        int value = statuses[byteIndex] & ~(0b11 << shift);
+        value |= status.getCode() << shift;
+        statuses[byteIndex] = (byte) value;
+
+        usedBytes = Math.max(usedBytes, byteIndex + 1);
+        writeByte(byteIndex);
+    }
+
+    @Override
+    public synchronized int getXidLimit() {
+        return usedBytes * XIDS_PER_BYTE;
+    }
+
+    private void load() {
+        try {
+            usedBytes = (int) channel.size();
+            statuses = new byte[Math.max(usedBytes, 1024)];
+            ByteBuffer buffer = ByteBuffer.wrap(statuses, 0, usedBytes);
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, buffer.position()) < 0) break;
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to load commit log: " + path, e);
+        }
+    }
+
+    private void ensureCapacity(int size) {
+        if (size > statuses.length) {
+            statuses = Arrays.copyOf(statuses, Math.max(size, statuses.length * 2));
+        }
+    }
+
+    /**
+     * Статус должен быть на диске до ответа клиенту: страницы данных к этому моменту уже сброшены,
+     * и без force() после сбоя зафиксированная транзакция читалась бы как прерванная.
+     */
+    private void writeByte(int byteIndex) {
+        try {
+            channel.write(ByteBuffer.wrap(statuses, byteIndex, 1), byteIndex);
+            channel.force(false);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to write commit log: " + path, e);
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package system.transaction.lock;
+
+public class DeadlockDetectedException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    public DeadlockDetectedException(int xid, LockTag tag) {
+        super("deadlock detected: transaction " + xid + " aborted while waiting for " + tag);
+    }
+}
@@ -0,0 +1,97 @@
+package system.transaction.lock;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Фоновый поиск циклов в графе ожиданий (аналог deadlock_timeout + CheckDeadLock).
+ * Жертвой становится самая молодая транзакция цикла — у неё меньше всего сделанной работы.
+ */
+public class DeadlockDetector {
+
+    private final DefaultLockManager lockManager;
+    private ScheduledExecutorService scheduler;
+
+    public DeadlockDetector(DefaultLockManager lockManager) {
+        this.lockManager = lockManager;
+    }
+
+    public synchronized void start(long intervalMillis) {
+        if (scheduler != null) return;
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "deadlock-detector");
+            t.setDaemon(true);
+            return t;
+        });
+        scheduler.scheduleWithFixedDelay(this::detect, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public synchronized void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    /**
+     * Один проход детектора; возвращает xid снятых транзакций.
+     */
+    public List<Integer> detect() {
+        List<Integer> victims = new ArrayList<>();
+        DefaultLockManager.Partition[] partitions = lockManager.partitions;
+        // партиции захватываются всегда в одном порядке, поэтому сам детектор дедлока не создаст
+        for (DefaultLockManager.Partition partition : partitions) {
+            partition.mutex.lock();
+        }
+        try {
+            while (true) {
+                List<Integer> cycle = findCycle(lockManager.buildWaitForGraph());
+                if (cycle == null) break;
+
+                int victim = cycle.stream().max(Integer::compare).orElseThrow();
+                if (!lockManager.cancelWait(victim)) break;
+                victims.add(victim);
+            }
+        } finally {
+            for (int i = partitions.length - 1; i >= 0; i--) {
+                partitions[i].mutex.unlock();
+            }
+        }
+        return victims;
+    }
+
+    static List<Integer> findCycle(Map<Integer, Set<Integer>> graph) {
+        Set<Integer> done = new HashSet<>();
+        for (Integer start : graph.keySet()) {
+            List<Integer> path = new ArrayList<>();
+            List<Integer> cycle = dfs(start, graph, path, new HashSet<>(), done);
+            if (cycle != null) return cycle;
+        }
+        return null;
+    }
+
+    private static List<Integer> dfs(int xid, Map<Integer, Set<Integer>> graph, List<Integer> path,
+                                     Set<Integer> onPath, Set<Integer> done) {
+        if (onPath.contains(xid)) {
+            return new ArrayList<>(path.subList(path.indexOf(xid), path.size()));
+        }
+        if (done.contains(xid)) return null;
+
+        path.add(xid);
+        onPath.add(xid);
+        for (int next : graph.getOrDefault(xid, Set.of())) {
+            List<Integer> cycle = dfs(next, graph, path, onPath, done);
+            if (cycle != null) return cycle;
+        }
+        path.remove(path.size() - 1);
+        onPath.remove(xid);
+        done.add(xid);
+        return null;
+    }
+}
@@ -0,0 +1,245 @@
+package system.transaction.lock;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Таблица блокировок, разбитая на партиции по хэшу тега (как lock partitions в PostgreSQL):
+ * разные строки почти никогда не спорят за один мьютекс.
+ * Ожидающие обслуживаются строго в порядке очереди, чтобы писатель не голодал.
+ */
+public class DefaultLockManager implements LockManager {
+
+    static final int PARTITIONS = 16;
+
+    final Partition[] partitions = new Partition[PARTITIONS];
+
+    private final Map<Integer, Set<LockTag>> held = new ConcurrentHashMap<>();
+
+    public DefaultLockManager() {
+        for (int i = 0; i < PARTITIONS; i++) {
+            partitions[i] = new Partition();
+        }
+    }
+
+    @Override
+    public void lock(int xid, LockTag tag, LockMode mode) {
+        Partition partition = partitionOf(tag);
+        partition.mutex.lock();
+        try {
+            LockEntry entry = partition.entries.computeIfAbsent(tag, t -> new LockEntry());
+            if (tryGrant(entry, xid, tag, mode)) {
+                return;
+            }
+
+            Waiter waiter = new Waiter(xid, mode, partition.mutex.newCondition());
+            // повышение уже выданной блокировки встаёт в голову очереди: иначе оно ждало бы
+            // тех, кто сам ждёт его SHARED, и каждая такая пара давала бы лишнюю жертву
+            if (entry.granted.containsKey(xid)) {
+                entry.queue.addFirst(waiter);
+            } else {
+                entry.queue.addLast(waiter);
+            }
+            try {
+                while (!waiter.granted && !waiter.victim) {
+                    waiter.condition.await();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                entry.queue.remove(waiter);
+                grantWaiters(entry, tag);
+                throw new RuntimeException("Interrupted while waiting for " + tag, e);
+            }
+
+            if (waiter.victim) {
+                entry.queue.remove(waiter);
+                grantWaiters(entry, tag);
+                throw new DeadlockDetectedException(xid, tag);
+            }
+        } finally {
+            partition.mutex.unlock();
+        }
+    }
+
+    @Override
+    public boolean tryLock(int xid, LockTag tag, LockMode mode) {
+        Partition partition = partitionOf(tag);
+        partition.mutex.lock();
+        try {
+            LockEntry entry = partition.entries.computeIfAbsent(tag, t -> new LockEntry());
+            boolean granted = tryGrant(entry, xid, tag, mode);
+            if (!granted && entry.isEmpty()) {
+                partition.entries.remove(tag);
+            }
+            return granted;
+        } finally {
+            partition.mutex.unlock();
+        }
+    }
+
+    @Override
+    public void releaseAll(int xid) {
+        Set<LockTag> tags = held.remove(xid);
+        if (tags == null) return;
+
+        for (LockTag tag : tags) {
+            Partition partition = partitionOf(tag);
+            partition.mutex.lock();
+            try {
+                LockEntry entry = partition.entries.get(tag);
+                if (entry == null) continue;
+
+                entry.granted.remove(xid);
+                grantWaiters(entry, tag);
+                if (entry.isEmpty()) {
+                    partition.entries.remove(tag);
+                }
+            } finally {
+                partition.mutex.unlock();
+            }
+        }
+    }
+
+    public boolean holds(int xid, LockTag tag, LockMode mode) {
+        Partition partition = partitionOf(tag);
+        partition.mutex.lock();
+        try {
+            LockEntry entry = partition.entries.get(tag);
+            LockMode current = entry == null ? null : entry.granted.get(xid);
+            return current != null && current.covers(mode);
+        } finally {
+            partition.mutex.unlock();
+        }
+    }
+
+    private boolean tryGrant(LockEntry entry, int xid, LockTag tag, LockMode mode) {
+        LockMode current = entry.granted.get(xid);
+        if (current != null && current.covers(mode)) {
+            return true;
+        }
+        // повышение SHARED -> EXCLUSIVE не ждёт очереди, иначе оно ждало бы само себя
+        boolean mayBypassQueue = current != null || entry.queue.isEmpty();
+        if (mayBypassQueue && compatible(entry, xid, mode)) {
+            grant(entry, xid, tag, mode);
+            return true;
+        }
+        return false;
+    }
+
+    private void grantWaiters(LockEntry entry, LockTag tag) {
+        Iterator<Waiter> it = entry.queue.iterator();
+        while (it.hasNext()) {
+            Waiter waiter = it.next();
+            if (!compatible(entry, waiter.xid, waiter.mode)) {
+                break;
+            }
+            it.remove();
+            grant(entry, waiter.xid, tag, waiter.mode);
+            waiter.granted = true;
+            waiter.condition.signal();
+        }
+    }
+
+    private void grant(LockEntry entry, int xid, LockTag tag, LockMode mode) {
+        entry.granted.merge(xid, mode, (a, b) -> a.covers(b) ? a : b);
+        held.computeIfAbsent(xid, k -> ConcurrentHashMap.newKeySet()).add(tag);
+    }
+
+    private static boolean compatible(LockEntry entry, int xid, LockMode mode) {
+        for (Map.Entry<Integer, LockMode> holder : entry.granted.entrySet()) {
+            if (holder.getKey() != xid && holder.getValue().conflictsWith(mode)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private Partition partitionOf(LockTag tag) {
+        return partitions[(tag.hashCode() & 0x7FFFFFFF) % PARTITIONS];
+    }
+
+    /**
+     * Рёбра графа ожиданий: ожидающий -> владельцы конфликтующих блокировок и
+     * стоящие перед ним в очереди с конфликтующим режимом. Вызывается под мьютексами всех партиций.
+     */
+    Map<Integer, Set<Integer>> buildWaitForGraph() {
+        Map<Integer, Set<Integer>> graph = new HashMap<>();
+        for (Partition partition : partitions) {
+            for (LockEntry entry : partition.entries.values()) {
+                int position = 0;
+                for (Waiter waiter : entry.queue) {
+                    if (waiter.victim) { position++; continue; }
+                    Set<Integer> edges = graph.computeIfAbsent(waiter.xid, k -> new HashSet<>());
+                    for (Map.Entry<Integer, LockMode> holder : entry.granted.entrySet()) {
+                        if (holder.getKey() != waiter.xid && holder.getValue().conflictsWith(waiter.mode)) {
+                            edges.add(holder.getKey());
+                        }
+                    }
+                    int ahead = 0;
+                    for (Waiter other : entry.queue) {
+                        if (ahead++ == position) break;
+                        if (!other.victim && other.xid != waiter.xid && other.mode.conflictsWith(waiter.mode)) {
+                            edges.add(other.xid);
+                        }
+                    }
+                    position++;
+                }
+            }
+        }
+        return graph;
+    }
+
+    /**
+     * Разбудить ожидание транзакции с исключением о дедлоке. Вызывается под мьютексами всех партиций.
+     */
+    boolean cancelWait(int xid) {
+        for (Partition partition : partitions) {
+            for (LockEntry entry : partition.entries.values()) {
+                for (Waiter waiter : entry.queue) {
+                    if (waiter.xid == xid && !waiter.granted && !waiter.victim) {
+                        waiter.victim = true;
+                        waiter.condition.signal();
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    static final class Partition {
+        final ReentrantLock mutex = new ReentrantLock();
+        final Map<LockTag, LockEntry> entries = new HashMap<>();
+    }
+
+    static final class LockEntry {
+        final Map<Integer, LockMode> granted = new HashMap<>();
+        final Deque<Waiter> queue = new ArrayDeque<>();
+
+        boolean isEmpty() {
+            return granted.isEmpty() && queue.isEmpty();
+        }
+    }
+
+    static final class Waiter {
+        final int xid;
+        final LockMode mode;
+        final Condition condition;
+        boolean granted;
+        boolean victim;
+
+        Waiter(int xid, LockMode mode, Condition condition) {
+            this.xid = xid;
+            this.mode = mode;
+            this.condition = condition;
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package system.transaction.lock;
+
+public interface LockManager {
+
+    /**
+     * Захватить блокировку, ожидая конфликтующих владельцев.
+     * Бросает DeadlockDetectedException, если транзакция выбрана жертвой дедлока.
+     */
+    void lock(int xid, LockTag tag, LockMode mode);
+
+    /**
+     * Захватить блокировку без ожидания.
+     */
+    boolean tryLock(int xid, LockTag tag, LockMode mode);
+
+    /**
+     * Снять все блокировки транзакции (при COMMIT / ROLLBACK).
+     */
+    void releaseAll(int xid);
+}
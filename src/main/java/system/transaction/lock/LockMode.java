@@ -0,0 +1,14 @@
+package system.transaction.lock;
+
+public enum LockMode {
+    SHARED,
+    EXCLUSIVE;
+
+    public boolean conflictsWith(LockMode other) {
+        return this == EXCLUSIVE || other == EXCLUSIVE;
+    }
+
+    public boolean covers(LockMode other) {
+        return this == EXCLUSIVE || other == SHARED;
+    }
+}
@@ -0,0 +1,19 @@
+package system.transaction.lock;
+
+/**
+ * Идентификатор блокируемого объекта: вся таблица (pageId = slot = -1) либо конкретная версия строки.
+ */
+public record LockTag(int relationOid, int pageId, int slot) {
+
+    public static LockTag relation(int relationOid) {
+        return new LockTag(relationOid, -1, -1);
+    }
+
+    public static LockTag row(int relationOid, int pageId, int slot) {
+        return new LockTag(relationOid, pageId, slot);
+    }
+
+    public boolean isRelation() {
+        return pageId < 0;
+    }
+}
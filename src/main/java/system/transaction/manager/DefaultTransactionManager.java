@@ -0,0 +1,89 @@
+package system.transaction.manager;
+
+import system.transaction.clog.CommitLog;
+import system.transaction.model.Snapshot;
+import system.transaction.model.Transaction;
+import system.transaction.model.TransactionId;
+import system.transaction.model.TransactionStatus;
+
+import java.util.HashMap;
+import java.util.Map;
+
+public class DefaultTransactionManager implements TransactionManager {
+
+    private final CommitLog commitLog;
+
+    private final Map<Integer, Transaction> active = new HashMap<>();
+    private int nextXid;
+
+    public DefaultTransactionManager(CommitLog commitLog) {
+        this.commitLog = commitLog;
+        this.nextXid = Math.max(TransactionId.FIRST_NORMAL, commitLog.getXidLimit());
+    }
+
+    @Override
+    public synchronized Transaction begin() {
+        int xid = nextXid++;
+        // регистрируем xid в журнале сразу: после рестарта он не будет выдан повторно
+        commitLog.setStatus(xid, TransactionStatus.IN_PROGRESS);
+
+        Transaction tx = new Transaction(xid, takeSnapshot());
+        active.put(xid, tx);
+        return tx;
+    }
+
+    @Override
+    public void commit(Transaction transaction) {
+        finish(transaction, TransactionStatus.COMMITTED);
+    }
+
+    @Override
+    public void abort(Transaction transaction) {
+        finish(transaction, TransactionStatus.ABORTED);
+    }
+
+    @Override
+    public synchronized Snapshot takeSnapshot() {
+        int xmin = nextXid;
+        for (int xid : active.keySet()) {
+            xmin = Math.min(xmin, xid);
+        }
+        return new Snapshot(xmin, nextXid, active.keySet());
+    }
+
+    @Override
+    public synchronized TransactionStatus getStatus(int xid) {
+        if (xid == TransactionId.BOOTSTRAP || xid == TransactionId.FROZEN) {
+            return TransactionStatus.COMMITTED;
+        }
+        if (xid == TransactionId.INVALID) {
+            return TransactionStatus.ABORTED;
+        }
+        if (active.containsKey(xid)) {
+            return TransactionStatus.IN_PROGRESS;
+        }
+
+        TransactionStatus status = commitLog.getStatus(xid);
+        // транзакция не активна, но не успела записать итог (падение сервера) — считаем откатившейся
+        return status == TransactionStatus.IN_PROGRESS ? TransactionStatus.ABORTED : status;
+    }
+
+    @Override
+    public synchronized int getOldestXmin() {
+        int oldest = nextXid;
+        for (Transaction tx : active.values()) {
+            oldest = Math.min(oldest, tx.getXid());
+            oldest = Math.min(oldest, tx.getSnapshot().getXmin());
+        }
+        return oldest;
+    }
+
+    private synchronized void finish(Transaction transaction, TransactionStatus status) {
+        if (transaction.getStatus() != TransactionStatus.IN_PROGRESS) {
+            throw new IllegalStateException("Transaction " + transaction.getXid() + " is already " + transaction.getStatus());
+        }
+        commitLog.setStatus(transaction.getXid(), status);
+        transaction.setStatus(status);
+        active.remove(transaction.getXid());
+    }
+}
@@ -0,0 +1,24 @@
+package system.transaction.manager;
+
+import system.transaction.model.Snapshot;
+import system.transaction.model.Transaction;
+import system.transaction.model.TransactionStatus;
+
+public interface TransactionManager {
+
+    Transaction begin();
+
+    void commit(Transaction transaction);
+
+    void abort(Transaction transaction);
+
+    Snapshot takeSnapshot();
+
+    TransactionStatus getStatus(int xid);
+
+    /**
+     * Минимальный xid, который ещё может быть "активным" хотя бы для одного снимка.
+     * Версии строк, удалённые транзакциями старше этого значения, не видны никому.
+     */
+    int getOldestXmin();
+}
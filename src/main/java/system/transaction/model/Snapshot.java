@@ -0,0 +1,45 @@
+package system.transaction.model;
+
+import java.util.Set;
+
+/**
+ * Снимок состояния транзакций на момент его взятия.
+ *
+ *  - xmin — все xid меньше xmin к моменту снимка уже завершены;
+ *  - xmax — первый ещё не выданный xid, всё что >= xmax для снимка "в будущем";
+ *  - activeXids — транзакции из [xmin, xmax), которые были активны.
+ */
+public class Snapshot {
+    private final int xmin;
+    private final int xmax;
+    private final Set<Integer> activeXids;
+
+    public Snapshot(int xmin, int xmax, Set<Integer> activeXids) {
+        this.xmin = xmin;
+        this.xmax = xmax;
+        this.activeXids = Set.copyOf(activeXids);
+    }
+
+    public int getXmin() { return xmin; }
+    public int getXmax() { return xmax; }
+    public Set<Integer> getActiveXids() { return activeXids; }
+
+    /**
+     * true, если изменения транзакции xid не должны быть видны в этом снимке
+     * (она ещё шла или началась позже).
+     */
+    public boolean isActive(int xid) {
+        if (xid >= xmax) return true;
+        if (xid < xmin) return false;
+        return activeXids.contains(xid);
+    }
+
+    @Override
+    public String toString() {
+        return "Snapshot{" +
+                "xmin=" + xmin +
+                ", xmax=" + xmax +
+                ", active=" + activeXids +
+                '}';
+    }
+}
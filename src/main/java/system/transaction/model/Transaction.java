@@ -0,0 +1,27 @@
+package system.transaction.model;
+
+public class Transaction {
+    private final int xid;
+    private final Snapshot snapshot;
+    private volatile TransactionStatus status;
+
+    public Transaction(int xid, Snapshot snapshot) {
+        this.xid = xid;
+        this.snapshot = snapshot;
+        this.status = TransactionStatus.IN_PROGRESS;
+    }
+
+    public int getXid() { return xid; }
+    public Snapshot getSnapshot() { return snapshot; }
+    public TransactionStatus getStatus() { return status; }
+    public void setStatus(TransactionStatus status) { this.status = status; }
+
+    @Override
+    public String toString() {
+        return "Transaction{" +
+                "xid=" + xid +
+                ", status=" + status +
+                ", snapshot=" + snapshot +
+                '}';
+    }
+}
@@ -0,0 +1,22 @@
+package system.transaction.model;
+
+/**
+ * Специальные идентификаторы транзакций (как в PostgreSQL).
+ *
+ *  - INVALID — "нет транзакции" (например, пустой xmax у живой версии строки);
+ *  - BOOTSTRAP — записи, созданные вне транзакций;
+ *  - FROZEN — "замороженные" версии, видимые всем;
+ *  - FIRST_NORMAL — первый xid, который выдаёт менеджер транзакций.
+ */
+public final class TransactionId {
+    public static final int INVALID = 0;
+    public static final int BOOTSTRAP = 1;
+    public static final int FROZEN = 2;
+    public static final int FIRST_NORMAL = 3;
+
+    private TransactionId() {}
+
+    public static boolean isNormal(int xid) {
+        return xid >= FIRST_NORMAL;
+    }
+}
@@ -0,0 +1,26 @@
+package system.transaction.model;
+
+public enum TransactionStatus {
+    IN_PROGRESS(0),
+    COMMITTED(1),
+    ABORTED(2);
+
+    private final int code;
+
+    TransactionStatus(int code) {
+        this.code = code;
+    }
+
+    public int getCode() {
+        return code;
+    }
+
+    public static TransactionStatus fromCode(int code) {
+        return switch (code) {
+            case 0 -> IN_PROGRESS;
+            case 1 -> COMMITTED;
+            case 2 -> ABORTED;
+            default -> throw new IllegalArgumentException("Unknown transaction status code: " + code);
+        };
+    }
+}
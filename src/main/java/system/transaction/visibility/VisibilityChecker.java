@@ -0,0 +1,63 @@
+package system.transaction.visibility;
+
+import system.execution.tuple.TupleHeader;
+import system.transaction.manager.TransactionManager;
+import system.transaction.model.Snapshot;
+import system.transaction.model.Transaction;
+import system.transaction.model.TransactionId;
+import system.transaction.model.TransactionStatus;
+
+/**
+ * Проверка видимости версии строки для снимка транзакции
+ * (упрощённый HeapTupleSatisfiesMVCC из PostgreSQL).
+ */
+public class VisibilityChecker {
+    private final TransactionManager txManager;
+    private final Transaction transaction;
+    private final Snapshot snapshot;
+
+    public VisibilityChecker(TransactionManager txManager, Transaction transaction) {
+        this.txManager = txManager;
+        this.transaction = transaction;
+        this.snapshot = transaction.getSnapshot();
+    }
+
+    public boolean isVisible(TupleHeader header) {
+        return isVisible(header.getXmin(), header.getXmax());
+    }
+
+    public boolean isVisible(int xmin, int xmax) {
+        int myXid = transaction.getXid();
+
+        if (xmin != myXid && !isCommittedForSnapshot(xmin)) {
+            return false;
+        }
+
+        if (xmax == TransactionId.INVALID) return true;
+        if (xmax == myXid) return false;
+        return !isCommittedForSnapshot(xmax);
+    }
+
+    /**
+     * Версию больше не увидит ни одна текущая или будущая транзакция и её можно убрать
+     * (упрощённый HeapTupleSatisfiesVacuum): вставка откатана, либо удаление зафиксировано
+     * раньше, чем начался самый старый из ещё используемых снимков.
+     */
+    public static boolean isDeadToAll(TransactionManager txManager, TupleHeader header, int oldestXmin) {
+        if (txManager.getStatus(header.getXmin()) == TransactionStatus.ABORTED) {
+            return true;
+        }
+
+        int xmax = header.getXmax();
+        if (xmax == TransactionId.INVALID || xmax >= oldestXmin) {
+            return false;
+        }
+        return txManager.getStatus(xmax) == TransactionStatus.COMMITTED;
+    }
+
+    private boolean isCommittedForSnapshot(int xid) {
+        if (xid == TransactionId.FROZEN || xid == TransactionId.BOOTSTRAP) return true;
+        if (snapshot.isActive(xid)) return false;
+        return txManager.getStatus(xid) == TransactionStatus.COMMITTED;
+    }
+}
@@ -0,0 +1,86 @@
+package system.vacuum;
+
+import system.catalog.manager.CatalogManager;
+import system.catalog.model.TableDefinition;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Фоновый запуск VACUUM по счётчикам мёртвых версий. Порог как в PostgreSQL:
+ * dead > autovacuum_vacuum_threshold + autovacuum_vacuum_scale_factor * live.
+ */
+public class AutovacuumDaemon {
+
+    public static final int DEFAULT_THRESHOLD = 50;
+    public static final double DEFAULT_SCALE_FACTOR = 0.2;
+
+    private final CatalogManager catalog;
+    private final TableStats stats;
+    private final VacuumManager vacuumManager;
+    private final int threshold;
+    private final double scaleFactor;
+
+    private ScheduledExecutorService scheduler;
+
+    public AutovacuumDaemon(CatalogManager catalog, TableStats stats, VacuumManager vacuumManager) {
+        this(catalog, stats, vacuumManager, DEFAULT_THRESHOLD, DEFAULT_SCALE_FACTOR);
+    }
+
+    public AutovacuumDaemon(CatalogManager catalog, TableStats stats, VacuumManager vacuumManager,
+                            int threshold, double scaleFactor) {
+        this.catalog = catalog;
+        this.stats = stats;
+        this.vacuumManager = vacuumManager;
+        this.threshold = threshold;
+        this.scaleFactor = scaleFactor;
+    }
+
+    public synchronized void start(long naptimeMillis) {
+        if (scheduler != null) return;
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "autovacuum");
+            t.setDaemon(true);
+            return t;
+        });
+        scheduler.scheduleWithFixedDelay(this::runSafely, naptimeMillis, naptimeMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public synchronized void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    public boolean needsVacuum(TableDefinition table) {
+        long dead = stats.getDeadTuples(table.getOid());
+        return dead > threshold + scaleFactor * stats.getLiveTuples(table.getOid());
+    }
+
+    /**
+     * Один проход по всем таблицам каталога.
+     */
+    public List<VacuumResult> runOnce() {
+        List<VacuumResult> results = new ArrayList<>();
+        for (TableDefinition table : catalog.listTables()) {
+            if (needsVacuum(table)) {
+                results.add(vacuumManager.vacuum(table));
+            }
+        }
+        return results;
+    }
+
+    private void runSafely() {
+        try {
+            for (VacuumResult result : runOnce()) {
+                System.out.println("autovacuum: " + result);
+            }
+        } catch (Exception e) {
+            System.err.println("autovacuum failed: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,313 @@
+package system.vacuum;
+
+import system.catalog.model.TableDefinition;
+import system.execution.tuple.TupleHeader;
+import system.index.Index;
+import system.index.IndexManager;
+import system.memory.buffer.BufferPoolManager;
+import system.memory.buffer.BufferPoolRegistry;
+import system.memory.heap.HeapFile;
+import system.memory.model.BufferSlot;
+import system.memory.model.TupleId;
+import system.memory.page.HeapPage;
+import system.memory.vm.VisibilityMap;
+import system.transaction.lock.LockManager;
+import system.transaction.lock.LockMode;
+import system.transaction.lock.LockTag;
+import system.transaction.manager.TransactionManager;
+import system.transaction.model.Transaction;
+import system.transaction.model.TransactionId;
+import system.transaction.model.TransactionStatus;
+import system.transaction.visibility.VisibilityChecker;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
+
+/**
+ * Обычный (не FULL) VACUUM: работает параллельно с запросами, страницы чистятся по одной
+ * под write-защёлкой. Усечение файла требует эксклюзивной блокировки таблицы и
+ * пропускается, если её нельзя взять сразу — как в PostgreSQL.
+ * Если у таблицы есть индексы, слоты освобождаются в два прохода: сначала мёртвые версии
+ * помечаются LP_DEAD, затем из индексов удаляются ссылки на них, и только после этого
+ * слоты становятся LP_UNUSED и могут быть заняты новыми строками.
+ */
+public class DefaultVacuumManager implements VacuumManager {
+
+    /**
+     * Сколько xid должно пройти после вставки, чтобы обычный VACUUM заморозил версию
+     * (vacuum_freeze_min_age; у PostgreSQL 50 млн, но там и xid 32-битные с переполнением).
+     */
+    public static final int FREEZE_MIN_AGE = 1000;
+
+    private final TransactionManager txManager;
+    private final LockManager lockManager;
+    private final BufferPoolRegistry bufferPools;
+    private final TableStats stats;
+    private final IndexManager indexManager;
+
+    // два вакуума одной таблицы (ручной и автоматический) выполняются по очереди
+    private final Map<Integer, Object> tableMonitors = new ConcurrentHashMap<>();
+
+    public DefaultVacuumManager(TransactionManager txManager, LockManager lockManager,
+                                BufferPoolRegistry bufferPools, TableStats stats) {
+        this(txManager, lockManager, bufferPools, stats, null);
+    }
+
+    /**
+     * @param indexManager индексы таблиц; null — таблицы считаются неиндексированными.
+     */
+    public DefaultVacuumManager(TransactionManager txManager, LockManager lockManager,
+                                BufferPoolRegistry bufferPools, TableStats stats, IndexManager indexManager) {
+        this.txManager = txManager;
+        this.lockManager = lockManager;
+        this.bufferPools = bufferPools;
+        this.stats = stats;
+        this.indexManager = indexManager;
+    }
+
+    @Override
+    public VacuumResult vacuum(TableDefinition table, boolean freeze) {
+        synchronized (tableMonitors.computeIfAbsent(table.getOid(), k -> new Object())) {
+            Transaction tx = txManager.begin();
+            try {
+                VacuumResult result = vacuum(table, tx, freeze);
+                txManager.commit(tx);
+                return result;
+            } catch (RuntimeException e) {
+                txManager.abort(tx);
+                throw e;
+            } finally {
+                lockManager.releaseAll(tx.getXid());
+            }
+        }
+    }
+
+    private VacuumResult vacuum(TableDefinition table, Transaction tx, boolean freeze) {
+        int oldestXmin = txManager.getOldestXmin();
+        int freezeLimit = freeze ? oldestXmin : oldestXmin - FREEZE_MIN_AGE;
+        HeapFile heap = HeapFile.open(bufferPools, table.getFileNode());
+        BufferPoolManager pool = heap.getBufferPool();
+        VisibilityMap vm = heap.getVisibilityMap();
+        Set<TupleId> deadItems = hasIndexes(table) ? new HashSet<>() : null;
+
+        int pages = pool.getPageCount();
+        int skipped = 0;
+        long removed = 0;
+        long live = 0;
+        for (int pageId = 0; pageId < pages; pageId++) {
+            // на полностью видимой странице нет мусора; при заморозке пропускаем только замороженные
+            int skipFlag = freeze ? VisibilityMap.ALL_FROZEN : VisibilityMap.ALL_VISIBLE;
+            if ((vm.getFlags(pageId) & skipFlag) != 0) {
+                skipped++;
+                continue;
+            }
+            long[] counts = prunePage(heap, pageId, oldestXmin, freezeLimit, deadItems);
+            removed += counts[0];
+            live += counts[1];
+        }
+
+        if (deadItems != null && !deadItems.isEmpty()) {
+            indexManager.bulkDelete(table, deadItems);
+            // индекс без ссылок должен оказаться на диске раньше, чем освобождённые слоты
+            for (Index index : indexManager.getIndexes(table)) {
+                index.getBufferPool().flushAllPages();
+            }
+            reclaimDeadItems(heap, deadItems);
+        }
+
+        int truncated = truncate(table, heap, tx.getXid());
+
+        pool.flushAllPages();
+        heap.getFreeSpaceMap().flush();
+        vm.flush();
+        // живые строки пропущенных страниц не пересчитывались — тогда оставляем прежнюю оценку
+        stats.onVacuum(table.getOid(), skipped == 0 ? live : stats.getLiveTuples(table.getOid()), removed);
+
+        return new VacuumResult(table.getName(), pages - skipped, skipped, removed, live, truncated);
+    }
+
+    private boolean hasIndexes(TableDefinition table) {
+        return indexManager != null && !indexManager.getIndexes(table).isEmpty();
+    }
+
+    /**
+     * Мёртвые версии помечаются LP_DEAD, записи на странице уплотняются. Без индексов
+     * (deadItems == null) слот сразу освобождается (LP_DEAD -> LP_UNUSED за один проход),
+     * иначе его адрес собирается в deadItems до очистки индексов. Попутно замораживаются
+     * старые версии и, если вся страница видна всем, выставляются биты карты видимости.
+     * Возвращает {удалено, осталось}.
+     */
+    private long[] prunePage(HeapFile heap, int pageId, int oldestXmin, int freezeLimit, Set<TupleId> deadItems) {
+        BufferPoolManager pool = heap.getBufferPool();
+        long removed = 0;
+        long live = 0;
+        int freeSpace;
+
+        BufferSlot slot = pool.fetchPage(pageId);
+        Lock latch = slot.getContentLock().writeLock();
+        latch.lock();
+        try {
+            HeapPage page = (HeapPage) slot.getPage();
+            boolean changed = false;
+            boolean allVisible = true;
+            boolean allFrozen = true;
+
+            for (int i = 0; i < page.size(); i++) {
+                if (page.isNormal(i)) {
+                    byte[] tuple = page.read(i);
+                    TupleHeader header = TupleHeader.read(tuple);
+                    if (!VisibilityChecker.isDeadToAll(txManager, header, oldestXmin)) {
+                        live++;
+                        int flags = freezeTuple(tuple, header, oldestXmin, freezeLimit);
+                        if ((flags & TUPLE_CHANGED) != 0) {
+                            page.update(i, tuple);
+                            changed = true;
+                        }
+                        allVisible &= (flags & VisibilityMap.ALL_VISIBLE) != 0;
+                        allFrozen &= (flags & VisibilityMap.ALL_FROZEN) != 0;
+                        continue;
+                    }
+                    page.markDead(i);
+                    removed++;
+                }
+                if (page.isDead(i)) {
+                    if (deadItems == null) {
+                        page.markUnused(i);
+                    } else {
+                        // на слот ещё ссылаются индексы: страница не может считаться полностью видимой
+                        deadItems.add(new TupleId(pageId, i));
+                        allVisible = false;
+                    }
+                    changed = true;
+                }
+            }
+
+            if (changed) {
+                page.compact();
+                slot.setDirty(true);
+            }
+            if (allVisible) {
+                // под write-защёлкой страницы, в том же порядке защёлок, что и при сбросе бита
+                heap.getVisibilityMap().set(pageId, allFrozen ? VisibilityMap.ALL_FROZEN : VisibilityMap.ALL_VISIBLE);
+            }
+            freeSpace = page.freeSpace();
+        } finally {
+            latch.unlock();
+            pool.unpinPage(pageId);
+        }
+
+        heap.getFreeSpaceMap().update(pageId, freeSpace);
+        return new long[]{removed, live};
+    }
+
+    /**
+     * Второй проход: ссылок из индексов на мёртвые слоты больше нет, их можно отдать под новые строки.
+     */
+    private void reclaimDeadItems(HeapFile heap, Set<TupleId> deadItems) {
+        BufferPoolManager pool = heap.getBufferPool();
+        Map<Integer, Set<Integer>> byPage = new TreeMap<>();
+        for (TupleId tid : deadItems) {
+            byPage.computeIfAbsent(tid.pageId(), k -> new HashSet<>()).add(tid.slot());
+        }
+
+        for (Map.Entry<Integer, Set<Integer>> entry : byPage.entrySet()) {
+            int pageId = entry.getKey();
+            int freeSpace;
+            BufferSlot slot = pool.fetchPage(pageId);
+            Lock latch = slot.getContentLock().writeLock();
+            latch.lock();
+            try {
+                HeapPage page = (HeapPage) slot.getPage();
+                for (int i : entry.getValue()) {
+                    if (i < page.size() && page.isDead(i)) {
+                        page.markUnused(i);
+                    }
+                }
+                page.compact();
+                slot.setDirty(true);
+                freeSpace = page.freeSpace();
+            } finally {
+                latch.unlock();
+                pool.unpinPage(pageId);
+            }
+            heap.getFreeSpaceMap().update(pageId, freeSpace);
+        }
+    }
+
+    private static final int TUPLE_CHANGED = 0b100;
+
+    /**
+     * Сбросить xmax откатанного удаления и заморозить xmin старше freezeLimit.
+     * Возвращает флаги ALL_VISIBLE / ALL_FROZEN для версии и TUPLE_CHANGED, если заголовок изменён.
+     */
+    private int freezeTuple(byte[] tuple, TupleHeader header, int oldestXmin, int freezeLimit) {
+        int result = 0;
+        int xmax = header.getXmax();
+        if (xmax != TransactionId.INVALID && txManager.getStatus(xmax) == TransactionStatus.ABORTED) {
+            TupleHeader.setXmax(tuple, TransactionId.INVALID);
+            xmax = TransactionId.INVALID;
+            result |= TUPLE_CHANGED;
+        }
+
+        int xmin = header.getXmin();
+        boolean visibleToAll = xmax == TransactionId.INVALID
+                && (xmin == TransactionId.FROZEN
+                || (xmin < oldestXmin && txManager.getStatus(xmin) == TransactionStatus.COMMITTED));
+        if (!visibleToAll) {
+            return result;
+        }
+
+        result |= VisibilityMap.ALL_VISIBLE;
+        if (xmin != TransactionId.FROZEN && xmin < freezeLimit) {
+            TupleHeader.setXmin(tuple, TransactionId.FROZEN);
+            xmin = TransactionId.FROZEN;
+            result |= TUPLE_CHANGED;
+        }
+        if (xmin == TransactionId.FROZEN) {
+            result |= VisibilityMap.ALL_FROZEN;
+        }
+        return result;
+    }
+
+    private int truncate(TableDefinition table, HeapFile heap, int xid) {
+        BufferPoolManager pool = heap.getBufferPool();
+        int pages = pool.getPageCount();
+        if (pages == 0 || !isEmpty(pool, pages - 1)) {
+            return 0;
+        }
+        if (!lockManager.tryLock(xid, LockTag.relation(table.getOid()), LockMode.EXCLUSIVE)) {
+            return 0;
+        }
+
+        // под эксклюзивной блокировкой новых вставок нет — проверяем хвост заново
+        pages = pool.getPageCount();
+        int keep = pages;
+        while (keep > 0 && isEmpty(pool, keep - 1)) {
+            keep--;
+        }
+        if (keep == pages) {
+            return 0;
+        }
+
+        pool.truncate(keep);
+        heap.getFreeSpaceMap().truncate(keep);
+        heap.getVisibilityMap().truncate(keep);
+        return pages - keep;
+    }
+
+    private static boolean isEmpty(BufferPoolManager pool, int pageId) {
+        BufferSlot slot = pool.fetchPage(pageId);
+        Lock latch = slot.getContentLock().readLock();
+        latch.lock();
+        try {
+            return ((HeapPage) slot.getPage()).usedSlots() == 0;
+        } finally {
+            latch.unlock();
+            pool.unpinPage(pageId);
+        }
+    }
+}
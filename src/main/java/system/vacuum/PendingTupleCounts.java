@@ -0,0 +1,27 @@
+package system.vacuum;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Счётчики вставок и удалений одной транзакции по таблицам.
+ * В общую статистику попадают только при завершении: при откате вставки тоже становятся мёртвыми.
+ */
+public class PendingTupleCounts {
+
+    private final Map<Integer, long[]> counts = new HashMap<>();
+
+    public synchronized void inserted(int tableOid) {
+        counts.computeIfAbsent(tableOid, k -> new long[2])[0]++;
+    }
+
+    public synchronized void deleted(int tableOid) {
+        counts.computeIfAbsent(tableOid, k -> new long[2])[1]++;
+    }
+
+    synchronized Map<Integer, long[]> drain() {
+        Map<Integer, long[]> copy = new HashMap<>(counts);
+        counts.clear();
+        return copy;
+    }
+}
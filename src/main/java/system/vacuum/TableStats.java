@@ -0,0 +1,50 @@
+package system.vacuum;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Накопительная статистика живых и мёртвых версий по таблицам (аналог pg_stat_user_tables).
+ * Хранится только в памяти: после рестарта счётчики набираются заново.
+ */
+public class TableStats {
+
+    private final Map<Integer, Counters> tables = new ConcurrentHashMap<>();
+
+    public void onCommit(PendingTupleCounts pending) {
+        pending.drain().forEach((oid, c) -> {
+            Counters counters = counters(oid);
+            counters.live.addAndGet(c[0] - c[1]);
+            counters.dead.addAndGet(c[1]);
+        });
+    }
+
+    public void onAbort(PendingTupleCounts pending) {
+        // удаления откатанной транзакции ничего не меняют, а её вставки — мусор
+        pending.drain().forEach((oid, c) -> counters(oid).dead.addAndGet(c[0]));
+    }
+
+    public void onVacuum(int tableOid, long liveTuples, long removedTuples) {
+        Counters counters = counters(tableOid);
+        counters.live.set(liveTuples);
+        counters.dead.updateAndGet(dead -> Math.max(0, dead - removedTuples));
+    }
+
+    public long getLiveTuples(int tableOid) {
+        return Math.max(0, counters(tableOid).live.get());
+    }
+
+    public long getDeadTuples(int tableOid) {
+        return counters(tableOid).dead.get();
+    }
+
+    private Counters counters(int tableOid) {
+        return tables.computeIfAbsent(tableOid, k -> new Counters());
+    }
+
+    private static final class Counters {
+        final AtomicLong live = new AtomicLong();
+        final AtomicLong dead = new AtomicLong();
+    }
+}
@@ -0,0 +1,20 @@
+package system.vacuum;
+
+import system.catalog.model.TableDefinition;
+
+public interface VacuumManager {
+
+    /**
+     * Убрать мёртвые версии строк таблицы, уплотнить страницы, обновить карту
+     * свободного места и по возможности отрезать пустые страницы в конце файла.
+     */
+    default VacuumResult vacuum(TableDefinition table) {
+        return vacuum(table, false);
+    }
+
+    /**
+     * @param freeze агрессивный режим (VACUUM FREEZE): замораживаются все версии, видимые всем,
+     *               и пропускаются только полностью замороженные страницы.
+     */
+    VacuumResult vacuum(TableDefinition table, boolean freeze);
+}
@@ -0,0 +1,17 @@
+package system.vacuum;
+
+public record VacuumResult(String tableName,
+                           int scannedPages,
+                           int skippedPages,
+                           long removedTuples,
+                           long liveTuples,
+                           int truncatedPages) {
+    @Override
+    public String toString() {
+        return "vacuum \"" + tableName + "\": pages " + scannedPages +
+                " scanned, " + skippedPages + " skipped" +
+                ", removed " + removedTuples +
+                ", remaining " + liveTuples +
+                ", truncated " + truncatedPages;
+    }
+}
@@ -4,6 +4,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import system.ast.*;
 import system.catalog.manager.*;
+import system.catalog.model.TableDefinition;
 import system.catalog.model.TypeDefinition;
 import system.catalog.operation.OperationManager;
 import system.execution.ExecutorFactory;
@@ -18,6 +19,15 @@ import system.memory.model.BufferSlot;
 import system.memory.page.Page;
 import system.optimizer.Optimizer;
 import system.optimizer.OptimizerImpl;
+import system.optimizer.node.PhysicalHashJoinNode;
+import system.optimizer.node.PhysicalIndexNestedLoopJoinNode;
+import system.optimizer.node.PhysicalIndexScanNode;
+import system.optimizer.node.PhysicalMergeJoinNode;
+import system.optimizer.node.PhysicalProjectNode;
+import system.optimizer.node.PhysicalSeqScanNode;
+import system.planner.node.FilterNode;
+import system.planner.node.ProjectNode;
+import system.planner.node.ScanNode;
 import system.planner.Planner;
 import system.planner.PlannerImpl;
 
@@ -39,6 +49,7 @@ class QueryExecutionTest {
         deleteIfExists("table_definitions.dat");
         deleteIfExists("column_definitions.dat");
         deleteIfExists("types_definitions.dat");
+        deleteIfExists("index_definitions.dat");
 
         deleteNumericDatFiles();
 
@@ -93,6 +104,88 @@ class QueryExecutionTest {
         assertNotNull(results);
     }
 
+    @Test
+    void testOptimizer_PushesFilterAndColumnsIntoSeqScan() {
+        TableDefinition table = new TableDefinition(1, "t", "USER", "1.dat", 0);
+        AExpr condition = new AExpr("AND",
+                new AExpr("<", new ColumnRef("id"), new AConst(5)),
+                new AExpr("=", new ColumnRef("name"), new AConst("a")));
+        List<TargetEntry> columns = List.of(new TargetEntry(new ColumnRef("name"), null));
+
+        var plan = optimizer.optimize(new ProjectNode(columns, new FilterNode(condition, new ScanNode(table))));
+        assertTrue(plan instanceof PhysicalSeqScanNode);
+        PhysicalSeqScanNode scan = (PhysicalSeqScanNode) plan;
+        assertEquals(condition.toString(), scan.getCondition().toString());
+        assertEquals(columns, scan.getTargetList());
+
+        // константу в выборке скан не вычисляет — проекция остаётся над ним
+        List<TargetEntry> withConstant = List.of(new TargetEntry(new ColumnRef("name"), null),
+                new TargetEntry(new AConst(1), null));
+        plan = optimizer.optimize(new ProjectNode(withConstant, new FilterNode(condition, new ScanNode(table))));
+        assertTrue(plan instanceof PhysicalProjectNode);
+        assertTrue(((PhysicalProjectNode) plan).getChild() instanceof PhysicalSeqScanNode);
+    }
+
+    @Test
+    void testPlannerAndOptimizer_JoinTwoTables() {
+        executeCreateTable("table1");
+        executeCreateTable("table2");
+        SqlProcessor sql = new SqlProcessor(catalogManager);
+
+        var plan = optimizer.optimize(planner.plan(sql.process(
+                "SELECT b.name, table1.id FROM table1 JOIN table2 b ON table1.id = b.id WHERE b.name = 'x'")));
+        assertTrue(plan instanceof PhysicalProjectNode);
+        PhysicalProjectNode project = (PhysicalProjectNode) plan;
+        assertTrue(project.getChild() instanceof PhysicalHashJoinNode);
+        PhysicalHashJoinNode join = (PhysicalHashJoinNode) project.getChild();
+        assertArrayEquals(new int[]{0}, join.getLeftKeys());
+        assertArrayEquals(new int[]{0}, join.getRightKeys());
+        // условие по одной таблице остаётся под соединением, в скане своей таблицы
+        assertTrue(join.getLeft() instanceof PhysicalSeqScanNode);
+        assertTrue(join.getRight() instanceof PhysicalSeqScanNode);
+        assertNotNull(((PhysicalSeqScanNode) join.getRight()).getCondition());
+        // колонки выборки — номера в строке соединения: table1 (id, name), затем table2 (id, name)
+        assertEquals(3, ((ColumnRef) project.getTargetList().get(0).expr).columnIndex);
+        assertEquals(0, ((ColumnRef) project.getTargetList().get(1).expr).columnIndex);
+
+        assertThrows(IllegalArgumentException.class, () -> planner.plan(sql.process(
+                "SELECT name FROM table1, table2 WHERE table1.id = table2.id")));
+        assertThrows(UnsupportedOperationException.class, () -> planner.plan(sql.process(
+                "SELECT table1.name FROM table1, table2")));
+    }
+
+    @Test
+    void testOptimizer_ChoosesJoinMethodByEstimatedRows() {
+        executeCreateTable("table1");
+        executeCreateTable("table2");
+        catalogManager.createIndex("table1_id", catalogManager.getTable("table1"), "btree", List.of("id"), List.of());
+        catalogManager.createIndex("table2_id", catalogManager.getTable("table2"), "btree", List.of("id"), List.of());
+        SqlProcessor sql = new SqlProcessor(catalogManager);
+        Optimizer sized = new OptimizerImpl(catalogManager, 0,
+                table -> table.getName().equals("table1") ? 1_000_000 : 100_000);
+        String join = "SELECT table1.name, table2.name FROM table1 JOIN table2 ON table1.id = table2.id";
+
+        // большая таблица целиком: одна хеш-таблица по меньшей вместо миллиона поисков по индексу
+        var plan = (PhysicalProjectNode) sized.optimize(planner.plan(sql.process(join)));
+        assertTrue(plan.getChild() instanceof PhysicalHashJoinNode);
+
+        // несколько строк outer: поиск по индексу inner на каждую, inner целиком не читается
+        plan = (PhysicalProjectNode) sized.optimize(planner.plan(sql.process(join + " WHERE table1.name = 'x'")));
+        assertTrue(plan.getChild() instanceof PhysicalIndexNestedLoopJoinNode);
+        PhysicalIndexNestedLoopJoinNode nestLoop = (PhysicalIndexNestedLoopJoinNode) plan.getChild();
+        assertEquals("table2_id", nestLoop.getIndexDefinition().getName());
+        assertArrayEquals(new int[]{0}, nestLoop.getInnerKeys());
+        assertNull(nestLoop.getInnerCondition());
+
+        // обе стороны читаются по btree в порядке ключа соединения
+        plan = (PhysicalProjectNode) sized.optimize(planner.plan(sql.process(join
+                + " WHERE table1.id > 10 AND table1.id < 500 AND table2.id > 10 AND table2.id < 500")));
+        assertTrue(plan.getChild() instanceof PhysicalMergeJoinNode);
+        PhysicalMergeJoinNode merge = (PhysicalMergeJoinNode) plan.getChild();
+        assertTrue(merge.getLeft() instanceof PhysicalIndexScanNode);
+        assertTrue(merge.getRight() instanceof PhysicalIndexScanNode);
+    }
+
     @Test
     void testPlanner_Select_NonExistentTable() {
         QueryTree selectQuery = createSimpleSelectQuery("nonexistent_table");
@@ -0,0 +1,45 @@
+package system.cli.impl;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Движок пишет каталог, журнал фиксаций и таблицы в текущий каталог; перезапуск — новый EngineImpl
+ * над теми же файлами.
+ */
+class EngineRestartTest {
+    private static final Pattern FILES = Pattern.compile(
+            "^(\\d+(_fsm|_vm)?|table_definitions|column_definitions|types_definitions|index_definitions|commit_log)\\.dat$");
+
+    @BeforeEach
+    @AfterEach
+    void deleteFiles() {
+        File[] files = new File(".").listFiles((d, name) -> FILES.matcher(name).matches());
+        if (files == null) return;
+        for (File f : files) {
+            f.delete();
+        }
+    }
+
+    @Test
+    void deleteAfterVacuum_staysDeletedAfterRestart() {
+        EngineImpl engine = new EngineImpl();
+        engine.executeSql("CREATE TABLE t (id INTEGER)");
+        for (int i = 0; i < 5; i++) {
+            engine.executeSql("INSERT INTO t VALUES (" + i + ")");
+        }
+        // VACUUM помечает страницу полностью видимой, DELETE должен сбросить этот бит и на диске
+        engine.executeSql("VACUUM t");
+        engine.executeSql("DELETE FROM t WHERE id = 2");
+        assertEquals("0\n1\n3\n4", engine.executeSql("SELECT id FROM t"));
+
+        EngineImpl restarted = new EngineImpl();
+        assertEquals("0\n1\n3\n4", restarted.executeSql("SELECT id FROM t"));
+    }
+}
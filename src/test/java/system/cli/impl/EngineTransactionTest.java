@@ -0,0 +1,91 @@
+package system.cli.impl;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import system.cli.api.Session;
+
+import java.io.File;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Блоки BEGIN ... COMMIT / ROLLBACK на уровне движка: что видят запросы внутри и после блока.
+ */
+class EngineTransactionTest {
+    private static final Pattern FILES = Pattern.compile(
+            "^(\\d+(_fsm|_vm)?|table_definitions|column_definitions|types_definitions|index_definitions|commit_log)\\.dat$");
+    private static final String ABORTED =
+            "ERROR: current transaction is aborted, commands ignored until end of transaction block";
+
+    private EngineImpl engine;
+
+    @BeforeEach
+    void createTable() {
+        deleteFiles();
+        engine = new EngineImpl();
+        engine.executeSql("CREATE TABLE t (id INTEGER)");
+        engine.executeSql("INSERT INTO t VALUES (1)");
+    }
+
+    @AfterEach
+    void deleteFiles() {
+        File[] files = new File(".").listFiles((d, name) -> FILES.matcher(name).matches());
+        if (files == null) return;
+        for (File f : files) {
+            f.delete();
+        }
+    }
+
+    @Test
+    void rollback_hidesRowsInsertedInBlock() {
+        assertEquals("BEGIN", engine.executeSql("BEGIN"));
+        engine.executeSql("INSERT INTO t VALUES (2)");
+        assertEquals("1\n2", engine.executeSql("SELECT id FROM t"));
+        assertEquals("ROLLBACK", engine.executeSql("ROLLBACK"));
+
+        assertEquals("1", engine.executeSql("SELECT id FROM t"));
+    }
+
+    @Test
+    void errorInBlock_rejectsStatementsUntilRollback() {
+        engine.executeSql("BEGIN");
+        assertTrue(engine.executeSql("INSERT INTO missing VALUES (1)").startsWith("ERROR"));
+        assertEquals(ABORTED, engine.executeSql("INSERT INTO t VALUES (2)"));
+        assertEquals(ABORTED, engine.executeSql("SELECT id FROM t"));
+        assertEquals("ROLLBACK", engine.executeSql("ROLLBACK"));
+
+        engine.executeSql("INSERT INTO t VALUES (3)");
+        assertEquals("1\n3", engine.executeSql("SELECT id FROM t"));
+    }
+
+    @Test
+    void commitOfFailedBlock_rollsBack() {
+        engine.executeSql("BEGIN");
+        engine.executeSql("INSERT INTO t VALUES (2)");
+        assertTrue(engine.executeSql("INSERT INTO missing VALUES (1)").startsWith("ERROR"));
+        assertEquals("ROLLBACK", engine.executeSql("COMMIT"));
+
+        assertEquals("1", engine.executeSql("SELECT id FROM t"));
+        assertEquals("WARNING: there is no transaction in progress", engine.executeSql("COMMIT"));
+    }
+
+    @Test
+    void sessions_doNotSeeEachOthersUncommittedRows() {
+        try (Session first = engine.openSession(); Session second = engine.openSession()) {
+            engine.executeSql(first, "BEGIN");
+            engine.executeSql(second, "BEGIN");
+            engine.executeSql(first, "INSERT INTO t VALUES (2)");
+            engine.executeSql(second, "INSERT INTO t VALUES (3)");
+
+            assertEquals("1\n2", engine.executeSql(first, "SELECT id FROM t"));
+            assertEquals("1\n3", engine.executeSql(second, "SELECT id FROM t"));
+            assertEquals("1", engine.executeSql("SELECT id FROM t"));
+
+            assertEquals("COMMIT", engine.executeSql(first, "COMMIT"));
+            assertEquals("ROLLBACK", engine.executeSql(second, "ROLLBACK"));
+        }
+        assertEquals("1\n2", engine.executeSql("SELECT id FROM t"));
+    }
+}
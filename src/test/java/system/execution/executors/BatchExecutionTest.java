@@ -0,0 +1,291 @@
+package system.execution.executors;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import system.ast.AConst;
+import system.ast.AExpr;
+import system.ast.ColumnRef;
+import system.ast.TargetEntry;
+import system.catalog.manager.CatalogManager;
+import system.catalog.model.ColumnDefinition;
+import system.catalog.model.IndexDefinition;
+import system.catalog.model.TableDefinition;
+import system.catalog.model.TypeDefinition;
+import system.execution.tuple.ColumnVector;
+import system.execution.tuple.Row;
+import system.execution.tuple.RowBatch;
+import system.execution.tuple.TupleCodec;
+import system.execution.tuple.TupleHeader;
+import system.execution.tuple.TupleRow;
+import system.memory.buffer.BufferPoolRegistry;
+import system.memory.heap.HeapFile;
+import system.memory.manager.HeapPageFileManager;
+import system.transaction.model.TransactionId;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BatchExecutionTest {
+
+    private static final int ROWS = 3000;
+
+    @Test
+    void seqScan_batchesHoldTheSameRowsAsNext(@TempDir Path dir) {
+        Env env = new Env(dir);
+
+        List<Object> expected = drainRows(env.scan());
+        List<Object> actual = new ArrayList<>();
+        SeqScanExecutor scan = env.scan();
+        scan.open();
+        RowBatch batch;
+        int batches = 0;
+        while ((batch = scan.nextBatch()) != null) {
+            assertTrue(batch.size() < 2 * RowBatch.CAPACITY);
+            assertEquals(ColumnVector.Type.INT, batch.column(0).getType());
+            assertEquals(ColumnVector.Type.LONG, batch.column(3).getType());
+            batch.addRowsTo(actual);
+            batches++;
+        }
+        scan.close();
+
+        assertEquals(ROWS, actual.size());
+        assertEquals(expected, actual);
+        assertTrue(batches > 1);
+        // адреса строк сохраняются — DELETE поверх пакетного скана находит свои версии
+        assertEquals(((Row) expected.get(ROWS - 1)).getTupleId(), ((Row) actual.get(ROWS - 1)).getTupleId());
+    }
+
+    @Test
+    void filterAndProject_overBatches_matchRowAtATime(@TempDir Path dir) {
+        Env env = new Env(dir);
+        // id < 100 AND name = 'n3' OR 2990 <= id AND flag = true
+        AExpr condition = new AExpr("OR",
+                new AExpr("AND",
+                        new AExpr("<", new ColumnRef("id"), new AConst(100)),
+                        new AExpr("=", new ColumnRef("name"), new AConst("n3"))),
+                new AExpr("AND",
+                        new AExpr("<=", new AConst(2990L), new ColumnRef("id")),
+                        new AExpr("=", new ColumnRef("flag"), new AConst(true))));
+        List<TargetEntry> targets = List.of(
+                new TargetEntry(new ColumnRef("name"), null),
+                new TargetEntry(new ColumnRef("id"), null),
+                new TargetEntry(new AConst(7), null));
+
+        List<Object> rows = drainRows(env.project(env.filter(env.scan(), condition), targets));
+        List<Object> batched = drainBatches(env.project(env.filter(env.scan(), condition), targets));
+
+        assertEquals(List.of("n3", 3, 7), rows.get(0));
+        assertEquals(List.of("n3", 94, 7), rows.get(rows.size() - 6));
+        assertEquals(List.of("n9", 2999, 7), rows.get(rows.size() - 1));
+        assertEquals(rows, batched);
+
+        // одна колонка отдаётся значением, и NULL среди значений не обрывает результат
+        List<TargetEntry> nameOnly = List.of(new TargetEntry(new ColumnRef("name"), null));
+        AExpr firstRows = new AExpr("<", new ColumnRef("id"), new AConst(15));
+        List<Object> names = drainBatches(env.project(env.filter(env.scan(), firstRows), nameOnly));
+        assertEquals(15, names.size());
+        assertNull(names.get(0));
+        assertEquals("n0", names.get(13));
+        assertNull(names.get(14));
+    }
+
+    @Test
+    void seqScan_reusesOneTypedRow(@TempDir Path dir) {
+        Env env = new Env(dir);
+        SeqScanExecutor scan = env.scan();
+        scan.open();
+
+        Row first = (Row) scan.next();
+        Row firstCopy = first.copy();
+        assertEquals(Arrays.asList(0, null, false, 0L), firstCopy);
+        assertTrue(first.isNull(1));
+
+        Row row;
+        Row lastCopy = null;
+        long sum = 0;
+        int count = 1;
+        while ((row = (Row) scan.next()) != null) {
+            assertTrue(row == first);
+            sum += row.getLong(3);
+            if (row.getInt(0) == 2999) {
+                assertEquals("n9", row.getString(1));
+                assertTrue(row.getBoolean(2));
+                assertTrue(row.isIntegral(0));
+                assertEquals(Arrays.asList(2999, "n9", true, 8997L), row);
+                // копия не меняется, когда скан идёт дальше
+                lastCopy = row.copy();
+            }
+            count++;
+        }
+        scan.close();
+
+        assertEquals(ROWS, count);
+        assertEquals(3L * ROWS * (ROWS - 1) / 2, sum);
+        assertEquals(Arrays.asList(0, null, false, 0L), firstCopy);
+        assertEquals(Arrays.asList(2999, "n9", true, 8997L), lastCopy);
+        assertEquals(first.getTupleId(), lastCopy.getTupleId());
+    }
+
+    @Test
+    void filteredBatch_decodesOtherColumnsOnlyForSurvivors(@TempDir Path dir) {
+        Env env = new Env(dir);
+        Executor filter = env.filter(env.scan(), new AExpr("<", new ColumnRef("id"), new AConst(10)));
+        filter.open();
+        RowBatch batch = filter.nextBatch();
+
+        assertEquals(10, batch.getSelectedCount());
+        assertEquals(4, batch.getColumnCount());
+        ColumnVector names = batch.column(1);
+        assertEquals("n1", names.get(batch.getSelected(1)));
+        assertTrue(names.isNull(batch.getSelected(7)));
+        // строка 20 не прошла фильтр — её имя ("n7") не декодировалось
+        assertTrue(names.isNull(20));
+        assertEquals(Arrays.asList(9, "n9", true, 27L), batch.getRow(batch.getSelected(9)));
+        assertNull(filter.nextBatch());
+        filter.close();
+    }
+
+    @Test
+    void seqScan_withPushedDownConditionAndColumns_matchesFilterAndProject(@TempDir Path dir) {
+        Env env = new Env(dir);
+        AExpr condition = new AExpr("AND",
+                new AExpr(">=", new ColumnRef("id"), new AConst(2900)),
+                new AExpr("!=", new ColumnRef("name"), new AConst("n1")));
+        List<TargetEntry> targets = List.of(
+                new TargetEntry(new ColumnRef("big"), null),
+                new TargetEntry(new ColumnRef("name"), null));
+
+        List<Object> expected = drainRows(env.project(env.filter(env.scan(), condition), targets));
+        assertEquals(List.of(8703L, "n2"), expected.get(0));
+        int[] output = {3, 1};
+        assertEquals(expected, drainRows(env.pushedDown(condition, output)));
+        assertEquals(expected, drainBatches(env.pushedDown(condition, output)));
+
+        // одна колонка — значения, как у проекции
+        List<Object> ids = drainBatches(env.pushedDown(condition, new int[]{0}));
+        assertEquals(expected.size(), ids.size());
+        assertEquals(2999, ids.get(ids.size() - 1));
+    }
+
+    @Test
+    void tupleCodec_findsColumnsThroughDirectory_andReadsOldFormat() {
+        byte[] encoded = TupleCodec.encodeTagged(Arrays.asList(1, "x", null, 5L));
+        assertEquals(4, TupleCodec.columnCount(encoded, 0, encoded.length));
+        assertEquals(5L, TupleCodec.decodeTagged(encoded).get(3));
+        RowBatch single = new RowBatch();
+        single.addRow();
+        ColumnVector vector = single.column(0);
+        TupleCodec.decodeColumn(encoded, 0, encoded.length, 1, vector, 0);
+        assertEquals("x", vector.get(0));
+        TupleCodec.decodeColumn(encoded, 0, encoded.length, 9, vector, 0);
+        assertTrue(vector.isNull(0));
+
+        // запись без директории: int 5, строка "ab"
+        byte[] old = {1, 5, 0, 0, 0, 4, 2, 0, 'a', 'b'};
+        assertEquals(Arrays.asList(5, "ab"), TupleCodec.decodeTagged(old));
+        assertEquals(-1, TupleCodec.columnPosition(old, 0, old.length, 2));
+        TupleRow row = new TupleRow();
+        row.reset(old, 0, old.length, -1, 0);
+        assertEquals(2, row.size());
+        assertEquals("ab", row.getString(1));
+        assertNull(row.getTupleId());
+    }
+
+    @Test
+    void columnVector_keepsValueClasses_whenTypesAreMixed() {
+        RowBatch batch = new RowBatch();
+        batch.appendRow(Arrays.asList(1, "a"));
+        batch.appendRow(Arrays.asList(2L, null));
+        batch.appendRow(Arrays.asList(null, "c"));
+
+        assertEquals(ColumnVector.Type.OBJECT, batch.column(0).getType());
+        assertEquals(ColumnVector.Type.STRING, batch.column(1).getType());
+        assertEquals(Arrays.asList(1, "a"), batch.getRow(0));
+        assertEquals(Arrays.asList(2L, null), batch.getRow(1));
+        assertEquals(Arrays.asList(null, "c"), batch.getRow(2));
+
+        batch.select(new int[]{2}, 1);
+        List<Object> selected = new ArrayList<>();
+        batch.addRowsTo(selected);
+        assertEquals(List.of(Arrays.asList(null, "c")), selected);
+    }
+
+    private static List<Object> drainRows(Executor executor) {
+        List<Object> rows = new ArrayList<>();
+        executor.open();
+        Object row;
+        while ((row = executor.next()) != null) {
+            // сканы переиспользуют строку между вызовами next()
+            rows.add(row instanceof Row typed ? typed.copy() : row);
+        }
+        executor.close();
+        return rows;
+    }
+
+    private static List<Object> drainBatches(Executor executor) {
+        List<Object> rows = new ArrayList<>();
+        executor.open();
+        RowBatch batch;
+        while ((batch = executor.nextBatch()) != null) {
+            batch.addRowsTo(rows);
+        }
+        executor.close();
+        return rows;
+    }
+
+    private static final class Env {
+        final BufferPoolRegistry pools = new BufferPoolRegistry(16, new HeapPageFileManager());
+        final TableDefinition table;
+        final HeapFile heap;
+        final CatalogManager catalog;
+
+        Env(Path dir) {
+            table = new TableDefinition(7, "t", "USER", dir.resolve("7.dat").toString(), 0);
+            heap = HeapFile.open(pools, table.getFileNode());
+            catalog = new ColumnsOnlyCatalog(List.of(
+                    new ColumnDefinition(1, "id", 0),
+                    new ColumnDefinition(2, "name", 1),
+                    new ColumnDefinition(3, "flag", 2),
+                    new ColumnDefinition(4, "big", 3)));
+            for (int i = 0; i < ROWS; i++) {
+                List<Object> values = Arrays.asList(i, i % 7 == 0 ? null : "n" + i % 13, i % 2 == 1, (long) i * 3);
+                heap.insert(TupleHeader.prepend(TransactionId.FROZEN, TupleCodec.encodeTagged(values)));
+            }
+        }
+
+        SeqScanExecutor scan() {
+            return new SeqScanExecutor(heap.getBufferPool(), table);
+        }
+
+        SeqScanExecutor pushedDown(AExpr condition, int[] outputColumns) {
+            return new SeqScanExecutor(heap.getBufferPool(), table, null, null,
+                    condition, catalog.getTableColumns(table), outputColumns);
+        }
+
+        Executor filter(Executor child, AExpr condition) {
+            return new FilterExecutor(child, condition, catalog, table);
+        }
+
+        Executor project(Executor child, List<TargetEntry> targets) {
+            return new ProjectExecutor(child, targets, catalog, table);
+        }
+    }
+
+    record ColumnsOnlyCatalog(List<ColumnDefinition> columns) implements CatalogManager {
+        public List<ColumnDefinition> getTableColumns(TableDefinition table) { return columns; }
+        public TableDefinition createTable(String name, List<ColumnDefinition> columns) { throw new UnsupportedOperationException(); }
+        public TableDefinition getTable(String tableName) { throw new UnsupportedOperationException(); }
+        public ColumnDefinition getColumn(TableDefinition table, String columnName) { throw new UnsupportedOperationException(); }
+        public List<TableDefinition> listTables() { throw new UnsupportedOperationException(); }
+        public TypeDefinition getType(String resultType) { throw new UnsupportedOperationException(); }
+        public TypeDefinition getType(int resultType) { throw new UnsupportedOperationException(); }
+        public IndexDefinition createIndex(String name, TableDefinition table, String method,
+                                           List<String> keyColumns, List<String> includeColumns) { throw new UnsupportedOperationException(); }
+        public IndexDefinition getIndex(String indexName) { throw new UnsupportedOperationException(); }
+        public List<IndexDefinition> getIndexes(TableDefinition table) { throw new UnsupportedOperationException(); }
+    }
+}
@@ -0,0 +1,123 @@
+package system.execution.executors;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import system.ast.AConst;
+import system.ast.AExpr;
+import system.ast.ColumnRef;
+import system.ast.TargetEntry;
+import system.catalog.model.ColumnDefinition;
+import system.catalog.model.TableDefinition;
+import system.execution.tuple.RowBatch;
+import system.execution.tuple.TupleCodec;
+import system.execution.tuple.TupleHeader;
+import system.memory.buffer.BufferPoolRegistry;
+import system.memory.heap.HeapFile;
+import system.memory.manager.HeapPageFileManager;
+import system.transaction.model.TransactionId;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GatherExecutorTest {
+
+    private static final int ROWS = 40_000;
+
+    @Test
+    void gather_returnsTheSameRowsAsSerialScan_inPageOrder(@TempDir Path dir) {
+        Env env = new Env(dir);
+        assertTrue(env.heap.getBufferPool().getPageCount() > 8 * GatherExecutor.CHUNK_PAGES);
+
+        AExpr condition = new AExpr("OR",
+                new AExpr("<", new ColumnRef("id"), new AConst(500)),
+                new AExpr("=", new ColumnRef("name"), new AConst("n7")));
+        List<TargetEntry> targets = List.of(
+                new TargetEntry(new ColumnRef("big"), null),
+                new TargetEntry(new ColumnRef("id"), null));
+
+        List<Object> serial = drain(env.project(env.filter(env.scan(), condition), targets));
+
+        List<GatherExecutor.Pipeline> pipelines = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            SeqScanExecutor scan = env.scan();
+            pipelines.add(new GatherExecutor.Pipeline(env.project(env.filter(scan, condition), targets), scan));
+        }
+        GatherExecutor gather = new GatherExecutor(pipelines, env.heap.getBufferPool()::getPageCount);
+        List<Object> parallel = drain(gather);
+
+        assertEquals(serial.size(), parallel.size());
+        assertEquals(List.of(0L, 0), parallel.get(0));
+        assertEquals(serial, parallel);
+
+        // повторное открытие читает таблицу заново
+        assertEquals(serial, drain(gather));
+    }
+
+    @Test
+    void gather_reportsWorkerFailure_andPlansWorkersBySize(@TempDir Path dir) {
+        Env env = new Env(dir);
+        List<TargetEntry> unknown = List.of(new TargetEntry(new ColumnRef("missing"), null));
+        List<GatherExecutor.Pipeline> pipelines = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            SeqScanExecutor scan = env.scan();
+            pipelines.add(new GatherExecutor.Pipeline(env.project(scan, unknown), scan));
+        }
+        GatherExecutor gather = new GatherExecutor(pipelines, env.heap.getBufferPool()::getPageCount);
+        gather.open();
+        assertThrows(IllegalArgumentException.class, gather::nextBatch);
+        gather.close();
+
+        assertEquals(0, GatherExecutor.plannedWorkers(GatherExecutor.MIN_PARALLEL_PAGES - 1, 4));
+        assertEquals(2, GatherExecutor.plannedWorkers(GatherExecutor.MIN_PARALLEL_PAGES, 4));
+        assertEquals(3, GatherExecutor.plannedWorkers(GatherExecutor.MIN_PARALLEL_PAGES * 3, 4));
+        assertEquals(4, GatherExecutor.plannedWorkers(GatherExecutor.MIN_PARALLEL_PAGES * 100, 4));
+        assertEquals(0, GatherExecutor.plannedWorkers(GatherExecutor.MIN_PARALLEL_PAGES * 100, 1));
+    }
+
+    private static List<Object> drain(Executor executor) {
+        List<Object> rows = new ArrayList<>();
+        executor.open();
+        RowBatch batch;
+        while ((batch = executor.nextBatch()) != null) {
+            batch.addRowsTo(rows);
+        }
+        executor.close();
+        return rows;
+    }
+
+    private static final class Env {
+        final BufferPoolRegistry pools = new BufferPoolRegistry(16, new HeapPageFileManager());
+        final TableDefinition table;
+        final HeapFile heap;
+        final BatchExecutionTest.ColumnsOnlyCatalog catalog;
+
+        Env(Path dir) {
+            table = new TableDefinition(8, "t", "USER", dir.resolve("8.dat").toString(), 0);
+            heap = HeapFile.open(pools, table.getFileNode());
+            catalog = new BatchExecutionTest.ColumnsOnlyCatalog(List.of(
+                    new ColumnDefinition(1, "id", 0),
+                    new ColumnDefinition(2, "name", 1),
+                    new ColumnDefinition(3, "big", 2)));
+            for (int i = 0; i < ROWS; i++) {
+                List<Object> values = Arrays.asList(i, "n" + i % 11, (long) i * 5);
+                heap.insert(TupleHeader.prepend(TransactionId.FROZEN, TupleCodec.encodeTagged(values)));
+            }
+        }
+
+        SeqScanExecutor scan() {
+            return new SeqScanExecutor(heap.getBufferPool(), table);
+        }
+
+        Executor filter(Executor child, AExpr condition) {
+            return new FilterExecutor(child, condition, catalog, table);
+        }
+
+        Executor project(Executor child, List<TargetEntry> targets) {
+            return new ProjectExecutor(child, targets, catalog, table);
+        }
+    }
+}
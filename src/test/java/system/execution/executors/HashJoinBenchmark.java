@@ -0,0 +1,94 @@
+package system.execution.executors;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Соединение в памяти: одна общая хеш-таблица против радикс-разбиения (RadixJoin) при росте inner.
+ * Не тест: запускается вручную, например
+ * java -Xmx4g -cp build/classes/java/main:build/classes/java/test system.execution.executors.HashJoinBenchmark 2000000
+ * Каждый замер — лучшее время из MEASURE_RUNS после WARMUP_RUNS прогревочных прогонов.
+ */
+public class HashJoinBenchmark {
+    private static final int WARMUP_RUNS = 3;
+    private static final int MEASURE_RUNS = 5;
+
+    public static void main(String[] args) {
+        int outerRows = args.length > 0 ? Integer.parseInt(args[0]) : 2_000_000;
+        System.out.printf("outer=%d, cores=%d%n", outerRows, Runtime.getRuntime().availableProcessors());
+        System.out.printf("%10s %16s %16s %10s%n", "inner", "plain rows/s", "radix rows/s", "partitions");
+
+        List<List<Object>> outer = new ArrayList<>(outerRows);
+        for (int innerRows = 1 << 14; innerRows <= outerRows; innerRows *= 4) {
+            List<List<Object>> inner = new ArrayList<>(innerRows);
+            for (int i = 0; i < innerRows; i++) {
+                inner.add(Arrays.asList(i, "v" + i));
+            }
+            // ключи outer случайны: каждая строка находит пару, поиски идут по всей таблице
+            outer.clear();
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            for (int i = 0; i < outerRows; i++) {
+                outer.add(Arrays.asList((long) i, random.nextInt(innerRows)));
+            }
+
+            double plain = best(outer, inner, false);
+            double radix = best(outer, inner, true);
+            HashJoinExecutor join = join(outer, inner, true);
+            count(join);
+            System.out.printf("%10d %16.0f %16.0f %10d%n", innerRows, outerRows / plain, outerRows / radix,
+                    join.getRadixPartitionCount());
+        }
+    }
+
+    // секунды лучшего прогона
+    private static double best(List<List<Object>> outer, List<List<Object>> inner, boolean radix) {
+        double best = Double.MAX_VALUE;
+        for (int run = 0; run < WARMUP_RUNS + MEASURE_RUNS; run++) {
+            long start = System.nanoTime();
+            int rows = count(join(outer, inner, radix));
+            double seconds = (System.nanoTime() - start) / 1e9;
+            if (rows != outer.size()) throw new IllegalStateException("Unexpected join size: " + rows);
+            if (run >= WARMUP_RUNS) best = Math.min(best, seconds);
+        }
+        return best;
+    }
+
+    private static HashJoinExecutor join(List<List<Object>> outer, List<List<Object>> inner, boolean radix) {
+        return new HashJoinExecutor(new Rows(outer), new Rows(inner), new int[]{1}, new int[]{0}, 1L << 40, radix);
+    }
+
+    private static int count(Executor executor) {
+        int rows = 0;
+        executor.open();
+        while (executor.next() != null) {
+            rows++;
+        }
+        executor.close();
+        return rows;
+    }
+
+    private static final class Rows implements Executor {
+        private final List<List<Object>> rows;
+        private int position;
+
+        Rows(List<List<Object>> rows) {
+            this.rows = rows;
+        }
+
+        @Override
+        public void open() {
+            position = 0;
+        }
+
+        @Override
+        public Object next() {
+            return position < rows.size() ? rows.get(position++) : null;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,222 @@
+package system.execution.executors;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HashJoinExecutorTest {
+
+    @Test
+    void hashJoin_matchesNestedLoop_inMemoryAndSpilled() {
+        List<List<Object>> outer = new ArrayList<>();
+        List<List<Object>> inner = new ArrayList<>();
+        for (int i = 0; i < 3000; i++) {
+            // ключи через раз Integer и Long, каждый пятый — NULL, у inner ключи повторяются
+            Object key = i % 5 == 0 ? null : i % 2 == 0 ? (Object) (i % 700) : (Object) (long) (i % 700);
+            outer.add(Arrays.asList(i, key, "o" + i % 13));
+            // ключ inner сдвинут на единицу, чтобы пару нашла не каждая строка outer
+            inner.add(Arrays.asList(key == null ? null : ((Number) key).longValue() + 1, "o" + i % 11, i));
+        }
+
+        List<Object> expected = nestedLoop(outer, inner, new int[]{1}, new int[]{0});
+        assertTrue(expected.size() > 3000);
+
+        HashJoinExecutor inMemory = new HashJoinExecutor(new Rows(outer), new Rows(inner),
+                new int[]{1}, new int[]{0});
+        assertEquals(sorted(expected), sorted(drain(inMemory)));
+        assertEquals(0, inMemory.getSpilledPartitionCount());
+
+        HashJoinExecutor spilled = new HashJoinExecutor(new Rows(outer), new Rows(inner),
+                new int[]{1}, new int[]{0}, 4096);
+        assertEquals(sorted(expected), sorted(drain(spilled)));
+        assertTrue(spilled.getSpilledPartitionCount() > 0);
+
+        // составной ключ из числа и строки
+        List<Object> composite = nestedLoop(outer, inner, new int[]{1, 2}, new int[]{0, 1});
+        HashJoinExecutor byTwoColumns = new HashJoinExecutor(new Rows(outer), new Rows(inner),
+                new int[]{1, 2}, new int[]{0, 1}, 4096);
+        List<Object> actual = drain(byTwoColumns);
+        assertFalse(actual.isEmpty());
+        assertEquals(sorted(composite), sorted(actual));
+    }
+
+    @Test
+    void hashJoin_keepsInnerOrderForDuplicateKeys_andSkipsEmptyInner() {
+        List<List<Object>> outer = List.of(Arrays.asList(1, "a"), Arrays.asList(2, "b"), Arrays.asList(1, "c"));
+        List<List<Object>> inner = List.of(Arrays.asList("x", 1L), Arrays.asList("y", 2L), Arrays.asList("z", 1L));
+
+        List<Object> rows = drain(new HashJoinExecutor(new Rows(outer), new Rows(inner), new int[]{0}, new int[]{1}));
+        assertEquals(List.of(
+                List.of(1, "a", "x", 1L), List.of(1, "a", "z", 1L),
+                List.of(2, "b", "y", 2L),
+                List.of(1, "c", "x", 1L), List.of(1, "c", "z", 1L)), rows);
+
+        Rows probe = new Rows(outer);
+        assertEquals(List.of(), drain(new HashJoinExecutor(probe, new Rows(List.of()), new int[]{0}, new int[]{1})));
+        assertEquals(0, probe.read);
+    }
+
+    @Test
+    void hashJoin_radixPartitionedInMemory_matchesSingleTable() {
+        List<List<Object>> outer = new ArrayList<>();
+        List<List<Object>> inner = new ArrayList<>();
+        for (int i = 0; i < 300_000; i++) {
+            outer.add(Arrays.asList(i, i % 2 == 0 ? (Object) (i % 250_000) : (Object) (long) (i % 250_000), "s" + i % 7));
+        }
+        for (int i = 0; i < HashJoinExecutor.RADIX_MIN_ROWS; i++) {
+            inner.add(Arrays.asList(i % 200_000 + 3, "s" + i % 5, i % 9 == 0 ? null : i));
+        }
+        long workMem = 256L << 20;
+
+        HashJoinExecutor plain = new HashJoinExecutor(new Rows(outer), new Rows(inner),
+                new int[]{1}, new int[]{0}, workMem, false);
+        HashJoinExecutor radix = new HashJoinExecutor(new Rows(outer), new Rows(inner),
+                new int[]{1}, new int[]{0}, workMem, true);
+        List<Object> expected = drain(plain);
+        assertTrue(expected.size() > 200_000);
+        assertEquals(0, plain.getRadixPartitionCount());
+        assertEquals(sorted(expected), sorted(drain(radix)));
+        assertTrue(radix.getRadixPartitionCount() > 1);
+
+        // составной ключ: совпадение long-хешей проверяется сравнением значений
+        HashJoinExecutor composite = new HashJoinExecutor(new Rows(outer), new Rows(inner),
+                new int[]{1, 2}, new int[]{0, 1}, workMem, true);
+        List<Object> actual = drain(composite);
+        assertFalse(actual.isEmpty());
+        assertEquals(sorted(drain(new HashJoinExecutor(new Rows(outer), new Rows(inner),
+                new int[]{1, 2}, new int[]{0, 1}, workMem, false))), sorted(actual));
+        assertTrue(composite.getRadixPartitionCount() > 1);
+
+        // outer не помещается в workMem: прочитанные строки и остаток зондируют одну таблицу
+        List<List<Object>> twice = new ArrayList<>(outer);
+        twice.addAll(outer);
+        HashJoinExecutor overflow = new HashJoinExecutor(new Rows(twice), new Rows(inner),
+                new int[]{1}, new int[]{0}, 48L << 20, true);
+        assertEquals(sorted(nestedLoopByHash(twice, inner)), sorted(drain(overflow)));
+        assertEquals(0, overflow.getRadixPartitionCount());
+        assertEquals(0, overflow.getSpilledPartitionCount());
+    }
+
+    @Test
+    void radixJoin_twoPasses_keepBuildOrderPerProbeRow() {
+        int buildRows = RadixJoin.PARTITION_ROWS << (RadixJoin.MAX_PASS_BITS + 1);
+        assertTrue(RadixJoin.radixBits(buildRows) > RadixJoin.MAX_PASS_BITS);
+        long[] build = new long[buildRows];
+        for (int i = 0; i < build.length; i++) {
+            build[i] = i % 100_000;
+        }
+        long[] probe = new long[30_000];
+        for (int i = 0; i < probe.length; i++) {
+            probe[i] = i * 7L;
+        }
+
+        RadixJoin.Pairs[] partitions = RadixJoin.join(build, probe, (p, b) -> true, GatherExecutor.POOL);
+        assertEquals(1 << ((RadixJoin.radixBits(buildRows) + 1) / 2), partitions.length);
+        int[] matches = new int[probe.length];
+        int[] lastBuild = new int[probe.length];
+        Arrays.fill(lastBuild, -1);
+        for (RadixJoin.Pairs pairs : partitions) {
+            for (int i = 0; i < pairs.size(); i++) {
+                int p = pairs.probe(i);
+                int b = pairs.build(i);
+                assertEquals(probe[p], build[b]);
+                assertTrue(b > lastBuild[p]);
+                lastBuild[p] = b;
+                matches[p]++;
+            }
+        }
+        for (int p = 0; p < probe.length; p++) {
+            // ключи build от 0 до 99 999, каждый встречается buildRows / 100 000 или на один раз больше
+            int expected = probe[p] >= 100_000 ? 0 : buildRows / 100_000 + (probe[p] < buildRows % 100_000 ? 1 : 0);
+            assertEquals(expected, matches[p]);
+        }
+    }
+
+    // то же, что nestedLoop по ключам {1} и {0}, но через словарь: входы слишком велики для перебора пар
+    private static List<Object> nestedLoopByHash(List<List<Object>> outer, List<List<Object>> inner) {
+        Map<Long, List<List<Object>>> byKey = new HashMap<>();
+        for (List<Object> i : inner) {
+            if (i.get(0) != null) byKey.computeIfAbsent(((Number) i.get(0)).longValue(), k -> new ArrayList<>()).add(i);
+        }
+        List<Object> rows = new ArrayList<>();
+        for (List<Object> o : outer) {
+            if (o.get(1) == null) continue;
+            for (List<Object> i : byKey.getOrDefault(((Number) o.get(1)).longValue(), List.of())) {
+                List<Object> row = new ArrayList<>(o);
+                row.addAll(i);
+                rows.add(row);
+            }
+        }
+        return rows;
+    }
+
+    private static List<Object> nestedLoop(List<List<Object>> outer, List<List<Object>> inner,
+                                           int[] outerKeys, int[] innerKeys) {
+        List<Object> rows = new ArrayList<>();
+        for (List<Object> o : outer) {
+            for (List<Object> i : inner) {
+                boolean equal = true;
+                for (int k = 0; k < outerKeys.length && equal; k++) {
+                    Object a = o.get(outerKeys[k]);
+                    Object b = i.get(innerKeys[k]);
+                    equal = a != null && b != null && (a instanceof Number x && b instanceof Number y
+                            ? x.longValue() == y.longValue() : a.equals(b));
+                }
+                if (!equal) continue;
+                List<Object> row = new ArrayList<>(o);
+                row.addAll(i);
+                rows.add(row);
+            }
+        }
+        return rows;
+    }
+
+    private static List<String> sorted(List<Object> rows) {
+        return rows.stream().map(String::valueOf).sorted(Comparator.naturalOrder()).toList();
+    }
+
+    private static List<Object> drain(Executor executor) {
+        List<Object> rows = new ArrayList<>();
+        executor.open();
+        Object row;
+        while ((row = executor.next()) != null) {
+            rows.add(row);
+        }
+        executor.close();
+        return rows;
+    }
+
+    private static final class Rows implements Executor {
+        private final List<List<Object>> rows;
+        private int position;
+        int read;
+
+        Rows(List<List<Object>> rows) {
+            this.rows = rows;
+        }
+
+        @Override
+        public void open() {
+            position = 0;
+            read = 0;
+        }
+
+        @Override
+        public Object next() {
+            if (position >= rows.size()) return null;
+            read++;
+            return rows.get(position++);
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package system.execution.executors;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import system.ast.AConst;
+import system.ast.AExpr;
+import system.ast.ColumnRef;
+import system.catalog.model.ColumnDefinition;
+import system.catalog.model.IndexDefinition;
+import system.execution.tuple.TupleCodec;
+import system.execution.tuple.TupleHeader;
+import system.index.btree.BTreeIndex;
+import system.index.btree.BTreePageFileManager;
+import system.memory.buffer.BufferPoolRegistry;
+import system.memory.heap.HeapFile;
+import system.memory.manager.HeapPageFileManager;
+import system.memory.model.TupleId;
+import system.transaction.model.TransactionId;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MergeAndIndexJoinExecutorTest {
+
+    @Test
+    void mergeJoin_joinsSortedInputsLikeHashJoin() {
+        // обе стороны упорядочены по первому ключу, ключи повторяются с обеих сторон, NULL в конце
+        List<List<Object>> outer = new ArrayList<>();
+        List<List<Object>> inner = new ArrayList<>();
+        for (int i = 0; i < 600; i++) {
+            outer.add(Arrays.asList(i / 3, "o" + i % 4));
+            inner.add(Arrays.asList("i" + i, (long) (i / 2 + 50), "o" + i % 4));
+        }
+        outer.add(Arrays.asList(null, "o0"));
+        inner.add(Arrays.asList("null", null, "o0"));
+
+        List<Object> expected = drain(new HashJoinExecutor(new Rows(outer), new Rows(inner),
+                new int[]{0}, new int[]{1}));
+        assertEquals(expected, drain(new MergeJoinExecutor(new Rows(outer), new Rows(inner),
+                new int[]{0}, new int[]{1})));
+
+        // вторая пара ключей проверяется на каждой паре строк
+        List<Object> byTwo = drain(new MergeJoinExecutor(new Rows(outer), new Rows(inner),
+                new int[]{0, 1}, new int[]{1, 2}));
+        assertFalse(byTwo.isEmpty());
+        assertEquals(drain(new HashJoinExecutor(new Rows(outer), new Rows(inner), new int[]{0, 1}, new int[]{1, 2})),
+                byTwo);
+
+        // строки сравниваются в порядке индекса — по кодовым точкам
+        assertTrue(MergeJoinExecutor.compareKeys("\uFFFF", "\uD83D\uDE00") < 0);
+        assertTrue(MergeJoinExecutor.compareKeys(2, 10L) < 0);
+    }
+
+    @Test
+    void indexNestedLoopJoin_probesIndexPerOuterRow(@TempDir Path dir) {
+        HeapFile heap = HeapFile.open(new BufferPoolRegistry(16, new HeapPageFileManager()),
+                dir.resolve("8.dat").toString());
+        BTreeIndex index = new BTreeIndex(
+                new IndexDefinition(9, 8, "t_id", "btree", dir.resolve("9.dat").toString(), List.of("id")),
+                new BufferPoolRegistry(16, new BTreePageFileManager()).get(dir.resolve("9.dat"), new BTreePageFileManager()));
+        List<ColumnDefinition> columns = List.of(new ColumnDefinition(1, "id", 0), new ColumnDefinition(2, "name", 1));
+        for (int i = 0; i < 5000; i++) {
+            List<Object> values = Arrays.asList(i % 2500, "n" + i);
+            TupleId tid = heap.insert(TupleHeader.prepend(TransactionId.FROZEN, TupleCodec.encodeTagged(values)));
+            index.insert(i % 2500, tid);
+        }
+
+        List<List<Object>> outer = List.of(Arrays.asList("a", 7L), Arrays.asList("b", null),
+                Arrays.asList("c", 9999L), Arrays.asList("d", 2499));
+        IndexNestedLoopJoinExecutor join = new IndexNestedLoopJoinExecutor(new Rows(outer), index, heap, null,
+                null, columns, new int[]{1}, new int[]{0});
+        List<Object> rows = drain(join);
+        assertEquals(4, rows.size());
+        assertTrue(rows.contains(List.of("a", 7L, 7, "n7")));
+        assertTrue(rows.contains(List.of("a", 7L, 7, "n2507")));
+        assertTrue(rows.contains(List.of("d", 2499, 2499, "n4999")));
+        // строка с NULL в ключе индекс не ищет
+        assertEquals(3, join.getProbeCount());
+
+        // условие inner-таблицы отбрасывает найденные строки
+        IndexNestedLoopJoinExecutor filtered = new IndexNestedLoopJoinExecutor(new Rows(outer), index, heap, null,
+                new AExpr("=", new ColumnRef("name"), new AConst("n2507")), columns, new int[]{1}, new int[]{0});
+        assertEquals(List.of(List.of("a", 7L, 7, "n2507")), drain(filtered));
+    }
+
+    private static List<Object> drain(Executor executor) {
+        List<Object> rows = new ArrayList<>();
+        executor.open();
+        Object row;
+        while ((row = executor.next()) != null) {
+            rows.add(row);
+        }
+        executor.close();
+        return rows;
+    }
+
+    private static final class Rows implements Executor {
+        private final List<List<Object>> rows;
+        private int position;
+
+        Rows(List<List<Object>> rows) {
+            this.rows = rows;
+        }
+
+        @Override
+        public void open() {
+            position = 0;
+        }
+
+        @Override
+        public Object next() {
+            return position < rows.size() ? rows.get(position++) : null;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
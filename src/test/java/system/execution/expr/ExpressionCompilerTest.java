@@ -0,0 +1,189 @@
+package system.execution.expr;
+
+import org.junit.jupiter.api.Test;
+import system.ast.AConst;
+import system.ast.AExpr;
+import system.ast.AstNode;
+import system.ast.ColumnRef;
+import system.catalog.model.ColumnDefinition;
+import system.execution.tuple.RowBatch;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExpressionCompilerTest {
+
+    private static final List<ColumnDefinition> COLUMNS = List.of(
+            new ColumnDefinition(1, "id", 0),
+            new ColumnDefinition(2, "name", 1),
+            new ColumnDefinition(3, "flag", 2),
+            new ColumnDefinition(4, "big", 3));
+
+    @Test
+    void generatedPredicate_matchesInterpreter_andIsReusedAcrossConstants() {
+        List<List<Object>> rows = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            rows.add(Arrays.asList(i, i % 7 == 0 ? null : "n" + i % 13, i % 3 == 0, i % 5 == 0 ? null : (long) i * 2));
+        }
+        List<AExpr> conditions = List.of(
+                cmp("<", col("id"), new AConst(40)),
+                or(and(cmp(">=", new AConst(100L), col("id")), cmp("!=", col("name"), new AConst("n3"))),
+                        and(cmp("=", col("flag"), new AConst(true)), cmp(">", col("big"), col("id")))),
+                or(cmp("<=", col("name"), new AConst("n11")), cmp("=", col("missing"), new AConst(1))),
+                and(cmp("=", new AConst(1), new AConst(1)), cmp(">", col("big"), new AConst(900))));
+
+        int before = ExpressionCompiler.getGeneratedClassCount();
+        for (AExpr condition : conditions) {
+            List<Integer> expected = select(PredicateCompiler.compile(condition, COLUMNS), rows);
+            // первое выполнение формы интерпретируется, второе и дальше — сгенерированным классом
+            assertEquals(expected, select(ExpressionCompiler.compilePredicate(condition, COLUMNS), rows));
+            CompiledPredicate generated = ExpressionCompiler.compilePredicate(condition, COLUMNS);
+            assertTrue(generated.getClass().isHidden(), condition.toString());
+            assertEquals(expected, select(generated, rows));
+        }
+        int generatedClasses = ExpressionCompiler.getGeneratedClassCount();
+        assertTrue(generatedClasses - before <= conditions.size());
+
+        // та же форма с другой константой берёт готовый класс
+        AExpr sameShape = cmp("<", col("id"), new AConst(7));
+        CompiledPredicate predicate = ExpressionCompiler.compilePredicate(sameShape, COLUMNS);
+        assertEquals(generatedClasses, ExpressionCompiler.getGeneratedClassCount());
+        assertEquals(List.of(0, 1, 2, 3, 4, 5, 6), select(predicate, rows));
+    }
+
+    @Test
+    void generatedPredicate_fallsBackToInterpreter_onUnexpectedVectorTypes() {
+        AExpr condition = cmp(">", col("id"), new AConst(1));
+        ExpressionCompiler.compilePredicate(condition, COLUMNS);
+        CompiledPredicate predicate = ExpressionCompiler.compilePredicate(condition, COLUMNS);
+
+        // Integer и Long в одной колонке — вектор объектов вместо long[]
+        List<List<Object>> rows = List.of(
+                Arrays.asList(1, "a", true, 1L),
+                Arrays.asList(2L, "b", true, 2L),
+                Arrays.asList(3, "c", true, 3L));
+        assertEquals(List.of(1, 2), select(predicate, rows));
+        // колонок в пакете меньше, чем читает условие
+        assertEquals(List.of(), select(ExpressionCompiler.compilePredicate(cmp(">", col("big"), new AConst(1)), COLUMNS),
+                List.of(Arrays.asList(5))));
+    }
+
+    @Test
+    void foldedBranches_doNotLeaveConstantsInShape() {
+        List<List<Object>> rows = List.of(
+                Arrays.asList(1, "x", true, 1L),
+                Arrays.asList(2, "y", false, 2L));
+        // ветка id = 1 AND 1 = 2 сворачивается в ложь, и форма совпадает с name = 'y'
+        AExpr folded = or(cmp("=", col("name"), new AConst("x")),
+                and(cmp("=", col("id"), new AConst(1)), cmp("=", new AConst(1), new AConst(2))));
+        AExpr plain = cmp("=", col("name"), new AConst("y"));
+        for (int i = 0; i < 2; i++) {
+            assertEquals(List.of(0), select(ExpressionCompiler.compilePredicate(folded, COLUMNS), rows));
+        }
+        for (int i = 0; i < 2; i++) {
+            assertEquals(List.of(1), select(ExpressionCompiler.compilePredicate(plain, COLUMNS), rows));
+        }
+    }
+
+    @Test
+    void randomPredicates_matchInterpreter() {
+        Random random = new Random(43);
+        List<List<Object>> rows = new ArrayList<>();
+        for (int i = 0; i < 64; i++) {
+            rows.add(Arrays.asList(
+                    random.nextInt(8) == 0 ? null : random.nextInt(6),
+                    random.nextInt(8) == 0 ? null : "n" + random.nextInt(4),
+                    random.nextInt(8) == 0 ? null : random.nextBoolean(),
+                    random.nextInt(8) == 0 ? null : (long) random.nextInt(6)));
+        }
+        for (int i = 0; i < 2000; i++) {
+            AExpr condition = randomCondition(random, 3);
+            List<Integer> expected = select(PredicateCompiler.compile(condition, COLUMNS), rows);
+            // форма выполняется несколько раз, чтобы дойти до сгенерированного класса
+            for (int run = 0; run < ExpressionCompiler.GENERATE_AFTER; run++) {
+                assertEquals(expected, select(ExpressionCompiler.compilePredicate(condition, COLUMNS), rows),
+                        condition.toString());
+            }
+        }
+    }
+
+    private static final String[] OPS = {"=", "!=", "<", "<=", ">", ">="};
+
+    /**
+     * Условие над малым числом форм: часть веток сворачивается в константу, чтобы формы совпадали.
+     */
+    private static AExpr randomCondition(Random random, int depth) {
+        if (depth > 0 && random.nextInt(3) > 0) {
+            AExpr left = randomCondition(random, depth - 1);
+            AExpr right = randomCondition(random, depth - 1);
+            return random.nextBoolean() ? and(left, right) : or(left, right);
+        }
+        String op = OPS[random.nextInt(OPS.length)];
+        int kind = random.nextInt(6);
+        return switch (kind) {
+            case 0 -> cmp(op, new AConst(random.nextInt(3)), new AConst(random.nextInt(3)));
+            case 1 -> cmp(op, col("id"), col("big"));
+            case 2 -> cmp(op, new AConst("n" + random.nextInt(4)), col("name"));
+            case 3 -> cmp(op, col("flag"), new AConst(random.nextBoolean()));
+            case 4 -> cmp(op, col(random.nextBoolean() ? "id" : "big"),
+                    new AConst(random.nextInt(4) == 0 ? null : random.nextBoolean() ? random.nextInt(6) : (Object) 3L));
+            default -> cmp(op, col("name"), new AConst("n" + random.nextInt(4)));
+        };
+    }
+
+    @Test
+    void generatedProjection_buildsRowsAndScalars() {
+        int[] ordinals = {3, ExpressionCompiler.CONSTANT_TARGET, 0};
+        Object[] constants = {null, "k", null};
+        List<Object> row = Arrays.asList(1, "a", true, 10L);
+
+        assertEquals(Arrays.asList(10L, "k", 1), ExpressionCompiler.compileProjection(ordinals, constants).project(row));
+        CompiledProjection generated = ExpressionCompiler.compileProjection(ordinals, new Object[]{null, 42, null});
+        assertTrue(generated.getClass().isHidden());
+        assertEquals(Arrays.asList(10L, 42, 1), generated.project(row));
+
+        int[] single = {1};
+        ExpressionCompiler.compileProjection(single, new Object[1]);
+        assertEquals("a", ExpressionCompiler.compileProjection(single, new Object[1]).project(row));
+    }
+
+    private static ColumnRef col(String name) {
+        return new ColumnRef(name);
+    }
+
+    private static AExpr cmp(String op, Object left, Object right) {
+        return new AExpr(op, (AstNode) left, (AstNode) right);
+    }
+
+    private static AExpr and(AExpr left, AExpr right) {
+        return new AExpr("AND", left, right);
+    }
+
+    private static AExpr or(AExpr left, AExpr right) {
+        return new AExpr("OR", left, right);
+    }
+
+    /**
+     * Номера подходящих строк по пакету; построчный test() должен дать то же.
+     */
+    private static List<Integer> select(CompiledPredicate predicate, List<List<Object>> rows) {
+        RowBatch batch = new RowBatch();
+        rows.forEach(batch::appendRow);
+        int[] selected = new int[rows.size()];
+        for (int i = 0; i < selected.length; i++) selected[i] = i;
+        int count = predicate.select(batch, selected, selected.length);
+
+        List<Integer> result = new ArrayList<>();
+        List<Integer> byRow = new ArrayList<>();
+        for (int k = 0; k < count; k++) result.add(selected[k]);
+        for (int i = 0; i < rows.size(); i++) {
+            if (predicate.test(rows.get(i))) byRow.add(i);
+        }
+        assertEquals(byRow, result);
+        return result;
+    }
+}
@@ -0,0 +1,84 @@
+package system.execution.expr;
+
+import org.junit.jupiter.api.Test;
+import system.ast.AConst;
+import system.ast.AExpr;
+import system.ast.AstNode;
+import system.ast.ColumnRef;
+import system.catalog.model.ColumnDefinition;
+import system.execution.tuple.RowBatch;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PredicateCompilerTest {
+
+    private static final List<ColumnDefinition> COLUMNS = List.of(
+            new ColumnDefinition(1, "id", 0),
+            new ColumnDefinition(2, "name", 1),
+            new ColumnDefinition(3, "flag", 2),
+            new ColumnDefinition(4, "big", 3));
+
+    private static final List<List<Object>> ROWS = List.of(
+            Arrays.asList(1, "a", true, 10L),
+            Arrays.asList(2, null, false, 20L),
+            Arrays.asList(3, "c", true, null),
+            Arrays.asList(4, "d", false, 3L),
+            Arrays.asList(null, "e", null, 50L));
+
+    @Test
+    void comparisons_specializedByConstantType_keepSqlSemantics() {
+        // константа слева переворачивает оператор
+        assertEquals(List.of(0, 1), matching(cmp(">", new AConst(3L), col("id"))));
+        assertEquals(List.of(0, 2), matching(cmp("<=", col("name"), new AConst("c"))));
+        assertEquals(List.of(1, 3), matching(cmp("=", col("flag"), new AConst(false))));
+        // колонка с колонкой; NULL с любой стороны даёт ложь
+        assertEquals(List.of(0, 1), matching(cmp("<", col("id"), col("big"))));
+        assertEquals(List.of(), matching(cmp("=", col("id"), new AConst(null))));
+        assertEquals(List.of(), matching(cmp("=", col("missing"), new AConst(1))));
+        // сравнение констант вычисляется при компиляции
+        assertEquals(List.of(0, 1, 2, 3, 4), matching(cmp("!=", new AConst(1), new AConst(2))));
+    }
+
+    @Test
+    void andOr_overRowsAndBatches_agree() {
+        AExpr condition = new AExpr("OR",
+                new AExpr("AND", cmp(">=", col("id"), new AConst(2)), cmp("!=", col("name"), new AConst("d"))),
+                cmp(">", col("big"), new AConst(40)));
+
+        assertEquals(List.of(2, 4), matching(condition));
+    }
+
+    private static ColumnRef col(String name) {
+        return new ColumnRef(name);
+    }
+
+    private static AExpr cmp(String op, Object left, Object right) {
+        return new AExpr(op, (AstNode) left, (AstNode) right);
+    }
+
+    /**
+     * Номера подходящих строк; построчное и пакетное вычисление обязаны совпасть.
+     */
+    private static List<Integer> matching(AExpr condition) {
+        CompiledPredicate predicate = PredicateCompiler.compile(condition, COLUMNS);
+
+        List<Integer> byRow = new ArrayList<>();
+        for (int i = 0; i < ROWS.size(); i++) {
+            if (predicate.test(ROWS.get(i))) byRow.add(i);
+        }
+
+        RowBatch batch = new RowBatch();
+        ROWS.forEach(batch::appendRow);
+        int[] rows = {0, 1, 2, 3, 4};
+        int count = predicate.select(batch, rows, rows.length);
+        List<Integer> byBatch = new ArrayList<>();
+        for (int k = 0; k < count; k++) byBatch.add(rows[k]);
+
+        assertEquals(byRow, byBatch);
+        return byRow;
+    }
+}
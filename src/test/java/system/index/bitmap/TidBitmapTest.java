@@ -0,0 +1,90 @@
+package system.index.bitmap;
+
+import org.junit.jupiter.api.Test;
+import system.memory.model.TupleId;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TidBitmapTest {
+
+    @Test
+    void pages_comeOutInPhysicalOrder_withSortedSlots() {
+        TidBitmap bitmap = new TidBitmap();
+        // индекс отдаёт адреса в порядке ключей, а не страниц
+        for (int key = 999; key >= 0; key--) {
+            bitmap.add(new TupleId(key % 50, key / 50));
+        }
+        bitmap.add(new TupleId(7, 3));
+
+        List<TidBitmap.PageEntry> pages = bitmap.pages();
+        assertEquals(50, pages.size());
+        assertEquals(1000, bitmap.getTupleCount());
+        for (int i = 0; i < pages.size(); i++) {
+            assertEquals(i, pages.get(i).pageId());
+            int[] slots = pages.get(i).slots();
+            assertEquals(20, slots.length);
+            for (int s = 0; s < slots.length; s++) {
+                assertEquals(s, slots[s]);
+            }
+        }
+    }
+
+    @Test
+    void andOr_mergeExactAndLossyPages() {
+        TidBitmap even = new TidBitmap();
+        TidBitmap byThree = new TidBitmap();
+        for (int slot = 0; slot < 300; slot++) {
+            if (slot % 2 == 0) even.add(new TupleId(1, slot));
+            if (slot % 3 == 0) byThree.add(new TupleId(1, slot));
+        }
+        // разреженная страница остаётся массивом, плотная становится битовой картой — слияние их не различает
+        even.add(new TupleId(4, 10));
+        byThree.add(new TupleId(4, 10));
+        byThree.add(new TupleId(4, 11));
+        even.add(new TupleId(9, 0));
+        byThree.addPage(9);
+        byThree.addPage(12);
+
+        TidBitmap and = TidBitmap.and(even, byThree);
+        assertEquals(List.of(1, 4, 9), pageIds(and));
+        assertEquals(50, and.pages().get(0).slots().length);
+        assertArrayEquals(new int[]{10}, and.pages().get(1).slots());
+        // неточная страница пересекается с точной до её слотов
+        assertArrayEquals(new int[]{0}, and.pages().get(2).slots());
+        assertEquals(0, and.getLossyPageCount());
+
+        TidBitmap or = TidBitmap.or(even, byThree);
+        assertEquals(List.of(1, 4, 9, 12), pageIds(or));
+        assertEquals(200, or.pages().get(0).slots().length);
+        assertArrayEquals(new int[]{10, 11}, or.pages().get(1).slots());
+        assertTrue(or.pages().get(2).isLossy());
+        assertEquals(2, or.getLossyPageCount());
+
+        // результат не делит контейнеры с исходными картами
+        or.add(new TupleId(4, 12));
+        assertArrayEquals(new int[]{10, 11}, byThree.pages().get(1).slots());
+    }
+
+    @Test
+    void and_dropsPagesWithoutCommonSlots() {
+        TidBitmap a = new TidBitmap();
+        TidBitmap b = new TidBitmap();
+        a.add(new TupleId(3, 1));
+        b.add(new TupleId(3, 2));
+        b.add(new TupleId(5, 1));
+
+        assertTrue(TidBitmap.and(a, b).isEmpty());
+        assertEquals(2, TidBitmap.or(a, b).getPageCount());
+    }
+
+    private static List<Integer> pageIds(TidBitmap bitmap) {
+        List<Integer> ids = new ArrayList<>();
+        for (TidBitmap.PageEntry entry : bitmap.pages()) {
+            ids.add(entry.pageId());
+        }
+        return ids;
+    }
+}
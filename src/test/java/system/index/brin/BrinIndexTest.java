@@ -0,0 +1,77 @@
+package system.index.brin;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import system.catalog.model.IndexDefinition;
+import system.memory.buffer.BufferPoolManager;
+import system.memory.buffer.BufferPoolRegistry;
+import system.memory.model.TupleId;
+
+import java.nio.file.Path;
+import java.util.BitSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BrinIndexTest {
+
+    // 100 строк на страницу, ключ растёт вместе с номером страницы — как у таблицы событий
+    private static final int HEAP_PAGES = 2000;
+
+    @Test
+    void orderedInserts_letScanSkipRangesOutsideTheBounds(@TempDir Path dir) {
+        BrinIndex index = open(dir, 16);
+        for (int key = 0; key < HEAP_PAGES * 100; key++) {
+            index.insert(key, tidOf(key));
+        }
+
+        // ключи 50_000..50_099 лежат на странице 500, т.е. в диапазоне 31 (страницы 496..511)
+        BitSet pages = index.getCandidatePages(50_000, true, 50_099, true, HEAP_PAGES);
+        assertEquals(16, pages.cardinality());
+        assertEquals(496, pages.nextSetBit(0));
+
+        BitSet tail = index.getCandidatePages(HEAP_PAGES * 100 - 1, false, null, false, HEAP_PAGES);
+        assertTrue(tail.isEmpty());
+        assertEquals(HEAP_PAGES, index.getCandidatePages(null, false, null, false, HEAP_PAGES).cardinality());
+    }
+
+    @Test
+    void unsummarizedAndUnboundedRanges_areAlwaysCandidates(@TempDir Path dir) {
+        BrinIndex index = open(dir, 16);
+        index.insert(5, new TupleId(0, 0));
+        index.insert("x".repeat(BrinPage.MAX_KEY_SIZE), new TupleId(16, 0));
+
+        BitSet pages = index.getCandidatePages(100, true, 200, true, 48);
+        // диапазон 0 исключён сводкой, 1 — без границ, 2 — ещё не описан
+        assertEquals(32, pages.cardinality());
+        assertEquals(16, pages.nextSetBit(0));
+    }
+
+    @Test
+    void reopen_keepsSummariesAndPagesPerRange(@TempDir Path dir) {
+        BrinIndex index = open(dir, 4);
+        for (int key = 0; key < 10_000; key++) {
+            index.insert((long) key, tidOf(key));
+        }
+        index.getBufferPool().flushAllPages();
+
+        BrinIndex reopened = open(dir, BrinIndex.DEFAULT_PAGES_PER_RANGE);
+        assertEquals(4, reopened.getPagesPerRange());
+        BitSet pages = reopened.getCandidatePages(9_950, true, null, false, 100);
+        assertEquals(4, pages.cardinality());
+        assertEquals(96, pages.nextSetBit(0));
+    }
+
+    // каждый вызов — новый набор пулов, как после перезапуска сервера
+    private static BrinIndex open(Path dir, int pagesPerRange) {
+        Path file = dir.resolve("300.dat");
+        BufferPoolManager pool = new BufferPoolRegistry(16, new BrinPageFileManager())
+                .get(file, new BrinPageFileManager());
+        IndexDefinition definition = new IndexDefinition(300, 1, "t_ts_brin", "brin", file.toString(), List.of("ts"));
+        return new BrinIndex(definition, pool, pagesPerRange);
+    }
+
+    private static TupleId tidOf(int key) {
+        return new TupleId(key / 100, key % 100);
+    }
+}
@@ -0,0 +1,67 @@
+package system.index.btree;
+
+import system.catalog.model.IndexDefinition;
+import system.memory.buffer.BufferPoolRegistry;
+import system.memory.model.TupleId;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Пропускная способность вставок и точечных поисков B-link дерева при росте числа потоков.
+ * Не тест: запускается вручную, например
+ * java -cp build/classes/java/main:build/classes/java/test system.index.btree.BTreeIndexBenchmark 200000
+ */
+public class BTreeIndexBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int operations = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        int cores = Runtime.getRuntime().availableProcessors();
+        System.out.printf("operations=%d, cores=%d%n", operations, cores);
+        System.out.printf("%8s %16s %16s%n", "threads", "inserts/s", "lookups/s");
+
+        for (int threads = 1; threads <= Math.max(8, cores); threads *= 2) {
+            Path dir = Files.createTempDirectory("btree-bench");
+            BTreeIndex index = new BTreeIndex(
+                    new IndexDefinition(1, 1, "bench", "btree", dir.resolve("1.dat").toString(), List.of("k")),
+                    new BufferPoolRegistry(4096, new BTreePageFileManager()).get(dir.resolve("1.dat"), new BTreePageFileManager()));
+
+            int perThread = operations / threads;
+            int n = threads;
+            double inserts = run(threads, t -> {
+                for (int i = 0; i < perThread; i++) {
+                    int key = i * n + t;
+                    index.insert(key, new TupleId(key >>> 8, key & 0xFF));
+                }
+            });
+            double lookups = run(threads, t -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < perThread; i++) {
+                    int key = random.nextInt(perThread * n);
+                    index.scan(key, true, key, true);
+                }
+            });
+            System.out.printf("%8d %16.0f %16.0f%n", threads, perThread * n / inserts, perThread * n / lookups);
+        }
+    }
+
+    private interface Worker {
+        void run(int thread);
+    }
+
+    // секунды от старта до завершения последнего потока
+    private static double run(int threads, Worker worker) throws InterruptedException {
+        List<Thread> pool = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int id = t;
+            pool.add(new Thread(() -> worker.run(id)));
+        }
+        long start = System.nanoTime();
+        for (Thread thread : pool) thread.start();
+        for (Thread thread : pool) thread.join();
+        return (System.nanoTime() - start) / 1e9;
+    }
+}
@@ -0,0 +1,363 @@
+package system.index.btree;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import system.catalog.model.IndexDefinition;
+import system.execution.tuple.TupleCodec;
+import system.index.IndexEntry;
+import system.index.KeyCodec;
+import system.memory.buffer.BufferPoolManager;
+import system.memory.buffer.BufferPoolRegistry;
+import system.memory.model.TupleId;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.CyclicBarrier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BTreeIndexTest {
+
+    private static final int KEYS = 20_000;
+
+    @Test
+    void insert_splitsPages_andFindsEveryKey(@TempDir Path dir) {
+        BTreeIndex index = open(dir, 16);
+        List<Integer> keys = shuffledKeys(KEYS);
+        for (int key : keys) {
+            index.insert(key, tidOf(key));
+        }
+
+        // 20k записей по 17 байт не помещаются в одну страницу — дерево выросло хотя бы на уровень
+        assertTrue(index.getBufferPool().getPageCount() > 3);
+        for (int key = 0; key < KEYS; key += 97) {
+            assertEquals(List.of(tidOf(key)), index.scan(key, true, key, true));
+        }
+        assertTrue(index.scan(KEYS, true, KEYS, true).isEmpty());
+    }
+
+    @Test
+    void scan_returnsRangeInKeyOrder_respectingBounds(@TempDir Path dir) {
+        BTreeIndex index = open(dir, 16);
+        for (int key : shuffledKeys(KEYS)) {
+            index.insert((long) key, tidOf(key));
+        }
+
+        List<TupleId> range = index.scan(100, false, 5000, true);
+        assertEquals(4900, range.size());
+        assertEquals(tidOf(101), range.get(0));
+        assertEquals(tidOf(5000), range.get(range.size() - 1));
+
+        assertEquals(10, index.scan(null, false, 10, false).size());
+        assertEquals(5, index.scan(KEYS - 5, true, null, false).size());
+    }
+
+    @Test
+    void duplicates_spanningLeaves_areAllFound(@TempDir Path dir) {
+        BTreeIndex index = open(dir, 16);
+        for (int i = 0; i < 3000; i++) {
+            index.insert("dup", new TupleId(i, 0));
+            index.insert("a" + i, new TupleId(i, 1));
+        }
+
+        Set<TupleId> found = new HashSet<>(index.scan("dup", true, "dup", true));
+        assertEquals(3000, found.size());
+        assertTrue(found.contains(new TupleId(0, 0)));
+        assertTrue(found.contains(new TupleId(2999, 0)));
+    }
+
+    @Test
+    void bulkDelete_removesOnlyListedTids(@TempDir Path dir) {
+        BTreeIndex index = open(dir, 16);
+        for (int key = 0; key < KEYS; key++) {
+            index.insert(key, tidOf(key));
+        }
+
+        Set<TupleId> dead = new HashSet<>();
+        for (int key = 0; key < KEYS; key += 2) {
+            dead.add(tidOf(key));
+        }
+        assertEquals(KEYS / 2, index.bulkDelete(dead));
+
+        assertTrue(index.scan(10, true, 10, true).isEmpty());
+        assertEquals(List.of(tidOf(11)), index.scan(11, true, 11, true));
+        assertEquals(KEYS / 2, index.scan(null, false, null, false).size());
+    }
+
+    @Test
+    void reopen_readsTreeFromDisk(@TempDir Path dir) {
+        BTreeIndex index = open(dir, 16);
+        for (int key : shuffledKeys(5000)) {
+            index.insert(key, tidOf(key));
+        }
+        index.getBufferPool().flushAllPages();
+
+        BTreeIndex reopened = open(dir, 16);
+        assertEquals(5000, reopened.scan(null, false, null, false).size());
+        assertEquals(List.of(tidOf(4321)), reopened.scan(4321, true, 4321, true));
+    }
+
+    @Test
+    void insert_rejectsKeysThatDoNotFitIntoPage(@TempDir Path dir) {
+        BTreeIndex index = open(dir, 16);
+        String huge = "x".repeat(BTreeIndex.MAX_KEY_SIZE);
+        assertThrows(IllegalArgumentException.class, () -> index.insert(huge, new TupleId(0, 0)));
+    }
+
+    @Test
+    void concurrentInsertsAndLookups_loseNothing(@TempDir Path dir) throws Exception {
+        BTreeIndex index = open(dir, 64);
+        int threads = 8;
+        int perThread = 5000;
+        List<Throwable> errors = Collections.synchronizedList(new ArrayList<>());
+        List<Thread> workers = new ArrayList<>();
+
+        for (int t = 0; t < threads; t++) {
+            int shift = t;
+            workers.add(new Thread(() -> {
+                try {
+                    // ключи потоков перемежаются, чтобы все писали в одни и те же листья
+                    for (int i = 0; i < perThread; i++) {
+                        int key = i * threads + shift;
+                        index.insert(key, tidOf(key));
+                        if (i % 50 == 0) {
+                            assertEquals(List.of(tidOf(key)), index.scan(key, true, key, true));
+                        }
+                    }
+                } catch (Throwable e) {
+                    errors.add(e);
+                }
+            }));
+        }
+        for (Thread worker : workers) worker.start();
+        for (Thread worker : workers) worker.join();
+
+        assertTrue(errors.isEmpty(), "worker failed: " + errors);
+        List<TupleId> all = index.scan(null, false, null, false);
+        assertEquals(threads * perThread, all.size());
+        for (int key = 0; key < threads * perThread; key++) {
+            assertEquals(tidOf(key), all.get(key));
+        }
+    }
+
+    @Test
+    void concurrentRootSplits_growTreeWithoutErrors(@TempDir Path dir) throws Exception {
+        int threads = 6;
+        int perThread = 60;
+        for (int round = 0; round < 40; round++) {
+            BTreeIndex index = open(dir.resolve("r" + round), 64);
+            CyclicBarrier start = new CyclicBarrier(threads);
+            List<Throwable> errors = Collections.synchronizedList(new ArrayList<>());
+            List<Thread> workers = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int shift = t;
+                workers.add(new Thread(() -> {
+                    try {
+                        start.await();
+                        // длинные ключи: в страницу их входит немного, и корень делится, пока другие
+                        // потоки ещё делят его правого соседа
+                        for (int i = 0; i < perThread; i++) {
+                            int key = i * threads + shift;
+                            index.insert(wide(key), tidOf(key));
+                        }
+                    } catch (Throwable e) {
+                        errors.add(e);
+                    }
+                }));
+            }
+            for (Thread worker : workers) worker.start();
+            for (Thread worker : workers) worker.join();
+
+            assertTrue(errors.isEmpty(), "worker failed in round " + round + ": " + errors);
+            assertEquals(threads * perThread, index.scan(null, false, null, false).size());
+        }
+    }
+
+    @Test
+    void bulkLoad_packsSortedEntries_andStaysUsableForInserts(@TempDir Path dir) {
+        BTreeIndex index = open(dir, 16);
+        List<IndexEntry> entries = new ArrayList<>();
+        for (int key = 0; key < KEYS; key++) {
+            entries.add(new IndexEntry(KeyCodec.encode(key / 2), tidOf(key)));
+        }
+        index.bulkLoad(entries.iterator(), 100);
+
+        assertEquals(KEYS, index.scan(null, false, null, false).size());
+        assertEquals(List.of(tidOf(200), tidOf(201)), index.scan(100, true, 100, true));
+        assertEquals(20, index.scan(1000, true, 1009, true).size());
+
+        // после построения дерево работает как обычно: вставки делят плотные листья
+        for (int key = 0; key < 2000; key++) {
+            index.insert(KEYS + key, tidOf(KEYS + key));
+        }
+        assertEquals(List.of(tidOf(KEYS + 1500)), index.scan(KEYS + 1500, true, KEYS + 1500, true));
+        assertEquals(KEYS + 2000, index.scan(null, false, null, false).size());
+    }
+
+    @Test
+    void bulkLoad_fillFactorControlsPageCount(@TempDir Path dir) {
+        BTreeIndex dense = open(dir.resolve("dense"), 16);
+        BTreeIndex sparse = open(dir.resolve("sparse"), 16);
+        List<IndexEntry> entries = new ArrayList<>();
+        for (int key = 0; key < KEYS; key++) {
+            entries.add(new IndexEntry(KeyCodec.encode(key), tidOf(key)));
+        }
+        dense.bulkLoad(entries.iterator(), 100);
+        sparse.bulkLoad(entries.iterator(), 50);
+
+        int densePages = dense.getBufferPool().getPageCount();
+        int sparsePages = sparse.getBufferPool().getPageCount();
+        assertTrue(sparsePages > densePages * 3 / 2, densePages + " vs " + sparsePages);
+        assertEquals(List.of(tidOf(777)), sparse.scan(777, true, 777, true));
+        assertThrows(IllegalStateException.class, () -> dense.bulkLoad(entries.iterator(), 90));
+    }
+
+    @Test
+    void includeColumns_surviveSplitsBulkLoadAndReopen(@TempDir Path dir) {
+        BTreeIndex index = open(dir, 16);
+        List<IndexEntry> entries = new ArrayList<>();
+        for (int key = 0; key < KEYS; key += 2) {
+            entries.add(new IndexEntry(KeyCodec.encode(key), tidOf(key),
+                    TupleCodec.encodeTagged(List.of("name" + key, key * 10))));
+        }
+        index.bulkLoad(entries.iterator(), 90);
+        // нечётные ключи вставляются по одной и делят уже заполненные листья
+        for (int key = 1; key < KEYS; key += 2) {
+            index.insert(key, List.of("name" + key, key * 10), tidOf(key));
+        }
+        index.getBufferPool().flushAllPages();
+
+        BTreeIndex reopened = open(dir, 16);
+        List<IndexEntry> range = reopened.scanEntries(4999, true, 5001, true);
+        assertEquals(3, range.size());
+        for (int i = 0; i < range.size(); i++) {
+            int key = 4999 + i;
+            assertEquals(List.of((long) key), KeyCodec.decode(range.get(i).key()));
+            assertEquals(tidOf(key), range.get(i).tid());
+            assertEquals(List.of("name" + key, key * 10), TupleCodec.decodeTagged(range.get(i).include()));
+        }
+        assertEquals(List.of(tidOf(7)), reopened.scan(7, true, 7, true));
+    }
+
+    @Test
+    void compositeKeys_scanByPrefixAndRangeOnNextColumn(@TempDir Path dir) {
+        BTreeIndex index = open(dir, 16);
+        // (группа, имя, флаг): отрицательные группы и NULL в середине ключа
+        for (int key : shuffledKeys(KEYS)) {
+            int group = key / 200 - 50;
+            String name = key % 200 == 0 ? null : String.format("n%03d", key % 200);
+            index.insert(Arrays.asList(group, name, key % 2 == 0), tidOf(key));
+        }
+
+        // группа -50: ключи 0..199, NULL сортируется после всех имён
+        List<TupleId> group = index.scan(List.of(-50), true, List.of(-50), true);
+        assertEquals(200, group.size());
+        assertEquals(tidOf(0), group.get(199));
+        assertEquals(tidOf(1), group.get(0));
+
+        // group = 7 AND name > 'n190' — без строки с NULL именем
+        List<Object> prefix = Arrays.asList(7, null);
+        List<TupleId> range = index.scan(List.of(7, "n190"), false, prefix, false);
+        assertEquals(9, range.size());
+        assertEquals(tidOf(57 * 200 + 191), range.get(0));
+
+        assertEquals(List.of(tidOf(57 * 200 + 42)), index.scan(List.of(7, "n042", true), true, List.of(7, "n042", true), true));
+        assertTrue(index.scan(List.of(7, "n042", false), true, List.of(7, "n042", false), true).isEmpty());
+    }
+
+    @Test
+    void stringKeys_areStoredWithPrefixCompressionAndTruncatedSeparators(@TempDir Path dir) {
+        BTreeIndex index = open(dir, 16);
+        List<IndexEntry> entries = new ArrayList<>();
+        for (int key = 0; key < KEYS; key++) {
+            entries.add(new IndexEntry(KeyCodec.encode(url(key)), tidOf(key)));
+        }
+        index.bulkLoad(entries.iterator(), 100);
+        for (int key : shuffledKeys(2_000)) {
+            index.insert(url(key) + "/edit", tidOf(key));
+        }
+        index.getBufferPool().flushAllPages();
+
+        // без сжатия запись листа занимает 45 байт, и 22 тысячи записей заняли бы больше 120 листов
+        assertTrue(index.getBufferPool().getPageCount() < 80);
+        int root = ((BTreePage) index.getBufferPool().getPage(BTreePage.META_PAGE_ID).getPage()).getRoot();
+        BTreeNode node = ((BTreePage) index.getBufferPool().getPage(root).getPage()).readNode();
+        for (byte[] separator : node.keys) {
+            assertTrue(separator.length < KeyCodec.encode(url(0)).length);
+        }
+
+        BTreeIndex reopened = open(dir, 16);
+        for (int key = 0; key < KEYS; key += 37) {
+            assertEquals(List.of(tidOf(key)), reopened.scan(url(key), true, url(key), true));
+        }
+        assertEquals(List.of(tidOf(1999), tidOf(1999)), reopened.scan(url(1999), true, url(1999) + "/edit", true));
+    }
+
+    @Test
+    void adaptiveHash_skipsDescentForHotKeys_andForgetsSplitOrEvictedLeaves(@TempDir Path dir) {
+        BTreeIndex index = open(dir, 16);
+        for (int key = 0; key < KEYS; key += 2) {
+            index.insert(key, tidOf(key));
+        }
+        AdaptiveHashIndex hash = index.getAdaptiveHashIndex();
+
+        // лист становится горячим после нескольких спусков, дальше поиск идёт сразу в него
+        for (int i = 0; i < AdaptiveHashIndex.HOT_PAGE_SEARCHES + 10; i++) {
+            assertEquals(List.of(tidOf(5000)), index.scan(5000, true, 5000, true));
+        }
+        assertEquals(1, hash.size());
+        assertEquals(10, hash.getHits());
+        assertEquals(AdaptiveHashIndex.HOT_PAGE_SEARCHES, hash.getMisses());
+
+        // вставки рядом разделяют лист — его записи сбрасываются, а новые ключи находятся
+        for (int key = 4001; key < 6000; key += 2) {
+            index.insert(key, tidOf(key));
+        }
+        assertEquals(0, hash.size());
+        for (int i = 0; i < AdaptiveHashIndex.HOT_PAGE_SEARCHES + 1; i++) {
+            assertEquals(List.of(tidOf(5001)), index.scan(5001, true, 5001, true));
+        }
+        assertEquals(1, hash.size());
+
+        // полный просмотр вытесняет лист из пула на 16 страниц — запись сбрасывается при обращении
+        assertEquals(KEYS / 2 + 1000, index.scan(null, false, null, false).size());
+        long misses = hash.getMisses();
+        assertEquals(List.of(tidOf(5001)), index.scan(5001, true, 5001, true));
+        assertEquals(misses + 1, hash.getMisses());
+        assertEquals(0, hash.size());
+    }
+
+    private static String wide(int key) {
+        return String.format("%08d", key) + "x".repeat(600);
+    }
+
+    private static String url(int key) {
+        return String.format("https://example.com/users/%08d", key);
+    }
+
+    // каждый вызов — новый набор пулов, как после перезапуска сервера
+    private static BTreeIndex open(Path dir, int poolSize) {
+        Path file = dir.resolve("100.dat");
+        BufferPoolManager pool = new BufferPoolRegistry(poolSize, new BTreePageFileManager())
+                .get(file, new BTreePageFileManager());
+        IndexDefinition definition = new IndexDefinition(100, 1, "t_id", "btree", file.toString(), List.of("id"));
+        return new BTreeIndex(definition, pool);
+    }
+
+    private static List<Integer> shuffledKeys(int count) {
+        List<Integer> keys = new ArrayList<>();
+        for (int i = 0; i < count; i++) keys.add(i);
+        Collections.shuffle(keys, new Random(31));
+        return keys;
+    }
+
+    private static TupleId tidOf(int key) {
+        return new TupleId(key / 100, key % 100);
+    }
+}
@@ -0,0 +1,104 @@
+package system.index.hash;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import system.catalog.model.IndexDefinition;
+import system.memory.buffer.BufferPoolManager;
+import system.memory.buffer.BufferPoolRegistry;
+import system.memory.model.TupleId;
+
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HashIndexTest {
+
+    private static final int KEYS = 20_000;
+
+    @Test
+    void insert_splitsBuckets_andFindsEveryKey(@TempDir Path dir) {
+        HashIndex index = open(dir);
+        for (int key = 0; key < KEYS; key++) {
+            index.insert(key, tidOf(key));
+        }
+
+        // 20k записей при пороге 256 на корзину — корзин стало заметно больше начальных
+        assertTrue(index.getBufferPool().getPageCount() > KEYS / HashIndex.SPLIT_THRESHOLD);
+        for (int key = 0; key < KEYS; key++) {
+            assertEquals(List.of(tidOf(key)), index.scan(key, true, key, true));
+        }
+        assertTrue(index.scan(-1, true, -1, true).isEmpty());
+    }
+
+    @Test
+    void lookup_treatsIntegerAndLongKeysAlike(@TempDir Path dir) {
+        HashIndex index = open(dir);
+        index.insert(42, new TupleId(0, 1));
+        index.insert("42", new TupleId(0, 2));
+
+        assertEquals(List.of(new TupleId(0, 1)), index.scan(42L, true, 42L, true));
+        assertEquals(List.of(new TupleId(0, 2)), index.scan("42", true, "42", true));
+    }
+
+    @Test
+    void duplicates_goToOverflowPages(@TempDir Path dir) {
+        HashIndex index = open(dir);
+        for (int i = 0; i < 2000; i++) {
+            index.insert("same", new TupleId(i, 0));
+        }
+        assertEquals(2000, new HashSet<>(index.scan("same", true, "same", true)).size());
+    }
+
+    @Test
+    void bulkDelete_removesOnlyListedTids(@TempDir Path dir) {
+        HashIndex index = open(dir);
+        for (int key = 0; key < KEYS; key++) {
+            index.insert(key, tidOf(key));
+        }
+
+        Set<TupleId> dead = new HashSet<>();
+        for (int key = 0; key < KEYS; key += 2) {
+            dead.add(tidOf(key));
+        }
+        assertEquals(KEYS / 2, index.bulkDelete(dead));
+        assertTrue(index.scan(10, true, 10, true).isEmpty());
+        assertEquals(List.of(tidOf(11)), index.scan(11, true, 11, true));
+    }
+
+    @Test
+    void reopen_readsBucketsFromDisk(@TempDir Path dir) {
+        HashIndex index = open(dir);
+        for (int key = 0; key < 5000; key++) {
+            index.insert(key, tidOf(key));
+        }
+        index.getBufferPool().flushAllPages();
+
+        HashIndex reopened = open(dir);
+        assertEquals(List.of(tidOf(4321)), reopened.scan(4321, true, 4321, true));
+        reopened.insert(5000, tidOf(5000));
+        assertEquals(List.of(tidOf(5000)), reopened.scan(5000, true, 5000, true));
+    }
+
+    @Test
+    void rangeScan_isNotSupported(@TempDir Path dir) {
+        HashIndex index = open(dir);
+        assertThrows(UnsupportedOperationException.class, () -> index.scan(1, true, 10, true));
+        assertThrows(UnsupportedOperationException.class, () -> index.scan(null, false, 10, true));
+    }
+
+    // каждый вызов — новый набор пулов, как после перезапуска сервера
+    private static HashIndex open(Path dir) {
+        Path file = dir.resolve("200.dat");
+        BufferPoolManager pool = new BufferPoolRegistry(16, new HashPageFileManager())
+                .get(file, new HashPageFileManager());
+        IndexDefinition definition = new IndexDefinition(200, 1, "t_id_hash", "hash", file.toString(), List.of("id"));
+        return new HashIndex(definition, pool);
+    }
+
+    private static TupleId tidOf(int key) {
+        return new TupleId(key / 100, key % 100);
+    }
+}
@@ -0,0 +1,66 @@
+package system.index.sort;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import system.index.IndexEntry;
+import system.index.KeyCodec;
+import system.memory.model.TupleId;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExternalSorterTest {
+
+    @Test
+    void smallInput_isSortedInMemory(@TempDir Path dir) {
+        try (ExternalSorter sorter = new ExternalSorter(1024 * 1024, dir)) {
+            for (int key : List.of(5, 1, 3)) {
+                sorter.add(entry(key));
+            }
+            assertEquals(List.of(1L, 3L, 5L), keys(sorter.sorted()));
+            assertEquals(0, sorter.getRunCount());
+        }
+    }
+
+    @Test
+    void inputOverBudget_isSpilledAndMerged(@TempDir Path dir) throws Exception {
+        List<Integer> input = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) input.add(i % 2500);
+        Collections.shuffle(input, new Random(34));
+
+        try (ExternalSorter sorter = new ExternalSorter(32 * 1024, dir)) {
+            for (int i = 0; i < input.size(); i++) {
+                sorter.add(new IndexEntry(KeyCodec.encode(input.get(i)), new TupleId(i, 0)));
+            }
+            List<IndexEntry> sorted = new ArrayList<>();
+            sorter.sorted().forEachRemaining(sorted::add);
+
+            assertTrue(sorter.getRunCount() > 1);
+            assertEquals(input.size(), sorted.size());
+            for (int i = 1; i < sorted.size(); i++) {
+                assertTrue(IndexEntry.ORDER.compare(sorted.get(i - 1), sorted.get(i)) <= 0);
+            }
+        }
+        try (Stream<Path> files = Files.list(dir)) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    private static IndexEntry entry(int key) {
+        return new IndexEntry(KeyCodec.encode(key), new TupleId(key, 0));
+    }
+
+    private static List<Object> keys(Iterator<IndexEntry> entries) {
+        List<Object> keys = new ArrayList<>();
+        entries.forEachRemaining(e -> keys.add(KeyCodec.decode(e.key()).get(0)));
+        return keys;
+    }
+}
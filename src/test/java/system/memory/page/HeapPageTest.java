@@ -66,5 +66,31 @@ public class HeapPageTest {
         assertArrayEquals(y, page.read(1));
         assertArrayEquals(z, page.read(2));
     }
-}
 
+    @Test
+    void compact_keeps_slot_numbers_and_reuses_unused_slots() {
+        HeapPage page = new HeapPage(1);
+        byte[] a = new byte[]{1, 1, 1};
+        byte[] b = new byte[]{2, 2};
+        byte[] c = new byte[]{3, 3, 3, 3};
+        page.write(a);
+        page.write(b);
+        page.write(c);
+        int freeBefore = page.freeSpace();
+
+        page.markDead(1);
+        page.compact();
+        assertTrue(page.isDead(1));
+        assertArrayEquals(c, page.read(2));
+
+        page.markUnused(1);
+        page.compact();
+        assertEquals(3, page.size());
+        assertEquals(freeBefore + b.length + 4, page.freeSpace());
+        assertArrayEquals(a, page.read(0));
+        assertArrayEquals(c, page.read(2));
+
+        assertEquals(1, page.insert(new byte[]{9}));
+        assertArrayEquals(new byte[]{9}, page.read(1));
+    }
+}
@@ -4,6 +4,9 @@ import org.junit.jupiter.api.Test;
 import system.lexer.DefaultLexer;
 import system.parser.nodes.*;
 
+import java.util.List;
+import java.util.Map;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 class DefaultParserTest {
@@ -24,6 +27,40 @@ class DefaultParserTest {
         assertNotNull(select.getWhereClause())  ;
     }
 
+    @Test
+    void testWhereWithAnd() {
+        DefaultLexer lexer = new DefaultLexer();
+        DefaultParser parser = new DefaultParser();
+
+        var tokens = lexer.tokenize("SELECT name FROM users WHERE age > 18 AND 'x' = name AND active = TRUE;");
+        SelectStmt select = (SelectStmt) parser.parse(tokens);
+
+        // AND левоассоциативен: ((age > 18 AND 'x' = name) AND active = TRUE)
+        AExpr where = (AExpr) select.getWhereClause();
+        assertEquals("AND", where.getOp());
+        AExpr left = (AExpr) where.getLeft();
+        assertEquals("AND", left.getOp());
+        assertEquals(">", ((AExpr) left.getLeft()).getOp());
+        AExpr last = (AExpr) where.getRight();
+        assertEquals(true, ((AConst) last.getRight()).getValue());
+    }
+
+    @Test
+    void testWhereOrBindsWeakerThanAnd() {
+        DefaultLexer lexer = new DefaultLexer();
+        DefaultParser parser = new DefaultParser();
+
+        var tokens = lexer.tokenize("DELETE FROM users WHERE a = 1 OR b = 2 AND (c = 3 OR d = 4);");
+        DeleteStmt delete = (DeleteStmt) parser.parse(tokens);
+
+        // a = 1 OR (b = 2 AND (c = 3 OR d = 4))
+        AExpr where = (AExpr) delete.getWhereClause();
+        assertEquals("OR", where.getOp());
+        AExpr and = (AExpr) where.getRight();
+        assertEquals("AND", and.getOp());
+        assertEquals("OR", ((AExpr) and.getRight()).getOp());
+    }
+
     @Test
     void testSelectWithoutWhere() {
         DefaultLexer lexer = new DefaultLexer();
@@ -85,5 +122,68 @@ class DefaultParserTest {
         assertEquals(1, ((AConst) where.getRight()).getValue());
     }
 
+    @Test
+    void testTransactionStatements() {
+        DefaultLexer lexer = new DefaultLexer();
+        DefaultParser parser = new DefaultParser();
+
+        assertEquals(TransactionStmt.Kind.BEGIN,
+                ((TransactionStmt) parser.parse(lexer.tokenize("BEGIN;"))).getKind());
+        assertEquals(TransactionStmt.Kind.COMMIT,
+                ((TransactionStmt) parser.parse(lexer.tokenize("commit transaction;"))).getKind());
+        assertEquals(TransactionStmt.Kind.ROLLBACK,
+                ((TransactionStmt) parser.parse(lexer.tokenize("ROLLBACK"))).getKind());
+    }
+
+    @Test
+    void testCreateIndex() {
+        DefaultLexer lexer = new DefaultLexer();
+        DefaultParser parser = new DefaultParser();
 
+        CreateIndexStmt stmt = (CreateIndexStmt) parser.parse(lexer.tokenize("CREATE INDEX users_id ON users (id);"));
+        assertEquals("users_id", stmt.getIndexName());
+        assertEquals("users", stmt.getTableName());
+        assertEquals("btree", stmt.getMethod());
+        assertEquals(List.of("id"), stmt.getColumns());
+        assertEquals(List.of(), stmt.getIncludeColumns());
+        assertNull(stmt.getFillFactor());
+
+        stmt = (CreateIndexStmt) parser.parse(lexer.tokenize("create index u_name on users using BTREE (name) with (fillfactor = 70)"));
+        assertEquals("btree", stmt.getMethod());
+        assertEquals(70, stmt.getFillFactor());
+
+        stmt = (CreateIndexStmt) parser.parse(lexer.tokenize("CREATE INDEX u_cover ON users (id) INCLUDE (name, age)"));
+        assertEquals(List.of("id"), stmt.getColumns());
+        assertEquals(List.of("name", "age"), stmt.getIncludeColumns());
+
+        stmt = (CreateIndexStmt) parser.parse(lexer.tokenize("CREATE INDEX e_ts ON events USING brin (ts) WITH (pages_per_range = 32)"));
+        assertEquals("brin", stmt.getMethod());
+        assertEquals(Map.of("pages_per_range", 32), stmt.getOptions());
+        assertNull(stmt.getFillFactor());
+    }
+
+    @Test
+    void testSelectWithJoin() {
+        DefaultLexer lexer = new DefaultLexer();
+        DefaultParser parser = new DefaultParser();
+
+        var tokens = lexer.tokenize("SELECT e.name, d.title FROM emp e JOIN dept d ON e.dept = d.id "
+                + "INNER JOIN loc ON loc.dept_id = d.id, extra WHERE e.age > 18;");
+        SelectStmt select = (SelectStmt) parser.parse(tokens);
+
+        assertEquals(4, select.getFromClause().size());
+        assertEquals("emp", select.getFromClause().get(0).getRelName());
+        assertEquals("e", select.getFromClause().get(0).getAlias());
+        assertEquals("loc", select.getFromClause().get(2).getRelName());
+        assertNull(select.getFromClause().get(2).getAlias());
+        assertEquals("extra", select.getFromClause().get(3).getRelName());
+
+        // условия ON идут в WHERE перед условием самого WHERE: e.dept = d.id AND (loc.dept_id = d.id AND e.age > 18)
+        AExpr where = (AExpr) select.getWhereClause();
+        assertEquals("AND", where.getOp());
+        assertEquals("e.dept", ((ColumnRef) ((AExpr) where.getLeft()).getLeft()).getName());
+        AExpr rest = (AExpr) where.getRight();
+        assertEquals("loc.dept_id", ((ColumnRef) ((AExpr) rest.getLeft()).getLeft()).getName());
+        assertEquals(">", ((AExpr) rest.getRight()).getOp());
+    }
 }
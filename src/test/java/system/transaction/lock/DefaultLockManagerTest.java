@@ -0,0 +1,158 @@
+package system.transaction.lock;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DefaultLockManagerTest {
+
+    private static final LockTag ROW_A = LockTag.row(100, 0, 1);
+    private static final LockTag ROW_B = LockTag.row(100, 0, 2);
+
+    @Test
+    void sharedLocks_areCompatible_exclusiveConflicts() {
+        DefaultLockManager lm = new DefaultLockManager();
+
+        assertTrue(lm.tryLock(10, ROW_A, LockMode.SHARED));
+        assertTrue(lm.tryLock(11, ROW_A, LockMode.SHARED));
+        assertFalse(lm.tryLock(12, ROW_A, LockMode.EXCLUSIVE));
+
+        lm.releaseAll(10);
+        lm.releaseAll(11);
+        assertTrue(lm.tryLock(12, ROW_A, LockMode.EXCLUSIVE));
+        assertTrue(lm.holds(12, ROW_A, LockMode.SHARED));
+    }
+
+    @Test
+    void waiter_isGrantedAfterRelease() throws Exception {
+        DefaultLockManager lm = new DefaultLockManager();
+        lm.lock(10, ROW_A, LockMode.EXCLUSIVE);
+
+        CountDownLatch acquired = new CountDownLatch(1);
+        Thread waiter = new Thread(() -> {
+            lm.lock(11, ROW_A, LockMode.EXCLUSIVE);
+            acquired.countDown();
+        });
+        waiter.start();
+
+        assertFalse(acquired.await(100, TimeUnit.MILLISECONDS));
+        lm.releaseAll(10);
+        assertTrue(acquired.await(2, TimeUnit.SECONDS));
+        assertTrue(lm.holds(11, ROW_A, LockMode.EXCLUSIVE));
+        waiter.join();
+    }
+
+    @Test
+    void deadlock_youngestTransactionIsVictim() throws Exception {
+        DefaultLockManager lm = new DefaultLockManager();
+        DeadlockDetector detector = new DeadlockDetector(lm);
+
+        lm.lock(10, ROW_A, LockMode.EXCLUSIVE);
+        lm.lock(11, ROW_B, LockMode.EXCLUSIVE);
+
+        AtomicReference<Throwable> olderError = new AtomicReference<>();
+        AtomicReference<Throwable> youngerError = new AtomicReference<>();
+
+        Thread older = new Thread(() -> {
+            try {
+                lm.lock(10, ROW_B, LockMode.EXCLUSIVE);
+            } catch (Throwable t) {
+                olderError.set(t);
+            }
+        });
+        Thread younger = new Thread(() -> {
+            try {
+                lm.lock(11, ROW_A, LockMode.EXCLUSIVE);
+            } catch (Throwable t) {
+                youngerError.set(t);
+                lm.releaseAll(11);
+            }
+        });
+        older.start();
+        younger.start();
+
+        List<Integer> victims = List.of();
+        for (int i = 0; i < 200 && victims.isEmpty(); i++) {
+            Thread.sleep(10);
+            victims = detector.detect();
+        }
+
+        assertEquals(List.of(11), victims);
+        younger.join(2000);
+        older.join(2000);
+        assertTrue(youngerError.get() instanceof DeadlockDetectedException);
+        assertNull(olderError.get());
+        assertTrue(lm.holds(10, ROW_B, LockMode.EXCLUSIVE));
+    }
+
+    @Test
+    void concurrentUpgrades_oneVictim_survivorGoesAheadOfQueuedWriter() throws Exception {
+        DefaultLockManager lm = new DefaultLockManager();
+        DeadlockDetector detector = new DeadlockDetector(lm);
+        lm.lock(10, ROW_A, LockMode.SHARED);
+        lm.lock(11, ROW_A, LockMode.SHARED);
+
+        CountDownLatch writerGranted = new CountDownLatch(1);
+        Thread writer = new Thread(() -> {
+            lm.lock(12, ROW_A, LockMode.EXCLUSIVE);
+            writerGranted.countDown();
+        });
+        writer.start();
+        awaitWaiting(lm, 12);
+
+        AtomicReference<Throwable> olderError = new AtomicReference<>();
+        AtomicReference<Throwable> youngerError = new AtomicReference<>();
+        Thread older = new Thread(() -> {
+            try {
+                lm.lock(10, ROW_A, LockMode.EXCLUSIVE);
+            } catch (Throwable t) {
+                olderError.set(t);
+            }
+        });
+        Thread younger = new Thread(() -> {
+            try {
+                lm.lock(11, ROW_A, LockMode.EXCLUSIVE);
+            } catch (Throwable t) {
+                youngerError.set(t);
+                lm.releaseAll(11);
+            }
+        });
+        older.start();
+        younger.start();
+        awaitWaiting(lm, 10);
+        awaitWaiting(lm, 11);
+
+        // повышения стоят впереди писателя: ждут только друг друга, и снимать нужно одного
+        assertEquals(List.of(11), detector.detect());
+        younger.join(2000);
+        older.join(2000);
+        assertTrue(youngerError.get() instanceof DeadlockDetectedException);
+        assertNull(olderError.get());
+        assertTrue(lm.holds(10, ROW_A, LockMode.EXCLUSIVE));
+        assertEquals(List.of(), detector.detect());
+
+        assertFalse(writerGranted.await(50, TimeUnit.MILLISECONDS));
+        lm.releaseAll(10);
+        assertTrue(writerGranted.await(2, TimeUnit.SECONDS));
+        writer.join();
+    }
+
+    // ждать, пока транзакция встанет в очередь блокировки
+    private static void awaitWaiting(DefaultLockManager lm, int xid) throws InterruptedException {
+        for (int i = 0; i < 200; i++) {
+            for (DefaultLockManager.Partition partition : lm.partitions) partition.mutex.lock();
+            try {
+                if (lm.buildWaitForGraph().containsKey(xid)) return;
+            } finally {
+                for (int p = lm.partitions.length - 1; p >= 0; p--) lm.partitions[p].mutex.unlock();
+            }
+            Thread.sleep(10);
+        }
+        fail("transaction " + xid + " never started waiting");
+    }
+}
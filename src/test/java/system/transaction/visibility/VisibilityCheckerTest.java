@@ -0,0 +1,132 @@
+package system.transaction.visibility;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import system.catalog.model.TableDefinition;
+import system.execution.executors.SeqScanExecutor;
+import system.execution.tuple.Row;
+import system.execution.tuple.RowBatch;
+import system.execution.tuple.TupleCodec;
+import system.execution.tuple.TupleHeader;
+import system.memory.buffer.BufferPoolRegistry;
+import system.memory.heap.HeapFile;
+import system.memory.manager.HeapPageFileManager;
+import system.transaction.clog.DefaultCommitLog;
+import system.transaction.manager.DefaultTransactionManager;
+import system.transaction.manager.TransactionManager;
+import system.transaction.model.Transaction;
+import system.transaction.model.TransactionId;
+import system.transaction.model.TransactionStatus;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VisibilityCheckerTest {
+
+    @Test
+    void ownInsert_visible_othersUncommitted_invisible(@TempDir Path dir) {
+        TransactionManager tm = new DefaultTransactionManager(new DefaultCommitLog(dir.resolve("clog.dat")));
+
+        Transaction writer = tm.begin();
+        Transaction reader = tm.begin();
+        TupleHeader inserted = new TupleHeader(writer.getXid(), TransactionId.INVALID);
+
+        assertTrue(new VisibilityChecker(tm, writer).isVisible(inserted));
+        assertFalse(new VisibilityChecker(tm, reader).isVisible(inserted));
+
+        tm.commit(writer);
+        // снимок reader взят до коммита writer — версия всё ещё не видна
+        assertFalse(new VisibilityChecker(tm, reader).isVisible(inserted));
+
+        Transaction later = tm.begin();
+        assertTrue(new VisibilityChecker(tm, later).isVisible(inserted));
+    }
+
+    @Test
+    void abortedInsert_isNeverVisible(@TempDir Path dir) {
+        TransactionManager tm = new DefaultTransactionManager(new DefaultCommitLog(dir.resolve("clog.dat")));
+
+        Transaction writer = tm.begin();
+        TupleHeader inserted = new TupleHeader(writer.getXid(), TransactionId.INVALID);
+        tm.abort(writer);
+
+        Transaction reader = tm.begin();
+        assertFalse(new VisibilityChecker(tm, reader).isVisible(inserted));
+        assertEquals(TransactionStatus.ABORTED, tm.getStatus(writer.getXid()));
+    }
+
+    @Test
+    void deletedVersion_disappearsOnlyAfterDeleterCommits(@TempDir Path dir) {
+        TransactionManager tm = new DefaultTransactionManager(new DefaultCommitLog(dir.resolve("clog.dat")));
+
+        Transaction deleter = tm.begin();
+        TupleHeader deleted = new TupleHeader(TransactionId.FROZEN, deleter.getXid());
+
+        Transaction reader = tm.begin();
+        assertFalse(new VisibilityChecker(tm, deleter).isVisible(deleted));
+        assertTrue(new VisibilityChecker(tm, reader).isVisible(deleted));
+
+        tm.commit(deleter);
+        assertTrue(new VisibilityChecker(tm, reader).isVisible(deleted));
+        assertFalse(new VisibilityChecker(tm, tm.begin()).isVisible(deleted));
+    }
+
+    @Test
+    void statusesAndXids_surviveRestart(@TempDir Path dir) {
+        Path clog = dir.resolve("clog.dat");
+        TransactionManager tm = new DefaultTransactionManager(new DefaultCommitLog(clog));
+
+        Transaction committed = tm.begin();
+        Transaction crashed = tm.begin();
+        tm.commit(committed);
+
+        TransactionManager restarted = new DefaultTransactionManager(new DefaultCommitLog(clog));
+
+        assertEquals(TransactionStatus.COMMITTED, restarted.getStatus(committed.getXid()));
+        assertEquals(TransactionStatus.ABORTED, restarted.getStatus(crashed.getXid()));
+        assertTrue(restarted.begin().getXid() > crashed.getXid());
+    }
+
+    @Test
+    void seqScan_returnsOnlyVisibleVersions(@TempDir Path dir) {
+        TransactionManager tm = new DefaultTransactionManager(new DefaultCommitLog(dir.resolve("clog.dat")));
+        TableDefinition table = new TableDefinition(7, "t", "USER", dir.resolve("7.dat").toString(), 0);
+        HeapFile heap = HeapFile.open(new BufferPoolRegistry(4, new HeapPageFileManager()), table.getFileNode());
+
+        Transaction committed = tm.begin();
+        Transaction running = tm.begin();
+        Transaction aborted = tm.begin();
+        heap.insert(TupleHeader.prepend(committed.getXid(), TupleCodec.encodeTagged(List.of(1))));
+        heap.insert(TupleHeader.prepend(running.getXid(), TupleCodec.encodeTagged(List.of(2))));
+        heap.insert(TupleHeader.prepend(aborted.getXid(), TupleCodec.encodeTagged(List.of(3))));
+        tm.commit(committed);
+        tm.abort(aborted);
+
+        Transaction reader = tm.begin();
+        heap.insert(TupleHeader.prepend(reader.getXid(), TupleCodec.encodeTagged(List.of(4))));
+        VisibilityChecker visibility = new VisibilityChecker(tm, reader);
+
+        // видны зафиксированная версия и своя; незавершённая и прерванная — нет
+        List<Object> rows = new ArrayList<>();
+        SeqScanExecutor scan = new SeqScanExecutor(heap.getBufferPool(), table, visibility);
+        scan.open();
+        Object row;
+        while ((row = scan.next()) != null) {
+            // скан переиспользует строку между вызовами next()
+            rows.add(((Row) row).copy());
+        }
+        scan.close();
+        assertEquals(List.of(List.of(1), List.of(4)), rows);
+
+        List<Object> batched = new ArrayList<>();
+        scan = new SeqScanExecutor(heap.getBufferPool(), table, visibility);
+        scan.open();
+        RowBatch batch;
+        while ((batch = scan.nextBatch()) != null) batch.addRowsTo(batched);
+        scan.close();
+        assertEquals(rows, batched);
+    }
+}
@@ -0,0 +1,184 @@
+package system.vacuum;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import system.catalog.model.TableDefinition;
+import system.execution.tuple.TupleHeader;
+import system.memory.buffer.BufferPoolRegistry;
+import system.memory.heap.HeapFile;
+import system.memory.manager.HeapPageFileManager;
+import system.memory.model.TupleId;
+import system.transaction.clog.DefaultCommitLog;
+import system.transaction.lock.DefaultLockManager;
+import system.transaction.lock.LockMode;
+import system.transaction.lock.LockTag;
+import system.transaction.manager.DefaultTransactionManager;
+import system.transaction.manager.TransactionManager;
+import system.transaction.model.Transaction;
+import system.transaction.model.TransactionId;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DefaultVacuumManagerTest {
+
+    private static final int ROWS = 300;
+
+    @Test
+    void vacuum_removesDeadTuples_andTruncatesEmptyTail(@TempDir Path dir) {
+        Env env = new Env(dir);
+        List<TupleId> tids = env.insertCommitted(ROWS);
+        int pagesBefore = env.heap.getBufferPool().getPageCount();
+        assertTrue(pagesBefore > 2);
+
+        // удаляем всё, кроме первых 10 строк: хвостовые страницы становятся пустыми
+        env.deleteCommitted(tids.subList(10, ROWS));
+
+        VacuumResult result = env.vacuum.vacuum(env.table);
+
+        assertEquals(ROWS - 10, result.removedTuples());
+        assertEquals(10, result.liveTuples());
+        assertTrue(result.truncatedPages() > 0);
+        assertEquals(pagesBefore - result.truncatedPages(), env.heap.getBufferPool().getPageCount());
+        assertEquals(0, env.stats.getDeadTuples(env.table.getOid()));
+    }
+
+    @Test
+    void vacuum_keepsVersionsVisibleToRunningSnapshots(@TempDir Path dir) {
+        Env env = new Env(dir);
+        List<TupleId> tids = env.insertCommitted(20);
+
+        Transaction oldReader = env.tm.begin();
+        env.deleteCommitted(tids);
+
+        assertEquals(0, env.vacuum.vacuum(env.table).removedTuples());
+
+        env.tm.commit(oldReader);
+        assertEquals(20, env.vacuum.vacuum(env.table).removedTuples());
+    }
+
+    @Test
+    void vacuum_skipsTruncation_whenTableIsLocked(@TempDir Path dir) {
+        Env env = new Env(dir);
+        List<TupleId> tids = env.insertCommitted(ROWS);
+        env.deleteCommitted(tids);
+
+        Transaction reader = env.tm.begin();
+        env.locks.lock(reader.getXid(), LockTag.relation(env.table.getOid()), LockMode.SHARED);
+
+        VacuumResult result = env.vacuum.vacuum(env.table);
+        assertEquals(ROWS, result.removedTuples());
+        assertEquals(0, result.truncatedPages());
+
+        env.locks.releaseAll(reader.getXid());
+        env.tm.commit(reader);
+    }
+
+    @Test
+    void freedSpace_isReusedByInsert(@TempDir Path dir) {
+        Env env = new Env(dir);
+        List<TupleId> tids = env.insertCommitted(ROWS);
+        env.deleteCommitted(tids.subList(0, 20));
+        env.vacuum.vacuum(env.table);
+
+        int pages = env.heap.getBufferPool().getPageCount();
+        TupleId reused = env.insertCommitted(1).get(0);
+
+        assertEquals(0, reused.pageId());
+        assertEquals(pages, env.heap.getBufferPool().getPageCount());
+    }
+
+    @Test
+    void autovacuum_triggersOnDeadTupleThreshold(@TempDir Path dir) {
+        Env env = new Env(dir);
+        List<TupleId> tids = env.insertCommitted(100);
+        PendingTupleCounts inserted = new PendingTupleCounts();
+        for (int i = 0; i < 100; i++) inserted.inserted(env.table.getOid());
+        env.stats.onCommit(inserted);
+
+        AutovacuumDaemon daemon = new AutovacuumDaemon(null, env.stats, env.vacuum);
+        assertFalse(daemon.needsVacuum(env.table));
+
+        env.deleteCommitted(tids.subList(0, 80));
+        PendingTupleCounts deleted = new PendingTupleCounts();
+        for (int i = 0; i < 80; i++) deleted.deleted(env.table.getOid());
+        env.stats.onCommit(deleted);
+
+        // 80 > 50 + 0.2 * 20
+        assertTrue(daemon.needsVacuum(env.table));
+        env.vacuum.vacuum(env.table);
+        assertFalse(daemon.needsVacuum(env.table));
+    }
+
+    @Test
+    void visibilityMap_letsVacuumSkipCleanPages_untilTheyChange(@TempDir Path dir) {
+        Env env = new Env(dir);
+        env.insertCommitted(ROWS);
+        int pages = env.heap.getBufferPool().getPageCount();
+
+        VacuumResult first = env.vacuum.vacuum(env.table);
+        assertEquals(0, first.skippedPages());
+        for (int pageId = 0; pageId < pages; pageId++) {
+            assertTrue(env.heap.getVisibilityMap().isAllVisible(pageId));
+            // вставки свежие — обычный VACUUM их ещё не замораживает
+            assertFalse(env.heap.getVisibilityMap().isAllFrozen(pageId));
+        }
+
+        TupleId changed = env.insertCommitted(1).get(0);
+        assertFalse(env.heap.getVisibilityMap().isAllVisible(changed.pageId()));
+
+        VacuumResult second = env.vacuum.vacuum(env.table);
+        assertEquals(pages - 1, second.skippedPages());
+        assertEquals(1, second.scannedPages());
+    }
+
+    @Test
+    void vacuumFreeze_freezesVisibleVersions(@TempDir Path dir) {
+        Env env = new Env(dir);
+        List<TupleId> tids = env.insertCommitted(10);
+
+        env.vacuum.vacuum(env.table, true);
+
+        assertTrue(env.heap.getVisibilityMap().isAllFrozen(0));
+        assertEquals(TransactionId.FROZEN, TupleHeader.read(env.heap.fetch(tids.get(0))).getXmin());
+        assertEquals(1, env.vacuum.vacuum(env.table, true).skippedPages());
+    }
+
+    private static final class Env {
+        final TransactionManager tm;
+        final DefaultLockManager locks = new DefaultLockManager();
+        final BufferPoolRegistry pools = new BufferPoolRegistry(16, new HeapPageFileManager());
+        final TableStats stats = new TableStats();
+        final TableDefinition table;
+        final HeapFile heap;
+        final DefaultVacuumManager vacuum;
+
+        Env(Path dir) {
+            tm = new DefaultTransactionManager(new DefaultCommitLog(dir.resolve("clog.dat")));
+            table = new TableDefinition(7, "t", "USER", dir.resolve("7.dat").toString(), 0);
+            heap = HeapFile.open(pools, table.getFileNode());
+            vacuum = new DefaultVacuumManager(tm, locks, pools, stats);
+        }
+
+        List<TupleId> insertCommitted(int count) {
+            Transaction tx = tm.begin();
+            List<TupleId> tids = new ArrayList<>();
+            for (int i = 0; i < count; i++) {
+                tids.add(heap.insert(TupleHeader.prepend(tx.getXid(), new byte[100])));
+            }
+            tm.commit(tx);
+            return tids;
+        }
+
+        void deleteCommitted(List<TupleId> tids) {
+            Transaction tx = tm.begin();
+            for (TupleId tid : tids) {
+                heap.setXmax(tid, tx.getXid());
+            }
+            tm.commit(tx);
+        }
+    }
+}